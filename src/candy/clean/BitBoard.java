@@ -0,0 +1,476 @@
+package candy.clean;
+
+import java.util.Arrays;
+
+/**
+ * Representation of the board with one set of bits per color, used to find the connected blocks with word operations
+ * instead of comparing the blocks one by one.
+ *
+ * <p>The bit of a cell is <code>row * (columns + 1) + column</code>. The extra bit of every row is never set in any
+ * color, so shifting a set one bit to the left or to the right and keeping only the bits of a color never joins the
+ * last block of a row with the first block of the next one.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class BitBoard {
+
+	/**
+	 * Number of rows of the board.
+	 */
+	private final int rows;
+
+	/**
+	 * Number of columns of the board.
+	 */
+	private final int columns;
+
+	/**
+	 * Bits of a row (the columns plus the extra bit).
+	 */
+	private final int width;
+
+	/**
+	 * Number of words of a set.
+	 */
+	private final int words;
+
+	/**
+	 * Cells of every color, indexed by the ordinal of the {@link BackgroundColor}.
+	 */
+	private final long[][] colors;
+
+	/**
+	 * Special blocks of every type of explosion.
+	 */
+	private final long[][] specials;
+
+	/**
+	 * Cells of every row.
+	 */
+	private final long[][] rowMasks;
+
+	/**
+	 * Cells of every column.
+	 */
+	private final long[][] columnMasks;
+
+	/**
+	 * All the cells of the board.
+	 */
+	private final long[] boardMask;
+
+	/**
+	 * Set used while growing a region.
+	 */
+	private final long[] grown;
+
+	/**
+	 * Special blocks already exploded while computing an explosion.
+	 */
+	private final long[] exploded;
+
+	/**
+	 * Version of the grid loaded in the sets, -1 if nothing has been loaded yet.
+	 */
+	private long version;
+
+	/**
+	 * Class constructor of an empty bit board.
+	 *
+	 * @param rows    Number of rows.
+	 * @param columns Number of columns.
+	 */
+	public BitBoard(int rows, int columns) {
+		this.rows = rows;
+		this.columns = columns;
+		this.width = columns + 1;
+		this.words = (rows * this.width + Long.SIZE - 1) / Long.SIZE;
+		this.colors = new long[BackgroundColor.values().length][this.words];
+		this.specials = new long[PackedGrid.TYPE_MASK + 1][this.words];
+		this.rowMasks = new long[rows][this.words];
+		this.columnMasks = new long[columns][this.words];
+		this.boardMask = new long[this.words];
+		this.grown = new long[this.words];
+		this.exploded = new long[this.words];
+		this.version = -1;
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < columns; j++) {
+				int bit = this.bit(i, j);
+				setBit(this.rowMasks[i], bit);
+				setBit(this.columnMasks[j], bit);
+				setBit(this.boardMask, bit);
+			}
+		}
+	}
+
+	/**
+	 * Loads the cells of a grid with the same dimensions.
+	 *
+	 * @param grid The grid to load.
+	 */
+	public void load(PackedGrid grid) {
+		for (long[] color : this.colors) {
+			Arrays.fill(color, 0);
+		}
+
+		for (long[] special : this.specials) {
+			Arrays.fill(special, 0);
+		}
+
+		for (int i = 0; i < this.rows; i++) {
+			for (int j = 0; j < this.columns; j++) {
+				byte cell = grid.get(grid.index(i, j));
+				int bit = this.bit(i, j);
+				setBit(this.colors[PackedGrid.colorOf(cell)], bit);
+
+				if (PackedGrid.isSpecial(cell)) {
+					setBit(this.specials[PackedGrid.typeOf(cell)], bit);
+				}
+			}
+		}
+
+		this.version = grid.getVersion();
+	}
+
+	/**
+	 * Returns the version of the grid loaded in the sets.
+	 *
+	 * @return The version of the loaded grid, -1 if nothing has been loaded.
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Creates an empty set with the size of this board.
+	 *
+	 * @return An empty set.
+	 */
+	public long[] newSet() {
+		return new long[this.words];
+	}
+
+	/**
+	 * Returns the bit of a cell.
+	 *
+	 * @param row    Row of the cell.
+	 * @param column Column of the cell.
+	 *
+	 * @return Position of the cell in the sets.
+	 */
+	public int bit(int row, int column) {
+		return row * this.width + column;
+	}
+
+	/**
+	 * Returns the row of a bit.
+	 *
+	 * @param bit Position of the cell in the sets.
+	 *
+	 * @return Row of the cell.
+	 */
+	public int rowOf(int bit) {
+		return bit / this.width;
+	}
+
+	/**
+	 * Returns the column of a bit.
+	 *
+	 * @param bit Position of the cell in the sets.
+	 *
+	 * @return Column of the cell.
+	 */
+	public int columnOf(int bit) {
+		return bit % this.width;
+	}
+
+	/**
+	 * Verifies if a block has any block with the same color at its left, right, top or bottom, or if it is a special
+	 * block. An empty spot can't be shot.
+	 *
+	 * @param row    Row of the block.
+	 * @param column Column of the block.
+	 *
+	 * @return <code>true</code> if the block can be shot, <code>false</code> otherwise.
+	 */
+	public boolean hasSurroundingBlocks(int row, int column) {
+		int bit = this.bit(row, column);
+		int colorIndex = this.colorAt(bit);
+
+		if (colorIndex == 0) {
+			return false;
+		}
+
+		long[] color = this.colors[colorIndex];
+
+		return testBit(color, bit + 1) || testBit(color, bit - 1) || testBit(color, bit + this.width) ||
+				testBit(color, bit - this.width) || this.isSpecial(bit);
+	}
+
+	/**
+	 * Finds the blocks connected to the selected one with its same color, growing the set one step in the four directions
+	 * until it doesn't change.
+	 *
+	 * @param row    Row of the selected block.
+	 * @param column Column of the selected block.
+	 * @param region Set where the connected blocks are stored.
+	 *
+	 * @return Number of connected blocks (the selected one included).
+	 */
+	public int region(int row, int column, long[] region) {
+		int bit = this.bit(row, column);
+		long[] color = this.colors[this.colorAt(bit)];
+		boolean changed = true;
+
+		Arrays.fill(region, 0);
+		setBit(region, bit);
+
+		while (changed) {
+			changed = false;
+
+			for (int i = 0; i < this.words; i++) {
+				long neighbours = shiftedWord(region, i, 1) | shiftedWord(region, i, -1) |
+						shiftedWord(region, i, this.width) | shiftedWord(region, i, -this.width);
+
+				this.grown[i] = (region[i] | neighbours) & color[i];
+			}
+
+			for (int i = 0; i < this.words; i++) {
+				if (this.grown[i] != region[i]) {
+					region[i] = this.grown[i];
+					changed = true;
+				}
+			}
+		}
+
+		return count(region);
+	}
+
+	/**
+	 * Computes the cells removed when a special block explodes, including the explosions of the special blocks reached by
+	 * it. Every special block explodes once.
+	 *
+	 * @param row       Row of the special block.
+	 * @param column    Column of the special block.
+	 * @param explosion Set where the removed cells are stored.
+	 *
+	 * @return Number of removed cells (empty cells included).
+	 */
+	public int explosion(int row, int column, long[] explosion) {
+		int start = this.bit(row, column);
+		boolean found = true;
+
+		Arrays.fill(explosion, 0);
+		Arrays.fill(this.exploded, 0);
+		setBit(this.exploded, start);
+		this.addExplosion(start, this.typeAt(start), explosion);
+
+		while (found) {
+			found = false;
+
+			for (int type = 0; type < this.specials.length; type++) {
+				long[] special = this.specials[type];
+
+				for (int i = 0; i < this.words; i++) {
+					long hits = explosion[i] & special[i] & ~this.exploded[i];
+
+					while (hits != 0) {
+						int bit = i * Long.SIZE + Long.numberOfTrailingZeros(hits);
+						hits &= hits - 1;
+						setBit(this.exploded, bit);
+						this.addExplosion(bit, type, explosion);
+						found = true;
+					}
+				}
+			}
+		}
+
+		return count(explosion);
+	}
+
+	/**
+	 * Adds to a set the cells removed by a single special block.
+	 *
+	 * @param bit       Position of the special block.
+	 * @param type      Type of the explosion.
+	 * @param explosion Set where the removed cells are added.
+	 */
+	private void addExplosion(int bit, int type, long[] explosion) {
+		switch (type) {
+			case Constants.ROW_TYPE:
+				or(explosion, this.rowMasks[this.rowOf(bit)]);
+				break;
+			case Constants.COLUMN_TYPE:
+				or(explosion, this.columnMasks[this.columnOf(bit)]);
+				break;
+			case Constants.ROW_COLUMN_TYPE:
+				or(explosion, this.rowMasks[this.rowOf(bit)]);
+				or(explosion, this.columnMasks[this.columnOf(bit)]);
+				break;
+			case Constants.ALL_BOARD_TYPE:
+				or(explosion, this.boardMask);
+				break;
+			default:
+				setBit(explosion, bit);
+				break;
+		}
+	}
+
+	/**
+	 * Returns the color of a cell.
+	 *
+	 * @param bit Position of the cell.
+	 *
+	 * @return Ordinal of the color of the cell.
+	 */
+	private int colorAt(int bit) {
+		for (int i = 1; i < this.colors.length; i++) {
+			if (testBit(this.colors[i], bit)) {
+				return i;
+			}
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Returns the type of a special block.
+	 *
+	 * @param bit Position of the block.
+	 *
+	 * @return Type of the explosion.
+	 */
+	private int typeAt(int bit) {
+		for (int i = 0; i < this.specials.length; i++) {
+			if (testBit(this.specials[i], bit)) {
+				return i;
+			}
+		}
+
+		return Constants.NORMAL_TYPE;
+	}
+
+	/**
+	 * Checks if a cell is a special block.
+	 *
+	 * @param bit Position of the cell.
+	 *
+	 * @return <code>true</code> if the cell is a special block, <code>false</code> otherwise.
+	 */
+	private boolean isSpecial(int bit) {
+		for (long[] special : this.specials) {
+			if (testBit(special, bit)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Checks if a bit is set. Bits outside the set are never set.
+	 *
+	 * @param set The set.
+	 * @param bit The bit to check.
+	 *
+	 * @return <code>true</code> if the bit is set, <code>false</code> otherwise.
+	 */
+	public static boolean testBit(long[] set, int bit) {
+		return bit >= 0 && bit < set.length * Long.SIZE && (set[bit / Long.SIZE] & (1L << bit)) != 0;
+	}
+
+	/**
+	 * Returns a word of a set shifted some bits.
+	 *
+	 * @param set   The set.
+	 * @param i     Position of the word.
+	 * @param shift Number of bits to shift the set, towards the higher bits if positive or towards the lower bits if
+	 *              negative.
+	 *
+	 * @return The word of the shifted set.
+	 */
+	private static long shiftedWord(long[] set, int i, int shift) {
+		int distance = Math.abs(shift);
+		int bits = distance % Long.SIZE;
+		int from = shift > 0 ? i - distance / Long.SIZE : i + distance / Long.SIZE;
+
+		if (shift > 0) {
+			long carry = bits == 0 ? 0 : word(set, from - 1) >>> (Long.SIZE - bits);
+			return (word(set, from) << bits) | carry;
+		}
+
+		long carry = bits == 0 ? 0 : word(set, from + 1) << (Long.SIZE - bits);
+		return (word(set, from) >>> bits) | carry;
+	}
+
+	/**
+	 * Returns a word of a set, or 0 if it is outside the set.
+	 *
+	 * @param set The set.
+	 * @param i   Position of the word.
+	 *
+	 * @return The word.
+	 */
+	private static long word(long[] set, int i) {
+		return i >= 0 && i < set.length ? set[i] : 0;
+	}
+
+	/**
+	 * Sets a bit.
+	 *
+	 * @param set The set.
+	 * @param bit The bit to set.
+	 */
+	private static void setBit(long[] set, int bit) {
+		set[bit / Long.SIZE] |= 1L << bit;
+	}
+
+	/**
+	 * Adds all the bits of a set to another one.
+	 *
+	 * @param set   The set where the bits are added.
+	 * @param other The set to add.
+	 */
+	private static void or(long[] set, long[] other) {
+		for (int i = 0; i < set.length; i++) {
+			set[i] |= other[i];
+		}
+	}
+
+	/**
+	 * Counts the cells of a set that aren't empty.
+	 *
+	 * @param set The set.
+	 *
+	 * @return Number of blocks in the set.
+	 */
+	public int countBlocks(long[] set) {
+		long[] blanks = this.colors[0];
+		int count = 0;
+
+		for (int i = 0; i < set.length; i++) {
+			count += Long.bitCount(set[i] & ~blanks[i]);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Counts the bits of a set.
+	 *
+	 * @param set The set.
+	 *
+	 * @return Number of set bits.
+	 */
+	public static int count(long[] set) {
+		int count = 0;
+
+		for (long word : set) {
+			count += Long.bitCount(word);
+		}
+
+		return count;
+	}
+}
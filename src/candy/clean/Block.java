@@ -2,7 +2,7 @@ package candy.clean;
 
 import org.jetbrains.annotations.Contract;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Class that represents the individual blocks of the game.
@@ -64,6 +64,13 @@ public class Block implements Comparable<Block> {
 		this.visited = false;
 	}
 
+	/**
+	 * Class constructor for the subclasses that keep the state of the block somewhere else.
+	 */
+	Block() {
+		this.type = Constants.NORMAL_TYPE;
+	}
+
 	/**
 	 * Class constructor for the block that uses an integer to assign the color.
 	 *
@@ -75,13 +82,13 @@ public class Block implements Comparable<Block> {
 		this.visited = false;
 
 		char[] blocks = new char[] {'E', 'R', 'G', 'Y', 'B', 'P', 'C', 'W'};
-		int randomNum = new Random().nextInt(num) + 1;
+		int randomNum = ThreadLocalRandom.current().nextInt(num) + 1;
 
 		if (randomNum > Constants.MAX_COLORS) {
-			this.color = new Color(BackgroundColor.BLACK);
+			this.color = Color.of(BackgroundColor.BLACK);
 			this.letter = blocks[0];
 		} else {
-			this.color = new Color(randomNum);
+			this.color = Color.of(randomNum);
 			this.letter = blocks[randomNum];
 		}
 	}
@@ -102,32 +109,7 @@ public class Block implements Comparable<Block> {
 	 */
 	public void setColor(char color) {
 		this.letter = color;
-		switch (color) {
-			case 'R':
-				this.color = new Color(BackgroundColor.RED);
-				break;
-			case 'G':
-				this.color = new Color(BackgroundColor.GREEN);
-				break;
-			case 'Y':
-				this.color = new Color(BackgroundColor.YELLOW);
-				break;
-			case 'B':
-				this.color = new Color(BackgroundColor.BLUE);
-				break;
-			case 'P':
-				this.color = new Color(BackgroundColor.PURPLE);
-				break;
-			case 'C':
-				this.color = new Color(BackgroundColor.CYAN);
-				break;
-			case 'W':
-				this.color = new Color(BackgroundColor.WHITE);
-				break;
-			default:
-				this.color = new Color(BackgroundColor.BLACK);
-				break;
-		}
+		this.color = Color.of(PackedGrid.colorOf(color));
 	}
 
 	/**
@@ -201,7 +183,7 @@ public class Block implements Comparable<Block> {
 	 * @return <code>true</code> if empty (black color, <code>false</code> otherwise.
 	 */
 	public boolean isBlank() {
-		return this.letter == 'E';
+		return this.getLetter() == 'E';
 	}
 
 	/**
@@ -225,7 +207,7 @@ public class Block implements Comparable<Block> {
 
 		if (o instanceof Block) {
 			Block other = (Block) o;
-			return (this.color.equals(other.getColor())) && (this.isSpecialBlock == other.isSpecialBlock());
+			return (this.getColor().equals(other.getColor())) && (this.isSpecialBlock() == other.isSpecialBlock());
 		}
 
 		return false;
@@ -238,7 +220,7 @@ public class Block implements Comparable<Block> {
 	 */
 	@Override
 	public int hashCode() {
-		return this.letter + this.color.hashCode();
+		return this.getLetter() + this.getColor().hashCode();
 	}
 
 	/**
@@ -247,34 +229,11 @@ public class Block implements Comparable<Block> {
 	 * @return String with the colored block.
 	 */
 	public String toString() {
-		StringBuilder out = new StringBuilder();
-
-		if (!this.isBlank()) {
-			if (this.isSpecialBlock) {
-				switch (this.type) {
-					case 1:
-						out.append(this.color.toString(Color.BLACK_BLINK + "RR"));
-						break;
-					case 2:
-						out.append(this.color.toString(Color.BLACK_BLINK + "CC"));
-						break;
-					case 3:
-						out.append(this.color.toString(Color.BLACK_BLINK + "RC"));
-						break;
-					case 4:
-						out.append(this.color.toString(Color.BLACK_BLINK + "AA"));
-						break;
-					default:
-						out.append(this.color.toString());
-				}
-			} else {
-				out.append(this.color.toString());
-			}
-		} else {
-			out.append(this.color.toString());
+		if (this.isBlank() || !this.isSpecialBlock()) {
+			return this.getColor().getCell(Constants.NORMAL_TYPE);
 		}
 
-		return out.toString();
+		return this.getColor().getCell(this.getType());
 	}
 
 	/**
@@ -286,6 +245,6 @@ public class Block implements Comparable<Block> {
 	 */
 	@Override
 	public int compareTo(Block other) {
-		return Character.compare(this.letter, other.letter);
+		return Character.compare(this.getLetter(), other.getLetter());
 	}
 }
@@ -0,0 +1,71 @@
+package candy.clean;
+
+/**
+ * Block that reads and writes its color and type directly from a cell of a {@link PackedGrid}. It is used to expose the
+ * packed board as the classic <code>Block[][]</code> table without copying it. The visited state is kept by the view.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+final class BlockView extends Block {
+
+	/**
+	 * Grid where the cell is stored.
+	 */
+	private final PackedGrid grid;
+
+	/**
+	 * Index of the cell in the grid.
+	 */
+	private final int index;
+
+	/**
+	 * Class constructor of the view.
+	 *
+	 * @param grid  Grid where the cell is stored.
+	 * @param index Index of the cell in the grid.
+	 */
+	BlockView(PackedGrid grid, int index) {
+		super();
+		this.grid = grid;
+		this.index = index;
+	}
+
+	@Override
+	public Color getColor() {
+		return Color.of(PackedGrid.colorOf(this.grid.get(this.index)));
+	}
+
+	@Override
+	public void setColor(char color) {
+		byte cell = this.grid.get(this.index);
+		this.grid.set(this.index, (byte) ((cell & ~PackedGrid.COLOR_MASK) | PackedGrid.colorOf(color)));
+	}
+
+	@Override
+	public char getLetter() {
+		return PackedGrid.letterOf(this.grid.get(this.index));
+	}
+
+	@Override
+	public int getType() {
+		return PackedGrid.typeOf(this.grid.get(this.index));
+	}
+
+	@Override
+	public void setType(int type) {
+		byte cell = this.grid.get(this.index);
+		this.grid.set(this.index, PackedGrid.pack(PackedGrid.colorOf(cell), type, true));
+	}
+
+	@Override
+	public boolean isSpecialBlock() {
+		return PackedGrid.isSpecial(this.grid.get(this.index));
+	}
+
+	@Override
+	public void setSpecialBlock(int type) {
+		byte cell = this.grid.get(this.index);
+		this.grid.set(this.index, PackedGrid.pack(PackedGrid.colorOf(cell), type, type != Constants.NORMAL_TYPE));
+	}
+}
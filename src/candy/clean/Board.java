@@ -4,6 +4,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Contract;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Class that represents the board of the game.
  *
@@ -20,7 +24,83 @@ public class Board {
 	/**
 	 * Board of the game.
 	 */
-	private final Block[][] table;
+	private final PackedGrid grid;
+
+	/**
+	 * Board of the game as blocks. Created the first time it is requested.
+	 */
+	private Block[][] table;
+
+	/**
+	 * Search of the connected blocks with the same color, <code>null</code> until it is used for the first time.
+	 */
+	private FloodFill floodFill;
+
+	/**
+	 * Special blocks pending to explode, with their type in the lower bits. Created the first time a special block
+	 * explodes.
+	 */
+	private int[] pendingSpecials;
+
+	/**
+	 * Number of special blocks pending to explode.
+	 */
+	private int pendingCount;
+
+	/**
+	 * Representation of the board with sets of bits, <code>null</code> if the bit board mode is disabled.
+	 */
+	private BitBoard bitBoard;
+
+	/**
+	 * Set with the blocks to remove in the bit board mode.
+	 */
+	private long[] removedSet;
+
+	/**
+	 * Generator of the new candies, <code>null</code> in pre-designed boards.
+	 */
+	private final CandySource candySource;
+
+	/**
+	 * Compaction of the columns and generation of the new candies after a shot.
+	 */
+	private final Gravity gravity;
+
+	/**
+	 * Renderer of the board and the score, <code>null</code> until the board is rendered for the first time.
+	 */
+	private BoardRenderer renderer;
+
+	/**
+	 * Index of the groups of blocks, <code>null</code> until it is requested for the first time.
+	 */
+	private ComponentIndex components;
+
+	/**
+	 * Generator of the legal shots, <code>null</code> until it is requested for the first time.
+	 */
+	private MoveGenerator moveGenerator;
+
+	/**
+	 * Zobrist hash of the cells, <code>null</code> until it is requested for the first time.
+	 */
+	private ZobristHash zobrist;
+
+	/**
+	 * Journal of the shots used to undo them, <code>null</code> if the shots can't be undone.
+	 */
+	private ShotJournal journal;
+
+	/**
+	 * Encoder of the changes of every shot, <code>null</code> if the changes aren't encoded.
+	 */
+	private BoardDelta delta;
+
+	/**
+	 * Result of the last shot, reused by every shot.
+	 */
+	private final ShotResult shotResult = new ShotResult();
 
 	/**
 	 * Number of colors used in the game.
@@ -33,7 +113,7 @@ public class Board {
 	private final Score gameScore;
 
 	/**
-	 * Class constructor for random matches.
+	 * Class constructor for random matches with a new seed.
 	 *
 	 * @param size      Size of the board (Square).
 	 * @param numColors Number of colors the game will have.
@@ -42,6 +122,20 @@ public class Board {
 	 * @throws CandyCleanException If the introduced dimensions or number of colors are incorrect.
 	 */
 	public Board(int size, int numColors, Score gameScore) throws CandyCleanException {
+		this(size, numColors, gameScore, CandySource.newSeed());
+	}
+
+	/**
+	 * Class constructor for random matches. The same seed always creates the same board and the same new candies.
+	 *
+	 * @param size      Size of the board (Square).
+	 * @param numColors Number of colors the game will have.
+	 * @param gameScore Objective score of the game.
+	 * @param seed      Seed of the generator of the candies.
+	 *
+	 * @throws CandyCleanException If the introduced dimensions or number of colors are incorrect.
+	 */
+	public Board(int size, int numColors, Score gameScore, long seed) throws CandyCleanException {
 		StringBuilder error = new StringBuilder();
 		if (size < Constants.MIN_DIMENSIONS || size > Constants.MAX_DIMENSIONS) {
 			error.append(String.format("You are not able to play with this board size: %d." +
@@ -59,12 +153,14 @@ public class Board {
 			throw new CandyCleanException(error.toString());
 		} else {
 			this.numColors = numColors;
-			this.table = new Block[size][size];
+			this.grid = new PackedGrid(size, size);
 			this.gameScore = gameScore;
+			this.candySource = new CandySource(seed, numColors, size);
+			this.gravity = new Gravity(this.grid, this.candySource);
 
 			for (int i = 0; i < size; i++) {
 				for (int j = 0; j < size; j++) {
-					this.table[i][j] = new Block(numColors);
+					this.grid.set(this.grid.index(i, j), this.candySource.nextCandy(j));
 				}
 			}
 		}
@@ -82,49 +178,261 @@ public class Board {
 	 * <p style="color: cyan;">C - Cyan</p>
 	 * <p style="color: grey;">W - White</p>
 	 *
+	 * <p>The cells emptied by the shots are not refilled, so the result of the shots is always the same.</p>
+	 *
 	 * @param stringBoard Pre-designed board in a String array. Note: this board can be a rectangle instead of a square.
 	 * @param numColors   Number of colors used in the pre-designed board.
 	 * @param gameScore   The score objective of the game.
 	 */
 	public Board(String[] stringBoard, int numColors, Score gameScore) {
-		this.numColors = numColors;
-		this.table = new Block[stringBoard.length][stringBoard[0].length()];
-		this.gameScore = gameScore;
+		this(new PackedGrid(stringBoard.length, stringBoard[0].length()), numColors, gameScore);
 
 		for (int i = 0; i < stringBoard.length; i++) {
 			for (int j = 0; j < stringBoard[i].length(); j++) {
-				this.table[i][j] = new Block(stringBoard[i].charAt(j));
+				this.grid.set(this.grid.index(i, j), PackedGrid.pack(stringBoard[i].charAt(j)));
 			}
 		}
 
 	}
 
 	/**
-	 * Returns the board that is played.
+	 * Class constructor of a pre-designed board whose cells are already packed, such as the boards of a
+	 * {@link CorpusReader}. The cells emptied by the shots are not refilled.
+	 *
+	 * @param grid      Packed cells of the board, owned by the board from now on.
+	 * @param numColors Number of colors used in the pre-designed board.
+	 * @param gameScore The score objective of the game.
+	 */
+	Board(PackedGrid grid, int numColors, Score gameScore) {
+		this(grid, numColors, gameScore, null);
+	}
+
+	/**
+	 * Class constructor of a board whose cells are already packed, such as a board read by {@link BoardCodec}.
+	 *
+	 * @param grid        Packed cells of the board, owned by the board from now on.
+	 * @param numColors   Number of colors of the board.
+	 * @param gameScore   The score of the game.
+	 * @param candySource Generator of the new candies, <code>null</code> if the board isn't refilled.
+	 */
+	Board(PackedGrid grid, int numColors, Score gameScore, CandySource candySource) {
+		this.numColors = numColors;
+		this.grid = grid;
+		this.gameScore = gameScore;
+		this.candySource = candySource;
+		this.gravity = new Gravity(this.grid, candySource);
+	}
+
+	/**
+	 * Class constructor of a fork of another board. The cells are shared with the other board until one of them changes
+	 * a column, and the score and the generator of the candies are copied, so both boards continue the same game
+	 * independently.
+	 *
+	 * @param other The board to fork.
+	 */
+	private Board(Board other) {
+		this(other, other.candySource == null ? null : new CandySource(other.candySource));
+	}
+
+	/**
+	 * Class constructor of a fork of another board with other generator of the candies.
+	 *
+	 * @param other       The board to fork.
+	 * @param candySource Generator of the new candies of the fork, <code>null</code> if the fork isn't refilled.
+	 */
+	private Board(Board other, CandySource candySource) {
+		this.numColors = other.numColors;
+		this.grid = other.grid.fork();
+		this.gameScore = new Score(other.gameScore);
+		this.candySource = candySource;
+		this.gravity = new Gravity(this.grid, this.candySource);
+		this.setBitBoardMode(other.isBitBoardMode());
+
+		if (other.zobrist != null) {
+			this.zobrist = new ZobristHash(this.grid, other.zobrist.getHash());
+		}
+	}
+
+	/**
+	 * Creates a mutable copy of the board, with its score and the position of its generator of the candies. The cells
+	 * aren't copied when the board is forked: a column is only copied when the fork or the board changes it.
+	 *
+	 * <p>The helpers of the shots and the searches (the flood fill, the index of the groups and the generator of the
+	 * shots) aren't shared with the fork. The fork creates its own the first time it needs them, with arrays of the size
+	 * of the board, so the first {@link #generateMoves(MoveList)} or {@link #isValidShot(int, int)} of every fork
+	 * allocates and indexes the whole board.</p>
+	 *
+	 * @return The new board.
+	 */
+	public Board fork() {
+		return new Board(this);
+	}
+
+	/**
+	 * Creates a mutable copy of the board whose new candies come from another seed, the same as {@link #fork()} but with
+	 * other candies after the next shots. It is used to try a shot with candies that the player doesn't know yet.
+	 * Pre-designed boards aren't refilled, so their forks are the same as {@link #fork()}.
+	 *
+	 * @param seed Seed of the generator of the candies of the fork.
+	 *
+	 * @return The new board.
+	 */
+	public Board fork(long seed) {
+		if (this.candySource == null) {
+			return new Board(this);
+		}
+
+		return new Board(this, new CandySource(seed, this.candySource.getNumColors(), this.candySource.getColumns()));
+	}
+
+	/**
+	 * Creates an immutable view of the current state of the board. Later shots to this board don't change the snapshot.
+	 * The hash of the snapshot is computed before it is returned, so the threads that read the snapshot never create it.
+	 *
+	 * @return The snapshot of the board.
+	 */
+	public BoardSnapshot snapshot() {
+		Board copy = new Board(this);
+		copy.getHash();
+
+		return new BoardSnapshot(copy);
+	}
+
+	/**
+	 * Returns the Zobrist hash of the cells of the board. It is computed the first time and then updated with every
+	 * changed cell, so equal boards reached by different shots have the same hash.
+	 *
+	 * @return The hash of the board.
+	 */
+	public long getHash() {
+		if (this.zobrist == null) {
+			this.zobrist = new ZobristHash(this.grid);
+		}
+
+		return this.zobrist.getHash();
+	}
+
+	/**
+	 * Returns the score of the game.
+	 *
+	 * @return The score shown above the board.
+	 */
+	Score getScore() {
+		return this.gameScore;
+	}
+
+	/**
+	 * Returns the number of colors of the board.
+	 *
+	 * @return The number of colors.
+	 */
+	int getNumColors() {
+		return this.numColors;
+	}
+
+	/**
+	 * Returns the generator of the new candies.
+	 *
+	 * @return The generator, <code>null</code> if the board isn't refilled.
+	 */
+	CandySource getCandySource() {
+		return this.candySource;
+	}
+
+	/**
+	 * Returns the result of the last shot, also after a shot made with {@link #shoot(int, int)}.
+	 *
+	 * @return The result, overwritten by the next shot.
+	 */
+	ShotResult getShotResult() {
+		return this.shotResult;
+	}
+
+	/**
+	 * Returns the grid of the cells.
+	 *
+	 * @return The packed cells of the board.
+	 */
+	PackedGrid getGrid() {
+		return this.grid;
+	}
+
+	/**
+	 * Returns the seed of the generator of the candies, used to play the same game again.
+	 *
+	 * @return The seed of the board, 0 if it is a pre-designed board.
+	 */
+	public long getSeed() {
+		return this.candySource == null ? 0 : this.candySource.getSeed();
+	}
+
+	/**
+	 * Checks if the cells emptied by the shots are refilled with new candies.
+	 *
+	 * @return <code>true</code> if the board is random, <code>false</code> if it is a pre-designed board.
+	 */
+	public boolean isRefilled() {
+		return this.candySource != null;
+	}
+
+	/**
+	 * Returns the board that is played. The blocks are views of the packed cells, so changing them changes the board.
 	 *
 	 * @return The board of the current game.
 	 */
 	public Block[][] getTable() {
+		if (this.table == null) {
+			Block[][] views = new Block[this.grid.getRows()][this.grid.getColumns()];
+
+			for (int i = 0; i < views.length; i++) {
+				for (int j = 0; j < views[i].length; j++) {
+					views[i][j] = new BlockView(this.grid, this.grid.index(i, j));
+				}
+			}
+
+			this.table = views;
+		}
+
 		return this.table;
 	}
 
 	/**
-	 * Checks if the selected spot has more equal Blocks in its surroundings. Otherwise, an exception will be thrown.
+	 * Enables or disables the bit board mode. In this mode the connected blocks, the explosions of the special blocks and
+	 * {@link #hasSurroundingBlocks(int, int)} are computed with sets of bits, one per color, instead of visiting the
+	 * blocks one by one. The sets are rebuilt only when the board has changed since the last time they were used.
 	 *
-	 * @param row    Row of the selected Block.
-	 * @param column Column of the selected Block.
-	 *
-	 * @throws CandyCleanException If the selected spot is not valid.
+	 * @param enabled <code>true</code> to use the bit board, <code>false</code> to visit the blocks.
 	 */
-	private void checkValidSelectedSpot(int row, int column) throws CandyCleanException {
-		if (row >= this.table.length || row < 0 || column >= this.table.length || column < 0) {
-			throw new CandyCleanException("The selected spot is outside of the board boundaries. The current board size is "
-					+ this.table.length + " x " + this.table.length);
+	public void setBitBoardMode(boolean enabled) {
+		if (enabled && this.bitBoard == null) {
+			this.bitBoard = new BitBoard(this.grid.getRows(), this.grid.getColumns());
+			this.removedSet = this.bitBoard.newSet();
+		} else if (!enabled) {
+			this.bitBoard = null;
+			this.removedSet = null;
 		}
+	}
+
+	/**
+	 * Checks if the bit board mode is enabled.
+	 *
+	 * @return <code>true</code> if the bit board is used, <code>false</code> otherwise.
+	 */
+	public boolean isBitBoardMode() {
+		return this.bitBoard != null;
+	}
 
-		if (!this.hasSurroundingBlocks(row, column)) {
-			throw new CandyCleanException("The selected block doesn't have any surrounding blocks with the same color");
+	/**
+	 * Returns the bit board with the current state of the board.
+	 *
+	 * @return The updated bit board.
+	 */
+	private BitBoard updatedBitBoard() {
+		if (this.bitBoard.getVersion() != this.grid.getVersion()) {
+			this.bitBoard.load(this.grid);
 		}
+
+		return this.bitBoard;
 	}
 
 	/**
@@ -138,220 +446,577 @@ public class Board {
 	 *                             the same Color.
 	 */
 	public void shoot(int row, int column) throws CandyCleanException {
-		try {
-			this.checkValidSelectedSpot(row, column);
-
-			if (this.table[row][column].isSpecialBlock()) {
-				this.removeBlocks(row, column, true);
-			} else {
-				int leftPos = this.firstLeftCandyPos(row, column);
-				int rightPos = this.lastRightCandyPos(row, column);
-				int upperPos = this.firstUpperCandyPos(row, column);
-				int lowerPos = this.lastLowerCandyPos(row, column);
-
-				char blockLetter = this.table[row][column].getLetter();
-				this.removeBlocks(row, column, false);
-
-//				this.createNewSpecialBlock(row, column, blockLetter, new int[]{leftPos, rightPos, upperPos, lowerPos});
-//
-//				this.compactBoardWidth(row, leftPos, rightPos);
-//				this.compactBoardHeight(column, upperPos, lowerPos);
-			}
+		ShotResult result = this.tryShoot(row, column);
+
+		switch (result.getStatus()) {
+			case OUT_OF_BOUNDS:
+				throw new CandyCleanException("The selected spot is outside of the board boundaries. The current board size is "
+						+ this.grid.getRows() + " x " + this.grid.getColumns(), false);
 
-//			this.gameScore.increaseStreakUpdateMultiplier();
-//			this.fillEmptyWithNewBlocks();
-		} catch (CandyCleanException e) {
+			case NO_SURROUNDING_BLOCKS:
+				throw new CandyCleanException("The selected block doesn't have any surrounding blocks with the same color", false);
+
+			case VALID:
+
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Player action of shooting to an specific spot, the same as {@link #shoot(int, int)} but without exceptions. An
+	 * invalid shot decreases the score and resets the streak, and the board doesn't change.
+	 *
+	 * @param row    Row of the selected spot.
+	 * @param column Column of the selected spot.
+	 *
+	 * @return The result of the shot. The same object is returned by every shot of this board.
+	 */
+	public ShotResult tryShoot(int row, int column) {
+		if (this.journal == null && this.delta == null) {
+			return this.applyShot(row, column);
+		}
+
+		if (this.journal != null) {
+			this.journal.beginShot(this.gameScore);
+		}
+
+		if (this.delta != null) {
+			this.delta.beginShot(this.grid);
+		}
+
+		ShotResult result = this.applyShot(row, column);
+
+		if (this.journal != null) {
+			this.journal.endShot(this.gameScore, this.candySource);
+		}
+
+		if (this.delta != null) {
+			this.delta.endShot(this.grid, this.gameScore, result.getScoreDelta());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Shoots to a spot, as explained in {@link #tryShoot(int, int)}.
+	 *
+	 * @param row    Row of the selected spot.
+	 * @param column Column of the selected spot.
+	 *
+	 * @return The result of the shot.
+	 */
+	private ShotResult applyShot(int row, int column) {
+		long before = this.gameScore.getPunctuation();
+		ShotResult.Status status = ShotResult.Status.VALID;
+		int cleared = 0;
+
+		if (!this.grid.contains(row, column)) {
+			status = ShotResult.Status.OUT_OF_BOUNDS;
+		} else if (!this.hasSurroundingBlocks(row, column)) {
+			status = ShotResult.Status.NO_SURROUNDING_BLOCKS;
+		}
+
+		if (status != ShotResult.Status.VALID) {
 			this.gameScore.resetMultiplierStreakDecreaseScore();
-			throw new CandyCleanException(e.getMessage());
+			return this.shotResult.set(status, 0, this.gameScore.getPunctuation() - before);
+		}
+
+		if (this.components != null) {
+			this.components.beginChanges();
 		}
+
+		if (PackedGrid.isSpecial(this.grid.get(this.grid.index(row, column)))) {
+			cleared = this.removeBlocks(row, column, true);
+		} else {
+			int newType = this.newSpecialType(row, column);
+			char blockLetter = PackedGrid.letterOf(this.grid.get(this.grid.index(row, column)));
+			cleared = this.removeBlocks(row, column, false);
+
+			if (cleared > 0) {
+				this.createNewSpecialBlock(row, column, blockLetter, newType);
+			}
+		}
+
+		if (this.components != null) {
+			for (int i = 0; i < this.gravity.getDirtyCount(); i++) {
+				int dirty = this.gravity.getDirtyColumn(i);
+				this.components.changed(dirty, this.gravity.getLowestRow(dirty));
+			}
+		}
+
+		if (this.journal != null && this.candySource != null) {
+			this.journal.recordStreams(this.gravity, this.candySource);
+		}
+
+		this.gravity.apply();
+
+		if (cleared > 0) {
+			this.gameScore.increaseStreakUpdateMultiplier();
+		}
+
+		if (this.components != null) {
+			this.components.update();
+		}
+
+		return this.shotResult.set(status, cleared, this.gameScore.getPunctuation() - before);
 	}
 
 	/**
-	 * Removes (set to black) the blocks (vertical and horizontal) that have the same color near to the selected point.
+	 * Sets the journal that records the shots, so they can be undone. The shots made before aren't recorded.
+	 *
+	 * @param journal The journal, <code>null</code> to stop recording the shots.
+	 */
+	public void setJournal(ShotJournal journal) {
+		if (this.journal != null) {
+			this.grid.removeListener(this.journal);
+		}
+
+		this.journal = journal;
+
+		if (journal != null) {
+			this.grid.addListener(journal);
+		}
+	}
+
+	/**
+	 * Sets the encoder of the changes of every shot, so a mirror of the board can be updated with
+	 * {@link BoardDelta#apply(java.nio.ByteBuffer, Board)}. The undone and redone shots aren't encoded.
+	 *
+	 * @param delta The encoder, <code>null</code> to stop encoding the shots.
+	 */
+	public void setDelta(BoardDelta delta) {
+		if (this.delta != null) {
+			this.grid.removeListener(this.delta);
+		}
+
+		this.delta = delta;
+
+		if (delta != null) {
+			this.grid.addListener(delta);
+		}
+	}
+
+	/**
+	 * Returns the encoder of the changes of every shot.
+	 *
+	 * @return The encoder, <code>null</code> if the shots aren't encoded.
+	 */
+	public BoardDelta getDelta() {
+		return this.delta;
+	}
+
+	/**
+	 * Returns the journal that records the shots.
+	 *
+	 * @return The journal, <code>null</code> if the shots aren't recorded.
+	 */
+	public ShotJournal getJournal() {
+		return this.journal;
+	}
+
+	/**
+	 * Undoes the last recorded shot: its cells, its score and the candies that will fall are the same as before the shot.
+	 *
+	 * @return <code>true</code> if a shot was undone, <code>false</code> if there isn't any recorded shot.
+	 */
+	public boolean undo() {
+		return this.journal != null && this.journal.undo(this.grid, this.gameScore, this.candySource);
+	}
+
+	/**
+	 * Redoes the last undone shot, if no shot has been made after undoing it.
+	 *
+	 * @return <code>true</code> if a shot was redone, <code>false</code> if there isn't any undone shot.
+	 */
+	public boolean redo() {
+		return this.journal != null && this.journal.redo(this.grid, this.gameScore, this.candySource);
+	}
+
+	/**
+	 * Removes (set to black) the blocks connected to the selected one with the same color or, if it is a special block,
+	 * the blocks reached by its explosion.
 	 *
 	 * @param row            The row of the selected Block.
 	 * @param column         The column of the selected Block.
 	 * @param isSpecialCandy Specifies if the selected block is special.
 	 *
-	 * @throws CandyCleanException If the selected spot is not valid.
-	 */
-	private void removeBlocks(int row, int column, boolean isSpecialCandy) throws CandyCleanException {
-//		if (isSpecialCandy) {
-//			switch (this.table[row][column].getType()) {
-//				case Constants.ROW_TYPE:
-//					this.removeBlocksRow(row, column);
-//					this.compactBoardWidth(row, 0, this.table.length - 1);
-//					break;
-//				case Constants.COLUMN_TYPE:
-//					this.removeBlocksColumn(row, column);
-//					break;
-//				case Constants.ROW_COLUMN_TYPE:
-//					this.removeBlocksRow(row, column);
-//					this.removeBlocksColumn(row, column);
-//					this.compactBoardWidth(row, 0, this.table.length - 1);
-//					break;
-//				case Constants.ALL_BOARD_TYPE:
-//					this.clearTable();
-//					break;
-//				default:
-//					break;
-//			}
-//		} else {
-//			int firstLeftCandyPos = this.firstLeftCandyPos(row, column);
-//			int lastRightCandyPos = this.lastRightCandyPos(row, column);
-//			int firstUpperCandyPos = this.firstUpperCandyPos(row, column);
-//			int lastLowerCandyPos = this.lastLowerCandyPos(row, column);
-//
-//			// Horizontal replacement.
-//			for (int i = firstLeftCandyPos; i <= lastRightCandyPos; i++) {
-//				this.table[row][i].setToBlank();
-//				this.gameScore.increaseScore();
-//			}
-//
-//			// Vertical replacement.
-//			for (int i = firstUpperCandyPos; i <= lastLowerCandyPos; i++) {
-//				this.table[i][column].setToBlank();
-//				this.gameScore.increaseScore();
-//			}
-//		}
-		this.deleteBlocks(row, column);
+	 * @return The number of removed blocks.
+	 */
+	private int removeBlocks(int row, int column, boolean isSpecialCandy) {
+		int kind = isSpecialCandy ? PackedGrid.typeOf(this.grid.get(this.grid.index(row, column))) : Constants.NORMAL_TYPE;
+		int deleted;
+
+		if (this.bitBoard != null) {
+			deleted = this.removeBlocksWithBitBoard(row, column, isSpecialCandy);
+		} else if (isSpecialCandy) {
+			deleted = this.explodeSpecialBlocks(row, column);
+		} else {
+			deleted = this.deleteBlocks(row, column);
+		}
+
+		this.gameScore.applyClear(deleted, kind);
+
+		return deleted;
 	}
 
 	/**
-	 * Removes all the blocks in the selected row.
+	 * Explodes a special block and every special block reached by the explosion. Each special block explodes once, so
+	 * special blocks that reach each other don't explode forever.
 	 *
-	 * @param row    The selected row to remove the blocks.
-	 * @param column The selected column to remove the blocks (used if there are special candies in the same row to shoot at).
-	 *
-	 * @throws CandyCleanException If the selected spot is not valid.
-	 */
-	private void removeBlocksRow(int row, int column) throws CandyCleanException {
-		for (int i = 0; i < this.table.length; i++) {
-			if (i != column && this.table[row][i].isSpecialBlock()) {
-				this.shoot(row, i);
-			} else {
-				this.table[row][i].setToBlank();
-				this.table[row][i].setSpecialBlock(Constants.NORMAL_TYPE);
-				this.gameScore.increaseScore();
+	 * @param row    The row of the special block.
+	 * @param column The column of the special block.
+	 *
+	 * @return The number of removed blocks.
+	 */
+	private int explodeSpecialBlocks(int row, int column) {
+		if (this.pendingSpecials == null) {
+			this.pendingSpecials = new int[this.grid.size()];
+		}
+
+		this.pendingCount = 0;
+		int deleted = this.removeBlock(this.grid.index(row, column));
+
+		while (this.pendingCount > 0) {
+			int special = this.pendingSpecials[--this.pendingCount];
+			int index = special >> PackedGrid.TYPE_SHIFT;
+
+			switch (special & PackedGrid.TYPE_MASK) {
+				case Constants.ROW_TYPE:
+					deleted += this.removeBlocksRow(this.grid.rowOf(index));
+					break;
+				case Constants.COLUMN_TYPE:
+					deleted += this.removeBlocksColumn(this.grid.columnOf(index));
+					break;
+				case Constants.ROW_COLUMN_TYPE:
+					deleted += this.removeBlocksRow(this.grid.rowOf(index));
+					deleted += this.removeBlocksColumn(this.grid.columnOf(index));
+					break;
+				case Constants.ALL_BOARD_TYPE:
+					deleted += this.clearTable();
+					break;
+				default:
+					// Only the special block itself explodes, and it has already been removed.
+					break;
 			}
 		}
+
+		return deleted;
+	}
+
+	/**
+	 * Removes a block. If it is a special block, it is added to the special blocks pending to explode.
+	 *
+	 * @param index Index of the block.
+	 *
+	 * @return 1 if the removed block wasn't empty, 0 otherwise.
+	 */
+	private int removeBlock(int index) {
+		byte cell = this.grid.get(index);
+
+		if (PackedGrid.isSpecial(cell)) {
+			this.pendingSpecials[this.pendingCount++] = (index << PackedGrid.TYPE_SHIFT) | PackedGrid.typeOf(cell);
+		}
+
+		this.clearCell(index);
+
+		return PackedGrid.isBlank(cell) ? 0 : 1;
+	}
+
+	/**
+	 * Sets a cell to blank and notifies the gravity that its column has to be compacted.
+	 *
+	 * @param index Index of the cell.
+	 */
+	private void clearCell(int index) {
+		this.grid.set(index, PackedGrid.pack(0, Constants.NORMAL_TYPE, false));
+		this.gravity.removed(this.grid.rowOf(index), this.grid.columnOf(index));
+	}
+
+	/**
+	 * Removes all the blocks in the selected row.
+	 *
+	 * @param row The selected row to remove the blocks.
+	 *
+	 * @return The number of removed blocks.
+	 */
+	private int removeBlocksRow(int row) {
+		int deleted = 0;
+
+		for (int i = 0; i < this.grid.getColumns(); i++) {
+			deleted += this.removeBlock(this.grid.index(row, i));
+		}
+
+		return deleted;
 	}
 
 	/**
 	 * Removes all the blocks in the selected column.
 	 *
-	 * @param row    The selected row to remove the blocks. (Used if there are special candies in the same column to shoot at).
 	 * @param column The selected column to remove the blocks.
 	 *
-	 * @throws CandyCleanException If the selected spot is not valid.
+	 * @return The number of removed blocks.
 	 */
-	private void removeBlocksColumn(int row, int column) throws CandyCleanException {
-		for (int i = 0; i < this.table.length; i++) {
-			if (i != row && this.table[i][column].isSpecialBlock()) {
-				this.shoot(i, column);
-			} else {
-				this.table[i][column].setToBlank();
-				this.table[i][column].setSpecialBlock(Constants.NORMAL_TYPE);
-				this.gameScore.increaseScore();
-			}
+	private int removeBlocksColumn(int column) {
+		int deleted = 0;
+
+		for (int i = 0; i < this.grid.getRows(); i++) {
+			deleted += this.removeBlock(this.grid.index(i, column));
 		}
+
+		return deleted;
 	}
 
 	/**
 	 * Removes all the blocks in the table. (Used for the special candy).
+	 *
+	 * @return The number of removed blocks.
+	 */
+	private int clearTable() {
+		int deleted = 0;
+
+		for (int i = 0; i < this.grid.getRows(); i++) {
+			for (int j = 0; j < this.grid.getColumns(); j++) {
+				deleted += this.removeBlock(this.grid.index(i, j));
+			}
+		}
+
+		return deleted;
+	}
+
+	/**
+	 * Removes the blocks of the shot using the bit board: the connected blocks with the same color or the explosion of the
+	 * special block.
+	 *
+	 * @param row            The row of the selected Block.
+	 * @param column         The column of the selected Block.
+	 * @param isSpecialCandy Specifies if the selected block is special.
+	 *
+	 * @return The number of removed blocks.
 	 */
-	private void clearTable() {
-		for (Block[] blocks : this.table) {
-			for (int j = 0; j < this.table.length; j++) {
-				blocks[j].setToBlank();
-				this.gameScore.increaseScore();
+	private int removeBlocksWithBitBoard(int row, int column, boolean isSpecialCandy) {
+		BitBoard bits = this.updatedBitBoard();
+
+		if (isSpecialCandy) {
+			bits.explosion(row, column, this.removedSet);
+		} else if (bits.region(row, column, this.removedSet) < 2 ||
+				PackedGrid.isBlank(this.grid.get(this.grid.index(row, column)))) {
+			return 0;
+		}
+
+		int deleted = 0;
+
+		for (int i = 0; i < this.removedSet.length; i++) {
+			long word = this.removedSet[i];
+
+			while (word != 0) {
+				int bit = i * Long.SIZE + Long.numberOfTrailingZeros(word);
+				int index = this.grid.index(bits.rowOf(bit), bits.columnOf(bit));
+				word &= word - 1;
+
+				if (!PackedGrid.isBlank(this.grid.get(index))) {
+					deleted++;
+				}
+
+				this.clearCell(index);
 			}
 		}
+
+		return deleted;
+	}
+
+	/**
+	 * Computes the type of the special block created by shooting a block: 4 or more candies in the row and/or the column
+	 * of the block create a special block. ALL_BOARD_TYPE special candies are generated when removed an entire column and
+	 * row of the board.
+	 *
+	 * @param row    The row of the selected block.
+	 * @param column The column of the selected block.
+	 *
+	 * @return The type of the new special block, NORMAL_TYPE if no special block is created.
+	 */
+	@Contract(pure = true)
+	int newSpecialType(int row, int column) {
+		int leftPos = this.firstLeftCandyPos(row, column);
+		int rightPos = this.lastRightCandyPos(row, column);
+		int upperPos = this.firstUpperCandyPos(row, column);
+		int lowerPos = this.lastLowerCandyPos(row, column);
+		int minimum = Constants.MINIMUM_CANDIES_FOR_SPECIAL_CANDY;
+		int type = Constants.NORMAL_TYPE;
+
+		// Adding 1 because of Arrays' structure. (e.g. Row: 0, Col: 4  ->  4 - 0 = 4 but player breaks 5 candies)
+		if (((rightPos - leftPos) + 1 == this.grid.getColumns()) && ((lowerPos - upperPos) + 1 == this.grid.getRows())) {
+			type = Constants.ALL_BOARD_TYPE;
+
+		} else if (((rightPos - leftPos) + 1 >= minimum) && ((lowerPos - upperPos) + 1 >= minimum)) {
+			type = Constants.ROW_COLUMN_TYPE;
+
+		} else if (((rightPos - leftPos) + 1 >= minimum)) {
+			type = Constants.ROW_TYPE;
+
+		} else if (((lowerPos - upperPos) + 1 >= minimum)) {
+			type = Constants.COLUMN_TYPE;
+		}
+
+		return type;
 	}
 
 	/**
-	 * Creates a new special block when 4 or more candies are removed. ALL_BOARD_TYPE special candies are generated when
-	 * removed an entire column and row of the board.
+	 * Creates a new special block in the position of the shot block, after removing the candies.
 	 *
 	 * @param row         The row of the selected block.
 	 * @param column      The column of the selected block.
 	 * @param blockLetter The letter of the old block. Used for creating the new candy with the same background.
-	 * @param positions   Specifies the conditions for creating the new special candies. The following:
-	 *                    <p>[0] - First candy with the same color to the left.</p>
-	 *                    <p>[1] - Last candy with the same color to the right.</p>
-	 *                    <p>[2] - First candy with the same color to the top.</p>
-	 *                    <p>[3] - Last candy with the same color to the bottom.</p>
+	 * @param type        The type of the new special block. Nothing is created if it is NORMAL_TYPE.
 	 */
-	private void createNewSpecialBlock(int row, int column, char blockLetter, int[] positions) {
-		int minimum = Constants.MINIMUM_CANDIES_FOR_SPECIAL_CANDY;
-		Block nBlock = new Block(blockLetter);
+	private void createNewSpecialBlock(int row, int column, char blockLetter, int type) {
+		if (type != Constants.NORMAL_TYPE) {
+			this.grid.set(this.grid.index(row, column), PackedGrid.pack(PackedGrid.colorOf(blockLetter), type, true));
+		}
+	}
 
-		// Adding 1 because of Arrays' structure. (e.g. Row: 0, Col: 4  ->  4 - 0 = 4 but player breaks 5 candies)
-		if (((positions[1] - positions[0]) + 1 == this.table.length) && ((positions[3] - positions[2]) + 1 == this.table.length)) {
-			nBlock.setSpecialBlock(Constants.ALL_BOARD_TYPE);
+	/**
+	 * Returns the search of the connected blocks, creating it the first time.
+	 *
+	 * @return The flood fill of the board.
+	 */
+	private FloodFill floodFill() {
+		if (this.floodFill == null) {
+			this.floodFill = new FloodFill(this.grid);
+		}
 
-		} else if (((positions[1] - positions[0]) + 1 >= minimum) && ((positions[3] - positions[2]) + 1 >= minimum)) {
-			nBlock.setSpecialBlock(Constants.ROW_COLUMN_TYPE);
+		return this.floodFill;
+	}
 
-		} else if (((positions[1] - positions[0]) + 1 >= minimum)) {
-			nBlock.setSpecialBlock(Constants.ROW_TYPE);
+	/**
+	 * Returns the renderer of the board, creating it the first time.
+	 *
+	 * @return The renderer of the board and the score.
+	 */
+	private BoardRenderer renderer() {
+		if (this.renderer == null) {
+			this.renderer = new BoardRenderer(this.grid, this.gameScore);
+		}
+
+		return this.renderer;
+	}
 
-		} else if (((positions[3] - positions[2]) + 1 >= minimum)) {
-			nBlock.setSpecialBlock(Constants.COLUMN_TYPE);
+	/**
+	 * Returns the index of the groups of blocks, creating it or updating it if the board changed outside of the shots.
+	 *
+	 * @return The updated index.
+	 */
+	private ComponentIndex updatedComponents() {
+		if (this.components == null) {
+			this.components = new ComponentIndex(this.grid);
 		}
 
-		this.table[row][column] = nBlock;
+		if (!this.components.isUpdated()) {
+			this.components.update();
+		}
+
+		return this.components;
 	}
 
 	/**
-	 * Compacts the board horizontally. Takes the empty candies to the top of the board (It's the same process as getting
-	 * up the empty candies).
+	 * Returns the size of the group of connected blocks with the same color of a block, without changing the board.
+	 *
+	 * @param row    Row of the block.
+	 * @param column Column of the block.
 	 *
-	 * @param row      Row where the candies were removed.
-	 * @param leftPos  Left position where the first candy was deleted.
-	 * @param rightPos Right position where the last candy was deleted.
+	 * @return Number of blocks in the group (the block included).
 	 */
-	private void compactBoardWidth(int row, int leftPos, int rightPos) {
-		for (int i = row; i > 0; i--) {
-			for (int j = leftPos; j <= rightPos; j++) {
-				if (this.table[i][j].isBlank()) {
-					Block aux = this.table[i - 1][j];
-					this.table[i - 1][j] = this.table[i][j];
-					this.table[i][j] = aux;
-				}
-			}
+	public int groupSize(int row, int column) {
+		return this.updatedComponents().groupSize(row, column);
+	}
+
+	/**
+	 * Checks if a spot can be shot: it is inside the board and it has blocks with the same color at its sides, or it is a
+	 * special block. It gives the same answer as {@link #hasSurroundingBlocks(int, int)} without looking at the
+	 * neighbours.
+	 *
+	 * @param row    Row of the spot.
+	 * @param column Column of the spot.
+	 *
+	 * @return <code>true</code> if the shot is valid, <code>false</code> otherwise.
+	 */
+	public boolean isValidShot(int row, int column) {
+		return this.updatedComponents().isValidShot(row, column);
+	}
+
+	/**
+	 * Returns the number of spots where a shot removes blocks.
+	 *
+	 * @return The number of legal moves.
+	 */
+	public int getLegalMoveCount() {
+		return this.updatedComponents().getLegalMoveCount();
+	}
+
+	/**
+	 * Fills a list with the legal shots of the board without changing it: one shot per group of two or more blocks (its
+	 * first block that isn't special) and one shot per special block. Every shot has the size and the color of its group,
+	 * the number of blocks it would remove, the special block it would create and the points it would win with the
+	 * current multiplier.
+	 *
+	 * @param moves List where the shots are stored. Its previous moves are removed.
+	 *
+	 * @return The number of shots.
+	 */
+	public int generateMoves(MoveList moves) {
+		if (this.moveGenerator == null) {
+			this.moveGenerator = new MoveGenerator(this, this.grid, this.gameScore);
 		}
+
+		return this.moveGenerator.generate(this.updatedComponents(), moves);
 	}
 
 	/**
-	 * Compacts the board vertically, using the method {@link #compactBoardWidth(int, int, int)} to take each empty
-	 * block to the top of the board.
+	 * Fills a list with every legal shot with a different result, the same as {@link #generateMoves(MoveList)} but with
+	 * every block of a group whose shot creates a special block, because the special block is created where the group is
+	 * shot. It is used by the searches that can't miss any result, such as the {@link PuzzleSolver}.
+	 *
+	 * @param moves List where the shots are stored. Its previous moves are removed.
 	 *
-	 * @param column   Column where the candies were removed.
-	 * @param upperPos Upper position where the first candy was deleted.
-	 * @param lowerPos Bottom position where the last candy was deleted.
+	 * @return The number of shots.
 	 */
-	private void compactBoardHeight(int column, int upperPos, int lowerPos) {
-		for (int i = upperPos; i <= lowerPos; i++) {
-			if (this.table[i][column].isBlank()) {
-				this.compactBoardWidth(i, column, column);
-			}
+	public int generateAllMoves(MoveList moves) {
+		if (this.moveGenerator == null) {
+			this.moveGenerator = new MoveGenerator(this, this.grid, this.gameScore);
 		}
+
+		return this.moveGenerator.generate(this.updatedComponents(), moves, true);
 	}
 
 	/**
-	 * Verifies if in a selected spot there are more Blocks with the same color at its left, right, top and/or bottom.
+	 * Verifies if in a selected spot there are more Blocks with the same color at its left, right, top and/or bottom, the
+	 * same blocks that would be removed by a shot. Special blocks can always be shot, and empty spots never.
 	 *
 	 * @param row    Row of the selected spot.
 	 * @param column Column of the selected spot.
 	 *
 	 * @return <code>true</code> if the selected Block has more Blocks with the same Color at its left, right, top and/or
-	 * bottom, <code>false</code> otherwise.
+	 * bottom or if it is a special block, <code>false</code> otherwise (also if the spot is empty).
 	 */
 	public boolean hasSurroundingBlocks(int row, int column) {
-		return this.firstLeftCandyPos(row, column) != this.lastRightCandyPos(row, column) ||
-				this.firstUpperCandyPos(row, column) != this.lastLowerCandyPos(row, column) ||
-				this.table[row][column].isSpecialBlock();
+		int index = this.grid.index(row, column);
+		byte cell = this.grid.get(index);
+
+		if (PackedGrid.isBlank(cell)) {
+			return false;
+		}
+
+		if (this.bitBoard != null) {
+			return this.updatedBitBoard().hasSurroundingBlocks(row, column);
+		}
+
+		for (int offset : this.grid.neighbours()) {
+			if (PackedGrid.sameColor(cell, this.grid.get(index + offset))) {
+				return true;
+			}
+		}
+
+		return PackedGrid.isSpecial(cell);
 	}
 
 	/**
@@ -366,7 +1031,11 @@ public class Board {
 	private int firstLeftCandyPos(int row, int column) {
 		int before = column;
 
-		while (before > 0 && this.table[row][before].equals(this.table[row][before - 1])) {
+		int index = this.grid.index(row, column);
+		int stride = this.grid.getColumnStride();
+
+		while (before > 0 && PackedGrid.sameBlock(this.grid.get(index), this.grid.get(index - stride))) {
+			index -= stride;
 			before--;
 		}
 
@@ -385,7 +1054,11 @@ public class Board {
 	private int lastRightCandyPos(int row, int column) {
 		int after = column;
 
-		while (after < this.table.length - 1 && this.table[row][after].equals(this.table[row][after + 1])) {
+		int index = this.grid.index(row, column);
+		int stride = this.grid.getColumnStride();
+
+		while (after < this.grid.getColumns() - 1 && PackedGrid.sameBlock(this.grid.get(index), this.grid.get(index + stride))) {
+			index += stride;
 			after++;
 		}
 
@@ -404,7 +1077,11 @@ public class Board {
 	private int firstUpperCandyPos(int row, int column) {
 		int before = row;
 
-		while (before > 0 && (this.table[before][column].equals(this.table[before - 1][column]))) {
+		int index = this.grid.index(row, column);
+		int stride = this.grid.getStride();
+
+		while (before > 0 && PackedGrid.sameBlock(this.grid.get(index), this.grid.get(index - stride))) {
+			index -= stride;
 			before--;
 		}
 
@@ -423,26 +1100,17 @@ public class Board {
 	private int lastLowerCandyPos(int row, int column) {
 		int after = row;
 
-		while (after < this.table.length - 1 && this.table[after][column].equals(this.table[after + 1][column])) {
+		int index = this.grid.index(row, column);
+		int stride = this.grid.getStride();
+
+		while (after < this.grid.getRows() - 1 && PackedGrid.sameBlock(this.grid.get(index), this.grid.get(index + stride))) {
+			index += stride;
 			after++;
 		}
 
 		return after;
 	}
 
-	/**
-	 * Fills the empty blocks after shooting, making the game infinite.
-	 */
-	private void fillEmptyWithNewBlocks() {
-		for (int i = 0; i < this.table.length; i++) {
-			for (int j = 0; j < this.table.length; j++) {
-				if (this.table[i][j].isBlank()) {
-					this.table[i][j] = new Block(this.numColors);
-				}
-			}
-		}
-	}
-
 	/**
 	 * Logs the board with its letters only.
 	 *
@@ -451,15 +1119,23 @@ public class Board {
 	public String debugBoard() {
 		StringBuilder debug = new StringBuilder();
 		logger.debug("Debugging board");
+		this.appendLetters(debug);
 
-		for (Block[] blocks : this.table) {
-			for (Block block : blocks) {
-				debug.append(block.getLetter());
+		return debug.toString();
+	}
+
+	/**
+	 * Appends the letters of the board, the same text as {@link #debugBoard()}, without logging it.
+	 *
+	 * @param out Where the letters are appended: the letters of every row followed by a space.
+	 */
+	void appendLetters(StringBuilder out) {
+		for (int i = 0; i < this.grid.getRows(); i++) {
+			for (int j = 0; j < this.grid.getColumns(); j++) {
+				out.append(PackedGrid.letterOf(this.grid.get(this.grid.index(i, j))));
 			}
-			debug.append(' ');
+			out.append(' ');
 		}
-
-		return debug.toString();
 	}
 
 	/**
@@ -477,109 +1153,59 @@ public class Board {
 	 * @return The Board that is played.
 	 */
 	public String toString() {
-		// Appending the scoreboard
-		StringBuilder outputBoard = new StringBuilder(this.gameScore.toString());
-
-		outputBoard.append("\n  ");
-
-		// If the board size is greater than 9 prints the first number of the column.
-		for (int i = 0; i < this.table.length; i++) {
-			if (i == 10) {
-				outputBoard.append("|");
-			}
-
-			if (i >= 10) {
-				outputBoard.append(i / 10).append("|");
-			} else {
-				outputBoard.append("  ");
-			}
-		}
-
-		// Prints the numbers of the columns.
-		outputBoard.append("\n  ");
-		for (int i = 0; i < this.table.length; i++) {
-			outputBoard.append("|").append(i % 10);
-		}
-		outputBoard.append("|" + "\n");
-
-		for (int i = 0; i < this.table.length; i++) {
-			// Space for the first number of the line number if it is greater than 9.
-			if (i < 10) {
-				outputBoard.append(" ");
-			}
+		return StandardCharsets.US_ASCII.decode(this.renderer().render()).toString();
+	}
 
-			// Candies in the line i
-			StringBuilder line = new StringBuilder();
-			for (int j = 0; j < this.table[i].length; j++) {
-				line.append(this.table[i][j]);
-			}
+	/**
+	 * Renders the board with colors, the numbers of the axis and the score into a reused buffer, without creating a String
+	 * per block.
+	 *
+	 * @return The buffer with the rendered board, ready to be read. It is overwritten by the next call.
+	 */
+	public ByteBuffer render() {
+		return this.renderer().render();
+	}
 
-			outputBoard.append(i).append("|").append(line).append("\n");
-		}
+	/**
+	 * Creates a terminal frame that draws this board, writing only the changes after the first frame.
+	 *
+	 * @return A new terminal frame.
+	 */
+	public TerminalFrame newTerminalFrame() {
+		return new TerminalFrame(this.grid, this.gameScore, this.renderer());
+	}
 
-		return outputBoard.toString();
+	/**
+	 * Renders the board with colors, the numbers of the axis and the score.
+	 *
+	 * @param out Where the board is written.
+	 *
+	 * @throws IOException If the board can't be written.
+	 */
+	public void renderTo(Appendable out) throws IOException {
+		this.renderer().renderTo(out);
 	}
 
 	/**
-	 * Deleting all the connected block using recursion.
+	 * Deletes all the blocks connected to the selected one with its same color. Nothing is deleted if the selected block is
+	 * empty or it has no surrounding blocks with the same color.
 	 *
 	 * @param row    Row of the selected spot.
 	 * @param column Column of the selected spot.
+	 *
+	 * @return The number of deleted blocks.
 	 */
-	private void deleteBlocks(int row, int column) {
-		if (!this.table[row][column].isVisited()) {
-			this.table[row][column].setVisited(true);
-			boolean var1 = false;
-
-			try {
-				// Right candy
-				if (this.table[row][column].compareTo(this.table[row][column + 1]) == 0) {
-					this.deleteBlocks(row, column + 1);
-					this.table[row][column + 1].setToBlank();
-					var1 = true;
-				}
-			} catch (ArrayIndexOutOfBoundsException ignored) {/**/}
-
-			try {
-				// Upper candy
-				if (this.table[row][column].compareTo(this.table[row - 1][column]) == 0) {
-					this.deleteBlocks(row - 1, column);
-					this.table[row - 1][column].setToBlank();
-					var1 = true;
-				}
-			} catch (ArrayIndexOutOfBoundsException ignored) {/**/}
-
-			try {
-				// Left candy
-				if (this.table[row][column].compareTo(this.table[row][column - 1]) == 0) {
-					this.deleteBlocks(row, column - 1);
-					this.table[row][column - 1].setToBlank();
-					var1 = true;
-				}
-			} catch (ArrayIndexOutOfBoundsException ignored) {/**/}
-
-			try {
-				// Bottom candy
-				if (this.table[row][column].compareTo(this.table[row + 1][column]) == 0) {
-					this.deleteBlocks(row + 1, column);
-					this.table[row + 1][column].setToBlank();
-					var1 = true;
-				}
-			} catch (ArrayIndexOutOfBoundsException ignored) {/**/}
-
-			try {
-				// Bottom candy
-				if (this.table[row][column].compareTo(this.table[row + 1][column]) == 0) {
-					this.deleteBlocks(row + 1, column);
-					this.table[row + 1][column].setToBlank();
-					var1 = true;
-				}
-			} catch (ArrayIndexOutOfBoundsException ignored) {/**/}
+	private int deleteBlocks(int row, int column) {
+		int found = this.floodFill().fill(row, column);
 
-			if (var1) {
-				this.table[row][column].setToBlank();
-			}
+		if (found < 2 || PackedGrid.isBlank(this.grid.get(this.grid.index(row, column)))) {
+			return 0;
+		}
 
+		for (int i = 0; i < found; i++) {
+			this.clearCell(this.floodFill().getCell(i));
 		}
+
+		return found;
 	}
 }
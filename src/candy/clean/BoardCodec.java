@@ -0,0 +1,163 @@
+package candy.clean;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary form of a board: its packed cells, its score with the scoring rules and the position of every stream
+ * of its generator of the candies, so a decoded board continues the same game with the same new candies. The helpers
+ * of the board (the index of the groups, the hash, the journal) aren't written, they are created again when needed.
+ *
+ * <p>The layout is the number of rows and columns (a byte each), the number of colors (a byte), the cells row by row
+ * with 4 bits per cell (the color and the special flag, the first cell of every byte in the high bits), the type of
+ * every special block in the same order (a byte each), the score (points, objective, multiplier and streak), the rules,
+ * and a byte that says if there is a generator followed by its seed and the state of every column. The numbers are
+ * big-endian.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+final class BoardCodec {
+
+	/**
+	 * Bit of the special flag in the 4 bits of a cell.
+	 */
+	private static final int SPECIAL_BIT = 0x08;
+
+	/**
+	 * Class constructor, not used because all the methods are static.
+	 */
+	private BoardCodec() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Returns the maximum number of bytes of an encoded board.
+	 *
+	 * @param board The board.
+	 *
+	 * @return The length of the encoded board.
+	 */
+	static int maxEncodedLength(Board board) {
+		PackedGrid grid = board.getGrid();
+
+		return 3 + (grid.size() + 1) / 2 + grid.size() + 24 + board.getScore().getRules().maxEncodedLength() + 1 + 8 + 8 * grid.getColumns();
+	}
+
+	/**
+	 * Writes a board.
+	 *
+	 * @param board The board.
+	 * @param out   Buffer where the board is written, with at least {@link #maxEncodedLength(Board)} bytes remaining.
+	 */
+	static void encode(Board board, ByteBuffer out) {
+		PackedGrid grid = board.getGrid();
+		Score score = board.getScore();
+		CandySource source = board.getCandySource();
+
+		out.put((byte) grid.getRows()).put((byte) grid.getColumns()).put((byte) board.getNumColors());
+
+		int pair = 0;
+
+		for (int k = 0; k < grid.size(); k++) {
+			byte cell = grid.get(grid.index(k / grid.getColumns(), k % grid.getColumns()));
+			int nibble = PackedGrid.colorOf(cell) | (PackedGrid.isSpecial(cell) ? SPECIAL_BIT : 0);
+
+			if (k % 2 == 0) {
+				pair = nibble << 4;
+			} else {
+				out.put((byte) (pair | nibble));
+			}
+		}
+
+		if (grid.size() % 2 != 0) {
+			out.put((byte) pair);
+		}
+
+		for (int k = 0; k < grid.size(); k++) {
+			byte cell = grid.get(grid.index(k / grid.getColumns(), k % grid.getColumns()));
+
+			if (PackedGrid.isSpecial(cell)) {
+				out.put((byte) PackedGrid.typeOf(cell));
+			}
+		}
+
+		out.putLong(score.getPunctuation()).putLong(score.getObjective()).putInt(score.getMultiplier())
+				.putInt(score.getStreak());
+		score.getRules().encode(out);
+		out.put((byte) (source == null ? 0 : 1));
+
+		if (source != null) {
+			out.putLong(source.getSeed());
+
+			for (int j = 0; j < source.getColumns(); j++) {
+				out.putLong(source.getState(j));
+			}
+		}
+	}
+
+	/**
+	 * Reads a board written by {@link #encode(Board, ByteBuffer)}.
+	 *
+	 * @param in Buffer where the board is read.
+	 *
+	 * @return The board.
+	 *
+	 * @throws CandyCleanException If the bytes aren't a valid board.
+	 */
+	static Board decode(ByteBuffer in) throws CandyCleanException {
+		try {
+			int rows = in.get() & 0xFF;
+			int columns = in.get() & 0xFF;
+			int numColors = in.get() & 0xFF;
+
+			if (rows == 0 || columns == 0 || rows > Constants.MAX_DIMENSIONS || columns > Constants.MAX_DIMENSIONS ||
+					numColors > Constants.MAX_COLORS) {
+				throw new CandyCleanException("The saved board isn't valid.");
+			}
+
+			PackedGrid grid = new PackedGrid(rows, columns);
+			int pair = 0;
+
+			for (int k = 0; k < grid.size(); k++) {
+				if (k % 2 == 0) {
+					pair = in.get();
+				}
+
+				int nibble = (k % 2 == 0 ? pair >>> 4 : pair) & 0x0F;
+				grid.set(grid.index(k / columns, k % columns), PackedGrid.pack(nibble & PackedGrid.COLOR_MASK,
+						Constants.NORMAL_TYPE, (nibble & SPECIAL_BIT) != 0));
+			}
+
+			for (int k = 0; k < grid.size(); k++) {
+				int index = grid.index(k / columns, k % columns);
+				byte cell = grid.get(index);
+
+				if (PackedGrid.isSpecial(cell)) {
+					grid.set(index, PackedGrid.pack(PackedGrid.colorOf(cell), in.get() & PackedGrid.TYPE_MASK, true));
+				}
+			}
+
+			long punctuation = in.getLong();
+			long objective = in.getLong();
+			int multiplier = in.getInt();
+			int streak = in.getInt();
+			Score score = new Score(objective, ScoringRules.decode(in));
+			CandySource source = null;
+
+			score.restore(punctuation, multiplier, streak);
+
+			if (in.get() != 0) {
+				source = new CandySource(in.getLong(), numColors, columns);
+
+				for (int j = 0; j < columns; j++) {
+					source.setState(j, in.getLong());
+				}
+			}
+
+			return new Board(grid, numColors, score, source);
+		} catch (BufferUnderflowException e) {
+			throw new CandyCleanException("The saved board is incomplete.");
+		}
+	}
+}
@@ -0,0 +1,362 @@
+package candy.clean;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Compact binary form of the changes made by a shot, to keep a mirror of a board (in a network client, a replay or a
+ * terminal) without sending the whole board again. The board notifies the changed cells while it shoots, and at the end
+ * of the shot the delta is encoded into a buffer reused by every shot.
+ *
+ * <p>The layout is the change of the score, the multiplier and the streak after the shot, the number of segments and
+ * the segments. A segment is a run of consecutive rows of a column: the column, the first row and the number of rows,
+ * the cells with 4 bits per cell (the color and the special flag, the first cell of every byte in the high bits) and the
+ * type of every special block of the segment (a byte each). Runs separated by a few unchanged cells are joined, because
+ * the unchanged cells are cheaper than a new segment. The numbers are variable-length integers of 7 bits per byte, and
+ * the change of the score is zigzag encoded, so a typical shot only needs a few dozen bytes.</p>
+ *
+ * <p>The delta only has the cells and the score. The generator of the candies of the mirror isn't updated, so a mirror
+ * must be changed only by deltas.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class BoardDelta implements CellListener {
+
+	/**
+	 * Bit of the special flag in the 4 bits of a cell.
+	 */
+	private static final int SPECIAL_BIT = 0x08;
+
+	/**
+	 * Maximum number of unchanged cells between two runs of the same column that are joined in one segment.
+	 */
+	private static final int MAX_GAP = 4;
+
+	/**
+	 * Maximum number of bytes of a variable-length integer.
+	 */
+	private static final int MAX_VARINT = 10;
+
+	/**
+	 * Indicates if the changes of the cells are being recorded.
+	 */
+	private boolean recording;
+
+	/**
+	 * Number of the shot in which each cell changed for the last time, indexed by the index of the cell.
+	 */
+	private int[] marks = new int[0];
+
+	/**
+	 * Number of the current shot.
+	 */
+	private int epoch;
+
+	/**
+	 * Indexes of the cells changed by the current shot, without repetitions.
+	 */
+	private int[] changed = new int[0];
+
+	/**
+	 * Values of the changed cells before the current shot.
+	 */
+	private byte[] befores = new byte[0];
+
+	/**
+	 * Number of cells changed by the current shot.
+	 */
+	private int changedCount;
+
+	/**
+	 * Encoded delta of the last shot.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Starts recording the changes of a shot.
+	 *
+	 * @param grid Grid of the board.
+	 */
+	void beginShot(PackedGrid grid) {
+		if (this.marks.length != grid.capacity()) {
+			this.marks = new int[grid.capacity()];
+			this.changed = new int[grid.size()];
+			this.befores = new byte[grid.size()];
+			this.buffer = ByteBuffer.allocateDirect(maxEncodedLength(grid));
+			this.epoch = 0;
+		}
+
+		if (++this.epoch == 0) {
+			Arrays.fill(this.marks, 0);
+			this.epoch = 1;
+		}
+
+		this.changedCount = 0;
+		this.recording = true;
+	}
+
+	@Override
+	public void cellChanged(int index, byte before, byte after) {
+		if (!this.recording || this.marks[index] == this.epoch) {
+			return;
+		}
+
+		this.marks[index] = this.epoch;
+		this.changed[this.changedCount] = index;
+		this.befores[this.changedCount] = before;
+		this.changedCount++;
+	}
+
+	/**
+	 * Stops recording the changes of the shot and encodes them.
+	 *
+	 * @param grid       Grid of the board.
+	 * @param score      Score of the board after the shot.
+	 * @param scoreDelta Change of the score made by the shot.
+	 */
+	void endShot(PackedGrid grid, Score score, long scoreDelta) {
+		int count = 0;
+
+		// The cells that got back their value during the shot (a fallen candy of the same color) aren't sent.
+		for (int i = 0; i < this.changedCount; i++) {
+			if (grid.get(this.changed[i]) != this.befores[i]) {
+				this.changed[count++] = this.changed[i];
+			}
+		}
+
+		this.changedCount = count;
+		this.recording = false;
+		Arrays.sort(this.changed, 0, count);
+
+		this.buffer.clear();
+		putVarLong(this.buffer, (scoreDelta << 1) ^ (scoreDelta >> 63));
+		putVarLong(this.buffer, score.getMultiplier());
+		putVarLong(this.buffer, score.getStreak());
+		putVarLong(this.buffer, this.countSegments(grid));
+
+		for (int i = 0; i < count; ) {
+			int end = this.segmentEnd(grid, i);
+			int first = this.changed[i];
+			int length = this.changed[end] - first + 1;
+
+			putVarLong(this.buffer, grid.columnOf(first));
+			putVarLong(this.buffer, grid.rowOf(first));
+			putVarLong(this.buffer, length);
+			this.putCells(grid, first, length);
+			i = end + 1;
+		}
+
+		this.buffer.flip();
+	}
+
+	/**
+	 * Returns the encoded delta of the last shot.
+	 *
+	 * @return The buffer with the delta, ready to be read. It is overwritten by the next shot.
+	 */
+	public ByteBuffer getBuffer() {
+		return this.buffer;
+	}
+
+	/**
+	 * Returns the number of cells changed by the last shot.
+	 *
+	 * @return The number of changed cells.
+	 */
+	public int getChangedCount() {
+		return this.changedCount;
+	}
+
+	/**
+	 * Applies a delta to a mirror of the board where it was encoded. After the delta, the mirror has the same cells and
+	 * score as the board after the shot.
+	 *
+	 * @param delta  Buffer with the delta, read from its position.
+	 * @param mirror The board with the same cells and score as the board before the shot.
+	 *
+	 * @throws CandyCleanException If the bytes aren't a valid delta of the mirror.
+	 */
+	public static void apply(ByteBuffer delta, Board mirror) throws CandyCleanException {
+		PackedGrid grid = mirror.getGrid();
+		Score score = mirror.getScore();
+
+		try {
+			long zigzag = getVarLong(delta);
+			long punctuation = score.getPunctuation() + ((zigzag >>> 1) ^ -(zigzag & 1));
+			int multiplier = (int) getVarLong(delta);
+			int streak = (int) getVarLong(delta);
+			long segments = getVarLong(delta);
+
+			for (long s = 0; s < segments; s++) {
+				long column = getVarLong(delta);
+				long row = getVarLong(delta);
+				long length = getVarLong(delta);
+
+				if (column < 0 || column >= grid.getColumns() || row < 0 || row >= grid.getRows() || length <= 0 ||
+						length > grid.getRows() - row) {
+					throw new CandyCleanException("The delta of the board isn't valid.");
+				}
+
+				getCells(delta, grid, grid.index((int) row, (int) column), (int) length);
+			}
+
+			score.restore(punctuation, multiplier, streak);
+		} catch (BufferUnderflowException e) {
+			throw new CandyCleanException("The delta of the board is incomplete.");
+		}
+	}
+
+	/**
+	 * Counts the segments of the sorted changed cells.
+	 *
+	 * @param grid Grid of the board.
+	 *
+	 * @return The number of segments.
+	 */
+	private int countSegments(PackedGrid grid) {
+		int segments = 0;
+
+		for (int i = 0; i < this.changedCount; i = this.segmentEnd(grid, i) + 1) {
+			segments++;
+		}
+
+		return segments;
+	}
+
+	/**
+	 * Finds the last changed cell of the segment that starts at a changed cell.
+	 *
+	 * @param grid  Grid of the board.
+	 * @param first Position of the first cell of the segment in the sorted changed cells.
+	 *
+	 * @return Position of the last cell of the segment.
+	 */
+	private int segmentEnd(PackedGrid grid, int first) {
+		int column = grid.columnOf(this.changed[first]);
+		int end = first;
+
+		while (end + 1 < this.changedCount && grid.columnOf(this.changed[end + 1]) == column &&
+				this.changed[end + 1] - this.changed[end] <= MAX_GAP + 1) {
+			end++;
+		}
+
+		return end;
+	}
+
+	/**
+	 * Writes the cells of a segment.
+	 *
+	 * @param grid   Grid of the board.
+	 * @param first  Index of the first cell.
+	 * @param length Number of cells, in consecutive rows.
+	 */
+	private void putCells(PackedGrid grid, int first, int length) {
+		int pair = 0;
+
+		for (int k = 0; k < length; k++) {
+			byte cell = grid.get(first + k);
+			int nibble = PackedGrid.colorOf(cell) | (PackedGrid.isSpecial(cell) ? SPECIAL_BIT : 0);
+
+			if (k % 2 == 0) {
+				pair = nibble << 4;
+			} else {
+				this.buffer.put((byte) (pair | nibble));
+			}
+		}
+
+		if (length % 2 != 0) {
+			this.buffer.put((byte) pair);
+		}
+
+		for (int k = 0; k < length; k++) {
+			byte cell = grid.get(first + k);
+
+			if (PackedGrid.isSpecial(cell)) {
+				this.buffer.put((byte) PackedGrid.typeOf(cell));
+			}
+		}
+	}
+
+	/**
+	 * Reads the cells of a segment into a grid.
+	 *
+	 * @param in     Buffer where the cells are read.
+	 * @param grid   Grid of the mirror.
+	 * @param first  Index of the first cell.
+	 * @param length Number of cells, in consecutive rows.
+	 */
+	private static void getCells(ByteBuffer in, PackedGrid grid, int first, int length) {
+		int pair = 0;
+
+		for (int k = 0; k < length; k++) {
+			if (k % 2 == 0) {
+				pair = in.get();
+			}
+
+			int nibble = (k % 2 == 0 ? pair >>> 4 : pair) & 0x0F;
+			grid.set(first + k, PackedGrid.pack(nibble & PackedGrid.COLOR_MASK, Constants.NORMAL_TYPE,
+					(nibble & SPECIAL_BIT) != 0));
+		}
+
+		for (int k = 0; k < length; k++) {
+			byte cell = grid.get(first + k);
+
+			if (PackedGrid.isSpecial(cell)) {
+				grid.set(first + k, PackedGrid.pack(PackedGrid.colorOf(cell), in.get() & PackedGrid.TYPE_MASK, true));
+			}
+		}
+	}
+
+	/**
+	 * Returns the maximum number of bytes of the delta of a shot: the score and every cell in its own segment.
+	 *
+	 * @param grid Grid of the board.
+	 *
+	 * @return The length of the largest delta.
+	 */
+	private static int maxEncodedLength(PackedGrid grid) {
+		return 4 * MAX_VARINT + grid.size() * (3 * MAX_VARINT + 2);
+	}
+
+	/**
+	 * Writes a number that isn't negative in 7 bits per byte, the lowest bits first, with the highest bit of every byte
+	 * set if more bytes follow.
+	 *
+	 * @param out   Buffer where the number is written.
+	 * @param value The number.
+	 */
+	private static void putVarLong(ByteBuffer out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		out.put((byte) value);
+	}
+
+	/**
+	 * Reads a number written by {@link #putVarLong(ByteBuffer, long)}.
+	 *
+	 * @param in Buffer where the number is read.
+	 *
+	 * @return The number.
+	 *
+	 * @throws CandyCleanException If the number is longer than a <code>long</code>.
+	 */
+	private static long getVarLong(ByteBuffer in) throws CandyCleanException {
+		long value = 0;
+
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = in.get();
+			value |= (long) (b & 0x7F) << shift;
+
+			if (b >= 0) {
+				return value;
+			}
+		}
+
+		throw new CandyCleanException("The delta of the board isn't valid.");
+	}
+}
@@ -0,0 +1,260 @@
+package candy.clean;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Renders a board with its score and the numbers of the axis, the same text as {@link Board#toString()}. Every colored
+ * cell is encoded to bytes once and the frame is written into a buffer that is reused between frames, so rendering a
+ * board doesn't create any String.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class BoardRenderer {
+
+	/**
+	 * Encoded colored representation of every packed cell, indexed by its color, type and special flag bits.
+	 */
+	private static final byte[][] CELL_BYTES = new byte[PackedGrid.SPECIAL_FLAG << 1][];
+
+	/**
+	 * Longest encoded cell.
+	 */
+	static final int MAX_CELL_LENGTH;
+
+	/**
+	 * Encoded text before the score.
+	 */
+	private static final byte[] SCORE = ascii("Score = ");
+
+	/**
+	 * Encoded text before the objective.
+	 */
+	private static final byte[] OBJECTIVE = ascii("  Objective = ");
+
+	/**
+	 * Encoded text before the multiplier.
+	 */
+	private static final byte[] MULTIPLIER = ascii("  Multiplier = x");
+
+	/**
+	 * Encoded text before the streak.
+	 */
+	private static final byte[] STREAK = ascii("  Current streak = ");
+
+	/**
+	 * Maximum length of the score line (the texts and four numbers).
+	 */
+	static final int SCORE_LENGTH = SCORE.length + OBJECTIVE.length + MULTIPLIER.length + STREAK.length + 4 * 20 + 2;
+
+	/**
+	 * Line of the frame (starting at 1) where the score is rendered.
+	 */
+	static final int SCORE_LINE = 2;
+
+	/**
+	 * Number of lines of the frame before the first row of the board: a blank line, the score, a blank line and the two
+	 * lines with the numbers of the columns.
+	 */
+	static final int HEADER_LINES = 5;
+
+	static {
+		int max = 0;
+
+		for (int i = 0; i < CELL_BYTES.length; i++) {
+			byte cell = (byte) i;
+			Color color = Color.of(PackedGrid.colorOf(cell));
+			boolean special = PackedGrid.isSpecial(cell) && !PackedGrid.isBlank(cell);
+
+			CELL_BYTES[i] = ascii(color.getCell(special ? PackedGrid.typeOf(cell) : Constants.NORMAL_TYPE));
+			max = Math.max(max, CELL_BYTES[i].length);
+		}
+
+		MAX_CELL_LENGTH = max;
+	}
+
+	/**
+	 * Grid that is rendered.
+	 */
+	private final PackedGrid grid;
+
+	/**
+	 * Score that is rendered above the grid.
+	 */
+	private final Score score;
+
+	/**
+	 * Buffer reused for every frame.
+	 */
+	private final ByteBuffer frame;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param grid  Grid that is rendered.
+	 * @param score Score that is rendered above the grid.
+	 */
+	public BoardRenderer(PackedGrid grid, Score score) {
+		this.grid = grid;
+		this.score = score;
+		this.frame = ByteBuffer.allocateDirect(maxFrameLength(grid.getRows(), grid.getColumns()));
+	}
+
+	/**
+	 * Returns the maximum number of bytes of a frame.
+	 *
+	 * @param rows    Number of rows of the board.
+	 * @param columns Number of columns of the board.
+	 *
+	 * @return The length of the longest frame.
+	 */
+	public static int maxFrameLength(int rows, int columns) {
+		int axis = 2 * (3 + 2 * columns + 1);
+
+		return SCORE_LENGTH + axis + rows * (3 + 20 + columns * MAX_CELL_LENGTH + 1);
+	}
+
+	/**
+	 * Renders the board into the reused buffer.
+	 *
+	 * @return The buffer with the frame, ready to be read. It is overwritten by the next call.
+	 */
+	public ByteBuffer render() {
+		this.frame.clear();
+		this.renderTo(this.frame);
+		this.frame.flip();
+
+		return this.frame;
+	}
+
+	/**
+	 * Renders the board into a buffer.
+	 *
+	 * @param out Buffer where the frame is written. It must have {@link #maxFrameLength(int, int)} bytes remaining.
+	 */
+	public void renderTo(ByteBuffer out) {
+		// Appending the scoreboard
+		out.put((byte) '\n');
+		this.renderScore(out);
+		out.put((byte) '\n');
+
+		out.put((byte) '\n').put((byte) ' ').put((byte) ' ');
+
+		// If the board size is greater than 9 prints the first number of the column.
+		for (int i = 0; i < this.grid.getColumns(); i++) {
+			if (i == 10) {
+				out.put((byte) '|');
+			}
+
+			if (i >= 10) {
+				putNumber(out, i / 10);
+				out.put((byte) '|');
+			} else {
+				out.put((byte) ' ').put((byte) ' ');
+			}
+		}
+
+		// Prints the numbers of the columns.
+		out.put((byte) '\n').put((byte) ' ').put((byte) ' ');
+
+		for (int i = 0; i < this.grid.getColumns(); i++) {
+			out.put((byte) '|').put((byte) ('0' + i % 10));
+		}
+
+		out.put((byte) '|').put((byte) '\n');
+
+		for (int i = 0; i < this.grid.getRows(); i++) {
+			// Space for the first number of the line number if it is greater than 9.
+			if (i < 10) {
+				out.put((byte) ' ');
+			}
+
+			putNumber(out, i);
+			out.put((byte) '|');
+
+			// Candies in the line i
+			for (int j = 0; j < this.grid.getColumns(); j++) {
+				putCell(out, this.grid.get(this.grid.index(i, j)));
+			}
+
+			out.put((byte) '\n');
+		}
+	}
+
+	/**
+	 * Renders the line of the score, without line breaks.
+	 *
+	 * @param out Buffer where the line is written.
+	 */
+	void renderScore(ByteBuffer out) {
+		out.put(SCORE);
+		putNumber(out, this.score.getPunctuation());
+		out.put(OBJECTIVE);
+		putNumber(out, this.score.getObjective());
+		out.put(MULTIPLIER);
+		putNumber(out, this.score.getMultiplier());
+		out.put(STREAK);
+		putNumber(out, this.score.getStreak());
+	}
+
+	/**
+	 * Renders the board into an {@link Appendable}, such as a {@link StringBuilder} or a {@link java.io.Writer}.
+	 *
+	 * @param out Where the frame is written.
+	 *
+	 * @throws IOException If the frame can't be written.
+	 */
+	public void renderTo(Appendable out) throws IOException {
+		ByteBuffer rendered = this.render();
+
+		while (rendered.hasRemaining()) {
+			out.append((char) rendered.get());
+		}
+	}
+
+	/**
+	 * Writes the colored representation of a packed cell.
+	 *
+	 * @param out  Buffer where the cell is written.
+	 * @param cell The packed cell.
+	 */
+	static void putCell(ByteBuffer out, byte cell) {
+		out.put(CELL_BYTES[cell & PackedGrid.VALUE_MASK]);
+	}
+
+	/**
+	 * Writes the decimal digits of a number.
+	 *
+	 * @param out    Buffer where the number is written.
+	 * @param number The number.
+	 */
+	static void putNumber(ByteBuffer out, long number) {
+		if (number < 0) {
+			out.put((byte) '-');
+			number = -number;
+		}
+
+		long divisor = 1;
+
+		while (number / divisor >= 10) {
+			divisor *= 10;
+		}
+
+		for (; divisor > 0; divisor /= 10) {
+			out.put((byte) ('0' + number / divisor % 10));
+		}
+	}
+
+	/**
+	 * Encodes a text without accents.
+	 *
+	 * @param text The text.
+	 *
+	 * @return The bytes of the text.
+	 */
+	private static byte[] ascii(String text) {
+		return text.getBytes(StandardCharsets.US_ASCII);
+	}
+}
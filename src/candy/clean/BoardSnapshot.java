@@ -0,0 +1,188 @@
+package candy.clean;
+
+/**
+ * Immutable view of the state of a board at some moment: its cells, its score and the position of its generator of the
+ * candies. The cells are shared with the board (and with the other snapshots and forks) until the board changes them,
+ * so taking a snapshot doesn't copy the board.
+ *
+ * <p>New games are started from a snapshot with {@link #fork()}, as many times as needed. Several threads can fork and
+ * read the same snapshot at once: its hash is computed when it is taken, and {@link #toString()}, which reuses the
+ * buffer of the renderer of the board, is synchronized.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class BoardSnapshot {
+
+	/**
+	 * Board that is never shot, with the state of the snapshot.
+	 */
+	private final Board board;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param board Fork of the board that is kept without changes.
+	 */
+	BoardSnapshot(Board board) {
+		this.board = board;
+	}
+
+	/**
+	 * Creates a mutable board with the state of the snapshot.
+	 *
+	 * @return The new board.
+	 */
+	public Board fork() {
+		return this.board.fork();
+	}
+
+	/**
+	 * Returns the board of the snapshot, which must not be changed. It can be read by any thread.
+	 *
+	 * @return The board.
+	 */
+	Board getBoard() {
+		return this.board;
+	}
+
+	/**
+	 * Returns the number of rows.
+	 *
+	 * @return The number of rows of the board.
+	 */
+	public int getRows() {
+		return this.board.getGrid().getRows();
+	}
+
+	/**
+	 * Returns the number of columns.
+	 *
+	 * @return The number of columns of the board.
+	 */
+	public int getColumns() {
+		return this.board.getGrid().getColumns();
+	}
+
+	/**
+	 * Returns the letter of the color of a block.
+	 *
+	 * @param row    Row of the block.
+	 * @param column Column of the block.
+	 *
+	 * @return Letter of the color (E if the cell is empty).
+	 */
+	public char getLetter(int row, int column) {
+		return PackedGrid.letterOf(this.cell(row, column));
+	}
+
+	/**
+	 * Checks if a block is special.
+	 *
+	 * @param row    Row of the block.
+	 * @param column Column of the block.
+	 *
+	 * @return <code>true</code> if the block is special, <code>false</code> otherwise.
+	 */
+	public boolean isSpecial(int row, int column) {
+		return PackedGrid.isSpecial(this.cell(row, column));
+	}
+
+	/**
+	 * Returns the type of a block.
+	 *
+	 * @param row    Row of the block.
+	 * @param column Column of the block.
+	 *
+	 * @return Type of the explosion of the block (Defined in Constants class).
+	 */
+	public int getType(int row, int column) {
+		return PackedGrid.typeOf(this.cell(row, column));
+	}
+
+	/**
+	 * Returns the hash of the cells, the same as {@link Board#getHash()}.
+	 *
+	 * @return The Zobrist hash of the board.
+	 */
+	public long getHash() {
+		return this.board.getHash();
+	}
+
+	/**
+	 * Returns the points of the score.
+	 *
+	 * @return The points.
+	 */
+	public long getPunctuation() {
+		return this.board.getScore().getPunctuation();
+	}
+
+	/**
+	 * Returns the objective of the score.
+	 *
+	 * @return The objective.
+	 */
+	public long getObjective() {
+		return this.board.getScore().getObjective();
+	}
+
+	/**
+	 * Returns the multiplier of the score.
+	 *
+	 * @return The multiplier.
+	 */
+	public int getMultiplier() {
+		return this.board.getScore().getMultiplier();
+	}
+
+	/**
+	 * Returns the streak of valid shots.
+	 *
+	 * @return The streak.
+	 */
+	public int getStreak() {
+		return this.board.getScore().getStreak();
+	}
+
+	/**
+	 * Returns the seed of the generator of the candies.
+	 *
+	 * @return The seed, 0 if it is a pre-designed board.
+	 */
+	public long getSeed() {
+		return this.board.getSeed();
+	}
+
+	/**
+	 * Checks if the objective was completed.
+	 *
+	 * @return <code>true</code> if the score is greater than the objective, <code>false</code> otherwise.
+	 */
+	public boolean haveWon() {
+		return this.board.haveWon();
+	}
+
+	/**
+	 * Returns the board as a String with colors, the same as {@link Board#toString()}.
+	 *
+	 * @return The board of the snapshot.
+	 */
+	public synchronized String toString() {
+		return this.board.toString();
+	}
+
+	/**
+	 * Returns a packed cell.
+	 *
+	 * @param row    Row of the cell.
+	 * @param column Column of the cell.
+	 *
+	 * @return The packed cell.
+	 */
+	private byte cell(int row, int column) {
+		PackedGrid grid = this.board.getGrid();
+
+		return grid.get(grid.index(row, column));
+	}
+}
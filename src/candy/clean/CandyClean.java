@@ -1,5 +1,13 @@
 package candy.clean;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Class that have important information of the game.
  *
@@ -8,11 +16,26 @@ package candy.clean;
  */
 public class CandyClean {
 
+	/**
+	 * Engine that searches the hints of all the games.
+	 */
+	private static final HintEngine HINTS = new HintEngine();
+
 	/**
 	 * Board of the game.
 	 */
 	private final Board board;
 
+	/**
+	 * Buffer reused by every save of the game, <code>null</code> until the game is saved.
+	 */
+	private ByteBuffer saveBuffer;
+
+	/**
+	 * Log where the shots are recorded, <code>null</code> if they aren't recorded.
+	 */
+	private ShotLog shotLog;
+
 	/**
 	 * Class constructor of the game.
 	 *
@@ -23,7 +46,47 @@ public class CandyClean {
 	 * @throws CandyCleanException If the size of the board or the number of colors aren't valid.
 	 */
 	public CandyClean(int dimensions, int numColors, int objective) throws CandyCleanException {
-		this.board = new Board(dimensions, numColors, new Score(objective));
+		this(dimensions, numColors, objective, CandySource.newSeed());
+	}
+
+	/**
+	 * Class constructor of the game with a known seed, used to replay a game. The same seed and the same shots always
+	 * give the same game.
+	 *
+	 * @param dimensions Dimensions of the board introduced by the player.
+	 * @param numColors  Number of colors the game will have.
+	 * @param objective  The objective of the game depending on the selected difficulty level.
+	 * @param seed       Seed of the generator of the candies.
+	 *
+	 * @throws CandyCleanException If the size of the board or the number of colors aren't valid.
+	 */
+	public CandyClean(int dimensions, int numColors, int objective, long seed) throws CandyCleanException {
+		this.board = new Board(dimensions, numColors, new Score(objective), seed);
+	}
+
+	/**
+	 * Class constructor of a game of a difficulty level.
+	 *
+	 * @param level Difficulty level of the game.
+	 * @param seed  Seed of the generator of the candies.
+	 *
+	 * @throws CandyCleanException If the size of the board or the number of colors of the level aren't valid.
+	 */
+	public CandyClean(Level level, long seed) throws CandyCleanException {
+		this(level, level.getRules(), seed);
+	}
+
+	/**
+	 * Class constructor of a game of a difficulty level with other scoring rules, such as {@link ScoringRules#EXPERT}.
+	 *
+	 * @param level Difficulty level of the game.
+	 * @param rules Rules used to compute the score instead of the rules of the level.
+	 * @param seed  Seed of the generator of the candies.
+	 *
+	 * @throws CandyCleanException If the size of the board or the number of colors of the level aren't valid.
+	 */
+	public CandyClean(Level level, ScoringRules rules, long seed) throws CandyCleanException {
+		this.board = new Board(level.getDimensions(), level.getNumColors(), new Score(level.getObjective(), rules), seed);
 	}
 
 	/**
@@ -59,6 +122,75 @@ public class CandyClean {
 		this.board = new Board(predefinedBoard, 4, new Score(80));
 	}
 
+	/**
+	 * Class constructor of a game played on a board.
+	 *
+	 * @param board Board of the game.
+	 */
+	CandyClean(Board board) {
+		this.board = board;
+	}
+
+	/**
+	 * Returns the board of the game.
+	 *
+	 * @return The board.
+	 */
+	Board getBoard() {
+		return this.board;
+	}
+
+	/**
+	 * Starts recording the next shots, undos and redos of the game in a log, so the game can be replayed with
+	 * {@link Replayer}. The log is not closed by the game.
+	 *
+	 * @param shotLog The log, created with the current board of the game. <code>null</code> stops recording.
+	 */
+	public void setShotLog(ShotLog shotLog) {
+		this.shotLog = shotLog;
+	}
+
+	/**
+	 * Creates a copy of the game that can be played independently, with the same board, score and generator of the
+	 * candies. The cells are shared until one of the games changes them.
+	 *
+	 * @return The new game.
+	 *
+	 * @see Board#fork()
+	 */
+	public CandyClean fork() {
+		return new CandyClean(this.board.fork());
+	}
+
+	/**
+	 * Creates an immutable view of the current state of the game.
+	 *
+	 * @return The snapshot of the board.
+	 *
+	 * @see Board#snapshot()
+	 */
+	public BoardSnapshot snapshot() {
+		return this.board.snapshot();
+	}
+
+	/**
+	 * Returns the current score of the game.
+	 *
+	 * @return The points of the player.
+	 */
+	public long getPunctuation() {
+		return this.board.getScore().getPunctuation();
+	}
+
+	/**
+	 * Returns the seed of the game, so it can be replayed with {@link #CandyClean(int, int, int, long)}.
+	 *
+	 * @return The seed of the game, 0 if it is the predefined board.
+	 */
+	public long getSeed() {
+		return this.board.getSeed();
+	}
+
 	/**
 	 * Checks if the score is greater than the objective.
 	 *
@@ -79,9 +211,124 @@ public class CandyClean {
 	public void shoot(int row, int column) throws CandyCleanException {
 		try {
 			this.board.shoot(row, column);
-		} catch (CandyCleanException e) {
-			throw new CandyCleanException(e.getMessage());
+		} finally {
+			if (this.shotLog != null) {
+				this.shotLog.shot(row, column, this.board.getShotResult(), this.board.getScore().getPunctuation());
+			}
+		}
+	}
+
+	/**
+	 * Selects a block without throwing exceptions, for the callers that make many shots.
+	 *
+	 * @param row    Row of the selected Block.
+	 * @param column Column of the selected Block.
+	 *
+	 * @return The result of the shot. The same object is returned by every shot of this game.
+	 */
+	public ShotResult tryShoot(int row, int column) {
+		ShotResult result = this.board.tryShoot(row, column);
+
+		if (this.shotLog != null) {
+			this.shotLog.shot(row, column, result, this.board.getScore().getPunctuation());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the hash of the board, equal for equal boards.
+	 *
+	 * @return The Zobrist hash of the board.
+	 *
+	 * @see Board#getHash()
+	 */
+	public long getHash() {
+		return this.board.getHash();
+	}
+
+	/**
+	 * Starts recording the shots so they can be undone, forgetting the oldest ones when the limit of memory is reached.
+	 *
+	 * @param maxBytes Maximum number of bytes of the recorded shots.
+	 */
+	public void enableUndo(long maxBytes) {
+		this.board.setJournal(new ShotJournal(maxBytes));
+	}
+
+	/**
+	 * Undoes the last shot, including its effects on the score.
+	 *
+	 * @return <code>true</code> if a shot was undone, <code>false</code> if there isn't any recorded shot.
+	 *
+	 * @see Board#undo()
+	 */
+	public boolean undo() {
+		boolean undone = this.board.undo();
+
+		if (this.shotLog != null) {
+			this.shotLog.history(ShotLog.UNDO, undone, this.board.getScore().getPunctuation());
+		}
+
+		return undone;
+	}
+
+	/**
+	 * Redoes the last undone shot.
+	 *
+	 * @return <code>true</code> if a shot was redone, <code>false</code> if there isn't any undone shot.
+	 *
+	 * @see Board#redo()
+	 */
+	public boolean redo() {
+		boolean redone = this.board.redo();
+
+		if (this.shotLog != null) {
+			this.shotLog.history(ShotLog.REDO, redone, this.board.getScore().getPunctuation());
 		}
+
+		return redone;
+	}
+
+	/**
+	 * Searches the best shot of the game for some time, with the points of the real game (the multiplier, the streak and
+	 * the new candies included).
+	 *
+	 * @param budgetMillis Time available for the search in milliseconds.
+	 *
+	 * @return The best shot found, <code>null</code> if there aren't legal shots.
+	 *
+	 * @see HintEngine
+	 */
+	public Hint hint(long budgetMillis) {
+		return HINTS.search(this.board, TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+	}
+
+	/**
+	 * Searches the best shot of the game in other threads, the same as {@link #hint(long)} without waiting. The search
+	 * uses a fork of the current board, so the game can continue during the search.
+	 *
+	 * @param budgetMillis Time available for the search in milliseconds.
+	 *
+	 * @return The future hint, <code>null</code> if there aren't legal shots.
+	 */
+	public CompletableFuture<Hint> hintAsync(long budgetMillis) {
+		Board fork = this.board.fork();
+
+		return CompletableFuture.supplyAsync(() -> HINTS.search(fork, TimeUnit.MILLISECONDS.toNanos(budgetMillis)));
+	}
+
+	/**
+	 * Fills a list with the legal shots of the game, without changing the board.
+	 *
+	 * @param moves List where the shots are stored.
+	 *
+	 * @return The number of shots.
+	 *
+	 * @see Board#generateMoves(MoveList)
+	 */
+	public int generateMoves(MoveList moves) {
+		return this.board.generateMoves(moves);
 	}
 
 	/**
@@ -93,6 +340,88 @@ public class CandyClean {
 		return this.board.toString();
 	}
 
+	/**
+	 * Renders the board with colors and the numbers of the axis into a reused buffer.
+	 *
+	 * @return The buffer with the rendered board, ready to be read. It is overwritten by the next call.
+	 */
+	public ByteBuffer render() {
+		return this.board.render();
+	}
+
+	/**
+	 * Saves the game to a channel in the binary format of {@link GameFile}: the cells, the score and the position of the
+	 * generator of the candies, so the loaded game continues with the same candies.
+	 *
+	 * @param out Channel where the game is written. It isn't closed.
+	 *
+	 * @throws IOException If the channel can't be written.
+	 */
+	public void save(WritableByteChannel out) throws IOException {
+		this.saveBuffer = GameFile.bufferFor(this.board, this.saveBuffer);
+		GameFile.write(this.board, out, this.saveBuffer);
+	}
+
+	/**
+	 * Saves the game to a file, replacing it atomically. The file is the same as {@link #save(WritableByteChannel)}.
+	 *
+	 * @param file The file.
+	 *
+	 * @throws IOException If the file can't be written.
+	 */
+	public void save(Path file) throws IOException {
+		this.saveBuffer = GameFile.bufferFor(this.board, this.saveBuffer);
+		GameFile.write(this.board, file, this.saveBuffer);
+	}
+
+	/**
+	 * Loads a game saved by {@link #save(WritableByteChannel)}, reading the channel until its end.
+	 *
+	 * @param in Channel of the saved game. It isn't closed.
+	 *
+	 * @return The game.
+	 *
+	 * @throws IOException         If the channel can't be read.
+	 * @throws CandyCleanException If the bytes aren't a saved game of a known version or they are corrupted.
+	 */
+	public static CandyClean load(ReadableByteChannel in) throws IOException, CandyCleanException {
+		return new CandyClean(GameFile.read(in));
+	}
+
+	/**
+	 * Loads a game saved by {@link #save(Path)}.
+	 *
+	 * @param file The file of the saved game.
+	 *
+	 * @return The game.
+	 *
+	 * @throws IOException         If the file can't be read.
+	 * @throws CandyCleanException If the file isn't a saved game of a known version or it is corrupted.
+	 */
+	public static CandyClean load(Path file) throws IOException, CandyCleanException {
+		return new CandyClean(GameFile.read(file));
+	}
+
+	/**
+	 * Creates a terminal frame that draws the board, writing only the changes after the first frame.
+	 *
+	 * @return A new terminal frame.
+	 */
+	public TerminalFrame newTerminalFrame() {
+		return this.board.newTerminalFrame();
+	}
+
+	/**
+	 * Renders the board with colors and the numbers of the axis.
+	 *
+	 * @param out Where the board is written.
+	 *
+	 * @throws IOException If the board can't be written.
+	 */
+	public void renderTo(Appendable out) throws IOException {
+		this.board.renderTo(out);
+	}
+
 	/**
 	 * Logs the board of the game as a String.
 	 *
@@ -16,4 +16,15 @@ public class CandyCleanException extends Exception {
 	public CandyCleanException(String e) {
 		super(e);
 	}
+
+	/**
+	 * Class constructor of an exception that may skip capturing the stack trace, for errors that are expected and frequent
+	 * (like an invalid shot), where the trace is never used.
+	 *
+	 * @param e                  Message of the exception.
+	 * @param writableStackTrace If <code>false</code>, the stack trace isn't captured.
+	 */
+	public CandyCleanException(String e, boolean writableStackTrace) {
+		super(e, null, false, writableStackTrace);
+	}
 }
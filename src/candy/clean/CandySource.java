@@ -0,0 +1,175 @@
+package candy.clean;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seedable generator of the new candies of a board. It uses the SplitMix64 algorithm, which only needs a
+ * <code>long</code> of state and isn't synchronized, with an independent stream for every column: the candies of a
+ * column only depend on the seed and on how many candies were generated in that column before, so the columns can be
+ * refilled in any order (or in parallel, one column per thread) and the same seed always gives the same game.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class CandySource {
+
+	/**
+	 * Increment of the SplitMix64 state (the odd integer closest to 2^64 divided by the golden ratio).
+	 */
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Seed of the source.
+	 */
+	private final long seed;
+
+	/**
+	 * Number of colors of the new candies.
+	 */
+	private final int numColors;
+
+	/**
+	 * State of the stream of every column.
+	 */
+	private final long[] states;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param seed      Seed of the source.
+	 * @param numColors Number of colors of the new candies.
+	 * @param columns   Number of columns of the board.
+	 */
+	public CandySource(long seed, int numColors, int columns) {
+		this.seed = seed;
+		this.numColors = numColors;
+		this.states = new long[columns];
+
+		for (int i = 0; i < columns; i++) {
+			this.states[i] = mix(seed + (i + 1) * GOLDEN_GAMMA);
+		}
+	}
+
+	/**
+	 * Class constructor of a copy of another source, with the same seed and the same position in every stream.
+	 *
+	 * @param other The source to copy.
+	 */
+	public CandySource(CandySource other) {
+		this.seed = other.seed;
+		this.numColors = other.numColors;
+		this.states = other.states.clone();
+	}
+
+	/**
+	 * Returns the seed of the source.
+	 *
+	 * @return The seed.
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+
+	/**
+	 * Returns the number of colors of the new candies.
+	 *
+	 * @return The number of colors.
+	 */
+	public int getNumColors() {
+		return this.numColors;
+	}
+
+	/**
+	 * Returns the number of columns (independent streams) of the source.
+	 *
+	 * @return The number of columns.
+	 */
+	public int getColumns() {
+		return this.states.length;
+	}
+
+	/**
+	 * Returns the next random number of the stream of a column.
+	 *
+	 * @param column The column.
+	 *
+	 * @return A random number.
+	 */
+	public long nextLong(int column) {
+		this.states[column] += GOLDEN_GAMMA;
+		return mix(this.states[column]);
+	}
+
+	/**
+	 * Returns the state of the stream of a column, its position in the stream.
+	 *
+	 * @param column The column.
+	 *
+	 * @return The state of the stream.
+	 */
+	long getState(int column) {
+		return this.states[column];
+	}
+
+	/**
+	 * Moves the stream of a column to a state returned by {@link #getState(int)}.
+	 *
+	 * @param column The column.
+	 * @param state  The state of the stream.
+	 */
+	void setState(int column, long state) {
+		this.states[column] = state;
+	}
+
+	/**
+	 * Creates a new normal candy with a random color for a column, the same way as {@link Block#Block(int)}.
+	 *
+	 * @param column Column where the candy is placed.
+	 *
+	 * @return The packed candy.
+	 */
+	public byte nextCandy(int column) {
+		int randomNum = (int) ((this.nextLong(column) >>> 32) * this.numColors >>> 32) + 1;
+
+		return PackedGrid.pack(randomNum > Constants.MAX_COLORS ? 0 : randomNum, Constants.NORMAL_TYPE, false);
+	}
+
+	/**
+	 * Creates a new source whose streams are independent of this one, derived from the next number of every stream. Both
+	 * sources can be used at the same time by different threads.
+	 *
+	 * @return The new source.
+	 */
+	public CandySource split() {
+		CandySource other = new CandySource(this);
+
+		for (int i = 0; i < this.states.length; i++) {
+			other.states[i] = mix(this.nextLong(i));
+		}
+
+		return other;
+	}
+
+	/**
+	 * Creates a seed for a new game.
+	 *
+	 * @return A random seed.
+	 */
+	public static long newSeed() {
+		return mix(ThreadLocalRandom.current().nextLong() ^ System.nanoTime());
+	}
+
+	/**
+	 * Mixes the bits of a number (the output function of SplitMix64).
+	 *
+	 * @param z The number to mix.
+	 *
+	 * @return The mixed number.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+		return z ^ (z >>> 31);
+	}
+}
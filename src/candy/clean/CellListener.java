@@ -0,0 +1,20 @@
+package candy.clean;
+
+/**
+ * Receives the changes of the cells of a {@link PackedGrid}, for example to record them or to keep something built from
+ * the cells updated without reading the whole grid again.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public interface CellListener {
+
+	/**
+	 * Notifies that a cell has been replaced.
+	 *
+	 * @param index  Index of the cell.
+	 * @param before The old packed cell.
+	 * @param after  The new packed cell.
+	 */
+	void cellChanged(int index, byte before, byte after);
+}
@@ -0,0 +1,125 @@
+package candy.clean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes checkpoints of a game to a file in the background. The player offers an immutable {@link BoardSnapshot} after
+ * every turn, which only forks the board, and a background thread periodically writes the last offered snapshot with
+ * {@link GameFile}, so the turns never wait for the disk. The snapshots offered between two checkpoints replace each
+ * other, so only the last one is written.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class Checkpointer implements Closeable {
+
+	/**
+	 * Logger of the class.
+	 */
+	private static final Logger logger = LogManager.getLogger(Checkpointer.class);
+
+	/**
+	 * File of the checkpoints.
+	 */
+	private final Path file;
+
+	/**
+	 * Thread that writes the checkpoints.
+	 */
+	private final ScheduledExecutorService writer;
+
+	/**
+	 * Last offered snapshot not written yet, <code>null</code> if the last one was written.
+	 */
+	private final AtomicReference<BoardSnapshot> pending = new AtomicReference<>();
+
+	/**
+	 * Number of checkpoints written.
+	 */
+	private final AtomicLong written = new AtomicLong();
+
+	/**
+	 * Buffer reused by every checkpoint.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Class constructor. The checkpoints are written until the checkpointer is closed.
+	 *
+	 * @param file         File of the checkpoints, replaced by every checkpoint.
+	 * @param periodMillis Time between two checkpoints, in milliseconds.
+	 */
+	public Checkpointer(Path file, long periodMillis) {
+		this.file = file;
+		this.writer = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "checkpoint-writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.writer.scheduleWithFixedDelay(this::writePending, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Offers the state of a game to be written in the next checkpoint.
+	 *
+	 * @param game The game.
+	 */
+	public void offer(CandyClean game) {
+		this.pending.set(game.snapshot());
+	}
+
+	/**
+	 * Returns the number of checkpoints written.
+	 *
+	 * @return The number of checkpoints.
+	 */
+	public long getWritten() {
+		return this.written.get();
+	}
+
+	/**
+	 * Writes the last offered snapshot, if it wasn't written, and stops writing checkpoints.
+	 */
+	@Override
+	public void close() {
+		this.writer.shutdown();
+
+		try {
+			this.writer.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		this.writePending();
+	}
+
+	/**
+	 * Writes the last offered snapshot, if it wasn't written.
+	 */
+	private synchronized void writePending() {
+		BoardSnapshot snapshot = this.pending.getAndSet(null);
+
+		if (snapshot == null) {
+			return;
+		}
+
+		try {
+			this.buffer = GameFile.bufferFor(snapshot.getBoard(), this.buffer);
+			GameFile.write(snapshot.getBoard(), this.file, this.buffer);
+			this.written.incrementAndGet();
+		} catch (IOException e) {
+			logger.error("The checkpoint can't be written: {}", e.getMessage());
+		}
+	}
+}
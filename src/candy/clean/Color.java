@@ -4,7 +4,10 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * Class that represents the colors of the blocks.
+ * Class that represents the colors of the blocks. The colors are immutable, so the blocks share the eight instances of
+ * the palette ({@link #of(BackgroundColor)}) instead of creating a new one every time they change their color. Two
+ * colors are equal if they have the same {@link BackgroundColor}, and the colored cells of the board are rendered only
+ * once per color.
  *
  * @author Samuel Castrillo Dominguez
  * @version 1.2.0
@@ -61,11 +64,43 @@ public class Color implements Comparable<Color> {
 	 */
 	private static final String RESET = "\u001B[0m";
 
+	/**
+	 * Text of the special blocks, indexed by their type (the normal blocks are empty).
+	 */
+	private static final String[] SPECIAL_TEXTS = {"  ", Color.BLACK_BLINK + "RR", Color.BLACK_BLINK + "CC",
+			Color.BLACK_BLINK + "RC", Color.BLACK_BLINK + "AA"};
+
+	/**
+	 * Shared instances of the colors, indexed by the ordinal of the {@link BackgroundColor}.
+	 */
+	private static final Color[] PALETTE = new Color[BackgroundColor.values().length];
+
+	static {
+		for (BackgroundColor background : BackgroundColor.values()) {
+			PALETTE[background.ordinal()] = new Color(background);
+		}
+	}
+
 	/**
 	 * String that represents the background color.
 	 */
 	private final String background;
 
+	/**
+	 * Ordinal of the {@link BackgroundColor}.
+	 */
+	private final int ordinal;
+
+	/**
+	 * Hashcode of the background, computed once.
+	 */
+	private final int hash;
+
+	/**
+	 * Colored cells of every type of block, indexed by the type.
+	 */
+	private final String[] cells;
+
 	/**
 	 * Constructor that assigns a color based on a BackgroundColor.
 	 *
@@ -108,6 +143,14 @@ public class Color implements Comparable<Color> {
 				this.background = Color.BLACK;
 				break;
 		}
+
+		this.ordinal = background.ordinal();
+		this.hash = this.background.hashCode();
+		this.cells = new String[SPECIAL_TEXTS.length];
+
+		for (int i = 0; i < SPECIAL_TEXTS.length; i++) {
+			this.cells[i] = this.toString(SPECIAL_TEXTS[i]);
+		}
 	}
 
 	/**
@@ -125,7 +168,55 @@ public class Color implements Comparable<Color> {
 	 * @param another Color to copy.
 	 */
 	public Color(Color another) {
-		this.background = another.getBackground();
+		this.background = another.background;
+		this.ordinal = another.ordinal;
+		this.hash = another.hash;
+		this.cells = another.cells;
+	}
+
+	/**
+	 * Returns the shared instance of a color.
+	 *
+	 * @param background The color.
+	 *
+	 * @return The color of the palette.
+	 */
+	@Contract(pure = true)
+	public static Color of(@NotNull BackgroundColor background) {
+		return PALETTE[background.ordinal()];
+	}
+
+	/**
+	 * Returns the shared instance of a color based in a number.
+	 *
+	 * @param i Ordinal of the {@link BackgroundColor}.
+	 *
+	 * @return The color of the palette.
+	 */
+	@Contract(pure = true)
+	public static Color of(int i) {
+		return PALETTE[i];
+	}
+
+	/**
+	 * Returns the ordinal of the {@link BackgroundColor} of the object.
+	 *
+	 * @return The ordinal of the color.
+	 */
+	public int getOrdinal() {
+		return this.ordinal;
+	}
+
+	/**
+	 * Returns the colored cell of a block with this color.
+	 *
+	 * @param type Type of the explosion of the block (Defined in Constants class). Unknown types are shown as normal
+	 *             blocks.
+	 *
+	 * @return The colored cell.
+	 */
+	public String getCell(int type) {
+		return type > 0 && type < this.cells.length ? this.cells[type] : this.cells[Constants.NORMAL_TYPE];
 	}
 
 	/**
@@ -151,20 +242,20 @@ public class Color implements Comparable<Color> {
 
 		if (o instanceof Color) {
 			Color other = (Color) o;
-			return this.background.equals(other.getBackground());
+			return this.ordinal == other.ordinal;
 		}
 
 		return false;
 	}
 
 	/**
-	 * Returns an Integer which is the hashcode of the background ({@link String#hashCode()}).
+	 * Returns an Integer which is the hashcode of the background ({@link String#hashCode()}), computed once.
 	 *
 	 * @return An Integer value of the block.
 	 */
 	@Override
 	public int hashCode() {
-		return this.background.hashCode();
+		return this.hash;
 	}
 
 	/**
@@ -185,11 +276,11 @@ public class Color implements Comparable<Color> {
 	 */
 	@Override
 	public String toString() {
-		return this.toString("  ");
+		return this.cells[Constants.NORMAL_TYPE];
 	}
 
 	@Override
 	public int compareTo(Color other) {
-		return this.background.compareTo(other.background);
+		return Integer.compare(this.ordinal, other.ordinal);
 	}
 }
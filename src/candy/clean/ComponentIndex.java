@@ -0,0 +1,304 @@
+package candy.clean;
+
+import java.util.Arrays;
+
+/**
+ * Index of the groups of connected blocks with the same color. Every cell is labelled with its group, so the size of the
+ * group of a block and whether it can be shot are answered without searching the board.
+ *
+ * <p>After a shot only the columns disturbed by the gravity are searched again: the groups that contain a changed cell
+ * or a neighbour of one are labelled again and the rest of the labels are kept. A group that lost cells can only be
+ * split into pieces that touch a changed cell, so every piece is found.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class ComponentIndex {
+
+	/**
+	 * Grid whose groups are indexed.
+	 */
+	private final PackedGrid grid;
+
+	/**
+	 * Search used to find the blocks of a group.
+	 */
+	private final FloodFill floodFill;
+
+	/**
+	 * Group of every cell, identified by the index of one of its cells.
+	 */
+	private final int[] labels;
+
+	/**
+	 * Size of every group, indexed by its label.
+	 */
+	private final int[] sizes;
+
+	/**
+	 * Indicates if shooting every cell removes blocks.
+	 */
+	private final boolean[] legal;
+
+	/**
+	 * Number of the update in which each cell was labelled for the last time.
+	 */
+	private final int[] marks;
+
+	/**
+	 * Cells labelled in the current update.
+	 */
+	private final int[] labelled;
+
+	/**
+	 * Lowest changed row of every column, -1 if the column hasn't changed.
+	 */
+	private final int[] lowestChanged;
+
+	/**
+	 * Number of the current update.
+	 */
+	private int epoch;
+
+	/**
+	 * Number of cells where a shot removes blocks.
+	 */
+	private int legalMoves;
+
+	/**
+	 * Version of the grid indexed, -1 if the index has to be built.
+	 */
+	private long version;
+
+	/**
+	 * Class constructor. The index is built the first time it is updated.
+	 *
+	 * @param grid Grid whose groups are indexed.
+	 */
+	public ComponentIndex(PackedGrid grid) {
+		this.grid = grid;
+		this.floodFill = new FloodFill(grid);
+		this.labels = new int[grid.capacity()];
+		this.sizes = new int[grid.capacity()];
+		this.legal = new boolean[grid.capacity()];
+		this.marks = new int[grid.capacity()];
+		this.labelled = new int[grid.size()];
+		this.lowestChanged = new int[grid.getColumns()];
+		this.version = -1;
+
+		Arrays.fill(this.lowestChanged, -1);
+	}
+
+	/**
+	 * Checks if the index has the groups of the current cells of the grid.
+	 *
+	 * @return <code>true</code> if the index is updated, <code>false</code> otherwise.
+	 */
+	public boolean isUpdated() {
+		return this.version == this.grid.getVersion();
+	}
+
+	/**
+	 * Notifies that the cells of the grid are going to change, and all the changes are going to be notified with
+	 * {@link #changed(int, int)} before the next update. If the index isn't updated, it is built again in the next update.
+	 */
+	public void beginChanges() {
+		if (!this.isUpdated()) {
+			this.version = -1;
+		}
+	}
+
+	/**
+	 * Notifies that the cells of a column from the top to a row have changed.
+	 *
+	 * @param column Column of the changed cells.
+	 * @param lowest Lowest changed row.
+	 */
+	public void changed(int column, int lowest) {
+		this.lowestChanged[column] = Math.max(this.lowestChanged[column], lowest);
+	}
+
+	/**
+	 * Labels again the groups of the changed cells. The whole grid is labelled if the index has never been built, or if
+	 * the grid changed without notifying it.
+	 */
+	public void update() {
+		if (this.version < 0 || (!this.isUpdated() && !this.hasChanges())) {
+			this.rebuild();
+		} else if (this.hasChanges()) {
+			this.relabelChanges();
+		}
+
+		Arrays.fill(this.lowestChanged, -1);
+		this.version = this.grid.getVersion();
+	}
+
+	/**
+	 * Returns the size of the group of a block.
+	 *
+	 * @param row    Row of the block.
+	 * @param column Column of the block.
+	 *
+	 * @return Number of connected blocks with the same color (the block included).
+	 */
+	public int groupSize(int row, int column) {
+		return this.sizes[this.labels[this.grid.index(row, column)]];
+	}
+
+	/**
+	 * Returns the group of a block.
+	 *
+	 * @param row    Row of the block.
+	 * @param column Column of the block.
+	 *
+	 * @return Index of the grid that identifies the group, the same for all the blocks of the group until the next update.
+	 */
+	public int groupOf(int row, int column) {
+		return this.labels[this.grid.index(row, column)];
+	}
+
+	/**
+	 * Checks if a block can be shot, the same as {@link Board#hasSurroundingBlocks(int, int)}.
+	 *
+	 * @param row    Row of the block.
+	 * @param column Column of the block.
+	 *
+	 * @return <code>true</code> if the block is inside the grid and it has any block with the same color at its sides or
+	 * it is a special block, <code>false</code> otherwise (also if the spot is empty).
+	 */
+	public boolean isValidShot(int row, int column) {
+		if (!this.grid.contains(row, column)) {
+			return false;
+		}
+
+		return this.isLegal(this.grid.index(row, column));
+	}
+
+	/**
+	 * Returns the number of cells where a shot removes blocks (valid shots to empty cells are not counted).
+	 *
+	 * @return Number of legal moves.
+	 */
+	public int getLegalMoveCount() {
+		return this.legalMoves;
+	}
+
+	/**
+	 * Labels all the groups of the grid.
+	 */
+	private void rebuild() {
+		this.nextEpoch();
+		int count = 0;
+
+		for (int i = 0; i < this.grid.getRows(); i++) {
+			for (int j = 0; j < this.grid.getColumns(); j++) {
+				count = this.label(this.grid.index(i, j), count);
+			}
+		}
+
+		this.legalMoves = 0;
+
+		for (int i = 0; i < count; i++) {
+			int index = this.labelled[i];
+			this.legal[index] = this.isLegal(index);
+
+			if (this.legal[index]) {
+				this.legalMoves++;
+			}
+		}
+	}
+
+	/**
+	 * Labels again the groups of the changed cells and their neighbours.
+	 */
+	private void relabelChanges() {
+		this.nextEpoch();
+		int[] neighbours = this.grid.neighbours();
+		int count = 0;
+
+		for (int j = 0; j < this.lowestChanged.length; j++) {
+			for (int i = 0; i <= this.lowestChanged[j]; i++) {
+				int index = this.grid.index(i, j);
+				count = this.label(index, count);
+
+				for (int offset : neighbours) {
+					count = this.label(index + offset, count);
+				}
+			}
+		}
+
+		for (int i = 0; i < count; i++) {
+			int index = this.labelled[i];
+			boolean legal = this.isLegal(index);
+
+			if (legal != this.legal[index]) {
+				this.legal[index] = legal;
+				this.legalMoves += legal ? 1 : -1;
+			}
+		}
+	}
+
+	/**
+	 * Labels the group of a cell, if it hasn't been labelled in this update.
+	 *
+	 * @param index Index of the cell.
+	 * @param count Number of cells labelled in this update.
+	 *
+	 * @return The new number of cells labelled in this update.
+	 */
+	private int label(int index, int count) {
+		if (this.marks[index] == this.epoch || PackedGrid.isBorder(this.grid.get(index))) {
+			return count;
+		}
+
+		int found = this.floodFill.fill(this.grid.rowOf(index), this.grid.columnOf(index));
+		this.sizes[index] = found;
+
+		for (int i = 0; i < found; i++) {
+			int cell = this.floodFill.getCell(i);
+			this.labels[cell] = index;
+			this.marks[cell] = this.epoch;
+			this.labelled[count++] = cell;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Checks if shooting a labelled cell removes blocks.
+	 *
+	 * @param index Index of the cell.
+	 *
+	 * @return <code>true</code> if the cell isn't empty and it can be shot, <code>false</code> otherwise.
+	 */
+	private boolean isLegal(int index) {
+		byte cell = this.grid.get(index);
+
+		return !PackedGrid.isBlank(cell) && (this.sizes[this.labels[index]] >= 2 || PackedGrid.isSpecial(cell));
+	}
+
+	/**
+	 * Checks if any change was notified since the last update.
+	 *
+	 * @return <code>true</code> if any column changed, <code>false</code> otherwise.
+	 */
+	private boolean hasChanges() {
+		for (int lowest : this.lowestChanged) {
+			if (lowest >= 0) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Starts a new update, so no cell is labelled in it yet.
+	 */
+	private void nextEpoch() {
+		if (++this.epoch == 0) {
+			Arrays.fill(this.marks, 0);
+			this.epoch = 1;
+		}
+	}
+}
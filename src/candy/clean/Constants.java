@@ -60,6 +60,16 @@ public final class Constants {
 	 */
 	public static final int MINIMUM_CANDIES_FOR_SPECIAL_CANDY = 4;
 
+	/**
+	 * Maximum memory (in bytes) of the shots that can be undone in a game.
+	 */
+	public static final long UNDO_MAX_BYTES = 1L << 20;
+
+	/**
+	 * Time (in milliseconds) between two checkpoints of a game.
+	 */
+	public static final long CHECKPOINT_MILLIS = 5000;
+
 	@Contract(value = " -> fail", pure = true)
 	private Constants() {
 		throw new IllegalStateException("Utility class");
@@ -0,0 +1,92 @@
+package candy.clean;
+
+/**
+ * Board read from a corpus by a {@link CorpusReader}: its packed cells, or the reason why it isn't a valid board.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class CorpusBoard {
+
+	/**
+	 * Position of the board in the corpus, starting at 1.
+	 */
+	private final int index;
+
+	/**
+	 * Line of the corpus where the board starts, starting at 1.
+	 */
+	private final int line;
+
+	/**
+	 * Packed cells of the board, <code>null</code> if it isn't valid.
+	 */
+	private final PackedGrid grid;
+
+	/**
+	 * Reason why the board isn't valid, <code>null</code> if it is valid.
+	 */
+	private final String error;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param index Position of the board in the corpus.
+	 * @param line  Line of the corpus where the board starts.
+	 * @param grid  Packed cells of the board, <code>null</code> if it isn't valid.
+	 * @param error Reason why the board isn't valid, <code>null</code> if it is valid.
+	 */
+	CorpusBoard(int index, int line, PackedGrid grid, String error) {
+		this.index = index;
+		this.line = line;
+		this.grid = grid;
+		this.error = error;
+	}
+
+	/**
+	 * Returns the position of the board in the corpus.
+	 *
+	 * @return The position, starting at 1.
+	 */
+	public int getIndex() {
+		return this.index;
+	}
+
+	/**
+	 * Returns the line of the corpus where the board starts.
+	 *
+	 * @return The line, starting at 1.
+	 */
+	public int getLine() {
+		return this.line;
+	}
+
+	/**
+	 * Checks if the board is a rectangle with known colors.
+	 *
+	 * @return <code>true</code> if the board is valid, <code>false</code> otherwise.
+	 */
+	public boolean isValid() {
+		return this.grid != null;
+	}
+
+	/**
+	 * Returns the reason why the board isn't valid.
+	 *
+	 * @return The error, <code>null</code> if the board is valid.
+	 */
+	public String getError() {
+		return this.error;
+	}
+
+	/**
+	 * Creates a pre-designed board with the cells read. The board owns the cells, so it can only be created once.
+	 *
+	 * @param gameScore The score objective of the game.
+	 *
+	 * @return The board, <code>null</code> if it isn't valid.
+	 */
+	public Board toBoard(Score gameScore) {
+		return this.grid == null ? null : new Board(this.grid, Constants.MAX_COLORS, gameScore);
+	}
+}
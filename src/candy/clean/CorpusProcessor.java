@@ -0,0 +1,281 @@
+package candy.clean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Processes a corpus of pre-designed boards in parallel: every board is validated, measured and, optionally, solved by a
+ * {@link PuzzleSolver}, and a line with its result is written in the order of the corpus as soon as it and the boards
+ * before it are processed.
+ *
+ * <p>The boards are read by a single {@link CorpusReader} and processed by a fixed pool of threads. At most a window of
+ * boards is read ahead of the first board not written yet: the reader waits for that board when the window is full, so
+ * the memory used doesn't depend on the size of the corpus.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class CorpusProcessor {
+
+	/**
+	 * Logger of the class.
+	 */
+	private static final Logger logger = LogManager.getLogger(CorpusProcessor.class);
+
+	/**
+	 * Number of boards read ahead per thread.
+	 */
+	private static final int BOARDS_PER_THREAD = 4;
+
+	/**
+	 * Number of entries of the transposition table of every thread.
+	 */
+	private static final int SOLVER_TABLE_SIZE = 1 << 16;
+
+	/**
+	 * Number of threads that process the boards.
+	 */
+	private final int threads;
+
+	/**
+	 * Maximum number of boards read and not written yet.
+	 */
+	private final int window;
+
+	/**
+	 * Maximum number of boards searched by the solver per board, 0 if the boards aren't solved.
+	 */
+	private final long maxNodes;
+
+	/**
+	 * Solver of every thread, <code>null</code> if the boards aren't solved.
+	 */
+	private final ThreadLocal<PuzzleSolver> solvers;
+
+	/**
+	 * Number of processed boards with every result: invalid and then every status of the solver.
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray(1 + Solution.Status.values().length);
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param threads  Number of threads that process the boards.
+	 * @param maxNodes Maximum number of boards searched by the solver per board, 0 to only validate and measure them.
+	 */
+	public CorpusProcessor(int threads, long maxNodes) {
+		this.threads = threads;
+		this.window = threads * BOARDS_PER_THREAD;
+		this.maxNodes = maxNodes;
+		this.solvers = maxNodes > 0 ? ThreadLocal.withInitial(() -> new PuzzleSolver(SOLVER_TABLE_SIZE, maxNodes)) : null;
+	}
+
+	/**
+	 * Processes all the boards of a corpus and writes a line per board, in the order of the corpus. The output is
+	 * flushed but not closed.
+	 *
+	 * @param reader Reader of the corpus.
+	 * @param out    Where the lines are written.
+	 *
+	 * @return The number of boards processed.
+	 *
+	 * @throws IOException If the corpus can't be read or the output can't be written.
+	 */
+	public int process(CorpusReader reader, Writer out) throws IOException {
+		ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+		Queue<Future<String>> pending = new ArrayDeque<>();
+		int processed = 0;
+
+		try {
+			CorpusBoard board;
+
+			while ((board = reader.next()) != null) {
+				if (pending.size() == this.window) {
+					write(pending.remove(), out);
+				}
+
+				CorpusBoard read = board;
+				pending.add(pool.submit(() -> this.process(read)));
+				processed++;
+			}
+
+			while (!pending.isEmpty()) {
+				write(pending.remove(), out);
+			}
+
+			out.flush();
+		} finally {
+			pool.shutdownNow();
+		}
+
+		return processed;
+	}
+
+	/**
+	 * Returns the number of invalid boards processed.
+	 *
+	 * @return The number of boards.
+	 */
+	public long getInvalid() {
+		return this.counts.get(0);
+	}
+
+	/**
+	 * Returns the number of solved boards with a result.
+	 *
+	 * @param status The result of the solver.
+	 *
+	 * @return The number of boards.
+	 */
+	public long getCount(Solution.Status status) {
+		return this.counts.get(1 + status.ordinal());
+	}
+
+	/**
+	 * Validates, measures and solves a board.
+	 *
+	 * @param read The board.
+	 *
+	 * @return The line with the result.
+	 *
+	 * @throws CandyCleanException Never, the boards of a corpus aren't refilled.
+	 */
+	private String process(CorpusBoard read) throws CandyCleanException {
+		StringBuilder line = new StringBuilder().append("Board ").append(read.getIndex()).append(" (line ")
+				.append(read.getLine()).append("): ");
+
+		if (!read.isValid()) {
+			this.counts.incrementAndGet(0);
+			return line.append("invalid, ").append(read.getError()).toString();
+		}
+
+		Board board = read.toBoard(new Score());
+		PackedGrid grid = board.getGrid();
+		int blocks = 0;
+		int colors = 0;
+
+		for (int i = 0; i < grid.getRows(); i++) {
+			for (int j = 0; j < grid.getColumns(); j++) {
+				byte cell = grid.get(grid.index(i, j));
+
+				if (!PackedGrid.isBlank(cell)) {
+					blocks++;
+					colors |= 1 << PackedGrid.colorOf(cell);
+				}
+			}
+		}
+
+		line.append(grid.getRows()).append('x').append(grid.getColumns()).append(", ").append(blocks)
+				.append(" blocks, ").append(Integer.bitCount(colors)).append(" colors, ")
+				.append(board.getLegalMoveCount()).append(" legal shots");
+
+		if (this.solvers != null) {
+			Solution solution = this.solvers.get().solve(board);
+			this.counts.incrementAndGet(1 + solution.getStatus().ordinal());
+			line.append(", ").append(solution);
+		}
+
+		return line.toString();
+	}
+
+	/**
+	 * Waits for the line of a board and writes it.
+	 *
+	 * @param result The line being computed.
+	 * @param out    Where the line is written.
+	 *
+	 * @throws IOException If the output can't be written or the thread is interrupted.
+	 */
+	private static void write(Future<String> result, Writer out) throws IOException {
+		try {
+			out.write(result.get());
+			out.write(System.lineSeparator());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Processes a corpus from the command line. The first argument is the file of the corpus, and the rest are pairs
+	 * <code>name=value</code>: <code>out</code> (the file of the results, the standard output by default),
+	 * <code>threads</code> (the processors) and <code>nodes</code> (the maximum number of boards searched per board, 0
+	 * to not solve them). A summary is logged at the end.
+	 *
+	 * @param args The arguments.
+	 *
+	 * @throws CandyCleanException If an argument isn't valid, or the corpus or the results can't be read or written.
+	 */
+	public static void main(String[] args) throws CandyCleanException {
+		if (args.length == 0) {
+			throw new CandyCleanException("The file of the corpus is missing.");
+		}
+
+		String output = null;
+		int threads = Runtime.getRuntime().availableProcessors();
+		long maxNodes = PuzzleSolver.DEFAULT_MAX_NODES;
+
+		for (int i = 1; i < args.length; i++) {
+			String arg = args[i];
+			int equals = arg.indexOf('=');
+			String name = equals < 0 ? arg : arg.substring(0, equals);
+			String value = equals < 0 ? "" : arg.substring(equals + 1);
+
+			try {
+				switch (name) {
+					case "out":
+						output = value;
+						break;
+					case "threads":
+						threads = Integer.parseInt(value);
+						break;
+					case "nodes":
+						maxNodes = Long.parseLong(value);
+						break;
+					default:
+						throw new CandyCleanException("Unknown argument: " + arg);
+				}
+			} catch (NumberFormatException e) {
+				throw new CandyCleanException("Invalid value: " + arg);
+			}
+		}
+
+		CorpusProcessor processor = new CorpusProcessor(threads, maxNodes);
+		long start = System.nanoTime();
+		int boards;
+
+		try (CorpusReader reader = new CorpusReader(Paths.get(args[0]))) {
+			if (output == null) {
+				// The standard output isn't closed.
+				boards = processor.process(reader, new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+			} else {
+				try (Writer out = Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+					boards = processor.process(reader, out);
+				}
+			}
+		} catch (IOException e) {
+			throw new CandyCleanException("The corpus can't be processed: " + e.getMessage());
+		}
+
+		logger.info("{} boards in {} ms: {} invalid, {} solved, {} impossible, {} unknown", boards,
+				(System.nanoTime() - start) / 1000000, processor.getInvalid(), processor.getCount(Solution.Status.SOLVED),
+				processor.getCount(Solution.Status.IMPOSSIBLE), processor.getCount(Solution.Status.UNKNOWN));
+	}
+}
@@ -0,0 +1,225 @@
+package candy.clean;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming reader of a corpus of pre-designed boards, in the letters accepted by
+ * {@link Board#Board(String[], int, Score)}. The boards are separated by empty lines, and the lines that start with #
+ * are ignored. The bytes of the file are read in blocks into a reused buffer and the letters are packed as they are
+ * read, without creating any String, so reading a corpus of any size only keeps one board in memory.
+ *
+ * <p>A board that isn't a rectangle, has an unknown letter or is larger than
+ * {@value Constants#MAX_DIMENSIONS}x{@value Constants#MAX_DIMENSIONS} is returned with the first error found, and the
+ * reader continues with the next board.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class CorpusReader implements Closeable {
+
+	/**
+	 * Number of bytes read from the channel at once.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Color of every ASCII letter (upper or lower case), -1 if it isn't a color.
+	 */
+	private static final byte[] COLORS = new byte[128];
+
+	static {
+		Arrays.fill(COLORS, (byte) -1);
+
+		for (int i = 0; i < PackedGrid.LETTERS.length(); i++) {
+			char letter = PackedGrid.LETTERS.charAt(i);
+			COLORS[letter] = (byte) i;
+			COLORS[Character.toLowerCase(letter)] = (byte) i;
+		}
+	}
+
+	/**
+	 * Channel of the corpus.
+	 */
+	private final ReadableByteChannel channel;
+
+	/**
+	 * Buffer of the bytes read from the channel.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Colors of the board being read, with {@link Constants#MAX_DIMENSIONS} cells per row.
+	 */
+	private final byte[] colors;
+
+	/**
+	 * Number of the current line, starting at 1.
+	 */
+	private int line;
+
+	/**
+	 * Number of boards read.
+	 */
+	private int boards;
+
+	/**
+	 * Indicates if the end of the channel was reached.
+	 */
+	private boolean finished;
+
+	/**
+	 * Class constructor of a reader of a file.
+	 *
+	 * @param file The file of the corpus.
+	 *
+	 * @throws IOException If the file can't be opened.
+	 */
+	public CorpusReader(Path file) throws IOException {
+		this(FileChannel.open(file, StandardOpenOption.READ));
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param channel Channel of the corpus, closed with the reader.
+	 */
+	public CorpusReader(ReadableByteChannel channel) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		this.buffer.flip();
+		this.colors = new byte[Constants.MAX_DIMENSIONS * Constants.MAX_DIMENSIONS];
+		this.line = 1;
+	}
+
+	/**
+	 * Reads the next board of the corpus.
+	 *
+	 * @return The board, <code>null</code> at the end of the corpus.
+	 *
+	 * @throws IOException If the channel can't be read.
+	 */
+	public CorpusBoard next() throws IOException {
+		int rows = 0;
+		int columns = -1;
+		int width = 0;
+		int first = 0;
+		boolean comment = false;
+		String error = null;
+
+		while (true) {
+			int b = this.nextByte();
+
+			if (b < 0 || b == '\n') {
+				if (width > 0) {
+					if (columns < 0) {
+						columns = width;
+					} else if (width != columns && error == null) {
+						error = "line " + this.line + " has " + width + " cells instead of " + columns;
+					}
+
+					rows++;
+				}
+
+				boolean empty = width == 0 && !comment;
+				width = 0;
+				comment = false;
+
+				if (b < 0) {
+					break;
+				}
+
+				this.line++;
+
+				if (empty && rows > 0) {
+					break;
+				}
+			} else if (comment || b == '\r' || b == ' ' || b == '\t') {
+				continue;
+			} else if (b == '#' && width == 0) {
+				comment = true;
+			} else {
+				int color = b < COLORS.length ? COLORS[b] : -1;
+
+				if (rows == 0 && width == 0) {
+					first = this.line;
+				}
+
+				// Only the first error is reported, the rest of the board is skipped.
+				if (error == null) {
+					if (color < 0) {
+						error = "unknown color '" + (char) b + "' at line " + this.line;
+					} else if (rows >= Constants.MAX_DIMENSIONS || width >= Constants.MAX_DIMENSIONS) {
+						error = "the board is larger than " + Constants.MAX_DIMENSIONS + "x" + Constants.MAX_DIMENSIONS;
+					} else {
+						this.colors[rows * Constants.MAX_DIMENSIONS + width] = (byte) color;
+					}
+				}
+
+				width++;
+			}
+		}
+
+		if (rows == 0) {
+			return null;
+		}
+
+		this.boards++;
+
+		if (error != null) {
+			return new CorpusBoard(this.boards, first, null, error);
+		}
+
+		PackedGrid grid = new PackedGrid(rows, columns);
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < columns; j++) {
+				grid.set(grid.index(i, j), PackedGrid.pack(this.colors[i * Constants.MAX_DIMENSIONS + j],
+						Constants.NORMAL_TYPE, false));
+			}
+		}
+
+		return new CorpusBoard(this.boards, first, grid, null);
+	}
+
+	/**
+	 * Returns the number of boards read.
+	 *
+	 * @return The number of boards.
+	 */
+	public int getBoards() {
+		return this.boards;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	/**
+	 * Reads the next byte of the channel, refilling the buffer when it is empty.
+	 *
+	 * @return The byte, -1 at the end of the channel.
+	 *
+	 * @throws IOException If the channel can't be read.
+	 */
+	private int nextByte() throws IOException {
+		while (!this.buffer.hasRemaining()) {
+			if (this.finished) {
+				return -1;
+			}
+
+			this.buffer.clear();
+			this.finished = this.channel.read(this.buffer) < 0;
+			this.buffer.flip();
+		}
+
+		return this.buffer.get() & 0xFF;
+	}
+}
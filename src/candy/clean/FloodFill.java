@@ -0,0 +1,185 @@
+package candy.clean;
+
+import java.util.Arrays;
+
+/**
+ * Finds the blocks connected (horizontally and vertically) to a selected block that have its same color. It doesn't use
+ * recursion nor allocates memory per search: the pending cells are kept in a reusable stack, the bounds are given by the
+ * border of the {@link PackedGrid} and the visited cells are marked with the number of the search, so the marks don't
+ * have to be cleared between searches.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class FloodFill {
+
+	/**
+	 * Grid where the blocks are searched.
+	 */
+	private final PackedGrid grid;
+
+	/**
+	 * Cells pending to be visited.
+	 */
+	private final int[] stack;
+
+	/**
+	 * Cells found in the last search.
+	 */
+	private final int[] region;
+
+	/**
+	 * Number of the search in which each cell was visited for the last time.
+	 */
+	private final int[] marks;
+
+	/**
+	 * Number of the current search.
+	 */
+	private int epoch;
+
+	/**
+	 * Number of cells found in the last search.
+	 */
+	private int count;
+
+	/**
+	 * Upper row of the cells found in the last search.
+	 */
+	private int minRow;
+
+	/**
+	 * Lower row of the cells found in the last search.
+	 */
+	private int maxRow;
+
+	/**
+	 * Left column of the cells found in the last search.
+	 */
+	private int minColumn;
+
+	/**
+	 * Right column of the cells found in the last search.
+	 */
+	private int maxColumn;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param grid Grid where the blocks are searched.
+	 */
+	public FloodFill(PackedGrid grid) {
+		this.grid = grid;
+		this.stack = new int[grid.size()];
+		this.region = new int[grid.size()];
+		this.marks = new int[grid.capacity()];
+	}
+
+	/**
+	 * Searches all the blocks connected to the selected one with its same color.
+	 *
+	 * @param row    Row of the selected block.
+	 * @param column Column of the selected block.
+	 *
+	 * @return Number of blocks found (the selected one included).
+	 */
+	public int fill(int row, int column) {
+		if (++this.epoch == 0) {
+			Arrays.fill(this.marks, 0);
+			this.epoch = 1;
+		}
+
+		int[] neighbours = this.grid.neighbours();
+		int start = this.grid.index(row, column);
+		byte cell = this.grid.get(start);
+		int top = 0;
+
+		this.count = 0;
+		this.minRow = row;
+		this.maxRow = row;
+		this.minColumn = column;
+		this.maxColumn = column;
+
+		this.marks[start] = this.epoch;
+		this.stack[top++] = start;
+
+		while (top > 0) {
+			int index = this.stack[--top];
+			this.region[this.count++] = index;
+
+			int r = this.grid.rowOf(index);
+			int c = this.grid.columnOf(index);
+			this.minRow = Math.min(this.minRow, r);
+			this.maxRow = Math.max(this.maxRow, r);
+			this.minColumn = Math.min(this.minColumn, c);
+			this.maxColumn = Math.max(this.maxColumn, c);
+
+			for (int offset : neighbours) {
+				int next = index + offset;
+
+				if (this.marks[next] != this.epoch && PackedGrid.sameColor(cell, this.grid.get(next))) {
+					this.marks[next] = this.epoch;
+					this.stack[top++] = next;
+				}
+			}
+		}
+
+		return this.count;
+	}
+
+	/**
+	 * Returns the number of blocks found in the last search.
+	 *
+	 * @return Number of blocks.
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Returns the index in the grid of a block found in the last search.
+	 *
+	 * @param i Position of the block in the search (lower than {@link #getCount()}).
+	 *
+	 * @return Index of the block in the grid.
+	 */
+	public int getCell(int i) {
+		return this.region[i];
+	}
+
+	/**
+	 * Returns the upper row of the blocks found in the last search.
+	 *
+	 * @return The upper row.
+	 */
+	public int getMinRow() {
+		return this.minRow;
+	}
+
+	/**
+	 * Returns the lower row of the blocks found in the last search.
+	 *
+	 * @return The lower row.
+	 */
+	public int getMaxRow() {
+		return this.maxRow;
+	}
+
+	/**
+	 * Returns the left column of the blocks found in the last search.
+	 *
+	 * @return The left column.
+	 */
+	public int getMinColumn() {
+		return this.minColumn;
+	}
+
+	/**
+	 * Returns the right column of the blocks found in the last search.
+	 *
+	 * @return The right column.
+	 */
+	public int getMaxColumn() {
+		return this.maxColumn;
+	}
+}
@@ -0,0 +1,201 @@
+package candy.clean;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary file of a saved game. The file has a header with the magic bytes "CCSV" and the version of the
+ * format, the board written by {@link BoardCodec}, and the CRC-32 of the header and the board, so a truncated or
+ * corrupted file is detected when it is read.
+ *
+ * <p>The files are written to a temporary file next to the destination and then moved over it, so a crash while saving
+ * never leaves a half written game.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+final class GameFile {
+
+	/**
+	 * First bytes of every saved game.
+	 */
+	static final int MAGIC = 0x43435356;
+
+	/**
+	 * Version of the format written.
+	 */
+	static final byte VERSION = 1;
+
+	/**
+	 * Bytes of the header: the magic bytes and the version.
+	 */
+	private static final int HEADER_LENGTH = 5;
+
+	/**
+	 * Class constructor, not used because all the methods are static.
+	 */
+	private GameFile() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Returns a buffer where a board fits, reusing a previous buffer if it is large enough.
+	 *
+	 * @param board  The board.
+	 * @param buffer The previous buffer, it can be <code>null</code>.
+	 *
+	 * @return The buffer, cleared.
+	 */
+	static ByteBuffer bufferFor(Board board, ByteBuffer buffer) {
+		int length = HEADER_LENGTH + BoardCodec.maxEncodedLength(board) + 4;
+
+		if (buffer == null || buffer.capacity() < length) {
+			return ByteBuffer.allocateDirect(length);
+		}
+
+		buffer.clear();
+
+		return buffer;
+	}
+
+	/**
+	 * Writes a board to a channel.
+	 *
+	 * @param board  The board.
+	 * @param out    The channel.
+	 * @param buffer Buffer where the file is encoded, returned by {@link #bufferFor(Board, ByteBuffer)}.
+	 *
+	 * @throws IOException If the channel can't be written.
+	 */
+	static void write(Board board, WritableByteChannel out, ByteBuffer buffer) throws IOException {
+		buffer.putInt(MAGIC).put(VERSION);
+		BoardCodec.encode(board, buffer);
+		buffer.flip();
+
+		CRC32 crc = new CRC32();
+		crc.update(buffer.duplicate());
+		buffer.limit(buffer.limit() + 4);
+		buffer.putInt(buffer.limit() - 4, (int) crc.getValue());
+
+		while (buffer.hasRemaining()) {
+			out.write(buffer);
+		}
+	}
+
+	/**
+	 * Writes a board to a file, replacing it atomically.
+	 *
+	 * @param board  The board.
+	 * @param file   The file.
+	 * @param buffer Buffer where the file is encoded, returned by {@link #bufferFor(Board, ByteBuffer)}.
+	 *
+	 * @throws IOException If the file can't be written.
+	 */
+	static void write(Board board, Path file, ByteBuffer buffer) throws IOException {
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			write(board, channel, buffer);
+			channel.force(false);
+		}
+
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads a board from a channel, until its end.
+	 *
+	 * @param in The channel.
+	 *
+	 * @return The board.
+	 *
+	 * @throws IOException         If the channel can't be read.
+	 * @throws CandyCleanException If the bytes aren't a saved game of a known version or they are corrupted.
+	 */
+	static Board read(ReadableByteChannel in) throws IOException, CandyCleanException {
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+		while (in.read(buffer) >= 0) {
+			if (!buffer.hasRemaining()) {
+				ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+				buffer.flip();
+				buffer = larger.put(buffer);
+			}
+		}
+
+		buffer.flip();
+
+		return decode(buffer);
+	}
+
+	/**
+	 * Reads a board from a file.
+	 *
+	 * @param file The file.
+	 *
+	 * @return The board.
+	 *
+	 * @throws IOException         If the file can't be read.
+	 * @throws CandyCleanException If the file isn't a saved game of a known version or it is corrupted.
+	 */
+	static Board read(Path file) throws IOException, CandyCleanException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return read(channel);
+		}
+	}
+
+	/**
+	 * Checks the header and the checksum of a saved game and reads its board.
+	 *
+	 * @param buffer The bytes of the saved game.
+	 *
+	 * @return The board.
+	 *
+	 * @throws CandyCleanException If the bytes aren't a saved game of a known version or they are corrupted.
+	 */
+	private static Board decode(ByteBuffer buffer) throws CandyCleanException {
+		try {
+			if (buffer.getInt() != MAGIC) {
+				throw new CandyCleanException("It isn't a saved game.");
+			}
+
+			byte version = buffer.get();
+
+			if (version != VERSION) {
+				throw new CandyCleanException("The version " + version + " of the saved game isn't supported.");
+			}
+
+			int end = buffer.limit() - 4;
+			ByteBuffer content = buffer.duplicate();
+			CRC32 crc = new CRC32();
+
+			content.position(0).limit(end);
+			crc.update(content);
+
+			if ((int) crc.getValue() != buffer.getInt(end)) {
+				throw new CandyCleanException("The saved game is corrupted.");
+			}
+
+			buffer.limit(end);
+			Board board = BoardCodec.decode(buffer);
+
+			if (buffer.hasRemaining()) {
+				throw new CandyCleanException("The saved game is corrupted.");
+			}
+
+			return board;
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new CandyCleanException("The saved game is incomplete.");
+		}
+	}
+}
@@ -0,0 +1,401 @@
+package candy.clean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server of many games at the same time over a text protocol on a local TCP socket, explained in {@link GameSession}.
+ * Every connection is served by its own thread, created with a small stack so thousands of sessions fit in one JVM, and
+ * its session is confined to that thread.
+ *
+ * <p>At most a maximum number of sessions are served at the same time: the next connections wait in the accept queue
+ * of the socket, whose length is bounded by the backlog. A connection idle longer than the read timeout is closed, and
+ * so is a connection whose client doesn't read a response before the write timeout. The games are kept in a
+ * {@link SessionStore}, which can write the games of the idle sessions to disk.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class GameServer implements Closeable {
+
+	/**
+	 * Logger of the class.
+	 */
+	private static final Logger logger = LogManager.getLogger(GameServer.class);
+
+	/**
+	 * Default port of the server.
+	 */
+	public static final int DEFAULT_PORT = 7070;
+
+	/**
+	 * Default length of the accept queue.
+	 */
+	public static final int DEFAULT_BACKLOG = 128;
+
+	/**
+	 * Default maximum number of sessions served at the same time.
+	 */
+	public static final int DEFAULT_MAX_SESSIONS = 4096;
+
+	/**
+	 * Default read and write timeout, in milliseconds.
+	 */
+	public static final int DEFAULT_TIMEOUT = 60000;
+
+	/**
+	 * Default memory of the games kept in memory by the command line server, in bytes.
+	 */
+	private static final long DEFAULT_HEAP_BYTES = 64L << 20;
+
+	/**
+	 * Stack size of the threads of the sessions, in bytes.
+	 */
+	private static final long STACK_SIZE = 256 * 1024;
+
+	/**
+	 * Socket where the connections are accepted.
+	 */
+	private final ServerSocket serverSocket;
+
+	/**
+	 * Threads of the sessions, one per connection.
+	 */
+	private final ExecutorService sessions;
+
+	/**
+	 * Thread that closes the connections whose writes don't finish before the write timeout.
+	 */
+	private final ScheduledExecutorService watchdog;
+
+	/**
+	 * Games of the sessions.
+	 */
+	private final SessionStore store;
+
+	/**
+	 * Free places for sessions.
+	 */
+	private final Semaphore places;
+
+	/**
+	 * Open connections, closed when the server is closed.
+	 */
+	private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Number of sessions being served.
+	 */
+	private final AtomicInteger active = new AtomicInteger();
+
+	/**
+	 * Number of sessions accepted.
+	 */
+	private final AtomicLong accepted = new AtomicLong();
+
+	/**
+	 * Time that a connection can be idle, in milliseconds.
+	 */
+	private final int readTimeout;
+
+	/**
+	 * Time that a response can take to be written, in milliseconds.
+	 */
+	private final int writeTimeout;
+
+	/**
+	 * Thread that accepts the connections, <code>null</code> until the server is started.
+	 */
+	private Thread acceptor;
+
+	/**
+	 * Indicates if the server was closed.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Class constructor. The socket is bound to the loopback address, and the connections are accepted after
+	 * {@link #start()}.
+	 *
+	 * @param port         Port of the server, 0 for any free port.
+	 * @param backlog      Maximum length of the accept queue.
+	 * @param maxSessions  Maximum number of sessions served at the same time.
+	 * @param readTimeout  Time that a connection can be idle, in milliseconds.
+	 * @param writeTimeout Time that a response can take to be written, in milliseconds.
+	 *
+	 * @throws IOException If the socket can't be bound.
+	 */
+	public GameServer(int port, int backlog, int maxSessions, int readTimeout, int writeTimeout) throws IOException {
+		this(port, backlog, maxSessions, readTimeout, writeTimeout, new SessionStore(null, Long.MAX_VALUE));
+	}
+
+	/**
+	 * Class constructor with a store of the games. The socket is bound to the loopback address, and the connections are
+	 * accepted after {@link #start()}.
+	 *
+	 * @param port         Port of the server, 0 for any free port.
+	 * @param backlog      Maximum length of the accept queue.
+	 * @param maxSessions  Maximum number of sessions served at the same time.
+	 * @param readTimeout  Time that a connection can be idle, in milliseconds.
+	 * @param writeTimeout Time that a response can take to be written, in milliseconds.
+	 * @param store        Store of the games of the sessions, closed with the server.
+	 *
+	 * @throws IOException If the socket can't be bound.
+	 */
+	public GameServer(int port, int backlog, int maxSessions, int readTimeout, int writeTimeout, SessionStore store)
+			throws IOException {
+		AtomicInteger threads = new AtomicInteger();
+
+		this.serverSocket = new ServerSocket(port, backlog, InetAddress.getLoopbackAddress());
+		this.sessions = Executors.newCachedThreadPool(task -> {
+			Thread thread = new Thread(null, task, "session-" + threads.incrementAndGet(), STACK_SIZE);
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.watchdog = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "session-watchdog");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.store = store;
+		this.places = new Semaphore(maxSessions);
+		this.readTimeout = readTimeout;
+		this.writeTimeout = writeTimeout;
+	}
+
+	/**
+	 * Starts accepting connections in a new thread.
+	 */
+	public synchronized void start() {
+		if (this.acceptor == null) {
+			this.acceptor = new Thread(this::acceptConnections, "session-acceptor");
+			this.acceptor.start();
+		}
+	}
+
+	/**
+	 * Waits until the server is closed.
+	 *
+	 * @throws InterruptedException If the thread is interrupted while waiting.
+	 */
+	public void join() throws InterruptedException {
+		this.acceptor.join();
+	}
+
+	/**
+	 * Returns the port of the server.
+	 *
+	 * @return The port where the connections are accepted.
+	 */
+	public int getPort() {
+		return this.serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Returns the number of sessions being served.
+	 *
+	 * @return The number of open sessions.
+	 */
+	public int getActiveSessions() {
+		return this.active.get();
+	}
+
+	/**
+	 * Returns the number of sessions accepted since the server started.
+	 *
+	 * @return The number of sessions.
+	 */
+	public long getAcceptedSessions() {
+		return this.accepted.get();
+	}
+
+	/**
+	 * Stops accepting connections and closes all the open connections.
+	 *
+	 * @throws IOException If the socket can't be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		this.closed = true;
+		this.serverSocket.close();
+
+		for (Socket connection : this.connections) {
+			closeQuietly(connection);
+		}
+
+		this.sessions.shutdown();
+		this.watchdog.shutdownNow();
+		this.store.close();
+	}
+
+	/**
+	 * Returns the store of the games of the sessions.
+	 *
+	 * @return The store.
+	 */
+	SessionStore getStore() {
+		return this.store;
+	}
+
+	/**
+	 * Writes a response to a connection, closing it if the write doesn't finish before the write timeout.
+	 *
+	 * @param connection The connection.
+	 * @param out        Stream of the connection.
+	 * @param response   Bytes of the response.
+	 *
+	 * @throws IOException If the response can't be written.
+	 */
+	void write(Socket connection, OutputStream out, byte[] response) throws IOException {
+		ScheduledFuture<?> deadline = this.watchdog.schedule(() -> closeQuietly(connection), this.writeTimeout,
+				TimeUnit.MILLISECONDS);
+
+		try {
+			out.write(response);
+			out.flush();
+		} finally {
+			deadline.cancel(false);
+		}
+	}
+
+	/**
+	 * Notifies that a session ended, so another connection can be served.
+	 *
+	 * @param connection The connection of the session, already closed.
+	 */
+	void sessionClosed(Socket connection) {
+		this.connections.remove(connection);
+		this.active.decrementAndGet();
+		this.places.release();
+	}
+
+	/**
+	 * Accepts connections while there are free places for their sessions, until the server is closed.
+	 */
+	private void acceptConnections() {
+		while (!this.closed) {
+			Socket connection = null;
+
+			try {
+				this.places.acquire();
+				connection = this.serverSocket.accept();
+				connection.setSoTimeout(this.readTimeout);
+				connection.setTcpNoDelay(true);
+
+				this.connections.add(connection);
+				this.active.incrementAndGet();
+				this.accepted.incrementAndGet();
+				this.sessions.execute(new GameSession(connection, this));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (IOException e) {
+				this.places.release();
+				closeQuietly(connection);
+
+				if (!this.closed) {
+					logger.warn("A connection couldn't be accepted: {}", e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Closes a connection ignoring the errors.
+	 *
+	 * @param connection The connection, it can be <code>null</code>.
+	 */
+	private static void closeQuietly(Socket connection) {
+		try {
+			if (connection != null) {
+				connection.close();
+			}
+		} catch (IOException e) {
+			logger.debug("The connection couldn't be closed: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Serves games from the command line until the process is stopped. The arguments are pairs <code>name=value</code>:
+	 * <code>port</code> (7070), <code>sessions</code> (the maximum number of sessions, 4096), <code>backlog</code>
+	 * (128), <code>timeout</code> (the read and write timeout in milliseconds, 60000), <code>spill</code> (the directory
+	 * where the idle games are written, none by default) and <code>heap</code> (the memory of the games kept in memory
+	 * when they are written to disk, in bytes, 64 MB).
+	 *
+	 * @param args The arguments.
+	 *
+	 * @throws CandyCleanException If an argument isn't valid or the port can't be used.
+	 */
+	public static void main(String[] args) throws CandyCleanException {
+		int port = DEFAULT_PORT;
+		int maxSessions = DEFAULT_MAX_SESSIONS;
+		int backlog = DEFAULT_BACKLOG;
+		int timeout = DEFAULT_TIMEOUT;
+		Path spill = null;
+		long heap = DEFAULT_HEAP_BYTES;
+
+		for (String arg : args) {
+			int equals = arg.indexOf('=');
+			String name = equals < 0 ? arg : arg.substring(0, equals);
+			String value = equals < 0 ? "" : arg.substring(equals + 1);
+
+			try {
+				switch (name) {
+					case "port":
+						port = Integer.parseInt(value);
+						break;
+					case "sessions":
+						maxSessions = Integer.parseInt(value);
+						break;
+					case "backlog":
+						backlog = Integer.parseInt(value);
+						break;
+					case "timeout":
+						timeout = Integer.parseInt(value);
+						break;
+					case "spill":
+						spill = Paths.get(value);
+						break;
+					case "heap":
+						heap = Long.parseLong(value);
+						break;
+					default:
+						throw new CandyCleanException("Unknown argument: " + arg);
+				}
+			} catch (NumberFormatException e) {
+				throw new CandyCleanException("Invalid value: " + arg);
+			}
+		}
+
+		try {
+			GameServer server = new GameServer(port, backlog, maxSessions, timeout, timeout,
+					new SessionStore(spill, heap));
+			server.start();
+			logger.info("Serving games on port {}", server.getPort());
+			server.join();
+		} catch (IOException e) {
+			throw new CandyCleanException("The server can't be started: " + e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,245 @@
+package candy.clean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Session of a client of the {@link GameServer}: it reads the commands of a connection, line by line, plays them on its
+ * own game and writes a line with the response of every command. The session is confined to the thread of its
+ * connection, so its game needs no locks. The game is kept in the {@link SessionStore} of the server, which can write
+ * it to disk while the session is idle.
+ *
+ * <p>The commands are <code>NEW level [seed]</code>, <code>SHOOT row column</code>, <code>BOARD</code>,
+ * <code>SCORE</code> and <code>QUIT</code>. The responses start with OK, BOARD, SCORE or BYE, or with ERR and the
+ * reason if the command isn't valid.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+final class GameSession implements Runnable {
+
+	/**
+	 * Logger of the class.
+	 */
+	private static final Logger logger = LogManager.getLogger(GameSession.class);
+
+	/**
+	 * Maximum length of a command.
+	 */
+	private static final int MAX_LINE = 256;
+
+	/**
+	 * Connection of the client.
+	 */
+	private final Socket socket;
+
+	/**
+	 * Server of the session.
+	 */
+	private final GameServer server;
+
+	/**
+	 * Characters of the line being read.
+	 */
+	private final StringBuilder line = new StringBuilder();
+
+	/**
+	 * Identifier of the game of the session in the store, -1 until the first NEW command.
+	 */
+	private long gameId = -1;
+
+	/**
+	 * Indicates if the client sent QUIT.
+	 */
+	private boolean quit;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param socket Connection of the client.
+	 * @param server Server of the session, notified when the session ends.
+	 */
+	GameSession(Socket socket, GameServer server) {
+		this.socket = socket;
+		this.server = server;
+	}
+
+	/**
+	 * Serves the commands of the client until it quits, closes the connection or is idle longer than the read timeout.
+	 */
+	@Override
+	public void run() {
+		try (Socket connection = this.socket) {
+			InputStream in = new BufferedInputStream(connection.getInputStream());
+			OutputStream out = new BufferedOutputStream(connection.getOutputStream());
+			String command;
+
+			while (!this.quit && (command = this.readLine(in)) != null) {
+				String response = command.length() > MAX_LINE ? "ERR The command is too long." : this.handle(command);
+				this.server.write(connection, out, (response + "\n").getBytes(StandardCharsets.US_ASCII));
+			}
+		} catch (SocketTimeoutException e) {
+			logger.debug("Idle session closed: {}", e.getMessage());
+		} catch (IOException e) {
+			logger.debug("Session closed: {}", e.getMessage());
+		} finally {
+			if (this.gameId >= 0) {
+				this.server.getStore().remove(this.gameId);
+			}
+
+			this.server.sessionClosed(this.socket);
+		}
+	}
+
+	/**
+	 * Plays a command on the game of the session.
+	 *
+	 * @param command The command, without the line break.
+	 *
+	 * @return The response, without the line break.
+	 */
+	String handle(String command) {
+		String[] words = command.trim().split("\\s+");
+
+		try {
+			switch (words[0].toUpperCase()) {
+				case "NEW":
+					long seed = words.length > 2 ? Long.parseLong(words[2]) : CandySource.newSeed();
+					CandyClean game = new CandyClean(Level.of(Integer.parseInt(words[1])), seed);
+
+					if (this.gameId >= 0) {
+						this.server.getStore().remove(this.gameId);
+						this.gameId = -1;
+					}
+
+					this.gameId = this.server.getStore().add(game);
+					return "OK " + seed;
+				case "SHOOT":
+				case "BOARD":
+				case "SCORE":
+					return this.play(words);
+				case "QUIT":
+					this.quit = true;
+					return "BYE";
+				default:
+					return "ERR Unknown command: " + words[0];
+			}
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			return "ERR Invalid arguments: " + command;
+		} catch (CandyCleanException e) {
+			return "ERR " + e.getMessage();
+		}
+	}
+
+	/**
+	 * Plays a command that needs the game of the session.
+	 *
+	 * @param words The command and its arguments.
+	 *
+	 * @return The response.
+	 *
+	 * @throws CandyCleanException If there isn't a game or it can't be read from the store.
+	 */
+	private String play(String[] words) throws CandyCleanException {
+		if (this.gameId < 0) {
+			throw new CandyCleanException("There is no game, send NEW first.");
+		}
+
+		SessionStore store = this.server.getStore();
+		CandyClean game = store.acquire(this.gameId);
+
+		try {
+			switch (words[0].toUpperCase()) {
+				case "SHOOT":
+					return shoot(game, Integer.parseInt(words[1]), Integer.parseInt(words[2]));
+				case "BOARD":
+					return board(game);
+				default:
+					return score(game);
+			}
+		} finally {
+			store.release(this.gameId);
+		}
+	}
+
+	/**
+	 * Shoots to a block of a game.
+	 *
+	 * @param game   The game.
+	 * @param row    Row of the block.
+	 * @param column Column of the block.
+	 *
+	 * @return OK, the status of the shot, the removed blocks and the points won, and WON if the objective is reached.
+	 */
+	private static String shoot(CandyClean game, int row, int column) {
+		ShotResult result = game.tryShoot(row, column);
+
+		return "OK " + result.getStatus() + ' ' + result.getCleared() + ' ' + result.getScoreDelta() +
+				(game.haveWon() ? " WON" : "");
+	}
+
+	/**
+	 * Describes the board of a game with the letters of {@link Board#debugBoard()}.
+	 *
+	 * @param game The game.
+	 *
+	 * @return BOARD, the number of rows and columns and the letters of every row.
+	 */
+	private static String board(CandyClean game) {
+		Board board = game.getBoard();
+		StringBuilder response = new StringBuilder("BOARD ").append(board.getGrid().getRows()).append(' ')
+				.append(board.getGrid().getColumns()).append(' ');
+
+		board.appendLetters(response);
+		response.setLength(response.length() - 1);
+
+		return response.toString();
+	}
+
+	/**
+	 * Describes the score of a game.
+	 *
+	 * @param game The game.
+	 *
+	 * @return SCORE, the points, the objective, the multiplier and the streak.
+	 */
+	private static String score(CandyClean game) {
+		Score score = game.getBoard().getScore();
+
+		return "SCORE " + score.getPunctuation() + ' ' + score.getObjective() + ' ' + score.getMultiplier() + ' ' +
+				score.getStreak();
+	}
+
+	/**
+	 * Reads a line of ASCII text. The characters after {@link #MAX_LINE} are discarded, so a client can't fill the
+	 * memory with a long line.
+	 *
+	 * @param in Stream of the connection.
+	 *
+	 * @return The line without the line break (longer than MAX_LINE if it was cut), <code>null</code> at the end of the
+	 * stream.
+	 *
+	 * @throws IOException If the connection can't be read or the read timeout expires.
+	 */
+	private String readLine(InputStream in) throws IOException {
+		this.line.setLength(0);
+		int b;
+
+		while ((b = in.read()) >= 0 && b != '\n') {
+			if (b != '\r' && this.line.length() <= MAX_LINE) {
+				this.line.append((char) b);
+			}
+		}
+
+		return b < 0 && this.line.length() == 0 ? null : this.line.toString();
+	}
+}
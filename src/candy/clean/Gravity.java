@@ -0,0 +1,173 @@
+package candy.clean;
+
+/**
+ * Makes the candies fall after a shot. Only the columns where candies were removed are visited: each one is compacted
+ * from its lowest removed candy to the top in a single pass, moving the remaining candies down with a write position,
+ * and the free cells left at the top are filled with new candies in the same pass.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class Gravity {
+
+	/**
+	 * Grid where the candies fall.
+	 */
+	private final PackedGrid grid;
+
+	/**
+	 * Generator of the new candies, <code>null</code> if the free cells are left empty.
+	 */
+	private final CandySource source;
+
+	/**
+	 * Lowest row where a candy was removed in every column, -1 if the column hasn't changed.
+	 */
+	private final int[] lowestRow;
+
+	/**
+	 * Columns where candies were removed.
+	 */
+	private final int[] dirtyColumns;
+
+	/**
+	 * Number of columns where candies were removed.
+	 */
+	private int dirtyCount;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param grid   Grid where the candies fall.
+	 * @param source Generator of the new candies, <code>null</code> to leave the free cells empty.
+	 */
+	public Gravity(PackedGrid grid, CandySource source) {
+		this.grid = grid;
+		this.source = source;
+		this.lowestRow = new int[grid.getColumns()];
+		this.dirtyColumns = new int[grid.getColumns()];
+
+		for (int i = 0; i < this.lowestRow.length; i++) {
+			this.lowestRow[i] = -1;
+		}
+	}
+
+	/**
+	 * Notifies that a candy has been removed, so its column has to be compacted.
+	 *
+	 * @param row    Row of the removed candy.
+	 * @param column Column of the removed candy.
+	 */
+	public void removed(int row, int column) {
+		if (this.lowestRow[column] < 0) {
+			this.dirtyColumns[this.dirtyCount++] = column;
+		}
+
+		if (row > this.lowestRow[column]) {
+			this.lowestRow[column] = row;
+		}
+	}
+
+	/**
+	 * Returns the number of columns that will be compacted.
+	 *
+	 * @return Number of columns where candies were removed since the last compaction.
+	 */
+	public int getDirtyCount() {
+		return this.dirtyCount;
+	}
+
+	/**
+	 * Returns a column that will be compacted.
+	 *
+	 * @param i Position of the column (lower than {@link #getDirtyCount()}).
+	 *
+	 * @return The column.
+	 */
+	public int getDirtyColumn(int i) {
+		return this.dirtyColumns[i];
+	}
+
+	/**
+	 * Returns the lowest row where a candy was removed in a column.
+	 *
+	 * @param column The column.
+	 *
+	 * @return The lowest removed row, -1 if the column won't be compacted.
+	 */
+	public int getLowestRow(int column) {
+		return this.lowestRow[column];
+	}
+
+	/**
+	 * Compacts the columns where candies were removed and fills the free cells at the top.
+	 *
+	 * @return Number of free cells at the top of the compacted columns.
+	 */
+	public int apply() {
+		int freed = 0;
+
+		for (int i = 0; i < this.dirtyCount; i++) {
+			int column = this.dirtyColumns[i];
+			freed += this.compactColumn(column, this.lowestRow[column]);
+			this.lowestRow[column] = -1;
+		}
+
+		this.dirtyCount = 0;
+
+		return freed;
+	}
+
+	/**
+	 * Moves the candies of a column down from a row to the top, and fills the free cells.
+	 *
+	 * @param column Column to compact.
+	 * @param lowest Lowest row where a candy was removed.
+	 *
+	 * @return Number of free cells at the top of the column.
+	 */
+	private int compactColumn(int column, int lowest) {
+		int stride = this.grid.getStride();
+		int top = this.grid.index(0, column);
+		int write = this.grid.index(lowest, column);
+
+		for (int read = write; read >= top; read -= stride) {
+			byte cell = this.grid.get(read);
+
+			if (!PackedGrid.isBlank(cell)) {
+				if (read != write) {
+					this.grid.set(write, cell);
+				}
+
+				write -= stride;
+			}
+		}
+
+		int freed = (write - top) / stride + 1;
+
+		for (; write >= top; write -= stride) {
+			byte candy = this.newCandy(column);
+
+			if (this.grid.get(write) != candy) {
+				this.grid.set(write, candy);
+			}
+		}
+
+		return freed;
+	}
+
+	/**
+	 * Creates the candy of a free cell: a random normal candy, or an empty cell if there is no generator.
+	 *
+	 * @param column Column of the free cell.
+	 *
+	 * @return The packed candy.
+	 */
+	private byte newCandy(int column) {
+		if (this.source == null) {
+			return PackedGrid.pack(0, Constants.NORMAL_TYPE, false);
+		}
+
+		return this.source.nextCandy(column);
+	}
+}
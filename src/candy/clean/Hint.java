@@ -0,0 +1,108 @@
+package candy.clean;
+
+/**
+ * Shot suggested by a search, such as the {@link HintEngine} or the {@link MctsPlayer}, with the points expected after
+ * it and how deep the search went.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class Hint {
+
+	/**
+	 * Row of the suggested shot.
+	 */
+	private final int row;
+
+	/**
+	 * Column of the suggested shot.
+	 */
+	private final int column;
+
+	/**
+	 * Points won by the best sequence of shots found, starting with the suggested one.
+	 */
+	private final long expectedPoints;
+
+	/**
+	 * Number of shots of the deepest sequence searched completely.
+	 */
+	private final int depth;
+
+	/**
+	 * Number of boards evaluated by the search.
+	 */
+	private final long evaluated;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param row            Row of the suggested shot.
+	 * @param column         Column of the suggested shot.
+	 * @param expectedPoints Points won by the best sequence of shots found.
+	 * @param depth          Number of shots of the deepest sequence searched completely.
+	 * @param evaluated      Number of boards evaluated by the search.
+	 */
+	Hint(int row, int column, long expectedPoints, int depth, long evaluated) {
+		this.row = row;
+		this.column = column;
+		this.expectedPoints = expectedPoints;
+		this.depth = depth;
+		this.evaluated = evaluated;
+	}
+
+	/**
+	 * Returns the row of the suggested shot.
+	 *
+	 * @return The row.
+	 */
+	public int getRow() {
+		return this.row;
+	}
+
+	/**
+	 * Returns the column of the suggested shot.
+	 *
+	 * @return The column.
+	 */
+	public int getColumn() {
+		return this.column;
+	}
+
+	/**
+	 * Returns the points won by the best sequence of shots found, starting with the suggested one.
+	 *
+	 * @return The expected points.
+	 */
+	public long getExpectedPoints() {
+		return this.expectedPoints;
+	}
+
+	/**
+	 * Returns the number of shots of the deepest sequence searched completely.
+	 *
+	 * @return The depth of the search.
+	 */
+	public int getDepth() {
+		return this.depth;
+	}
+
+	/**
+	 * Returns the number of boards evaluated by the search.
+	 *
+	 * @return The number of evaluated boards.
+	 */
+	public long getEvaluated() {
+		return this.evaluated;
+	}
+
+	/**
+	 * Returns the hint as a text for the player.
+	 *
+	 * @return The hint.
+	 */
+	public String toString() {
+		return "Hint: shoot row " + this.row + ", column " + this.column + " (" + this.expectedPoints +
+				" points in " + this.depth + " shots)";
+	}
+}
@@ -0,0 +1,318 @@
+package candy.clean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Searches the best shot of a board with a beam search. Every level of the search makes all the legal shots on forks of
+ * the boards kept from the previous level, and keeps the best boards by the points won since the start plus an estimate
+ * of the next points: the best next shot and half of the best explosion of a special block left on the board. The same
+ * board reached by different shots is kept once, using its {@link Board#getHash() hash}.
+ *
+ * <p>The shots are made with {@link Board#tryShoot(int, int)} on forks of the board, including the new candies of its
+ * generator, so the points of the search are the points of the real game. The shots of every level are made in parallel
+ * in a fork-join pool. The search is anytime: when the time is over, it returns the best shot of the last level that was
+ * searched completely.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class HintEngine {
+
+	/**
+	 * Default number of boards kept in every level of the search.
+	 */
+	public static final int DEFAULT_BEAM_WIDTH = 16;
+
+	/**
+	 * Maximum number of levels of the search.
+	 */
+	private static final int MAX_DEPTH = 64;
+
+	/**
+	 * Number of shots made by every task.
+	 */
+	private static final int SHOTS_PER_TASK = 8;
+
+	/**
+	 * Number of boards kept in every level of the search.
+	 */
+	private final int beamWidth;
+
+	/**
+	 * Pool where the shots are made.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * List of legal shots of every thread, reused by all its evaluations.
+	 */
+	private final ThreadLocal<MoveList> moveLists = ThreadLocal.withInitial(() -> new MoveList(64));
+
+	/**
+	 * Class constructor with the default beam width and the common pool.
+	 */
+	public HintEngine() {
+		this(DEFAULT_BEAM_WIDTH, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param beamWidth Number of boards kept in every level of the search.
+	 * @param pool      Pool where the shots are made.
+	 */
+	public HintEngine(int beamWidth, ForkJoinPool pool) {
+		this.beamWidth = beamWidth;
+		this.pool = pool;
+	}
+
+	/**
+	 * Searches the best shot of a board. The board is forked when the search starts, so the search never changes it.
+	 *
+	 * @param board       The board.
+	 * @param budgetNanos Time available for the search in nanoseconds.
+	 *
+	 * @return The best shot found, <code>null</code> if there aren't legal shots.
+	 */
+	public Hint search(Board board, long budgetNanos) {
+		long deadline = System.nanoTime() + budgetNanos;
+		Board start = board.fork();
+		MoveList moves = new MoveList(start.getGrid().size());
+
+		if (start.generateMoves(moves) == 0) {
+			return null;
+		}
+
+		// Until the first level is complete the best shot is the one that wins the most points now.
+		int greedy = ShotPolicy.GREEDY.choose(moves, null);
+		Hint best = new Hint(moves.getRow(greedy), moves.getColumn(greedy), moves.getScoreDelta(greedy), 0, 0);
+		long base = start.getScore().getPunctuation();
+		AtomicLong evaluated = new AtomicLong();
+		List<Node> beam = Collections.singletonList(new Node(start, -1, -1, 0, 0));
+
+		for (int depth = 1; depth <= MAX_DEPTH && !beam.isEmpty(); depth++) {
+			AtomicBoolean timedOut = new AtomicBoolean();
+			List<Node> children = new ArrayList<>();
+
+			if (!this.expand(beam, moves, base, deadline, timedOut, evaluated, children) || children.isEmpty() ||
+					(timedOut.get() && depth > 1)) {
+				break;
+			}
+
+			beam = this.select(children);
+			Node top = beam.get(0);
+			best = new Hint(top.rootRow, top.rootColumn, top.gained, timedOut.get() ? 0 : depth, evaluated.get());
+
+			if (timedOut.get()) {
+				break;
+			}
+		}
+
+		return new Hint(best.getRow(), best.getColumn(), best.getExpectedPoints(), best.getDepth(), evaluated.get());
+	}
+
+	/**
+	 * Makes all the legal shots of the boards of a level, in parallel. The boards without legal shots are kept in the next
+	 * level, so a game that ends early can still be the best one.
+	 *
+	 * @param beam      Boards of the level.
+	 * @param moves     List reused for the legal shots of every board.
+	 * @param base      Points of the searched board.
+	 * @param deadline  Time when the search has to end, as returned by {@link System#nanoTime()}.
+	 * @param timedOut  Set if some shot wasn't made because the time is over.
+	 * @param evaluated Counter of evaluated boards.
+	 * @param children  List where the boards of the next level are added.
+	 *
+	 * @return <code>true</code> if any shot was made, <code>false</code> if no board has legal shots.
+	 */
+	private boolean expand(List<Node> beam, MoveList moves, long base, long deadline, AtomicBoolean timedOut,
+	                       AtomicLong evaluated, List<Node> children) {
+		List<Callable<List<Node>>> tasks = new ArrayList<>();
+
+		for (Node node : beam) {
+			int count = node.board.generateMoves(moves);
+
+			if (count == 0) {
+				children.add(node);
+				continue;
+			}
+			int[] shots = new int[2 * count];
+
+			for (int i = 0; i < count; i++) {
+				shots[2 * i] = moves.getRow(i);
+				shots[2 * i + 1] = moves.getColumn(i);
+			}
+
+			for (int from = 0; from < count; from += SHOTS_PER_TASK) {
+				int first = from;
+				int last = Math.min(count, from + SHOTS_PER_TASK);
+				tasks.add(() -> this.shoot(node, shots, first, last, base, deadline, timedOut, evaluated));
+			}
+		}
+
+		if (tasks.isEmpty()) {
+			return false;
+		}
+
+		for (Future<List<Node>> result : this.pool.invokeAll(tasks)) {
+			try {
+				children.addAll(result.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				timedOut.set(true);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Makes some shots on forks of a board.
+	 *
+	 * @param node      The board.
+	 * @param shots     Rows and columns of the legal shots of the board.
+	 * @param from      First shot.
+	 * @param to        End of the shots (excluded).
+	 * @param base      Points of the searched board.
+	 * @param deadline  Time when the search has to end.
+	 * @param timedOut  Set if some shot isn't made because the time is over.
+	 * @param evaluated Counter of evaluated boards.
+	 *
+	 * @return The boards after the shots.
+	 */
+	private List<Node> shoot(Node node, int[] shots, int from, int to, long base, long deadline, AtomicBoolean timedOut,
+	                         AtomicLong evaluated) {
+		List<Node> children = new ArrayList<>(to - from);
+
+		for (int i = from; i < to; i++) {
+			if (timedOut.get() || System.nanoTime() - deadline > 0) {
+				timedOut.set(true);
+				break;
+			}
+
+			int row = shots[2 * i];
+			int column = shots[2 * i + 1];
+			Board child = node.board.fork();
+
+			child.tryShoot(row, column);
+
+			long gained = child.getScore().getPunctuation() - base;
+			children.add(new Node(child, node.rootRow < 0 ? row : node.rootRow, node.rootRow < 0 ? column : node.rootColumn,
+					gained, gained + this.estimate(child)));
+			evaluated.incrementAndGet();
+		}
+
+		return children;
+	}
+
+	/**
+	 * Estimates the points that can still be won in a board: the best next shot plus half of the best explosion of a
+	 * special block, so boards with big groups and special blocks are preferred.
+	 *
+	 * @param board The board.
+	 *
+	 * @return The estimated points.
+	 */
+	private long estimate(Board board) {
+		MoveList moves = this.moveLists.get();
+		int count = board.generateMoves(moves);
+		long bestShot = 0;
+		long bestSpecial = 0;
+
+		for (int i = 0; i < count; i++) {
+			bestShot = Math.max(bestShot, moves.getScoreDelta(i));
+
+			if (moves.isSpecialShot(i)) {
+				bestSpecial = Math.max(bestSpecial, moves.getScoreDelta(i));
+			}
+		}
+
+		return bestShot + bestSpecial / 2;
+	}
+
+	/**
+	 * Keeps the best boards of a level, each different board once.
+	 *
+	 * @param children Boards of the level.
+	 *
+	 * @return The best boards, the best one first.
+	 */
+	private List<Node> select(List<Node> children) {
+		List<Node> beam = new ArrayList<>(this.beamWidth);
+		Set<Long> hashes = new HashSet<>();
+
+		children.sort((a, b) -> Long.compare(b.value, a.value));
+
+		for (Node child : children) {
+			if (beam.size() == this.beamWidth) {
+				break;
+			}
+
+			if (hashes.add(child.board.getHash())) {
+				beam.add(child);
+			}
+		}
+
+		return beam;
+	}
+
+	/**
+	 * Board of the search, with the first shot that led to it.
+	 */
+	private static final class Node {
+
+		/**
+		 * The board.
+		 */
+		private final Board board;
+
+		/**
+		 * Row of the first shot, -1 for the searched board.
+		 */
+		private final int rootRow;
+
+		/**
+		 * Column of the first shot, -1 for the searched board.
+		 */
+		private final int rootColumn;
+
+		/**
+		 * Points won since the searched board.
+		 */
+		private final long gained;
+
+		/**
+		 * Points won plus the estimated points that can still be won.
+		 */
+		private final long value;
+
+		/**
+		 * Class constructor.
+		 *
+		 * @param board      The board.
+		 * @param rootRow    Row of the first shot.
+		 * @param rootColumn Column of the first shot.
+		 * @param gained     Points won since the searched board.
+		 * @param value      Points won plus the estimated points.
+		 */
+		private Node(Board board, int rootRow, int rootColumn, long gained, long value) {
+			this.board = board;
+			this.rootRow = rootRow;
+			this.rootColumn = rootColumn;
+			this.gained = gained;
+			this.value = value;
+		}
+	}
+}
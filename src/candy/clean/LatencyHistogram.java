@@ -0,0 +1,142 @@
+package candy.clean;
+
+/**
+ * Histogram of durations in nanoseconds with a fixed number of buckets. Every power of 2 is divided in 8 buckets, so
+ * the percentiles are exact to 12.5% with 512 counters and recording a duration doesn't allocate anything. A histogram
+ * isn't synchronized: every thread records into its own histogram and they are merged at the end.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class LatencyHistogram {
+
+	/**
+	 * Number of bits of the buckets of every power of 2.
+	 */
+	private static final int SUB_BITS = 3;
+
+	/**
+	 * Number of buckets of every power of 2.
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+	/**
+	 * Number of durations of every bucket.
+	 */
+	private final long[] counts = new long[Long.SIZE * SUB_BUCKETS];
+
+	/**
+	 * Number of recorded durations.
+	 */
+	private long total;
+
+	/**
+	 * Longest recorded duration.
+	 */
+	private long max;
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param nanos The duration in nanoseconds (negative durations are recorded as 0).
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+
+		this.counts[bucketOf(value)]++;
+		this.total++;
+		this.max = Math.max(this.max, value);
+	}
+
+	/**
+	 * Adds the durations of another histogram.
+	 *
+	 * @param other The histogram to add.
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < this.counts.length; i++) {
+			this.counts[i] += other.counts[i];
+		}
+
+		this.total += other.total;
+		this.max = Math.max(this.max, other.max);
+	}
+
+	/**
+	 * Returns the number of recorded durations.
+	 *
+	 * @return The number of durations.
+	 */
+	public long getCount() {
+		return this.total;
+	}
+
+	/**
+	 * Returns the longest recorded duration.
+	 *
+	 * @return The maximum in nanoseconds.
+	 */
+	public long getMax() {
+		return this.max;
+	}
+
+	/**
+	 * Returns a percentile of the durations.
+	 *
+	 * @param percentile The percentile, between 0 and 100.
+	 *
+	 * @return The highest duration of the bucket of the percentile in nanoseconds (never more than the maximum), 0 if
+	 * there isn't any duration.
+	 */
+	public long getPercentile(double percentile) {
+		long rank = (long) Math.ceil(percentile / 100 * this.total);
+		long seen = 0;
+
+		for (int i = 0; i < this.counts.length; i++) {
+			seen += this.counts[i];
+
+			if (seen >= Math.max(1, rank)) {
+				return Math.min(this.max, highestOf(i));
+			}
+		}
+
+		return this.max;
+	}
+
+	/**
+	 * Returns the bucket of a duration.
+	 *
+	 * @param value The duration (not negative).
+	 *
+	 * @return Position of the bucket.
+	 */
+	private static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+
+		return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * Returns the highest duration of a bucket.
+	 *
+	 * @param bucket Position of the bucket.
+	 *
+	 * @return The highest duration that is recorded in the bucket.
+	 */
+	private static long highestOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+
+		int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+		long sub = bucket % SUB_BUCKETS;
+		long width = 1L << (exponent - SUB_BITS);
+
+		return (SUB_BUCKETS + sub) * width + width - 1;
+	}
+}
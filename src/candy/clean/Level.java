@@ -0,0 +1,100 @@
+package candy.clean;
+
+/**
+ * Difficulty levels of the game, with the size of the board, the number of colors, the objective and the scoring rules
+ * of each one. All the levels use the original rules; other rules, such as {@link ScoringRules#EXPERT}, are chosen with
+ * {@link CandyClean#CandyClean(Level, ScoringRules, long)}.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public enum Level {
+	EASY(7, 2, 1000, ScoringRules.CLASSIC),
+	MEDIUM(12, 3, 2000, ScoringRules.CLASSIC),
+	HARD(15, 4, 3500, ScoringRules.CLASSIC),
+	VERY_HARD(18, 5, 5000, ScoringRules.CLASSIC),
+	EXTREME(21, 6, 9000, ScoringRules.CLASSIC),
+	MASTER(30, 7, 19000, ScoringRules.CLASSIC);
+
+	/**
+	 * Size of the board (Square).
+	 */
+	private final int dimensions;
+
+	/**
+	 * Number of colors of the candies.
+	 */
+	private final int numColors;
+
+	/**
+	 * Objective of the game.
+	 */
+	private final long objective;
+
+	/**
+	 * Rules used to compute the score.
+	 */
+	private final ScoringRules rules;
+
+	/**
+	 * Constructor of the levels.
+	 *
+	 * @param dimensions Size of the board (Square).
+	 * @param numColors  Number of colors of the candies.
+	 * @param objective  Objective of the game.
+	 * @param rules      Rules used to compute the score.
+	 */
+	Level(int dimensions, int numColors, long objective, ScoringRules rules) {
+		this.dimensions = dimensions;
+		this.numColors = numColors;
+		this.objective = objective;
+		this.rules = rules;
+	}
+
+	/**
+	 * Returns the level of an option of the menu.
+	 *
+	 * @param option The option, starting at 1.
+	 *
+	 * @return The level.
+	 */
+	public static Level of(int option) {
+		return values()[option - 1];
+	}
+
+	/**
+	 * Returns the size of the board.
+	 *
+	 * @return The size of the board (Square).
+	 */
+	public int getDimensions() {
+		return this.dimensions;
+	}
+
+	/**
+	 * Returns the number of colors.
+	 *
+	 * @return The number of colors of the candies.
+	 */
+	public int getNumColors() {
+		return this.numColors;
+	}
+
+	/**
+	 * Returns the objective.
+	 *
+	 * @return The objective of the game.
+	 */
+	public long getObjective() {
+		return this.objective;
+	}
+
+	/**
+	 * Returns the scoring rules.
+	 *
+	 * @return The rules used to compute the score.
+	 */
+	public ScoringRules getRules() {
+		return this.rules;
+	}
+}
@@ -3,6 +3,13 @@ package candy.clean;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Main class.
  *
@@ -13,71 +20,163 @@ public class MainCandyClean {
 	private static final Logger logger = LogManager.getLogger(MainCandyClean.class);
 
 	public static void main(String[] args) {
+		if (args.length > 0 && "--simulate".equals(args[0])) {
+			try {
+				Simulator.main(Arrays.copyOfRange(args, 1, args.length));
+			} catch (CandyCleanException e) {
+				logger.fatal(e.getMessage());
+			}
+
+			return;
+		}
+
+		if (args.length > 0 && "--serve".equals(args[0])) {
+			try {
+				GameServer.main(Arrays.copyOfRange(args, 1, args.length));
+			} catch (CandyCleanException e) {
+				logger.fatal(e.getMessage());
+			}
+
+			return;
+		}
+
+		if (args.length > 0 && "--batch".equals(args[0])) {
+			try {
+				CorpusProcessor.main(Arrays.copyOfRange(args, 1, args.length));
+			} catch (CandyCleanException e) {
+				logger.fatal(e.getMessage());
+			}
+
+			return;
+		}
+
+		if (args.length > 0 && "--solve".equals(args[0])) {
+			try {
+				PuzzleSolver.main(Arrays.copyOfRange(args, 1, args.length));
+			} catch (CandyCleanException e) {
+				logger.fatal(e.getMessage());
+			}
+
+			return;
+		}
+
+		if (args.length > 0 && "--replay".equals(args[0])) {
+			try {
+				Replayer.main(Arrays.copyOfRange(args, 1, args.length));
+			} catch (CandyCleanException e) {
+				logger.fatal(e.getMessage());
+			}
+
+			return;
+		}
+
+		Path saveFile = fileOf(args, "--save=");
+		Path recordFile = fileOf(args, "--record=");
+
 		do {
 			try {
-				int option;
-				int score = 0;
-				int dimensions = 0;
-				int numColors = 0;
+				CandyClean game = saveFile != null && Files.exists(saveFile) ? resume(saveFile) : null;
+
+				if (game == null) {
+					int option;
 
-				do {
-					option = TextUI.selectGameMode();
-				} while (option < 0 || option > 6);
+					do {
+						option = TextUI.selectGameMode();
+					} while (option < 0 || option > Level.values().length);
 
-				switch (option) {
-					case 0:
+					if (option == 0) {
 						System.exit(0);
-						break;
-
-					case 1:
-						dimensions = 7;
-						numColors = 2;
-						score = 1000;
-						break;
-
-					case 2:
-						dimensions = 12;
-						numColors = 3;
-						score = 2000;
-						break;
-
-					case 3:
-						dimensions = 15;
-						numColors = 4;
-						score = 3500;
-						break;
-
-					case 4:
-						dimensions = 18;
-						numColors = 5;
-						score = 5000;
-						break;
-
-					case 5:
-						dimensions = 21;
-						numColors = 6;
-						score = 9000;
-						break;
-
-					case 6:
-						dimensions = 30;
-						numColors = 7;
-						score = 19000;
-						break;
-
-					default:
-						System.exit(1);
-						break;
+					}
+
+					// When using an empty constructor, it will create the predefined board. CandyClean game = new CandyClean()
+					game = new CandyClean(Level.of(option), Arrays.asList(args).contains("--expert") ? ScoringRules.EXPERT :
+							Level.of(option).getRules(), CandySource.newSeed());
 				}
 
-				// When using an empty constructor, it will create the predefined board. CandyClean game = new CandyClean()
-				CandyClean game = new CandyClean(dimensions, numColors, score);
-				TextUI ui = new TextUI(game);
-				ui.init();
-			} catch (CandyCleanException e) {
+				logger.info("Seed of the game: {}", game.getSeed());
+				game.enableUndo(Constants.UNDO_MAX_BYTES);
+				List<String> flags = Arrays.asList(args);
+				TextUI ui = new TextUI(game, flags.contains("--incremental"), flags.contains("--auto") ? new MctsPlayer() : null);
+
+				try (ShotLog shotLog = recordFile == null ? null : newShotLog(recordFile, game)) {
+					game.setShotLog(shotLog);
+
+					if (saveFile == null) {
+						ui.init();
+					} else {
+						try (Checkpointer checkpointer = new Checkpointer(saveFile, Constants.CHECKPOINT_MILLIS)) {
+							ui.setCheckpointer(checkpointer);
+							ui.init();
+						}
+
+						Files.deleteIfExists(saveFile);
+					}
+				}
+			} catch (CandyCleanException | IOException e) {
 				logger.fatal(e.getMessage());
 			}
 
 		} while (true);
 	}
+
+	/**
+	 * Returns the file of an argument such as <code>--save=file</code>, where the game is saved every few seconds and
+	 * resumed from when the program starts again, or <code>--record=file</code>, where the shots of the game are logged
+	 * to replay them later.
+	 *
+	 * @param args   The arguments of the program.
+	 * @param prefix The name of the argument followed by the equals sign.
+	 *
+	 * @return The file, <code>null</code> if the argument isn't used.
+	 */
+	private static Path fileOf(String[] args, String prefix) {
+		for (String arg : args) {
+			if (arg.startsWith(prefix)) {
+				return Paths.get(arg.substring(prefix.length()));
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Creates the log of the shots of a new game, in its own file derived from the file of the argument
+	 * <code>--record=file</code>, flushed after every turn.
+	 *
+	 * @param recordFile The file of the argument.
+	 * @param game       The game.
+	 *
+	 * @return The log.
+	 *
+	 * @throws IOException If the file can't be created.
+	 */
+	private static ShotLog newShotLog(Path recordFile, CandyClean game) throws IOException {
+		Path file = ShotLog.fileFor(recordFile, game.getSeed());
+		ShotLog shotLog = new ShotLog(file, game);
+
+		shotLog.setAutoFlush(true);
+		logger.info("Recording the shots in {}", file);
+
+		return shotLog;
+	}
+
+	/**
+	 * Loads a saved game.
+	 *
+	 * @param saveFile The file of the saved game.
+	 *
+	 * @return The game, <code>null</code> if the file can't be loaded.
+	 */
+	private static CandyClean resume(Path saveFile) {
+		try {
+			CandyClean game = CandyClean.load(saveFile);
+			logger.info("Resuming the game saved in {}", saveFile);
+
+			return game;
+		} catch (IOException | CandyCleanException e) {
+			logger.warn("The saved game can't be loaded: {}", e.getMessage());
+
+			return null;
+		}
+	}
 }
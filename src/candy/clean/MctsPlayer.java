@@ -0,0 +1,425 @@
+package candy.clean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Player that chooses its shots with a Monte Carlo tree search. The new candies of a random game aren't known, so every
+ * rollout plays a fork of the board with a new random seed: the tree keeps the statistics of sequences of shots (not of
+ * boards), and a shot of the tree that isn't valid with the sampled candies ends the rollout, with the points won
+ * before it minus the penalty of the invalid shot. Otherwise, after the shots of the tree, the rollout makes some random
+ * legal shots and its value is the number of points won.
+ *
+ * <p>All the threads of the pool share the same tree. The statistics of the nodes are atomic counters and a node is
+ * expanded with a single compare-and-set, so the search doesn't use locks. The visit of a node is counted before its
+ * value is known (a virtual loss), so the threads spread over different shots.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class MctsPlayer {
+
+	/**
+	 * Default number of rollouts of every shot.
+	 */
+	public static final int DEFAULT_ROLLOUTS = 2000;
+
+	/**
+	 * Default number of random shots at the end of every rollout.
+	 */
+	public static final int DEFAULT_ROLLOUT_DEPTH = 8;
+
+	/**
+	 * Weight of the exploration of the shots with few visits.
+	 */
+	private static final double EXPLORATION = 1.4;
+
+	/**
+	 * Number of rollouts of every shot.
+	 */
+	private final int rollouts;
+
+	/**
+	 * Number of random shots at the end of every rollout.
+	 */
+	private final int rolloutDepth;
+
+	/**
+	 * Number of threads that make the rollouts.
+	 */
+	private final int threads;
+
+	/**
+	 * Pool where the rollouts are made.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Generator of the seeds of the threads.
+	 */
+	private final SplittableRandom seeds;
+
+	/**
+	 * Number of rollouts made by this player.
+	 */
+	private final AtomicLong totalRollouts = new AtomicLong();
+
+	/**
+	 * Time spent making the rollouts, in nanoseconds.
+	 */
+	private final AtomicLong totalNanos = new AtomicLong();
+
+	/**
+	 * Class constructor with the default number of rollouts, all the processors and the common pool.
+	 */
+	public MctsPlayer() {
+		this(DEFAULT_ROLLOUTS, DEFAULT_ROLLOUT_DEPTH, ForkJoinPool.commonPool(), CandySource.newSeed());
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param rollouts     Number of rollouts of every shot.
+	 * @param rolloutDepth Number of random shots at the end of every rollout.
+	 * @param pool         Pool where the rollouts are made, one task per thread of the pool.
+	 * @param seed         Seed of the random decisions.
+	 */
+	public MctsPlayer(int rollouts, int rolloutDepth, ForkJoinPool pool, long seed) {
+		this.rollouts = rollouts;
+		this.rolloutDepth = rolloutDepth;
+		this.threads = pool.getParallelism();
+		this.pool = pool;
+		this.seeds = new SplittableRandom(seed);
+	}
+
+	/**
+	 * Chooses the next shot of a game. The game isn't changed.
+	 *
+	 * @param game The game.
+	 *
+	 * @return The shot with the most visits, <code>null</code> if there aren't legal shots.
+	 */
+	public Hint chooseShot(CandyClean game) {
+		return this.chooseShot(game.getBoard());
+	}
+
+	/**
+	 * Chooses the next shot of a board. The board isn't changed.
+	 *
+	 * @param board The board.
+	 *
+	 * @return The shot with the most visits (its expected points are the mean of its rollouts), <code>null</code> if
+	 * there aren't legal shots.
+	 */
+	public synchronized Hint chooseShot(Board board) {
+		Board root = board.fork();
+		MoveList moves = new MoveList(root.getGrid().size());
+
+		if (root.generateMoves(moves) == 0) {
+			return null;
+		}
+
+		Node tree = new Node(-1, -1);
+		Search search = new Search(root, tree);
+		List<Callable<Integer>> tasks = new ArrayList<>();
+
+		tree.expand(moves);
+
+		for (int i = 0; i < this.threads; i++) {
+			long seed = this.seeds.nextLong();
+			tasks.add(() -> this.rollouts(search, new SplittableRandom(seed)));
+		}
+
+		long start = System.nanoTime();
+
+		for (Future<Integer> done : this.pool.invokeAll(tasks)) {
+			try {
+				this.totalRollouts.addAndGet(done.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+
+		this.totalNanos.addAndGet(System.nanoTime() - start);
+
+		Node best = null;
+
+		for (Node child : tree.children.get()) {
+			if (best == null || child.visits.get() > best.visits.get()) {
+				best = child;
+			}
+		}
+
+		return new Hint(best.row, best.column, best.mean(), search.maxDepth.get(), this.rollouts);
+	}
+
+	/**
+	 * Returns the number of rollouts made by this player.
+	 *
+	 * @return The number of rollouts.
+	 */
+	public long getTotalRollouts() {
+		return this.totalRollouts.get();
+	}
+
+	/**
+	 * Returns the throughput of the rollouts of all the searches of this player.
+	 *
+	 * @return The number of rollouts per second, 0 before the first search.
+	 */
+	public double getRolloutsPerSecond() {
+		long nanos = this.totalNanos.get();
+
+		return nanos == 0 ? 0 : this.totalRollouts.get() * 1e9 / nanos;
+	}
+
+	/**
+	 * Makes rollouts until the search has made all of them.
+	 *
+	 * @param search The search.
+	 * @param random Generator of the random decisions of the thread.
+	 *
+	 * @return The number of rollouts made by the thread.
+	 */
+	private int rollouts(Search search, SplittableRandom random) {
+		MoveList moves = new MoveList(search.root.getGrid().size());
+		List<Node> path = new ArrayList<>();
+		int done = 0;
+
+		while (search.remaining.getAndDecrement() > 0) {
+			this.rollout(search, random, moves, path);
+			done++;
+		}
+
+		return done;
+	}
+
+	/**
+	 * Makes a rollout: the shots of the tree, chosen by their upper confidence bound, and then random shots if all the
+	 * shots of the tree were valid.
+	 *
+	 * @param search The search.
+	 * @param random Generator of the random decisions.
+	 * @param moves  List reused for the legal shots.
+	 * @param path   List reused for the visited nodes.
+	 */
+	private void rollout(Search search, SplittableRandom random, MoveList moves, List<Node> path) {
+		Board board = search.root.fork(random.nextLong());
+		Node node = search.tree;
+		boolean valid = true;
+
+		path.clear();
+		path.add(node);
+		node.visits.incrementAndGet();
+
+		while (true) {
+			Node[] children = node.children.get();
+
+			if (children == null) {
+				if (node.visits.get() < 2) {
+					break;
+				}
+
+				board.generateMoves(moves);
+				children = node.expand(moves);
+			}
+
+			if (children.length == 0) {
+				break;
+			}
+
+			node = this.select(node, children, search.maxPoints.get());
+			node.visits.incrementAndGet();
+			path.add(node);
+
+			if (board.tryShoot(node.row, node.column).getStatus() != ShotResult.Status.VALID) {
+				valid = false;
+				break;
+			}
+		}
+
+		// A shot of the tree that can't be made with the sampled candies is only worth the points before it, minus the
+		// penalty, so the random shots aren't added to its value.
+		for (int i = 0; valid && i < this.rolloutDepth; i++) {
+			int count = board.generateMoves(moves);
+
+			if (count == 0) {
+				break;
+			}
+
+			int chosen = random.nextInt(count);
+			board.tryShoot(moves.getRow(chosen), moves.getColumn(chosen));
+		}
+
+		long points = board.getScore().getPunctuation() - search.base;
+		search.maxPoints.accumulateAndGet(points, Math::max);
+		search.maxDepth.accumulateAndGet(path.size() - 1, Math::max);
+
+		for (Node visited : path) {
+			visited.points.addAndGet(points);
+		}
+	}
+
+	/**
+	 * Chooses the child with the highest upper confidence bound. A child without visits is always chosen first.
+	 *
+	 * @param parent    The node.
+	 * @param children  The children of the node.
+	 * @param maxPoints Highest number of points of a rollout, used to scale the mean points between 0 and 1.
+	 *
+	 * @return The chosen child.
+	 */
+	private Node select(Node parent, Node[] children, long maxPoints) {
+		double logVisits = Math.log(Math.max(1, parent.visits.get()));
+		double scale = Math.max(1, maxPoints);
+		Node best = children[0];
+		double bestBound = Double.NEGATIVE_INFINITY;
+
+		for (Node child : children) {
+			long visits = child.visits.get();
+
+			if (visits == 0) {
+				return child;
+			}
+
+			double bound = child.points.get() / (visits * scale) + EXPLORATION * Math.sqrt(logVisits / visits);
+
+			if (bound > bestBound) {
+				bestBound = bound;
+				best = child;
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * State shared by the threads of a search.
+	 */
+	private final class Search {
+
+		/**
+		 * Board where the search starts.
+		 */
+		private final Board root;
+
+		/**
+		 * Root of the tree.
+		 */
+		private final Node tree;
+
+		/**
+		 * Points of the board where the search starts.
+		 */
+		private final long base;
+
+		/**
+		 * Number of rollouts that haven't been started.
+		 */
+		private final AtomicInteger remaining = new AtomicInteger(MctsPlayer.this.rollouts);
+
+		/**
+		 * Highest number of points of a rollout.
+		 */
+		private final AtomicLong maxPoints = new AtomicLong(1);
+
+		/**
+		 * Deepest shot of the tree that has been visited.
+		 */
+		private final AtomicInteger maxDepth = new AtomicInteger();
+
+		/**
+		 * Class constructor.
+		 *
+		 * @param root Board where the search starts.
+		 * @param tree Root of the tree.
+		 */
+		private Search(Board root, Node tree) {
+			this.root = root;
+			this.tree = tree;
+			this.base = root.getScore().getPunctuation();
+		}
+	}
+
+	/**
+	 * Node of the tree: a shot after the shots of its ancestors, with the statistics of its rollouts.
+	 */
+	private static final class Node {
+
+		/**
+		 * Row of the shot.
+		 */
+		private final int row;
+
+		/**
+		 * Column of the shot.
+		 */
+		private final int column;
+
+		/**
+		 * Number of rollouts that made this shot, including the ones that haven't finished.
+		 */
+		private final AtomicLong visits = new AtomicLong();
+
+		/**
+		 * Sum of the points of the finished rollouts that made this shot.
+		 */
+		private final AtomicLong points = new AtomicLong();
+
+		/**
+		 * Next shots, <code>null</code> until the node is expanded.
+		 */
+		private final AtomicReference<Node[]> children = new AtomicReference<>();
+
+		/**
+		 * Class constructor.
+		 *
+		 * @param row    Row of the shot.
+		 * @param column Column of the shot.
+		 */
+		private Node(int row, int column) {
+			this.row = row;
+			this.column = column;
+		}
+
+		/**
+		 * Creates the children of the node with the legal shots of a board, unless other thread has created them before.
+		 *
+		 * @param moves Legal shots of the board after the shot of the node.
+		 *
+		 * @return The children of the node.
+		 */
+		private Node[] expand(MoveList moves) {
+			Node[] created = new Node[moves.size()];
+
+			for (int i = 0; i < created.length; i++) {
+				created[i] = new Node(moves.getRow(i), moves.getColumn(i));
+			}
+
+			this.children.compareAndSet(null, created);
+
+			return this.children.get();
+		}
+
+		/**
+		 * Returns the mean points of the rollouts that made this shot.
+		 *
+		 * @return The mean points, 0 if it hasn't been visited.
+		 */
+		private long mean() {
+			long visits = this.visits.get();
+
+			return visits == 0 ? 0 : this.points.get() / visits;
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package candy.clean;
+
+import java.util.Arrays;
+
+/**
+ * Generator of the legal shots of a board. It walks the groups of the {@link ComponentIndex} once and adds one shot per
+ * group of two or more blocks, plus one shot per special block, with the points that every shot would win. The board
+ * isn't changed: the explosions of the special blocks are computed on a private {@link BitBoard}.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+final class MoveGenerator {
+
+	/**
+	 * Board whose shots are generated.
+	 */
+	private final Board board;
+
+	/**
+	 * Grid of the board.
+	 */
+	private final PackedGrid grid;
+
+	/**
+	 * Score of the board, used for the multiplier and the rules.
+	 */
+	private final Score score;
+
+	/**
+	 * Number of the generation in which each group was added, indexed by the label of the group.
+	 */
+	private final int[] marks;
+
+	/**
+	 * Bit board used to compute the explosions, <code>null</code> until a special block is found.
+	 */
+	private BitBoard bitBoard;
+
+	/**
+	 * Set with the cells reached by an explosion.
+	 */
+	private long[] explosion;
+
+	/**
+	 * Number of the current generation.
+	 */
+	private int epoch;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param board Board whose shots are generated.
+	 * @param grid  Grid of the board.
+	 * @param score Score of the board.
+	 */
+	MoveGenerator(Board board, PackedGrid grid, Score score) {
+		this.board = board;
+		this.grid = grid;
+		this.score = score;
+		this.marks = new int[grid.capacity()];
+	}
+
+	/**
+	 * Fills a list with the legal shots, in the order of the rows and columns. The shot of a group is its first block that
+	 * isn't special.
+	 *
+	 * @param components Updated index of the groups of the board.
+	 * @param moves      List where the shots are stored. Its previous moves are removed.
+	 *
+	 * @return The number of shots.
+	 */
+	int generate(ComponentIndex components, MoveList moves) {
+		return this.generate(components, moves, false);
+	}
+
+	/**
+	 * Fills a list with the legal shots, in the order of the rows and columns. Shooting different blocks of a group only
+	 * changes the special block created, so if <code>everySpecial</code> is <code>true</code> every block of a group
+	 * that would create a special block is added too, besides the first block that wouldn't create one: no result of
+	 * the shots is missed, as an exact search needs.
+	 *
+	 * @param components   Updated index of the groups of the board.
+	 * @param moves        List where the shots are stored. Its previous moves are removed.
+	 * @param everySpecial If <code>true</code>, every shot with a different result is added.
+	 *
+	 * @return The number of shots.
+	 */
+	int generate(ComponentIndex components, MoveList moves, boolean everySpecial) {
+		ScoringRules rules = this.score.getRules();
+		int multiplier = this.score.getMultiplier();
+
+		this.nextEpoch();
+		moves.clear();
+
+		for (int i = 0; i < this.grid.getRows(); i++) {
+			for (int j = 0; j < this.grid.getColumns(); j++) {
+				byte cell = this.grid.get(this.grid.index(i, j));
+				int size = components.groupSize(i, j);
+
+				if (PackedGrid.isBlank(cell)) {
+					continue;
+				}
+
+				if (PackedGrid.isSpecial(cell)) {
+					int type = PackedGrid.typeOf(cell);
+					int cleared = this.explosionSize(i, j);
+
+					moves.add(i, j, size, cleared, PackedGrid.colorOf(cell), Constants.NORMAL_TYPE, true,
+							rules.clearScore(cleared, type, multiplier));
+				} else if (size >= 2) {
+					int group = components.groupOf(i, j);
+
+					if (this.marks[group] != this.epoch || everySpecial) {
+						int newSpecial = this.board.newSpecialType(i, j);
+
+						if (everySpecial && newSpecial != Constants.NORMAL_TYPE) {
+							moves.add(i, j, size, size, PackedGrid.colorOf(cell), newSpecial, false,
+									rules.clearScore(size, Constants.NORMAL_TYPE, multiplier));
+						} else if (this.marks[group] != this.epoch) {
+							this.marks[group] = this.epoch;
+							moves.add(i, j, size, size, PackedGrid.colorOf(cell), newSpecial, false,
+									rules.clearScore(size, Constants.NORMAL_TYPE, multiplier));
+						}
+					}
+				}
+			}
+		}
+
+		return moves.size();
+	}
+
+	/**
+	 * Counts the blocks removed by the explosion of a special block.
+	 *
+	 * @param row    Row of the special block.
+	 * @param column Column of the special block.
+	 *
+	 * @return Number of removed blocks.
+	 */
+	private int explosionSize(int row, int column) {
+		if (this.bitBoard == null) {
+			this.bitBoard = new BitBoard(this.grid.getRows(), this.grid.getColumns());
+			this.explosion = this.bitBoard.newSet();
+		}
+
+		if (this.bitBoard.getVersion() != this.grid.getVersion()) {
+			this.bitBoard.load(this.grid);
+		}
+
+		this.bitBoard.explosion(row, column, this.explosion);
+
+		return this.bitBoard.countBlocks(this.explosion);
+	}
+
+	/**
+	 * Starts a new generation, so no group is added in it yet.
+	 */
+	private void nextEpoch() {
+		if (++this.epoch == 0) {
+			Arrays.fill(this.marks, 0);
+			this.epoch = 1;
+		}
+	}
+}
@@ -0,0 +1,224 @@
+package candy.clean;
+
+import java.util.Arrays;
+
+/**
+ * Reusable list of the legal shots of a board, filled by {@link Board#generateMoves(MoveList)}. The moves are kept in
+ * primitive arrays that are only replaced if the list is too small, so the same list can be filled every turn without
+ * creating objects.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class MoveList {
+
+	/**
+	 * Row of every move.
+	 */
+	private int[] rows;
+
+	/**
+	 * Column of every move.
+	 */
+	private int[] columns;
+
+	/**
+	 * Size of the group of the shot block of every move.
+	 */
+	private int[] groupSizes;
+
+	/**
+	 * Number of blocks removed by every move.
+	 */
+	private int[] cleared;
+
+	/**
+	 * Ordinal of the color of the shot block of every move.
+	 */
+	private int[] colors;
+
+	/**
+	 * Type of the special block created by every move, NORMAL_TYPE if none is created.
+	 */
+	private int[] newSpecials;
+
+	/**
+	 * Indicates if every move shoots a special block.
+	 */
+	private boolean[] specialShots;
+
+	/**
+	 * Points won by every move with the current multiplier.
+	 */
+	private long[] scoreDeltas;
+
+	/**
+	 * Number of moves in the list.
+	 */
+	private int size;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param capacity Initial number of moves that fit in the list (the number of cells of the board is always enough).
+	 */
+	public MoveList(int capacity) {
+		this.rows = new int[capacity];
+		this.columns = new int[capacity];
+		this.groupSizes = new int[capacity];
+		this.cleared = new int[capacity];
+		this.colors = new int[capacity];
+		this.newSpecials = new int[capacity];
+		this.specialShots = new boolean[capacity];
+		this.scoreDeltas = new long[capacity];
+	}
+
+	/**
+	 * Removes all the moves.
+	 */
+	void clear() {
+		this.size = 0;
+	}
+
+	/**
+	 * Adds a move.
+	 *
+	 * @param row         Row of the shot block.
+	 * @param column      Column of the shot block.
+	 * @param groupSize   Size of the group of the shot block.
+	 * @param cleared     Number of blocks removed by the shot.
+	 * @param color       Ordinal of the color of the shot block.
+	 * @param newSpecial  Type of the special block created by the shot.
+	 * @param specialShot If the shot block is special.
+	 * @param scoreDelta  Points won by the shot.
+	 */
+	void add(int row, int column, int groupSize, int cleared, int color, int newSpecial, boolean specialShot,
+	         long scoreDelta) {
+		if (this.size == this.rows.length) {
+			this.grow();
+		}
+
+		this.rows[this.size] = row;
+		this.columns[this.size] = column;
+		this.groupSizes[this.size] = groupSize;
+		this.cleared[this.size] = cleared;
+		this.colors[this.size] = color;
+		this.newSpecials[this.size] = newSpecial;
+		this.specialShots[this.size] = specialShot;
+		this.scoreDeltas[this.size] = scoreDelta;
+		this.size++;
+	}
+
+	/**
+	 * Returns the number of moves.
+	 *
+	 * @return The number of moves in the list.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the row of a move.
+	 *
+	 * @param i Position of the move.
+	 *
+	 * @return Row of the shot block.
+	 */
+	public int getRow(int i) {
+		return this.rows[i];
+	}
+
+	/**
+	 * Returns the column of a move.
+	 *
+	 * @param i Position of the move.
+	 *
+	 * @return Column of the shot block.
+	 */
+	public int getColumn(int i) {
+		return this.columns[i];
+	}
+
+	/**
+	 * Returns the size of the group of the shot block of a move.
+	 *
+	 * @param i Position of the move.
+	 *
+	 * @return Number of connected blocks with the same color.
+	 */
+	public int getGroupSize(int i) {
+		return this.groupSizes[i];
+	}
+
+	/**
+	 * Returns the number of blocks removed by a move.
+	 *
+	 * @param i Position of the move.
+	 *
+	 * @return Number of removed blocks (the group, or the blocks reached by the explosion of a special block).
+	 */
+	public int getCleared(int i) {
+		return this.cleared[i];
+	}
+
+	/**
+	 * Returns the color of the shot block of a move.
+	 *
+	 * @param i Position of the move.
+	 *
+	 * @return Ordinal of the {@link BackgroundColor}.
+	 */
+	public int getColor(int i) {
+		return this.colors[i];
+	}
+
+	/**
+	 * Returns the type of the special block created by a move.
+	 *
+	 * @param i Position of the move.
+	 *
+	 * @return Type of the new special block (Defined in Constants class), NORMAL_TYPE if none is created.
+	 */
+	public int getNewSpecial(int i) {
+		return this.newSpecials[i];
+	}
+
+	/**
+	 * Checks if a move shoots a special block.
+	 *
+	 * @param i Position of the move.
+	 *
+	 * @return <code>true</code> if the shot block is special, <code>false</code> otherwise.
+	 */
+	public boolean isSpecialShot(int i) {
+		return this.specialShots[i];
+	}
+
+	/**
+	 * Returns the points won by a move with the current multiplier.
+	 *
+	 * @param i Position of the move.
+	 *
+	 * @return Projected change of the score.
+	 */
+	public long getScoreDelta(int i) {
+		return this.scoreDeltas[i];
+	}
+
+	/**
+	 * Doubles the number of moves that fit in the list.
+	 */
+	private void grow() {
+		int capacity = Math.max(16, this.rows.length * 2);
+
+		this.rows = Arrays.copyOf(this.rows, capacity);
+		this.columns = Arrays.copyOf(this.columns, capacity);
+		this.groupSizes = Arrays.copyOf(this.groupSizes, capacity);
+		this.cleared = Arrays.copyOf(this.cleared, capacity);
+		this.colors = Arrays.copyOf(this.colors, capacity);
+		this.newSpecials = Arrays.copyOf(this.newSpecials, capacity);
+		this.specialShots = Arrays.copyOf(this.specialShots, capacity);
+		this.scoreDeltas = Arrays.copyOf(this.scoreDeltas, capacity);
+	}
+}
@@ -0,0 +1,502 @@
+package candy.clean;
+
+import org.jetbrains.annotations.Contract;
+
+import java.util.Arrays;
+
+/**
+ * Primitive storage of the board cells. Every cell is packed in a single byte and every column is kept in its own array,
+ * so the board needs one object per column instead of one {@link Block} (and one {@link Color}) per cell. The cells are
+ * surrounded by a ring of border cells that never match any other cell, so the neighbours of any cell can be read
+ * without checking the bounds.
+ *
+ * <p>A cell is identified by a single index: the column in the upper bits and the row in the lower bits. The arrays of
+ * the columns are shared by the forks of a grid and copied the first time a grid changes them (copy on write), so a fork
+ * only costs the columns that are changed after it.</p>
+ *
+ * <p>Bits of a cell:</p>
+ * <p>0-2 - Ordinal of the {@link BackgroundColor} (BLACK means empty cell).</p>
+ * <p>3-5 - Type of the explosion (Defined in Constants class).</p>
+ * <p>6 - Special block flag.</p>
+ * <p>7 - Border flag (only set in the cells around the board).</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class PackedGrid {
+
+	/**
+	 * Letters of the colors, indexed by the ordinal of the {@link BackgroundColor}.
+	 */
+	public static final String LETTERS = "ERGYBPCW";
+
+	/**
+	 * Mask of the color bits.
+	 */
+	static final int COLOR_MASK = 0x07;
+
+	/**
+	 * Position of the type bits.
+	 */
+	static final int TYPE_SHIFT = 3;
+
+	/**
+	 * Mask of the type bits (once shifted).
+	 */
+	static final int TYPE_MASK = 0x07;
+
+	/**
+	 * Special block flag.
+	 */
+	static final int SPECIAL_FLAG = 0x40;
+
+	/**
+	 * Border flag.
+	 */
+	static final int BORDER_FLAG = 0x80;
+
+	/**
+	 * Mask of the bits that describe a block (color, type and special flag).
+	 */
+	static final int VALUE_MASK = 0x7F;
+
+	/**
+	 * Mask of the bits compared to know if two cells have the same color. Border cells never match.
+	 */
+	static final int MATCH_MASK = COLOR_MASK | BORDER_FLAG;
+
+	/**
+	 * Number of rows of the grid.
+	 */
+	private final int rows;
+
+	/**
+	 * Number of columns of the grid.
+	 */
+	private final int columns;
+
+	/**
+	 * Number of bits of the index used by the row (the rows plus the two border cells, rounded up to a power of 2).
+	 */
+	private final int shift;
+
+	/**
+	 * Mask of the bits of the index used by the row.
+	 */
+	private final int rowMask;
+
+	/**
+	 * Offsets of the right, upper, left and lower neighbours of a cell.
+	 */
+	private final int[] neighbours;
+
+	/**
+	 * Packed cells of every column, including the border. The first and the last columns are the border.
+	 */
+	private final byte[][] cells;
+
+	/**
+	 * Indicates if the array of every column is shared with another grid, so it has to be copied before changing it.
+	 */
+	private final boolean[] shared;
+
+	/**
+	 * Listeners notified of every change of a cell. The forks of the grid don't have the listeners.
+	 */
+	private CellListener[] listeners = new CellListener[0];
+
+	/**
+	 * Number of changes made to the cells, used to know if anything built from the cells is outdated.
+	 */
+	private long version;
+
+	/**
+	 * Class constructor of an empty grid (all the cells are blank).
+	 *
+	 * @param rows    Number of rows.
+	 * @param columns Number of columns.
+	 */
+	public PackedGrid(int rows, int columns) {
+		this.rows = rows;
+		this.columns = columns;
+		this.shift = Integer.SIZE - Integer.numberOfLeadingZeros(rows + 1);
+		this.rowMask = (1 << this.shift) - 1;
+		this.neighbours = new int[] {1 << this.shift, -1, -(1 << this.shift), 1};
+		this.cells = new byte[columns + 2][];
+		this.shared = new boolean[columns + 2];
+
+		byte[] border = new byte[1 << this.shift];
+		Arrays.fill(border, (byte) BORDER_FLAG);
+		this.cells[0] = border;
+		this.cells[columns + 1] = border;
+		this.shared[0] = true;
+		this.shared[columns + 1] = true;
+
+		for (int i = 1; i <= columns; i++) {
+			this.cells[i] = border.clone();
+			Arrays.fill(this.cells[i], 1, rows + 1, (byte) 0);
+		}
+	}
+
+	/**
+	 * Class constructor of a fork of another grid. Both grids share the arrays of the columns until one of them changes
+	 * a column.
+	 *
+	 * @param other The grid to fork.
+	 */
+	private PackedGrid(PackedGrid other) {
+		this.rows = other.rows;
+		this.columns = other.columns;
+		this.shift = other.shift;
+		this.rowMask = other.rowMask;
+		this.neighbours = other.neighbours;
+		this.cells = other.cells.clone();
+		this.shared = new boolean[this.cells.length];
+		this.version = other.version;
+
+		Arrays.fill(this.shared, true);
+		Arrays.fill(other.shared, true);
+	}
+
+	/**
+	 * Creates a copy of the grid in constant time per column. The cells aren't copied until one of the grids changes
+	 * them, and then only the changed column is copied. A grid can be forked by several threads at once while it doesn't
+	 * change.
+	 *
+	 * @return The new grid, with the same cells and version.
+	 */
+	public PackedGrid fork() {
+		return new PackedGrid(this);
+	}
+
+	/**
+	 * Checks if the cells of a column are shared with another grid.
+	 *
+	 * @param column The column.
+	 *
+	 * @return <code>true</code> if the column hasn't been copied since the last fork, <code>false</code> otherwise.
+	 */
+	boolean isShared(int column) {
+		return this.shared[column + 1];
+	}
+
+	/**
+	 * Returns the number of rows.
+	 *
+	 * @return The number of rows of the grid.
+	 */
+	public int getRows() {
+		return this.rows;
+	}
+
+	/**
+	 * Returns the number of columns.
+	 *
+	 * @return The number of columns of the grid.
+	 */
+	public int getColumns() {
+		return this.columns;
+	}
+
+	/**
+	 * Returns the number of cells.
+	 *
+	 * @return The number of cells of the grid.
+	 */
+	public int size() {
+		return this.rows * this.columns;
+	}
+
+	/**
+	 * Returns the number of indexes, border included. Every index is lower than this value.
+	 *
+	 * @return The number of indexes of the grid.
+	 */
+	public int capacity() {
+		return this.cells.length << this.shift;
+	}
+
+	/**
+	 * Returns the distance between two vertically adjacent cells.
+	 *
+	 * @return The distance between the indexes of a row and the next one.
+	 */
+	public int getStride() {
+		return 1;
+	}
+
+	/**
+	 * Returns the distance between two horizontally adjacent cells.
+	 *
+	 * @return The distance between the indexes of a column and the next one.
+	 */
+	public int getColumnStride() {
+		return 1 << this.shift;
+	}
+
+	/**
+	 * Returns the offsets of the right, upper, left and lower neighbours of a cell. The array must not be modified.
+	 *
+	 * @return Offsets of the neighbours.
+	 */
+	int[] neighbours() {
+		return this.neighbours;
+	}
+
+	/**
+	 * Checks if a position is inside the grid.
+	 *
+	 * @param row    Row of the position.
+	 * @param column Column of the position.
+	 *
+	 * @return <code>true</code> if the position is inside the grid, <code>false</code> otherwise.
+	 */
+	public boolean contains(int row, int column) {
+		return row >= 0 && row < this.rows && column >= 0 && column < this.columns;
+	}
+
+	/**
+	 * Returns the index of a position.
+	 *
+	 * @param row    Row of the position.
+	 * @param column Column of the position.
+	 *
+	 * @return Index of the cell.
+	 */
+	public int index(int row, int column) {
+		return ((column + 1) << this.shift) + row + 1;
+	}
+
+	/**
+	 * Returns the row of an index.
+	 *
+	 * @param index Index of the cell.
+	 *
+	 * @return Row of the cell.
+	 */
+	public int rowOf(int index) {
+		return (index & this.rowMask) - 1;
+	}
+
+	/**
+	 * Returns the column of an index.
+	 *
+	 * @param index Index of the cell.
+	 *
+	 * @return Column of the cell.
+	 */
+	public int columnOf(int index) {
+		return (index >>> this.shift) - 1;
+	}
+
+	/**
+	 * Returns a packed cell.
+	 *
+	 * @param index Index of the cell.
+	 *
+	 * @return The packed cell.
+	 */
+	public byte get(int index) {
+		return this.cells[index >>> this.shift][index & this.rowMask];
+	}
+
+	/**
+	 * Replaces a packed cell. If the column is shared with another grid, it is copied first.
+	 *
+	 * @param index Index of the cell.
+	 * @param cell  The new packed cell.
+	 */
+	public void set(int index, byte cell) {
+		int column = index >>> this.shift;
+
+		if (this.shared[column]) {
+			this.cells[column] = this.cells[column].clone();
+			this.shared[column] = false;
+		}
+
+		byte[] cells = this.cells[column];
+		int row = index & this.rowMask;
+
+		for (CellListener listener : this.listeners) {
+			listener.cellChanged(index, cells[row], cell);
+		}
+
+		cells[row] = cell;
+		this.version++;
+	}
+
+	/**
+	 * Adds a listener notified of every change of a cell.
+	 *
+	 * @param listener The listener.
+	 */
+	public void addListener(CellListener listener) {
+		this.listeners = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+		this.listeners[this.listeners.length - 1] = listener;
+	}
+
+	/**
+	 * Removes a listener.
+	 *
+	 * @param listener The listener to remove.
+	 */
+	public void removeListener(CellListener listener) {
+		for (int i = 0; i < this.listeners.length; i++) {
+			if (this.listeners[i] == listener) {
+				CellListener[] rest = new CellListener[this.listeners.length - 1];
+				System.arraycopy(this.listeners, 0, rest, 0, i);
+				System.arraycopy(this.listeners, i + 1, rest, i, rest.length - i);
+				this.listeners = rest;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of changes made to the cells.
+	 *
+	 * @return The version of the grid.
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Packs a cell.
+	 *
+	 * @param color   Ordinal of the color.
+	 * @param type    Type of the explosion.
+	 * @param special If the cell is a special block.
+	 *
+	 * @return The packed cell.
+	 */
+	@Contract(pure = true)
+	public static byte pack(int color, int type, boolean special) {
+		return (byte) ((color & COLOR_MASK) | ((type & TYPE_MASK) << TYPE_SHIFT) | (special ? SPECIAL_FLAG : 0));
+	}
+
+	/**
+	 * Packs a normal cell of the color represented by a letter.
+	 *
+	 * @param letter Letter of the color (Unknown letters are considered blank).
+	 *
+	 * @return The packed cell.
+	 */
+	@Contract(pure = true)
+	public static byte pack(char letter) {
+		return pack(colorOf(letter), Constants.NORMAL_TYPE, false);
+	}
+
+	/**
+	 * Returns the ordinal of the color represented by a letter.
+	 *
+	 * @param letter Letter of the color.
+	 *
+	 * @return Ordinal of the color, 0 (BLACK) if the letter is unknown.
+	 */
+	@Contract(pure = true)
+	public static int colorOf(char letter) {
+		int color = LETTERS.indexOf(letter);
+		return color < 0 ? 0 : color;
+	}
+
+	/**
+	 * Returns the ordinal of the color of a packed cell.
+	 *
+	 * @param cell The packed cell.
+	 *
+	 * @return Ordinal of the color.
+	 */
+	@Contract(pure = true)
+	public static int colorOf(byte cell) {
+		return cell & COLOR_MASK;
+	}
+
+	/**
+	 * Returns the type of the explosion of a packed cell.
+	 *
+	 * @param cell The packed cell.
+	 *
+	 * @return Type of the explosion.
+	 */
+	@Contract(pure = true)
+	public static int typeOf(byte cell) {
+		return (cell >> TYPE_SHIFT) & TYPE_MASK;
+	}
+
+	/**
+	 * Returns the letter of a packed cell.
+	 *
+	 * @param cell The packed cell.
+	 *
+	 * @return Letter of the color.
+	 */
+	@Contract(pure = true)
+	public static char letterOf(byte cell) {
+		return LETTERS.charAt(cell & COLOR_MASK);
+	}
+
+	/**
+	 * Checks if a packed cell is special.
+	 *
+	 * @param cell The packed cell.
+	 *
+	 * @return <code>true</code> if the cell is a special block, <code>false</code> otherwise.
+	 */
+	@Contract(pure = true)
+	public static boolean isSpecial(byte cell) {
+		return (cell & SPECIAL_FLAG) != 0;
+	}
+
+	/**
+	 * Checks if a packed cell is part of the border.
+	 *
+	 * @param cell The packed cell.
+	 *
+	 * @return <code>true</code> if the cell is outside of the board, <code>false</code> otherwise.
+	 */
+	@Contract(pure = true)
+	public static boolean isBorder(byte cell) {
+		return (cell & BORDER_FLAG) != 0;
+	}
+
+	/**
+	 * Checks if a packed cell is empty.
+	 *
+	 * @param cell The packed cell.
+	 *
+	 * @return <code>true</code> if the color of the cell is black, <code>false</code> otherwise.
+	 */
+	@Contract(pure = true)
+	public static boolean isBlank(byte cell) {
+		return (cell & MATCH_MASK) == 0;
+	}
+
+	/**
+	 * Checks if two packed cells have the same color (the same as {@link Block#compareTo(Block)}). A border cell never
+	 * has the same color as another cell.
+	 *
+	 * @param cell  A packed cell.
+	 * @param other Other packed cell.
+	 *
+	 * @return <code>true</code> if the cells have the same color, <code>false</code> otherwise.
+	 */
+	@Contract(pure = true)
+	public static boolean sameColor(byte cell, byte other) {
+		return (cell & MATCH_MASK) == (other & COLOR_MASK) && (other & BORDER_FLAG) == 0;
+	}
+
+	/**
+	 * Checks if two packed cells have the same color and both are (or are not) special blocks, the same as
+	 * {@link Block#equals(Object)}.
+	 *
+	 * @param cell  A packed cell.
+	 * @param other Other packed cell.
+	 *
+	 * @return <code>true</code> if the cells are equal, <code>false</code> otherwise.
+	 */
+	@Contract(pure = true)
+	public static boolean sameBlock(byte cell, byte other) {
+		return ((cell ^ other) & (MATCH_MASK | SPECIAL_FLAG)) == 0 && (cell & BORDER_FLAG) == 0;
+	}
+}
@@ -0,0 +1,402 @@
+package candy.clean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Exact solver of the pre-designed boards, which aren't refilled: it finds the shortest sequence of shots that clears
+ * the whole board, or proves that the board can't be cleared. The search is an iterative deepening depth-first search
+ * that tries the shots that remove more blocks first.
+ *
+ * <p>The boards that can't be cleared in the remaining shots are remembered in a {@link TranspositionTable}, indexed by
+ * their {@link ZobristHash}, so a board reached by different sequences is only searched once per depth. A board is
+ * also discarded without searching it when it has a single block of a color and no special block can explode it: the
+ * special blocks are created by lines of at least {@value Constants#MINIMUM_CANDIES_FOR_SPECIAL_CANDY} blocks of the
+ * same color, so a board without special blocks and without that many blocks of any color never has one.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class PuzzleSolver {
+
+	/**
+	 * Logger of the class.
+	 */
+	private static final Logger logger = LogManager.getLogger(PuzzleSolver.class);
+
+	/**
+	 * Default number of entries of the transposition table.
+	 */
+	public static final int DEFAULT_TABLE_SIZE = 1 << 20;
+
+	/**
+	 * Default maximum number of boards searched.
+	 */
+	public static final long DEFAULT_MAX_NODES = 10000000;
+
+	/**
+	 * The board is cleared.
+	 */
+	private static final int FOUND = 0;
+
+	/**
+	 * The board can't be cleared in the remaining shots.
+	 */
+	private static final int CUT = 1;
+
+	/**
+	 * The board can't be cleared with any number of shots.
+	 */
+	private static final int NONE = 2;
+
+	/**
+	 * Boards that can't be cleared. The depth is the number of shots searched, or MAX_DEPTH for any number of shots.
+	 */
+	private final TranspositionTable table;
+
+	/**
+	 * Maximum number of boards searched.
+	 */
+	private final long maxNodes;
+
+	/**
+	 * Legal shots of every depth of the current search.
+	 */
+	private MoveList[] moves;
+
+	/**
+	 * Order in which the shots of every depth are tried.
+	 */
+	private int[][] order;
+
+	/**
+	 * Rows of the shots of the current sequence.
+	 */
+	private int[] rows;
+
+	/**
+	 * Columns of the shots of the current sequence.
+	 */
+	private int[] columns;
+
+	/**
+	 * Number of blocks of every color of the current board.
+	 */
+	private final int[] colorCounts = new int[Constants.MAX_COLORS + 1];
+
+	/**
+	 * Number of boards searched by the current search.
+	 */
+	private long nodes;
+
+	/**
+	 * Minimum number of blocks of a color needed to create a special block in the current board.
+	 */
+	private int specialThreshold;
+
+	/**
+	 * Class constructor with the default limits.
+	 */
+	public PuzzleSolver() {
+		this(DEFAULT_TABLE_SIZE, DEFAULT_MAX_NODES);
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param tableSize Number of entries of the transposition table (rounded up to a power of two).
+	 * @param maxNodes  Maximum number of boards searched, the result is unknown if they aren't enough.
+	 */
+	public PuzzleSolver(int tableSize, long maxNodes) {
+		this.table = new TranspositionTable(tableSize);
+		this.maxNodes = maxNodes;
+	}
+
+	/**
+	 * Solves the board of a game. The game isn't changed.
+	 *
+	 * @param game The game.
+	 *
+	 * @return The shortest sequence of shots that clears the board, or the proof that it can't be cleared.
+	 *
+	 * @throws CandyCleanException If the board of the game is refilled.
+	 */
+	public Solution solve(CandyClean game) throws CandyCleanException {
+		return this.solve(game.getBoard());
+	}
+
+	/**
+	 * Solves a board. The board isn't changed.
+	 *
+	 * @param board The board.
+	 *
+	 * @return The shortest sequence of shots that clears the board, or the proof that it can't be cleared.
+	 *
+	 * @throws CandyCleanException If the board is refilled.
+	 */
+	public synchronized Solution solve(Board board) throws CandyCleanException {
+		if (board.isRefilled()) {
+			throw new CandyCleanException("Only the pre-designed boards can be solved.");
+		}
+
+		Board root = board.fork();
+		PackedGrid grid = root.getGrid();
+		int blocks = this.countColors(grid);
+		int limit = Math.min(blocks, TranspositionTable.MAX_DEPTH - 1);
+
+		this.specialThreshold = Math.min(Constants.MINIMUM_CANDIES_FOR_SPECIAL_CANDY,
+				grid.getRows() + grid.getColumns() - 1);
+		this.moves = new MoveList[limit + 1];
+		this.order = new int[limit + 1][];
+		this.rows = new int[limit];
+		this.columns = new int[limit];
+		this.nodes = 0;
+		this.table.clear();
+		root.getHash();
+
+		for (int i = 0; i <= limit; i++) {
+			this.moves[i] = new MoveList(grid.size());
+			this.order[i] = new int[grid.size()];
+		}
+
+		// Every shot removes at least one block, so the board can't need more shots than blocks.
+		for (int depth = 0; depth <= limit; depth++) {
+			int result = this.search(root, depth, 0);
+
+			if (result == FOUND) {
+				return new Solution(Solution.Status.SOLVED, Arrays.copyOf(this.rows, depth),
+						Arrays.copyOf(this.columns, depth), this.nodes);
+			}
+
+			if (result == NONE) {
+				return new Solution(Solution.Status.IMPOSSIBLE, new int[0], new int[0], this.nodes);
+			}
+
+			if (this.nodes > this.maxNodes) {
+				break;
+			}
+		}
+
+		return new Solution(Solution.Status.UNKNOWN, new int[0], new int[0], this.nodes);
+	}
+
+	/**
+	 * Searches a sequence of shots that clears a board.
+	 *
+	 * @param board     The board.
+	 * @param remaining Maximum number of shots of the sequence.
+	 * @param ply       Number of shots made before this board.
+	 *
+	 * @return FOUND if the board is cleared (the shots are stored from <code>ply</code>), CUT if it can't be cleared in the
+	 * remaining shots or the search reached its limit, NONE if it can't be cleared.
+	 */
+	private int search(Board board, int remaining, int ply) {
+		if (++this.nodes > this.maxNodes) {
+			return CUT;
+		}
+
+		int blocks = this.countColors(board.getGrid());
+
+		if (blocks == 0) {
+			return FOUND;
+		}
+
+		int bound = this.lowerBound();
+
+		if (bound < 0) {
+			return NONE;
+		}
+
+		if (bound > remaining) {
+			return CUT;
+		}
+
+		long hash = board.getHash();
+		long entry = this.table.probe(hash);
+
+		if (entry != TranspositionTable.MISS) {
+			int depth = TranspositionTable.depthOf(entry);
+
+			if (depth == TranspositionTable.MAX_DEPTH) {
+				return NONE;
+			}
+
+			if (depth >= remaining) {
+				return CUT;
+			}
+		}
+
+		MoveList list = this.moves[ply];
+		int[] sorted = this.order[ply];
+		int count = board.generateAllMoves(list);
+		boolean cut = false;
+
+		sortByCleared(list, sorted, count);
+
+		for (int i = 0; i < count; i++) {
+			int move = sorted[i];
+			Board child = board.fork();
+
+			this.rows[ply] = list.getRow(move);
+			this.columns[ply] = list.getColumn(move);
+			child.tryShoot(this.rows[ply], this.columns[ply]);
+
+			int result = this.search(child, remaining - 1, ply + 1);
+
+			if (result == FOUND) {
+				return FOUND;
+			}
+
+			cut |= result == CUT;
+		}
+
+		if (this.nodes > this.maxNodes) {
+			return CUT;
+		}
+
+		this.table.store(hash, 0, cut ? remaining : TranspositionTable.MAX_DEPTH, TranspositionTable.NO_MOVE);
+
+		return cut ? CUT : NONE;
+	}
+
+	/**
+	 * Counts the blocks of every color of a grid. The special blocks are counted in the slot of the color 0, which is
+	 * never the color of a block.
+	 *
+	 * @param grid The grid.
+	 *
+	 * @return The number of blocks.
+	 */
+	private int countColors(PackedGrid grid) {
+		int blocks = 0;
+
+		Arrays.fill(this.colorCounts, 0);
+
+		for (int j = 0; j < grid.getColumns(); j++) {
+			for (int i = 0; i < grid.getRows(); i++) {
+				byte cell = grid.get(grid.index(i, j));
+
+				if (!PackedGrid.isBlank(cell)) {
+					this.colorCounts[PackedGrid.isSpecial(cell) ? 0 : PackedGrid.colorOf(cell)]++;
+					blocks++;
+				}
+			}
+		}
+
+		return blocks;
+	}
+
+	/**
+	 * Computes the minimum number of shots needed to clear the board whose colors were counted last.
+	 *
+	 * @return The minimum number of shots, -1 if the board can't be cleared.
+	 */
+	private int lowerBound() {
+		if (this.colorCounts[0] > 0) {
+			return 1;
+		}
+
+		for (int i = 1; i < this.colorCounts.length; i++) {
+			if (this.colorCounts[i] >= this.specialThreshold) {
+				return 1;
+			}
+		}
+
+		// Without special blocks every shot removes a group of a single color.
+		int colors = 0;
+
+		for (int i = 1; i < this.colorCounts.length; i++) {
+			if (this.colorCounts[i] == 1) {
+				return -1;
+			}
+
+			if (this.colorCounts[i] > 0) {
+				colors++;
+			}
+		}
+
+		return colors;
+	}
+
+	/**
+	 * Sorts the shots of a list by the number of removed blocks, the largest first.
+	 *
+	 * @param list   The shots.
+	 * @param sorted Array where the positions of the shots are stored in order.
+	 * @param count  Number of shots.
+	 */
+	private static void sortByCleared(MoveList list, int[] sorted, int count) {
+		for (int i = 0; i < count; i++) {
+			int move = i;
+			int j = i - 1;
+
+			for (; j >= 0 && list.getCleared(sorted[j]) < list.getCleared(move); j--) {
+				sorted[j + 1] = sorted[j];
+			}
+
+			sorted[j + 1] = move;
+		}
+	}
+
+	/**
+	 * Solves the boards of a file from the command line and logs the solution of every board. The file is read by a
+	 * {@link CorpusReader}, and a board that isn't valid is logged with its error and skipped. The first argument is the file, and the rest are pairs
+	 * <code>name=value</code>: <code>nodes</code> (the maximum number of boards searched per board) and
+	 * <code>table</code> (the entries of the transposition table).
+	 *
+	 * @param args The arguments.
+	 *
+	 * @throws CandyCleanException If an argument isn't valid or the file can't be read.
+	 */
+	public static void main(String[] args) throws CandyCleanException {
+		if (args.length == 0) {
+			throw new CandyCleanException("The file of the boards is missing.");
+		}
+
+		long maxNodes = DEFAULT_MAX_NODES;
+		int tableSize = DEFAULT_TABLE_SIZE;
+
+		for (String arg : Arrays.asList(args).subList(1, args.length)) {
+			int equals = arg.indexOf('=');
+			String name = equals < 0 ? arg : arg.substring(0, equals);
+			String value = equals < 0 ? "" : arg.substring(equals + 1);
+
+			try {
+				switch (name) {
+					case "nodes":
+						maxNodes = Long.parseLong(value);
+						break;
+					case "table":
+						tableSize = Integer.parseInt(value);
+						break;
+					default:
+						throw new CandyCleanException("Unknown argument: " + arg);
+				}
+			} catch (NumberFormatException e) {
+				throw new CandyCleanException("Invalid value: " + arg);
+			}
+		}
+
+		PuzzleSolver solver = new PuzzleSolver(tableSize, maxNodes);
+
+		try (CorpusReader reader = new CorpusReader(Paths.get(args[0]))) {
+			for (CorpusBoard board = reader.next(); board != null; board = reader.next()) {
+				if (!board.isValid()) {
+					logger.error("Board {} (line {}): invalid, {}", board.getIndex(), board.getLine(), board.getError());
+					continue;
+				}
+
+				long start = System.nanoTime();
+				Solution solution = solver.solve(board.toBoard(new Score()));
+
+				logger.info("Board {}: {} in {} ms", board.getIndex(), solution, (System.nanoTime() - start) / 1000000);
+			}
+		} catch (IOException e) {
+			throw new CandyCleanException("The file " + args[0] + " can't be read: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,265 @@
+package candy.clean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a game recorded by {@link ShotLog}. The game is rebuilt from the board of the header, with the same seed, so
+ * the same shots give the same new candies and the same score, and the recorded shots are applied at the speed of the
+ * engine, without the terminal. The file is mapped in memory, so the records are read without copying them.
+ *
+ * <p>The replay can verify the recorded results: every shot is compared with its status, the number of removed blocks
+ * and the score after it, and the replay stops at the first record that doesn't match.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class Replayer {
+
+	/**
+	 * Logger of the class.
+	 */
+	private static final Logger logger = LogManager.getLogger(Replayer.class);
+
+	/**
+	 * Game rebuilt from the header of the log.
+	 */
+	private final CandyClean game;
+
+	/**
+	 * Records of the log, after the header.
+	 */
+	private final ByteBuffer records;
+
+	/**
+	 * Number of complete records of the log. An incomplete last record, left by a crash, is ignored.
+	 */
+	private final long recordCount;
+
+	/**
+	 * Number of records replayed.
+	 */
+	private long replayed;
+
+	/**
+	 * Position of the first record whose result doesn't match, -1 if all of them match.
+	 */
+	private long divergence = -1;
+
+	/**
+	 * Time spent by the last replay, in nanoseconds.
+	 */
+	private long elapsedNanos;
+
+	/**
+	 * Class constructor. The game is rebuilt, but no record is replayed yet.
+	 *
+	 * @param file File of the log.
+	 *
+	 * @throws IOException         If the file can't be read.
+	 * @throws CandyCleanException If the file isn't a shot log of a known version.
+	 */
+	public Replayer(Path file) throws IOException, CandyCleanException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer log = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			try {
+				if (log.getInt() != ShotLog.MAGIC) {
+					throw new CandyCleanException("It isn't a shot log.");
+				}
+
+				byte version = log.get();
+
+				if (version != ShotLog.VERSION) {
+					throw new CandyCleanException("The version " + version + " of the shot log isn't supported.");
+				}
+
+				this.game = new CandyClean(BoardCodec.decode(log));
+			} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+				throw new CandyCleanException("The shot log is incomplete.");
+			}
+
+			this.records = log.slice();
+			this.recordCount = this.records.remaining() / ShotLog.RECORD_LENGTH;
+		}
+
+		if (this.hasUndo()) {
+			this.game.enableUndo(Long.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Applies all the records that aren't replayed yet to the game.
+	 *
+	 * @param verify <code>true</code> to compare the result of every record with the recorded one and stop at the first
+	 *               one that doesn't match, <code>false</code> to only apply the shots.
+	 *
+	 * @return <code>true</code> if the game didn't diverge from the log, <code>false</code> otherwise.
+	 */
+	public boolean replay(boolean verify) {
+		long start = System.nanoTime();
+
+		while (this.divergence < 0 && this.replayed < this.recordCount) {
+			int position = (int) (this.replayed * ShotLog.RECORD_LENGTH);
+
+			if (!this.apply(position, verify)) {
+				this.divergence = this.replayed;
+			}
+
+			this.replayed++;
+		}
+
+		this.elapsedNanos = System.nanoTime() - start;
+
+		return this.divergence < 0;
+	}
+
+	/**
+	 * Returns the replayed game.
+	 *
+	 * @return The game, in the state after the replayed records.
+	 */
+	public CandyClean getGame() {
+		return this.game;
+	}
+
+	/**
+	 * Returns the number of records of the log.
+	 *
+	 * @return The number of shots, undos and redos recorded.
+	 */
+	public long getRecordCount() {
+		return this.recordCount;
+	}
+
+	/**
+	 * Returns the number of records replayed, the divergent one included.
+	 *
+	 * @return The number of records.
+	 */
+	public long getReplayed() {
+		return this.replayed;
+	}
+
+	/**
+	 * Returns the position of the first record whose result didn't match the recorded one.
+	 *
+	 * @return The position of the record (starting at 0), -1 if the game didn't diverge.
+	 */
+	public long getDivergence() {
+		return this.divergence;
+	}
+
+	/**
+	 * Returns the time spent by the last replay.
+	 *
+	 * @return The time in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return this.elapsedNanos;
+	}
+
+	/**
+	 * Applies a record to the game.
+	 *
+	 * @param position Position of the record in the buffer of the records.
+	 * @param verify   <code>true</code> to compare the result with the recorded one.
+	 *
+	 * @return <code>false</code> if the result was verified and it doesn't match, <code>true</code> otherwise.
+	 */
+	private boolean apply(int position, boolean verify) {
+		byte kind = this.records.get(position);
+		int status = this.records.get(position + 1);
+		long punctuation = this.records.getLong(position + 14);
+
+		if (kind == ShotLog.SHOT) {
+			ShotResult result = this.game.tryShoot(this.records.getInt(position + 2), this.records.getInt(position + 6));
+
+			return !verify || (result.getStatus().ordinal() == status && result.getCleared() == this.records.getInt(
+					position + 10) && this.game.getPunctuation() == punctuation);
+		}
+
+		// An undo or a redo that didn't change the original game is skipped, whatever the history of the replay has.
+		boolean done = status != 0 && (kind == ShotLog.UNDO ? this.game.undo() : this.game.redo());
+
+		return !verify || (done == (status != 0) && this.game.getPunctuation() == punctuation);
+	}
+
+	/**
+	 * Checks if any record of the log undoes a shot, so the shots of the replay have to be recorded.
+	 *
+	 * @return <code>true</code> if the log has an undo, <code>false</code> otherwise.
+	 */
+	private boolean hasUndo() {
+		for (long i = 0; i < this.recordCount; i++) {
+			if (this.records.get((int) (i * ShotLog.RECORD_LENGTH)) == ShotLog.UNDO) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Replays the game of a shot log and logs the result.
+	 *
+	 * @param args The file of the log followed by the arguments in the form <code>name=value</code>:
+	 *             <code>verify</code> (true or false, true by default).
+	 *
+	 * @throws CandyCleanException If an argument is not valid or the log can't be read.
+	 */
+	public static void main(String[] args) throws CandyCleanException {
+		if (args.length == 0) {
+			throw new CandyCleanException("The file of the shot log is missing.");
+		}
+
+		boolean verify = true;
+
+		for (String arg : Arrays.asList(args).subList(1, args.length)) {
+			int equals = arg.indexOf('=');
+			String name = equals < 0 ? arg : arg.substring(0, equals);
+			String value = equals < 0 ? "" : arg.substring(equals + 1);
+
+			switch (name) {
+				case "verify":
+					if (!"true".equals(value) && !"false".equals(value)) {
+						throw new CandyCleanException("Invalid value: " + arg);
+					}
+
+					verify = Boolean.parseBoolean(value);
+					break;
+				default:
+					throw new CandyCleanException("Unknown argument: " + arg);
+			}
+		}
+
+		Replayer replayer;
+
+		try {
+			replayer = new Replayer(Paths.get(args[0]));
+		} catch (IOException e) {
+			throw new CandyCleanException("The shot log can't be read: " + e.getMessage());
+		}
+
+		boolean matched = replayer.replay(verify);
+		long micros = TimeUnit.NANOSECONDS.toMicros(replayer.getElapsedNanos());
+
+		if (matched) {
+			logger.info("Replayed {} records in {} us. Score = {}", replayer.getReplayed(), micros,
+					replayer.getGame().getPunctuation());
+		} else {
+			logger.error("The replay diverges from the log at the record {} (after {} us)", replayer.getDivergence(),
+					micros);
+		}
+	}
+}
@@ -1,6 +1,5 @@
 package candy.clean;
 
-
 import org.jetbrains.annotations.Contract;
 
 /**
@@ -12,19 +11,19 @@ import org.jetbrains.annotations.Contract;
 public class Score {
 
 	/**
-	 * Quantity to add every sinkTime candies are broken.
+	 * Rules used to compute the points and the multiplier.
 	 */
-	private final int additionScore;
+	private final ScoringRules rules;
 
 	/**
 	 * Score of the game.
 	 */
-	private int punctuation;
+	private long punctuation;
 
 	/**
 	 * Game objective.
 	 */
-	private int objective;
+	private long objective;
 
 	/**
 	 * Score multiplier.
@@ -42,22 +41,44 @@ public class Score {
 	 * @param objective Objective of the game.
 	 */
 	@Contract(pure = true)
-	public Score(int objective) {
-		this.additionScore = 10;
+	public Score(long objective) {
+		this(objective, ScoringRules.CLASSIC);
+	}
+
+	/**
+	 * Class constructor with the specified objective and scoring rules.
+	 *
+	 * @param objective Objective of the game.
+	 * @param rules     Rules used to compute the points and the multiplier.
+	 */
+	@Contract(pure = true)
+	public Score(long objective, ScoringRules rules) {
+		this.rules = rules;
 		this.objective = objective;
 		this.multiplier = 1;
 		this.streak = 0;
 	}
 
+	/**
+	 * Class constructor of a copy of another score, with the same points, multiplier and streak.
+	 *
+	 * @param other The score to copy.
+	 */
+	@Contract(pure = true)
+	public Score(Score other) {
+		this.rules = other.rules;
+		this.punctuation = other.punctuation;
+		this.objective = other.objective;
+		this.multiplier = other.multiplier;
+		this.streak = other.streak;
+	}
+
 	/**
 	 * Class constructor for default values.
 	 */
 	@Contract(pure = true)
 	public Score() {
-		this.additionScore = 10;
-		this.objective = 500;
-		this.multiplier = 1;
-		this.streak = 0;
+		this(500);
 	}
 
 	/**
@@ -65,7 +86,7 @@ public class Score {
 	 *
 	 * @return The score of the game.
 	 */
-	public int getPunctuation() {
+	public long getPunctuation() {
 		return this.punctuation;
 	}
 
@@ -74,7 +95,7 @@ public class Score {
 	 *
 	 * @return The objective of the game.
 	 */
-	public int getObjective() {
+	public long getObjective() {
 		return this.objective;
 	}
 
@@ -83,7 +104,7 @@ public class Score {
 	 *
 	 * @param objective The objective to set.
 	 */
-	public void setObjective(int objective) {
+	public void setObjective(long objective) {
 		this.objective = objective;
 	}
 
@@ -105,35 +126,79 @@ public class Score {
 		this.multiplier = multiplier;
 	}
 
+	/**
+	 * Streak getter.
+	 *
+	 * @return The current shot streak of the player.
+	 */
+	public int getStreak() {
+		return this.streak;
+	}
+
+	/**
+	 * Returns the rules used to compute the points and the multiplier.
+	 *
+	 * @return The scoring rules.
+	 */
+	public ScoringRules getRules() {
+		return this.rules;
+	}
+
 	/**
 	 * Increases the score when a block is broken.
 	 */
 	public void increaseScore() {
-		this.punctuation += this.additionScore * this.multiplier;
+		this.applyClear(1, Constants.NORMAL_TYPE);
 	}
 
 	/**
-	 * Decreases the score when the player doesn't shoot to the correct candies. If the score is less than the addition score,
-	 * it resets to 0 and never is negative.
+	 * Increases the score when a group of blocks is broken, all at once.
+	 *
+	 * @param cellCount   Number of broken blocks.
+	 * @param specialKind Type of the explosion that broke the blocks (Defined in Constants class), NORMAL_TYPE for a
+	 *                    normal shot.
+	 *
+	 * @return The points won.
+	 */
+	public long applyClear(int cellCount, int specialKind) {
+		long points = this.rules.clearScore(cellCount, specialKind, this.multiplier);
+		this.punctuation += points;
+
+		return points;
+	}
+
+	/**
+	 * Decreases the score when the player doesn't shoot to the correct candies. If the score is less than the penalty of
+	 * the rules, it resets to 0 and never is negative.
 	 */
 	public void decreaseScore() {
-		if (this.punctuation < this.additionScore) {
+		if (this.punctuation < this.rules.getPenalty()) {
 			this.punctuation = 0;
 		} else {
-			this.punctuation -= 10;
+			this.punctuation -= this.rules.getPenalty();
 		}
 	}
 
 	/**
-	 * Update all the counters in the game: Streak and Multiplier (+1/+3 when the player has 5/15 shot streak).
+	 * Update all the counters in the game: Streak and Multiplier (with the classic rules, +1/+3 when the player has 5/15
+	 * shot streak).
 	 */
 	public void increaseStreakUpdateMultiplier() {
 		this.streak++;
+		this.multiplier += this.rules.multiplierBonus(this.streak);
+	}
 
-		if (this.streak % 5 == 0)
-			this.multiplier += 1;
-		if (this.streak % 15 == 0)
-			this.multiplier += 3;
+	/**
+	 * Sets the counters changed by the shots, to go back to a previous state of the game.
+	 *
+	 * @param punctuation The score.
+	 * @param multiplier  The multiplier.
+	 * @param streak      The shot streak.
+	 */
+	void restore(long punctuation, int multiplier, int streak) {
+		this.punctuation = punctuation;
+		this.multiplier = multiplier;
+		this.streak = streak;
 	}
 
 	/**
@@ -0,0 +1,209 @@
+package candy.clean;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Rules used by {@link Score} to compute the points of the removed blocks and the multiplier of the streaks. The points
+ * of every type of removal and the multiplier increments of a whole streak cycle are computed once, so scoring a removal
+ * is a single multiplication.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class ScoringRules {
+
+	/**
+	 * Rules of the original game: 10 points per block, +1 to the multiplier every 5 valid shots and +3 more every 15
+	 * valid shots, and 10 points lost per invalid shot.
+	 */
+	public static final ScoringRules CLASSIC = new ScoringRules(10, new int[] {1, 1, 1, 1, 1}, 5, 1, 15, 3, 10);
+
+	/**
+	 * Rules for the hardest levels: the blocks removed by special explosions are worth more, but the invalid shots cost
+	 * twice as much.
+	 */
+	public static final ScoringRules EXPERT = new ScoringRules(10, new int[] {1, 2, 2, 3, 4}, 5, 1, 15, 3, 20);
+
+	/**
+	 * Points of a block, indexed by the type of the removal (Defined in Constants class).
+	 */
+	private final long[] blockPoints;
+
+	/**
+	 * Increment of the multiplier when the streak reaches a value, indexed by the streak modulo the length of the array.
+	 */
+	private final int[] multiplierBonus;
+
+	/**
+	 * Points lost by an invalid shot.
+	 */
+	private final int penalty;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param points          Points of a block removed by a normal shot.
+	 * @param specialWeights  Weight of the points of a block removed by every type of explosion, indexed by the type
+	 *                        (Defined in Constants class). Unknown types use the weight of the normal shots.
+	 * @param streakStep      Length of the streak that increments the multiplier.
+	 * @param streakBonus     Increment of the multiplier every <code>streakStep</code> valid shots.
+	 * @param longStreakStep  Length of the streak that increments the multiplier again.
+	 * @param longStreakBonus Additional increment of the multiplier every <code>longStreakStep</code> valid shots.
+	 * @param penalty         Points lost by an invalid shot.
+	 */
+	public ScoringRules(int points, int[] specialWeights, int streakStep, int streakBonus, int longStreakStep,
+	                    int longStreakBonus, int penalty) {
+		int cycle = streakStep * longStreakStep / gcd(streakStep, longStreakStep);
+
+		this.blockPoints = new long[PackedGrid.TYPE_MASK + 1];
+		this.multiplierBonus = new int[cycle];
+		this.penalty = penalty;
+
+		for (int i = 0; i < this.blockPoints.length; i++) {
+			this.blockPoints[i] = (long) points * (i < specialWeights.length ? specialWeights[i] : specialWeights[0]);
+		}
+
+		for (int i = 0; i < cycle; i++) {
+			if (i % streakStep == 0) {
+				this.multiplierBonus[i] += streakBonus;
+			}
+
+			if (i % longStreakStep == 0) {
+				this.multiplierBonus[i] += longStreakBonus;
+			}
+		}
+	}
+
+	/**
+	 * Class constructor of rules already computed, read by {@link #decode(ByteBuffer)}.
+	 *
+	 * @param blockPoints     Points of a block, indexed by the type of the removal.
+	 * @param multiplierBonus Increment of the multiplier, indexed by the streak modulo the length of the array.
+	 * @param penalty         Points lost by an invalid shot.
+	 */
+	private ScoringRules(long[] blockPoints, int[] multiplierBonus, int penalty) {
+		this.blockPoints = blockPoints;
+		this.multiplierBonus = multiplierBonus;
+		this.penalty = penalty;
+	}
+
+	/**
+	 * Computes the points of a group of removed blocks.
+	 *
+	 * @param cellCount   Number of removed blocks.
+	 * @param specialKind Type of the explosion that removed the blocks (Defined in Constants class), NORMAL_TYPE for a
+	 *                    normal shot.
+	 * @param multiplier  Current multiplier of the score.
+	 *
+	 * @return The points won.
+	 */
+	public long clearScore(int cellCount, int specialKind, int multiplier) {
+		return cellCount * this.blockPoints[specialKind & PackedGrid.TYPE_MASK] * multiplier;
+	}
+
+	/**
+	 * Returns the increment of the multiplier when the streak reaches a value.
+	 *
+	 * @param streak The new streak (greater than 0).
+	 *
+	 * @return The increment of the multiplier.
+	 */
+	public int multiplierBonus(int streak) {
+		return this.multiplierBonus[streak % this.multiplierBonus.length];
+	}
+
+	/**
+	 * Returns the points lost by an invalid shot.
+	 *
+	 * @return The penalty.
+	 */
+	public int getPenalty() {
+		return this.penalty;
+	}
+
+	/**
+	 * Writes the rules in binary: a tag for the predefined rules, or all the points and increments of other rules.
+	 *
+	 * @param out Buffer where the rules are written, with at least {@link #maxEncodedLength()} bytes remaining.
+	 */
+	void encode(ByteBuffer out) {
+		if (this == CLASSIC || this == EXPERT) {
+			out.put((byte) (this == CLASSIC ? 0 : 1));
+			return;
+		}
+
+		out.put((byte) 2);
+
+		for (long points : this.blockPoints) {
+			out.putLong(points);
+		}
+
+		out.putShort((short) this.multiplierBonus.length);
+
+		for (int bonus : this.multiplierBonus) {
+			out.putInt(bonus);
+		}
+
+		out.putInt(this.penalty);
+	}
+
+	/**
+	 * Returns the maximum number of bytes written by {@link #encode(ByteBuffer)}.
+	 *
+	 * @return The length of the encoded rules.
+	 */
+	int maxEncodedLength() {
+		return 1 + 8 * this.blockPoints.length + 2 + 4 * this.multiplierBonus.length + 4;
+	}
+
+	/**
+	 * Reads rules written by {@link #encode(ByteBuffer)}. The predefined rules are read as the same objects.
+	 *
+	 * @param in Buffer where the rules are read.
+	 *
+	 * @return The rules.
+	 *
+	 * @throws CandyCleanException If the bytes aren't valid rules.
+	 */
+	static ScoringRules decode(ByteBuffer in) throws CandyCleanException {
+		byte tag = in.get();
+
+		if (tag == 0 || tag == 1) {
+			return tag == 0 ? CLASSIC : EXPERT;
+		}
+
+		if (tag != 2) {
+			throw new CandyCleanException("The saved scoring rules aren't valid.");
+		}
+
+		long[] blockPoints = new long[PackedGrid.TYPE_MASK + 1];
+
+		for (int i = 0; i < blockPoints.length; i++) {
+			blockPoints[i] = in.getLong();
+		}
+
+		int[] multiplierBonus = new int[in.getShort() & 0xFFFF];
+
+		if (multiplierBonus.length == 0) {
+			throw new CandyCleanException("The saved scoring rules aren't valid.");
+		}
+
+		for (int i = 0; i < multiplierBonus.length; i++) {
+			multiplierBonus[i] = in.getInt();
+		}
+
+		return new ScoringRules(blockPoints, multiplierBonus, in.getInt());
+	}
+
+	/**
+	 * Computes the greatest common divisor of two numbers.
+	 *
+	 * @param a A number.
+	 * @param b Other number.
+	 *
+	 * @return The greatest common divisor.
+	 */
+	private static int gcd(int a, int b) {
+		return b == 0 ? a : gcd(b, a % b);
+	}
+}
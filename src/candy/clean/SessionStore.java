@@ -0,0 +1,465 @@
+package candy.clean;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Store of the games of many sessions that keeps in memory only the recently used ones. When the estimated memory of
+ * the games in memory exceeds a budget, the least recently used games that aren't being played are written to a file
+ * with {@link BoardCodec} and removed from memory, and they are read again the next time they are played.
+ *
+ * <p>A game is played between {@link #acquire(long)} and {@link #release(long)}, and it is never written while it is
+ * being played. The files are written and read outside the lock of the store, holding only the lock of their game, so
+ * a slow disk only delays the session whose game is read.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class SessionStore implements Closeable {
+
+	/**
+	 * Estimated memory of every cell of a board in memory, with the helpers that index it.
+	 */
+	private static final long BYTES_PER_CELL = 16;
+
+	/**
+	 * Estimated memory of a game in memory without its cells.
+	 */
+	private static final long BYTES_PER_GAME = 2048;
+
+	/**
+	 * Directory of the files of the games, <code>null</code> if the games are never written.
+	 */
+	private final Path directory;
+
+	/**
+	 * Maximum estimated memory of the games in memory, in bytes.
+	 */
+	private final long maxBytes;
+
+	/**
+	 * Games of the store, from the least to the most recently used.
+	 */
+	private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Latencies of the games read from their files.
+	 */
+	private final LatencyHistogram reloads = new LatencyHistogram();
+
+	/**
+	 * Identifier of the next game.
+	 */
+	private long nextId;
+
+	/**
+	 * Estimated memory of the games in memory, in bytes.
+	 */
+	private long residentBytes;
+
+	/**
+	 * Number of games found in memory.
+	 */
+	private long hits;
+
+	/**
+	 * Number of games read from their files.
+	 */
+	private long misses;
+
+	/**
+	 * Number of games written to their files.
+	 */
+	private long evictions;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param directory Directory where the games are written, <code>null</code> to keep all the games in memory.
+	 * @param maxBytes  Maximum estimated memory of the games in memory, in bytes.
+	 */
+	public SessionStore(Path directory, long maxBytes) {
+		this.directory = directory;
+		this.maxBytes = directory == null ? Long.MAX_VALUE : maxBytes;
+	}
+
+	/**
+	 * Adds a game to the store.
+	 *
+	 * @param game The game.
+	 *
+	 * @return The identifier of the game.
+	 *
+	 * @throws CandyCleanException If a game can't be written to make room for it.
+	 */
+	public long add(CandyClean game) throws CandyCleanException {
+		long id;
+		Entry entry = new Entry(game);
+
+		synchronized (this) {
+			id = this.nextId++;
+			this.entries.put(id, entry);
+			this.residentBytes += entry.bytes;
+		}
+
+		this.evict();
+
+		return id;
+	}
+
+	/**
+	 * Starts playing a game, reading it from its file if it isn't in memory. The game must be released after playing it.
+	 *
+	 * @param id The identifier of the game.
+	 *
+	 * @return The game.
+	 *
+	 * @throws CandyCleanException If the game doesn't exist or it can't be read.
+	 */
+	public CandyClean acquire(long id) throws CandyCleanException {
+		Entry entry;
+
+		synchronized (this) {
+			entry = this.entries.get(id);
+		}
+
+		if (entry == null) {
+			throw new CandyCleanException("The game " + id + " doesn't exist.");
+		}
+
+		boolean reloaded = false;
+
+		synchronized (entry) {
+			if (entry.game == null) {
+				long start = System.nanoTime();
+				entry.game = new CandyClean(this.read(id));
+				reloaded = true;
+
+				synchronized (this.reloads) {
+					this.reloads.record(System.nanoTime() - start);
+				}
+			}
+
+			entry.playing = true;
+		}
+
+		synchronized (this) {
+			if (reloaded) {
+				this.misses++;
+				this.residentBytes += entry.bytes;
+			} else {
+				this.hits++;
+			}
+		}
+
+		if (reloaded) {
+			this.evict();
+		}
+
+		return entry.game;
+	}
+
+	/**
+	 * Stops playing a game, so it can be written to its file.
+	 *
+	 * @param id The identifier of the game.
+	 *
+	 * @throws CandyCleanException If a game can't be written to make room for others.
+	 */
+	public void release(long id) throws CandyCleanException {
+		Entry entry;
+
+		synchronized (this) {
+			entry = this.entries.get(id);
+		}
+
+		if (entry != null) {
+			synchronized (entry) {
+				entry.playing = false;
+			}
+
+			this.evict();
+		}
+	}
+
+	/**
+	 * Removes a game from the store, with its file.
+	 *
+	 * @param id The identifier of the game.
+	 */
+	public void remove(long id) {
+		Entry entry;
+
+		synchronized (this) {
+			entry = this.entries.remove(id);
+		}
+
+		if (entry != null) {
+			synchronized (entry) {
+				if (entry.game != null) {
+					synchronized (this) {
+						this.residentBytes -= entry.bytes;
+					}
+				}
+
+				entry.game = null;
+				this.delete(id);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of games of the store.
+	 *
+	 * @return The number of games, in memory or in their files.
+	 */
+	public synchronized int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Returns the estimated memory of the games in memory.
+	 *
+	 * @return The memory, in bytes.
+	 */
+	public synchronized long getResidentBytes() {
+		return this.residentBytes;
+	}
+
+	/**
+	 * Returns the number of games that were in memory when they were acquired.
+	 *
+	 * @return The number of hits.
+	 */
+	public synchronized long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Returns the number of games that were read from their files when they were acquired.
+	 *
+	 * @return The number of misses.
+	 */
+	public synchronized long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Returns the number of games written to their files.
+	 *
+	 * @return The number of evictions.
+	 */
+	public synchronized long getEvictions() {
+		return this.evictions;
+	}
+
+	/**
+	 * Returns the time spent reading a game from its file.
+	 *
+	 * @param percentile The percentile, between 0 and 100.
+	 *
+	 * @return The latency of the percentile, in nanoseconds.
+	 */
+	public long getReloadLatency(double percentile) {
+		synchronized (this.reloads) {
+			return this.reloads.getPercentile(percentile);
+		}
+	}
+
+	/**
+	 * Removes all the games, with their files.
+	 */
+	@Override
+	public void close() {
+		List<Long> ids;
+
+		synchronized (this) {
+			ids = new ArrayList<>(this.entries.keySet());
+		}
+
+		for (long id : ids) {
+			this.remove(id);
+		}
+	}
+
+	/**
+	 * Writes the least recently used games that aren't being played to their files, until the games in memory fit in
+	 * the budget or all of them are being played.
+	 *
+	 * @throws CandyCleanException If a game can't be written.
+	 */
+	private void evict() throws CandyCleanException {
+		while (true) {
+			long id = -1;
+			Entry victim = null;
+
+			synchronized (this) {
+				if (this.residentBytes <= this.maxBytes) {
+					return;
+				}
+
+				Iterator<Map.Entry<Long, Entry>> iterator = this.entries.entrySet().iterator();
+
+				while (victim == null && iterator.hasNext()) {
+					Map.Entry<Long, Entry> candidate = iterator.next();
+					Entry entry = candidate.getValue();
+
+					if (entry.game != null && !entry.playing && !entry.evicting) {
+						id = candidate.getKey();
+						victim = entry;
+						victim.evicting = true;
+					}
+				}
+
+				if (victim == null) {
+					return;
+				}
+			}
+
+			synchronized (victim) {
+				boolean written = false;
+
+				try {
+					if (victim.game != null && !victim.playing) {
+						this.write(id, victim.game.getBoard());
+						victim.game = null;
+						written = true;
+					}
+				} finally {
+					victim.evicting = false;
+				}
+
+				if (written) {
+					synchronized (this) {
+						this.residentBytes -= victim.bytes;
+						this.evictions++;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes a game to its file.
+	 *
+	 * @param id    The identifier of the game.
+	 * @param board The board of the game.
+	 *
+	 * @throws CandyCleanException If the file can't be written.
+	 */
+	private void write(long id, Board board) throws CandyCleanException {
+		ByteBuffer buffer = ByteBuffer.allocate(BoardCodec.maxEncodedLength(board));
+		BoardCodec.encode(board, buffer);
+		buffer.flip();
+
+		try (FileChannel channel = FileChannel.open(this.fileOf(id), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} catch (IOException e) {
+			throw new CandyCleanException("The game " + id + " can't be written: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Reads a game from its file, and deletes the file.
+	 *
+	 * @param id The identifier of the game.
+	 *
+	 * @return The board of the game.
+	 *
+	 * @throws CandyCleanException If the file can't be read.
+	 */
+	private Board read(long id) throws CandyCleanException {
+		ByteBuffer buffer;
+
+		try (FileChannel channel = FileChannel.open(this.fileOf(id), StandardOpenOption.READ)) {
+			buffer = ByteBuffer.allocate((int) channel.size());
+
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				// Reading the whole file.
+			}
+		} catch (IOException e) {
+			throw new CandyCleanException("The game " + id + " can't be read: " + e.getMessage());
+		}
+
+		buffer.flip();
+		Board board = BoardCodec.decode(buffer);
+		this.delete(id);
+
+		return board;
+	}
+
+	/**
+	 * Deletes the file of a game, if it exists.
+	 *
+	 * @param id The identifier of the game.
+	 */
+	private void delete(long id) {
+		if (this.directory != null) {
+			try {
+				Files.deleteIfExists(this.fileOf(id));
+			} catch (IOException e) {
+				// The file is overwritten if the game is written again.
+			}
+		}
+	}
+
+	/**
+	 * Returns the file of a game.
+	 *
+	 * @param id The identifier of the game.
+	 *
+	 * @return The path of the file.
+	 */
+	private Path fileOf(long id) {
+		return this.directory.resolve("game-" + id + ".bin");
+	}
+
+	/**
+	 * Game of the store.
+	 */
+	private static final class Entry {
+
+		/**
+		 * Estimated memory of the game in memory, in bytes.
+		 */
+		private final long bytes;
+
+		/**
+		 * The game, <code>null</code> while it is in its file.
+		 */
+		private volatile CandyClean game;
+
+		/**
+		 * Indicates if the game is being played.
+		 */
+		private volatile boolean playing;
+
+		/**
+		 * Indicates if the game is chosen to be written to its file.
+		 */
+		private volatile boolean evicting;
+
+		/**
+		 * Class constructor.
+		 *
+		 * @param game The game.
+		 */
+		private Entry(CandyClean game) {
+			this.game = game;
+			this.bytes = BYTES_PER_GAME + BYTES_PER_CELL * game.getBoard().getGrid().capacity();
+		}
+	}
+}
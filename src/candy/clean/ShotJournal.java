@@ -0,0 +1,386 @@
+package candy.clean;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Journal of the shots of a board, used to undo and redo them. Every shot is recorded as the cells it changed (removed
+ * blocks, fallen candies and new candies) with their old and new values, the streams of the generator of the candies
+ * that were used and the counters of the score, so undoing or redoing a shot only writes the cells that changed.
+ *
+ * <p>The memory of the recorded shots is limited: when it exceeds the limit, the oldest shots are forgotten and can't be
+ * undone anymore.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class ShotJournal implements CellListener {
+
+	/**
+	 * Approximate number of bytes of a recorded shot without its cells and streams.
+	 */
+	private static final int SHOT_BYTES = 96;
+
+	/**
+	 * Approximate number of bytes of a recorded cell.
+	 */
+	private static final int CELL_BYTES = 6;
+
+	/**
+	 * Approximate number of bytes of a recorded stream.
+	 */
+	private static final int STREAM_BYTES = 20;
+
+	/**
+	 * Maximum number of bytes of the recorded shots.
+	 */
+	private final long maxBytes;
+
+	/**
+	 * Shots that can be undone, the last one first.
+	 */
+	private final Deque<Shot> undoShots = new ArrayDeque<>();
+
+	/**
+	 * Shots that can be redone, the next one first.
+	 */
+	private final Deque<Shot> redoShots = new ArrayDeque<>();
+
+	/**
+	 * Number of bytes of the recorded shots.
+	 */
+	private long bytes;
+
+	/**
+	 * Indicates if the changes of the cells are being recorded.
+	 */
+	private boolean recording;
+
+	/**
+	 * Indexes of the cells changed by the current shot.
+	 */
+	private int[] indexes = new int[64];
+
+	/**
+	 * Old values of the cells changed by the current shot.
+	 */
+	private byte[] befores = new byte[64];
+
+	/**
+	 * New values of the cells changed by the current shot.
+	 */
+	private byte[] afters = new byte[64];
+
+	/**
+	 * Number of cells changed by the current shot.
+	 */
+	private int cellCount;
+
+	/**
+	 * Columns whose stream is used by the current shot.
+	 */
+	private int[] streamColumns = new int[8];
+
+	/**
+	 * States of the streams before the current shot.
+	 */
+	private long[] streamBefores = new long[8];
+
+	/**
+	 * Number of streams used by the current shot.
+	 */
+	private int streamCount;
+
+	/**
+	 * Score before the current shot.
+	 */
+	private long punctuation;
+
+	/**
+	 * Multiplier before the current shot.
+	 */
+	private int multiplier;
+
+	/**
+	 * Streak before the current shot.
+	 */
+	private int streak;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param maxBytes Maximum number of bytes of the recorded shots.
+	 */
+	public ShotJournal(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Returns the maximum memory of the journal.
+	 *
+	 * @return The maximum number of bytes of the recorded shots.
+	 */
+	public long getMaxBytes() {
+		return this.maxBytes;
+	}
+
+	/**
+	 * Returns the memory used by the journal.
+	 *
+	 * @return The approximate number of bytes of the recorded shots.
+	 */
+	public long getBytes() {
+		return this.bytes;
+	}
+
+	/**
+	 * Returns the number of shots that can be undone.
+	 *
+	 * @return The number of recorded shots before the current state.
+	 */
+	public int getUndoCount() {
+		return this.undoShots.size();
+	}
+
+	/**
+	 * Returns the number of shots that can be redone.
+	 *
+	 * @return The number of undone shots.
+	 */
+	public int getRedoCount() {
+		return this.redoShots.size();
+	}
+
+	/**
+	 * Starts recording a shot.
+	 *
+	 * @param score Score before the shot.
+	 */
+	void beginShot(Score score) {
+		this.recording = true;
+		this.cellCount = 0;
+		this.streamCount = 0;
+		this.punctuation = score.getPunctuation();
+		this.multiplier = score.getMultiplier();
+		this.streak = score.getStreak();
+	}
+
+	@Override
+	public void cellChanged(int index, byte before, byte after) {
+		if (!this.recording) {
+			return;
+		}
+
+		if (this.cellCount == this.indexes.length) {
+			int capacity = this.indexes.length * 2;
+			this.indexes = Arrays.copyOf(this.indexes, capacity);
+			this.befores = Arrays.copyOf(this.befores, capacity);
+			this.afters = Arrays.copyOf(this.afters, capacity);
+		}
+
+		this.indexes[this.cellCount] = index;
+		this.befores[this.cellCount] = before;
+		this.afters[this.cellCount] = after;
+		this.cellCount++;
+	}
+
+	/**
+	 * Records the state of the streams of the columns that are going to be refilled by the gravity.
+	 *
+	 * @param gravity Gravity with the columns to compact.
+	 * @param source  Generator of the new candies.
+	 */
+	void recordStreams(Gravity gravity, CandySource source) {
+		int count = gravity.getDirtyCount();
+
+		if (count > this.streamColumns.length) {
+			this.streamColumns = new int[Math.max(count, this.streamColumns.length * 2)];
+			this.streamBefores = new long[this.streamColumns.length];
+		}
+
+		for (int i = 0; i < count; i++) {
+			this.streamColumns[i] = gravity.getDirtyColumn(i);
+			this.streamBefores[i] = source.getState(this.streamColumns[i]);
+		}
+
+		this.streamCount = count;
+	}
+
+	/**
+	 * Finishes recording a shot. The undone shots can't be redone anymore, and the oldest shots are forgotten if the
+	 * journal is full.
+	 *
+	 * @param score  Score after the shot.
+	 * @param source Generator of the new candies, <code>null</code> if the board isn't refilled.
+	 */
+	void endShot(Score score, CandySource source) {
+		Shot shot = new Shot();
+
+		shot.indexes = Arrays.copyOf(this.indexes, this.cellCount);
+		shot.befores = Arrays.copyOf(this.befores, this.cellCount);
+		shot.afters = Arrays.copyOf(this.afters, this.cellCount);
+		shot.streamColumns = Arrays.copyOf(this.streamColumns, this.streamCount);
+		shot.streamBefores = Arrays.copyOf(this.streamBefores, this.streamCount);
+		shot.streamAfters = new long[this.streamCount];
+		shot.punctuationBefore = this.punctuation;
+		shot.multiplierBefore = this.multiplier;
+		shot.streakBefore = this.streak;
+		shot.punctuationAfter = score.getPunctuation();
+		shot.multiplierAfter = score.getMultiplier();
+		shot.streakAfter = score.getStreak();
+
+		for (int i = 0; i < this.streamCount && source != null; i++) {
+			shot.streamAfters[i] = source.getState(shot.streamColumns[i]);
+		}
+
+		this.recording = false;
+
+		for (Shot undone : this.redoShots) {
+			this.bytes -= undone.bytes();
+		}
+
+		this.redoShots.clear();
+		this.undoShots.push(shot);
+		this.bytes += shot.bytes();
+
+		while (this.bytes > this.maxBytes && !this.undoShots.isEmpty()) {
+			this.bytes -= this.undoShots.removeLast().bytes();
+		}
+	}
+
+	/**
+	 * Undoes the last recorded shot.
+	 *
+	 * @param grid   Grid of the board.
+	 * @param score  Score of the board.
+	 * @param source Generator of the new candies of the board, <code>null</code> if the board isn't refilled.
+	 *
+	 * @return <code>true</code> if a shot was undone, <code>false</code> if there isn't any shot to undo.
+	 */
+	boolean undo(PackedGrid grid, Score score, CandySource source) {
+		Shot shot = this.undoShots.poll();
+
+		if (shot == null) {
+			return false;
+		}
+
+		for (int i = shot.indexes.length - 1; i >= 0; i--) {
+			grid.set(shot.indexes[i], shot.befores[i]);
+		}
+
+		for (int i = 0; i < shot.streamColumns.length && source != null; i++) {
+			source.setState(shot.streamColumns[i], shot.streamBefores[i]);
+		}
+
+		score.restore(shot.punctuationBefore, shot.multiplierBefore, shot.streakBefore);
+		this.redoShots.push(shot);
+
+		return true;
+	}
+
+	/**
+	 * Redoes the last undone shot.
+	 *
+	 * @param grid   Grid of the board.
+	 * @param score  Score of the board.
+	 * @param source Generator of the new candies of the board, <code>null</code> if the board isn't refilled.
+	 *
+	 * @return <code>true</code> if a shot was redone, <code>false</code> if there isn't any shot to redo.
+	 */
+	boolean redo(PackedGrid grid, Score score, CandySource source) {
+		Shot shot = this.redoShots.poll();
+
+		if (shot == null) {
+			return false;
+		}
+
+		for (int i = 0; i < shot.indexes.length; i++) {
+			grid.set(shot.indexes[i], shot.afters[i]);
+		}
+
+		for (int i = 0; i < shot.streamColumns.length && source != null; i++) {
+			source.setState(shot.streamColumns[i], shot.streamAfters[i]);
+		}
+
+		score.restore(shot.punctuationAfter, shot.multiplierAfter, shot.streakAfter);
+		this.undoShots.push(shot);
+
+		return true;
+	}
+
+	/**
+	 * Changes made by a shot.
+	 */
+	private static final class Shot {
+
+		/**
+		 * Indexes of the changed cells, in the order of the changes.
+		 */
+		private int[] indexes;
+
+		/**
+		 * Old values of the changed cells.
+		 */
+		private byte[] befores;
+
+		/**
+		 * New values of the changed cells.
+		 */
+		private byte[] afters;
+
+		/**
+		 * Columns whose stream was used.
+		 */
+		private int[] streamColumns;
+
+		/**
+		 * States of the streams before the shot.
+		 */
+		private long[] streamBefores;
+
+		/**
+		 * States of the streams after the shot.
+		 */
+		private long[] streamAfters;
+
+		/**
+		 * Score before the shot.
+		 */
+		private long punctuationBefore;
+
+		/**
+		 * Score after the shot.
+		 */
+		private long punctuationAfter;
+
+		/**
+		 * Multiplier before the shot.
+		 */
+		private int multiplierBefore;
+
+		/**
+		 * Multiplier after the shot.
+		 */
+		private int multiplierAfter;
+
+		/**
+		 * Streak before the shot.
+		 */
+		private int streakBefore;
+
+		/**
+		 * Streak after the shot.
+		 */
+		private int streakAfter;
+
+		/**
+		 * Returns the memory used by the shot.
+		 *
+		 * @return The approximate number of bytes of the shot.
+		 */
+		private long bytes() {
+			return SHOT_BYTES + (long) this.indexes.length * CELL_BYTES + (long) this.streamColumns.length * STREAM_BYTES;
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package candy.clean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only binary log of the shots of a game, read by {@link Replayer}. The log starts with the magic bytes "CCRP",
+ * the version of the format and the board at the start of the game written by {@link BoardCodec} (the seed, the size,
+ * the colors, the objective and the rules of the level, and the cells, so predefined and resumed games can be replayed
+ * too). After the header, every shot, undo and redo of the game is appended as a record of fixed length with its
+ * result and the score after it.
+ *
+ * <p>The records are collected in a direct buffer and written to the file when the buffer is full, when the log is
+ * flushed and when it is closed, so recording a shot doesn't touch the disk. A log of a game played by a person is
+ * flushed after every record instead (see {@link #setAutoFlush(boolean)}), so a game that is abandoned or killed keeps
+ * its shots. If the file can't be written the error is logged once and the next records are ignored, so the game never
+ * stops because of its log.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class ShotLog implements Closeable, Flushable {
+
+	/**
+	 * First bytes of every log.
+	 */
+	static final int MAGIC = 0x43435250;
+
+	/**
+	 * Version of the format written.
+	 */
+	static final byte VERSION = 1;
+
+	/**
+	 * Kind of the records of the shots.
+	 */
+	static final byte SHOT = 0;
+
+	/**
+	 * Kind of the records of the undone shots.
+	 */
+	static final byte UNDO = 1;
+
+	/**
+	 * Kind of the records of the redone shots.
+	 */
+	static final byte REDO = 2;
+
+	/**
+	 * Bytes of a record: the kind, the status, the row, the column, the cleared blocks and the score after it.
+	 */
+	static final int RECORD_LENGTH = 1 + 1 + 4 + 4 + 4 + 8;
+
+	/**
+	 * Bytes of the buffer of the records.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Logger of the class.
+	 */
+	private static final Logger logger = LogManager.getLogger(ShotLog.class);
+
+	/**
+	 * File of the log.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Records not written to the file yet.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Number of records appended.
+	 */
+	private long records;
+
+	/**
+	 * Indicates if the file couldn't be written, so the records are ignored.
+	 */
+	private boolean failed;
+
+	/**
+	 * Indicates if every record is written to the file as soon as it is appended.
+	 */
+	private boolean autoFlush;
+
+	/**
+	 * Class constructor. The file is replaced by a new log whose header is the current board of the game, so every game
+	 * needs its own file (see {@link #fileFor(Path, long)}).
+	 *
+	 * @param file File of the log.
+	 * @param game The game, before its first recorded shot.
+	 *
+	 * @throws IOException If the file can't be created.
+	 */
+	public ShotLog(Path file, CandyClean game) throws IOException {
+		Board board = game.getBoard();
+
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		this.buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, 5 + BoardCodec.maxEncodedLength(board)));
+
+		this.buffer.putInt(MAGIC).put(VERSION);
+		BoardCodec.encode(board, this.buffer);
+		this.flush();
+	}
+
+	/**
+	 * Returns a file for the log of a game next to a base file: the name of the base file with the seed of the game
+	 * before its extension, and a number after the seed if that file already exists (a resumed game).
+	 *
+	 * @param base Base file, such as <code>games/shots.log</code>.
+	 * @param seed Seed of the game.
+	 *
+	 * @return A file that doesn't exist, such as <code>games/shots-1234.log</code>.
+	 */
+	public static Path fileFor(Path base, long seed) {
+		String name = base.getFileName().toString();
+		int dot = name.lastIndexOf('.');
+		String prefix = (dot > 0 ? name.substring(0, dot) : name) + "-" + Long.toUnsignedString(seed);
+		String extension = dot > 0 ? name.substring(dot) : "";
+		Path file = base.resolveSibling(prefix + extension);
+
+		for (int i = 2; Files.exists(file); i++) {
+			file = base.resolveSibling(prefix + "-" + i + extension);
+		}
+
+		return file;
+	}
+
+	/**
+	 * Appends a shot.
+	 *
+	 * @param row         Row of the shot.
+	 * @param column      Column of the shot.
+	 * @param result      Result of the shot.
+	 * @param punctuation Score after the shot.
+	 */
+	void shot(int row, int column, ShotResult result, long punctuation) {
+		this.append(SHOT, result.getStatus().ordinal(), row, column, result.getCleared(), punctuation);
+	}
+
+	/**
+	 * Appends an undo or a redo.
+	 *
+	 * @param kind        {@link #UNDO} or {@link #REDO}.
+	 * @param done        <code>true</code> if a shot was undone or redone, <code>false</code> otherwise.
+	 * @param punctuation Score after the undo or the redo.
+	 */
+	void history(byte kind, boolean done, long punctuation) {
+		this.append(kind, done ? 1 : 0, 0, 0, 0, punctuation);
+	}
+
+	/**
+	 * Sets if every record is written to the file as soon as it is appended, one small write per turn, instead of when
+	 * the buffer is full.
+	 *
+	 * @param autoFlush <code>true</code> to write every record, <code>false</code> to buffer them.
+	 */
+	public void setAutoFlush(boolean autoFlush) {
+		this.autoFlush = autoFlush;
+	}
+
+	/**
+	 * Returns the number of records appended.
+	 *
+	 * @return The number of shots, undos and redos recorded.
+	 */
+	public long getRecords() {
+		return this.records;
+	}
+
+	/**
+	 * Writes the buffered records to the file.
+	 */
+	@Override
+	public void flush() {
+		if (this.failed) {
+			return;
+		}
+
+		this.buffer.flip();
+
+		try {
+			while (this.buffer.hasRemaining()) {
+				this.channel.write(this.buffer);
+			}
+		} catch (IOException e) {
+			this.failed = true;
+			logger.error("The shot log can't be written: {}", e.getMessage());
+		}
+
+		this.buffer.clear();
+	}
+
+	/**
+	 * Writes the buffered records and closes the file.
+	 *
+	 * @throws IOException If the file can't be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		this.flush();
+		this.channel.close();
+	}
+
+	/**
+	 * Appends a record, writing the buffer first if it is full.
+	 *
+	 * @param kind        Kind of the record.
+	 * @param status      Status of the shot, or 1 if an undo or a redo was made.
+	 * @param row         Row of the shot.
+	 * @param column      Column of the shot.
+	 * @param cleared     Number of blocks removed by the shot.
+	 * @param punctuation Score after the record.
+	 */
+	private void append(byte kind, int status, int row, int column, int cleared, long punctuation) {
+		if (this.failed) {
+			return;
+		}
+
+		if (this.buffer.remaining() < RECORD_LENGTH) {
+			this.flush();
+		}
+
+		this.buffer.put(kind).put((byte) status).putInt(row).putInt(column).putInt(cleared).putLong(punctuation);
+		this.records++;
+
+		if (this.autoFlush) {
+			this.flush();
+		}
+	}
+}
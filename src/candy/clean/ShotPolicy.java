@@ -0,0 +1,68 @@
+package candy.clean;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Ways of choosing the next shot of a game played without a player, among the legal shots of the board.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public enum ShotPolicy {
+
+	/**
+	 * Any legal shot, with the same probability.
+	 */
+	RANDOM {
+		@Override
+		public int choose(MoveList moves, SplittableRandom random) {
+			return random.nextInt(moves.size());
+		}
+	},
+
+	/**
+	 * The shot that wins the most points now, the first one of the board if there are several.
+	 */
+	GREEDY {
+		@Override
+		public int choose(MoveList moves, SplittableRandom random) {
+			int best = 0;
+
+			for (int i = 1; i < moves.size(); i++) {
+				if (moves.getScoreDelta(i) > moves.getScoreDelta(best)) {
+					best = i;
+				}
+			}
+
+			return best;
+		}
+	};
+
+	/**
+	 * Chooses a shot.
+	 *
+	 * @param moves  Legal shots of the board (at least one).
+	 * @param random Generator of the random decisions of the game.
+	 *
+	 * @return Position of the chosen shot in the list.
+	 */
+	public abstract int choose(MoveList moves, SplittableRandom random);
+
+	/**
+	 * Returns the policy with a name, ignoring the case.
+	 *
+	 * @param name Name of the policy.
+	 *
+	 * @return The policy.
+	 *
+	 * @throws CandyCleanException If there isn't any policy with the name.
+	 */
+	public static ShotPolicy of(String name) throws CandyCleanException {
+		try {
+			return valueOf(name.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new CandyCleanException("Unknown policy: " + name);
+		}
+	}
+}
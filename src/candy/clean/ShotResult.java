@@ -0,0 +1,111 @@
+package candy.clean;
+
+/**
+ * Result of a shot made with {@link Board#tryShoot(int, int)}. The board reuses the same object for every shot, so it
+ * has to be read before the next shot.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class ShotResult {
+
+	/**
+	 * Possible results of a shot.
+	 */
+	public enum Status {
+		/**
+		 * The shot was made.
+		 */
+		VALID,
+
+		/**
+		 * The selected spot is outside of the board.
+		 */
+		OUT_OF_BOUNDS,
+
+		/**
+		 * The selected block doesn't have any surrounding blocks with the same color and it isn't special.
+		 */
+		NO_SURROUNDING_BLOCKS
+	}
+
+	/**
+	 * Result of the shot.
+	 */
+	private Status status;
+
+	/**
+	 * Number of blocks removed by the shot.
+	 */
+	private int cleared;
+
+	/**
+	 * Change of the score made by the shot (negative if the shot wasn't valid).
+	 */
+	private long scoreDelta;
+
+	/**
+	 * Class constructor of an empty result.
+	 */
+	public ShotResult() {
+		this.status = Status.VALID;
+	}
+
+	/**
+	 * Replaces the values of the result.
+	 *
+	 * @param status     Result of the shot.
+	 * @param cleared    Number of blocks removed by the shot.
+	 * @param scoreDelta Change of the score made by the shot.
+	 *
+	 * @return This result.
+	 */
+	ShotResult set(Status status, int cleared, long scoreDelta) {
+		this.status = status;
+		this.cleared = cleared;
+		this.scoreDelta = scoreDelta;
+
+		return this;
+	}
+
+	/**
+	 * Returns the result of the shot.
+	 *
+	 * @return The status of the shot.
+	 */
+	public Status getStatus() {
+		return this.status;
+	}
+
+	/**
+	 * Checks if the shot was made.
+	 *
+	 * @return <code>true</code> if the shot was valid, <code>false</code> otherwise.
+	 */
+	public boolean isValid() {
+		return this.status == Status.VALID;
+	}
+
+	/**
+	 * Returns the number of blocks removed by the shot.
+	 *
+	 * @return The number of removed blocks.
+	 */
+	public int getCleared() {
+		return this.cleared;
+	}
+
+	/**
+	 * Returns the change of the score made by the shot.
+	 *
+	 * @return The points won by the shot, or the (negative) points lost if the shot wasn't valid.
+	 */
+	public long getScoreDelta() {
+		return this.scoreDelta;
+	}
+
+	@Override
+	public String toString() {
+		return this.status + " (cleared = " + this.cleared + ", score = " + this.scoreDelta + ")";
+	}
+}
@@ -0,0 +1,215 @@
+package candy.clean;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Results of the games of a level played by a {@link Simulator}: the throughput, the latencies of the shots and the
+ * distribution of the final scores.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class SimulationReport {
+
+	/**
+	 * Level of the games.
+	 */
+	private final Level level;
+
+	/**
+	 * Policy used to choose the shots.
+	 */
+	private final ShotPolicy policy;
+
+	/**
+	 * Final score of every game, in the order of the games.
+	 */
+	private final long[] scores;
+
+	/**
+	 * Number of shots of every game.
+	 */
+	private final int[] shots;
+
+	/**
+	 * Number of games that reached the objective.
+	 */
+	private final int won;
+
+	/**
+	 * Latencies of all the shots.
+	 */
+	private final LatencyHistogram latencies;
+
+	/**
+	 * Time spent playing all the games, in nanoseconds.
+	 */
+	private final long elapsedNanos;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param level        Level of the games.
+	 * @param policy       Policy used to choose the shots.
+	 * @param scores       Final score of every game.
+	 * @param shots        Number of shots of every game.
+	 * @param won          Number of games that reached the objective.
+	 * @param latencies    Latencies of all the shots.
+	 * @param elapsedNanos Time spent playing all the games.
+	 */
+	SimulationReport(Level level, ShotPolicy policy, long[] scores, int[] shots, int won, LatencyHistogram latencies,
+	                 long elapsedNanos) {
+		this.level = level;
+		this.policy = policy;
+		this.scores = scores;
+		this.shots = shots;
+		this.won = won;
+		this.latencies = latencies;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Returns the level of the games.
+	 *
+	 * @return The level.
+	 */
+	public Level getLevel() {
+		return this.level;
+	}
+
+	/**
+	 * Returns the number of games.
+	 *
+	 * @return The number of played games.
+	 */
+	public int getGames() {
+		return this.scores.length;
+	}
+
+	/**
+	 * Returns the final score of a game.
+	 *
+	 * @param game Position of the game.
+	 *
+	 * @return The score.
+	 */
+	public long getScore(int game) {
+		return this.scores[game];
+	}
+
+	/**
+	 * Returns the number of shots of a game.
+	 *
+	 * @param game Position of the game.
+	 *
+	 * @return The number of shots.
+	 */
+	public int getShots(int game) {
+		return this.shots[game];
+	}
+
+	/**
+	 * Returns the number of shots of all the games.
+	 *
+	 * @return The total number of shots.
+	 */
+	public long getTotalShots() {
+		return this.latencies.getCount();
+	}
+
+	/**
+	 * Returns the number of games that reached the objective.
+	 *
+	 * @return The number of won games.
+	 */
+	public int getWon() {
+		return this.won;
+	}
+
+	/**
+	 * Returns the latencies of the shots.
+	 *
+	 * @return The histogram of the latencies.
+	 */
+	public LatencyHistogram getLatencies() {
+		return this.latencies;
+	}
+
+	/**
+	 * Returns the time spent playing the games.
+	 *
+	 * @return The elapsed time in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return this.elapsedNanos;
+	}
+
+	/**
+	 * Returns the number of games played per second.
+	 *
+	 * @return The games per second.
+	 */
+	public double getGamesPerSecond() {
+		return this.scores.length * 1e9 / Math.max(1, this.elapsedNanos);
+	}
+
+	/**
+	 * Returns the number of shots made per second.
+	 *
+	 * @return The shots per second.
+	 */
+	public double getShotsPerSecond() {
+		return this.getTotalShots() * 1e9 / Math.max(1, this.elapsedNanos);
+	}
+
+	/**
+	 * Returns a percentile of the final scores.
+	 *
+	 * @param percentile The percentile, between 0 and 100.
+	 *
+	 * @return The score of the percentile, 0 if there aren't games.
+	 */
+	public long getScorePercentile(double percentile) {
+		if (this.scores.length == 0) {
+			return 0;
+		}
+
+		long[] sorted = this.scores.clone();
+		Arrays.sort(sorted);
+		int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+
+		return sorted[Math.min(sorted.length - 1, Math.max(0, rank - 1))];
+	}
+
+	/**
+	 * Returns the mean of the final scores.
+	 *
+	 * @return The mean score, 0 if there aren't games.
+	 */
+	public double getMeanScore() {
+		double sum = 0;
+
+		for (long score : this.scores) {
+			sum += score;
+		}
+
+		return this.scores.length == 0 ? 0 : sum / this.scores.length;
+	}
+
+	/**
+	 * Returns the report as a text of two lines.
+	 *
+	 * @return The report.
+	 */
+	public String toString() {
+		return String.format(Locale.ROOT, "%s (%s): %d games, %d shots, %d won in %.3f s -> %.1f games/s, %.0f shots/s%n" +
+						"  shot latency us: p50 %.1f  p90 %.1f  p99 %.1f  max %.1f | score: min %d  p50 %d  mean %.1f  " +
+						"p90 %d  max %d",
+				this.level, this.policy, this.getGames(), this.getTotalShots(), this.won, this.elapsedNanos / 1e9,
+				this.getGamesPerSecond(), this.getShotsPerSecond(), this.latencies.getPercentile(50) / 1e3,
+				this.latencies.getPercentile(90) / 1e3, this.latencies.getPercentile(99) / 1e3,
+				this.latencies.getMax() / 1e3, this.getScorePercentile(0), this.getScorePercentile(50),
+				this.getMeanScore(), this.getScorePercentile(90), this.getScorePercentile(100));
+	}
+}
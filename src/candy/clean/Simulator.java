@@ -0,0 +1,313 @@
+package candy.clean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays games without a player to measure the engine and the balance of the levels. The games of a level are played in
+ * parallel in a fork-join pool: they don't share anything, so the throughput grows with the number of cores. Every game
+ * has its own seed, derived from the seed of the simulation, and the shots are chosen by a {@link ShotPolicy} with a
+ * generator seeded by the game, so the same simulation always gives the same scores with any number of threads.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class Simulator {
+
+	/**
+	 * Logger of the class.
+	 */
+	private static final Logger logger = LogManager.getLogger(Simulator.class);
+
+	/**
+	 * Number of games played by every task without splitting them again.
+	 */
+	private static final int GAMES_PER_TASK = 4;
+
+	/**
+	 * Number of games of every level.
+	 */
+	private final int games;
+
+	/**
+	 * Maximum number of shots of every game.
+	 */
+	private final int maxShots;
+
+	/**
+	 * Policy used to choose the shots.
+	 */
+	private final ShotPolicy policy;
+
+	/**
+	 * Seed of the simulation.
+	 */
+	private final long seed;
+
+	/**
+	 * Number of threads that play the games.
+	 */
+	private final int threads;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param games    Number of games of every level.
+	 * @param maxShots Maximum number of shots of every game. A game also ends when the objective is reached or when there
+	 *                 aren't legal shots.
+	 * @param policy   Policy used to choose the shots.
+	 * @param seed     Seed of the simulation.
+	 * @param threads  Number of threads that play the games.
+	 */
+	public Simulator(int games, int maxShots, ShotPolicy policy, long seed, int threads) {
+		this.games = games;
+		this.maxShots = maxShots;
+		this.policy = policy;
+		this.seed = seed;
+		this.threads = threads;
+	}
+
+	/**
+	 * Plays the games of a level.
+	 *
+	 * @param level Level of the games.
+	 *
+	 * @return The report of the games.
+	 *
+	 * @throws CandyCleanException If the games of the level can't be created.
+	 */
+	public SimulationReport run(Level level) throws CandyCleanException {
+		long[] seeds = new long[this.games];
+		long[] scores = new long[this.games];
+		int[] shots = new int[this.games];
+		boolean[] won = new boolean[this.games];
+		SplittableRandom random = new SplittableRandom(this.seed);
+
+		for (int i = 0; i < seeds.length; i++) {
+			seeds[i] = random.nextLong();
+		}
+
+		// Creating a game before the threads start reports an invalid level as a checked exception.
+		new CandyClean(level, this.seed);
+
+		ForkJoinPool pool = new ForkJoinPool(this.threads);
+		long start = System.nanoTime();
+		LatencyHistogram latencies;
+
+		try {
+			latencies = pool.invoke(new Games(level, seeds, scores, shots, won, 0, this.games));
+		} finally {
+			pool.shutdown();
+		}
+
+		long elapsed = System.nanoTime() - start;
+		int wonGames = 0;
+
+		for (boolean game : won) {
+			if (game) {
+				wonGames++;
+			}
+		}
+
+		return new SimulationReport(level, this.policy, scores, shots, wonGames, latencies, elapsed);
+	}
+
+	/**
+	 * Plays a game.
+	 *
+	 * @param game      The game.
+	 * @param random    Generator of the random decisions of the policy.
+	 * @param moves     List reused for the legal shots.
+	 * @param latencies Histogram where the latency of every shot is recorded.
+	 *
+	 * @return The number of shots.
+	 */
+	private int play(CandyClean game, SplittableRandom random, MoveList moves, LatencyHistogram latencies) {
+		int shots = 0;
+
+		while (shots < this.maxShots && !game.haveWon() && game.generateMoves(moves) > 0) {
+			int chosen = this.policy.choose(moves, random);
+			long start = System.nanoTime();
+
+			game.tryShoot(moves.getRow(chosen), moves.getColumn(chosen));
+			latencies.record(System.nanoTime() - start);
+			shots++;
+		}
+
+		return shots;
+	}
+
+	/**
+	 * Task that plays a range of games, splitting it in two tasks while it is big.
+	 */
+	private final class Games extends RecursiveTask<LatencyHistogram> {
+
+		/**
+		 * Serial number for Games.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Level of the games.
+		 */
+		private final Level level;
+
+		/**
+		 * Seed of every game.
+		 */
+		private final long[] seeds;
+
+		/**
+		 * Final score of every game.
+		 */
+		private final long[] scores;
+
+		/**
+		 * Number of shots of every game.
+		 */
+		private final int[] shots;
+
+		/**
+		 * Indicates if every game reached the objective.
+		 */
+		private final boolean[] won;
+
+		/**
+		 * First game of the range.
+		 */
+		private final int from;
+
+		/**
+		 * End of the range (excluded).
+		 */
+		private final int to;
+
+		/**
+		 * Class constructor.
+		 *
+		 * @param level  Level of the games.
+		 * @param seeds  Seed of every game.
+		 * @param scores Where the final score of every game is stored.
+		 * @param shots  Where the number of shots of every game is stored.
+		 * @param won    Where the won games are marked.
+		 * @param from   First game of the range.
+		 * @param to     End of the range (excluded).
+		 */
+		private Games(Level level, long[] seeds, long[] scores, int[] shots, boolean[] won, int from, int to) {
+			this.level = level;
+			this.seeds = seeds;
+			this.scores = scores;
+			this.shots = shots;
+			this.won = won;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected LatencyHistogram compute() {
+			if (this.to - this.from > GAMES_PER_TASK) {
+				int middle = (this.from + this.to) >>> 1;
+				Games left = new Games(this.level, this.seeds, this.scores, this.shots, this.won, this.from, middle);
+				left.fork();
+
+				LatencyHistogram latencies = new Games(this.level, this.seeds, this.scores, this.shots, this.won, middle,
+						this.to).compute();
+				latencies.add(left.join());
+
+				return latencies;
+			}
+
+			LatencyHistogram latencies = new LatencyHistogram();
+			MoveList moves = new MoveList(this.level.getDimensions() * this.level.getDimensions());
+
+			for (int i = this.from; i < this.to; i++) {
+				CandyClean game;
+
+				try {
+					game = new CandyClean(this.level, this.seeds[i]);
+				} catch (CandyCleanException e) {
+					throw new IllegalStateException(e);
+				}
+
+				this.shots[i] = play(game, new SplittableRandom(this.seeds[i]), moves, latencies);
+				this.scores[i] = game.getPunctuation();
+				this.won[i] = game.haveWon();
+			}
+
+			return latencies;
+		}
+	}
+
+	/**
+	 * Runs a simulation from the command line and logs the report of every level. The arguments are pairs
+	 * <code>name=value</code>: <code>games</code> (100), <code>shots</code> (500), <code>policy</code> (random or
+	 * greedy), <code>seed</code> (random), <code>threads</code> (the processors) and <code>level</code> (the option of
+	 * the menu, or all).
+	 *
+	 * @param args The arguments.
+	 *
+	 * @throws CandyCleanException If an argument isn't valid.
+	 */
+	public static void main(String[] args) throws CandyCleanException {
+		int games = 100;
+		int shots = 500;
+		ShotPolicy policy = ShotPolicy.RANDOM;
+		long seed = CandySource.newSeed();
+		int threads = Runtime.getRuntime().availableProcessors();
+		List<Level> levels = new ArrayList<>();
+
+		for (String arg : args) {
+			int equals = arg.indexOf('=');
+			String name = equals < 0 ? arg : arg.substring(0, equals);
+			String value = equals < 0 ? "" : arg.substring(equals + 1);
+
+			try {
+				switch (name) {
+					case "games":
+						games = Integer.parseInt(value);
+						break;
+					case "shots":
+						shots = Integer.parseInt(value);
+						break;
+					case "policy":
+						policy = ShotPolicy.of(value);
+						break;
+					case "seed":
+						seed = Long.parseLong(value);
+						break;
+					case "threads":
+						threads = Integer.parseInt(value);
+						break;
+					case "level":
+						if (!"all".equalsIgnoreCase(value)) {
+							levels.add(Level.of(Integer.parseInt(value)));
+						}
+						break;
+					default:
+						throw new CandyCleanException("Unknown argument: " + arg);
+				}
+			} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+				throw new CandyCleanException("Invalid value: " + arg);
+			}
+		}
+
+		if (levels.isEmpty()) {
+			for (Level level : Level.values()) {
+				levels.add(level);
+			}
+		}
+
+		Simulator simulator = new Simulator(games, shots, policy, seed, threads);
+		logger.info("Simulating {} games per level with {} threads, seed {}", games, threads, seed);
+
+		for (Level level : levels) {
+			logger.info(simulator.run(level));
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package candy.clean;
+
+/**
+ * Result of a {@link PuzzleSolver}: the shortest sequence of shots that clears a pre-designed board, or the proof that
+ * no sequence clears it.
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class Solution {
+
+	/**
+	 * Result of the search.
+	 */
+	public enum Status {
+		/**
+		 * The board is cleared by the shots of the solution, and no shorter sequence clears it.
+		 */
+		SOLVED,
+
+		/**
+		 * Every sequence of shots was searched and none clears the board.
+		 */
+		IMPOSSIBLE,
+
+		/**
+		 * The search reached its limit of boards before finding a sequence or proving there isn't any.
+		 */
+		UNKNOWN
+	}
+
+	/**
+	 * Result of the search.
+	 */
+	private final Status status;
+
+	/**
+	 * Rows of the shots, in the order they are made.
+	 */
+	private final int[] rows;
+
+	/**
+	 * Columns of the shots, in the order they are made.
+	 */
+	private final int[] columns;
+
+	/**
+	 * Number of boards searched.
+	 */
+	private final long nodes;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param status  Result of the search.
+	 * @param rows    Rows of the shots, empty if the board isn't solved.
+	 * @param columns Columns of the shots, empty if the board isn't solved.
+	 * @param nodes   Number of boards searched.
+	 */
+	Solution(Status status, int[] rows, int[] columns, long nodes) {
+		this.status = status;
+		this.rows = rows;
+		this.columns = columns;
+		this.nodes = nodes;
+	}
+
+	/**
+	 * Returns the result of the search.
+	 *
+	 * @return The status.
+	 */
+	public Status getStatus() {
+		return this.status;
+	}
+
+	/**
+	 * Returns the number of shots that clear the board.
+	 *
+	 * @return The number of shots, 0 if the board isn't solved.
+	 */
+	public int getShotCount() {
+		return this.rows.length;
+	}
+
+	/**
+	 * Returns the row of a shot.
+	 *
+	 * @param i Position of the shot in the sequence.
+	 *
+	 * @return The row.
+	 */
+	public int getRow(int i) {
+		return this.rows[i];
+	}
+
+	/**
+	 * Returns the column of a shot.
+	 *
+	 * @param i Position of the shot in the sequence.
+	 *
+	 * @return The column.
+	 */
+	public int getColumn(int i) {
+		return this.columns[i];
+	}
+
+	/**
+	 * Returns the number of boards searched.
+	 *
+	 * @return The number of boards.
+	 */
+	public long getNodes() {
+		return this.nodes;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+
+		switch (this.status) {
+			case SOLVED:
+				text.append("Solved in ").append(this.rows.length).append(" shots:");
+
+				for (int i = 0; i < this.rows.length; i++) {
+					text.append(" (").append(this.rows[i]).append(", ").append(this.columns[i]).append(')');
+				}
+				break;
+			case IMPOSSIBLE:
+				text.append("Impossible to clear");
+				break;
+			default:
+				text.append("Unknown");
+				break;
+		}
+
+		return text.append(" [").append(this.nodes).append(" boards searched]").toString();
+	}
+}
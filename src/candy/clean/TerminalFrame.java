@@ -0,0 +1,226 @@
+package candy.clean;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Frame of a terminal where a board is drawn. It remembers the cells and the score already drawn, so after a shot only
+ * the changed cells and the score line are written, moving the cursor to them with ANSI sequences. The first frame, and
+ * any frame after {@link #invalidate()}, clears the screen and draws the whole board.
+ *
+ * <p>The board is drawn at the top of the screen with the same layout as {@link Board#toString()}, and the cursor is
+ * left below the board with the rest of the screen cleared.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class TerminalFrame {
+
+	/**
+	 * Moves the cursor to the top left corner and clears the screen.
+	 */
+	private static final byte[] CLEAR_SCREEN = "\u001B[H\u001B[2J".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * Clears from the cursor to the end of the line.
+	 */
+	private static final byte[] CLEAR_LINE = "\u001B[K".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * Clears from the cursor to the end of the screen.
+	 */
+	private static final byte[] CLEAR_BELOW = "\u001B[J".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * Maximum length of a cursor movement.
+	 */
+	private static final int MOVE_LENGTH = 16;
+
+	/**
+	 * Line of the screen (starting at 1) where the first row of the board is drawn, after the header of the renderer.
+	 */
+	private static final int FIRST_ROW_LINE = BoardRenderer.HEADER_LINES + 1;
+
+	/**
+	 * Column of the screen (starting at 1) where the first column of the board is drawn.
+	 */
+	private static final int FIRST_COLUMN = 4;
+
+	/**
+	 * Grid that is drawn.
+	 */
+	private final PackedGrid grid;
+
+	/**
+	 * Score that is drawn above the grid.
+	 */
+	private final Score score;
+
+	/**
+	 * Renderer of the whole board.
+	 */
+	private final BoardRenderer renderer;
+
+	/**
+	 * Cells drawn in the terminal, row by row.
+	 */
+	private final byte[] drawn;
+
+	/**
+	 * Score, objective, multiplier and streak drawn in the terminal.
+	 */
+	private final long[] drawnScore;
+
+	/**
+	 * Buffer reused for every frame.
+	 */
+	private final ByteBuffer frame;
+
+	/**
+	 * Indicates if the terminal shows the drawn cells, <code>false</code> if the whole board has to be drawn.
+	 */
+	private boolean valid;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param grid     Grid that is drawn.
+	 * @param score    Score that is drawn above the grid.
+	 * @param renderer Renderer of the whole board.
+	 */
+	public TerminalFrame(PackedGrid grid, Score score, BoardRenderer renderer) {
+		int cells = grid.size();
+		int full = CLEAR_SCREEN.length + BoardRenderer.maxFrameLength(grid.getRows(), grid.getColumns());
+		int changes = cells * (MOVE_LENGTH + BoardRenderer.MAX_CELL_LENGTH) + MOVE_LENGTH + BoardRenderer.SCORE_LENGTH +
+				CLEAR_LINE.length;
+
+		this.grid = grid;
+		this.score = score;
+		this.renderer = renderer;
+		this.drawn = new byte[cells];
+		this.drawnScore = new long[4];
+		this.frame = ByteBuffer.allocateDirect(Math.max(full, changes) + MOVE_LENGTH + CLEAR_BELOW.length);
+	}
+
+	/**
+	 * Forces the next frame to clear the screen and draw the whole board, for example after the terminal is resized.
+	 */
+	public void invalidate() {
+		this.valid = false;
+	}
+
+	/**
+	 * Checks if the next frame only draws the changes.
+	 *
+	 * @return <code>true</code> if the terminal shows the last frame, <code>false</code> otherwise.
+	 */
+	public boolean isValid() {
+		return this.valid;
+	}
+
+	/**
+	 * Renders the changes since the last frame into a reused buffer.
+	 *
+	 * @return The buffer with the bytes to write to the terminal, ready to be read. It is overwritten by the next call.
+	 */
+	public ByteBuffer render() {
+		this.frame.clear();
+
+		if (this.valid) {
+			this.renderChangedCells();
+
+			if (this.scoreChanged()) {
+				this.moveTo(BoardRenderer.SCORE_LINE, 1);
+				this.renderer.renderScore(this.frame);
+				this.frame.put(CLEAR_LINE);
+			}
+		} else {
+			this.frame.put(CLEAR_SCREEN);
+			this.renderer.renderTo(this.frame);
+
+			for (int i = 0; i < this.grid.getRows(); i++) {
+				for (int j = 0; j < this.grid.getColumns(); j++) {
+					this.drawn[i * this.grid.getColumns() + j] = this.grid.get(this.grid.index(i, j));
+				}
+			}
+
+			this.scoreChanged();
+			this.valid = true;
+		}
+
+		// The line after the last row of the board.
+		this.moveTo(FIRST_ROW_LINE + this.grid.getRows(), 1);
+		this.frame.put(CLEAR_BELOW);
+		this.frame.flip();
+
+		return this.frame;
+	}
+
+	/**
+	 * Renders the cells that changed since the last frame. The cursor is only moved before the first cell of every
+	 * sequence of changed cells in a row.
+	 */
+	private void renderChangedCells() {
+		for (int i = 0; i < this.grid.getRows(); i++) {
+			int last = -2;
+
+			for (int j = 0; j < this.grid.getColumns(); j++) {
+				int k = i * this.grid.getColumns() + j;
+				byte cell = this.grid.get(this.grid.index(i, j));
+
+				if (cell != this.drawn[k]) {
+					if (j != last + 1) {
+						this.moveTo(FIRST_ROW_LINE + i, FIRST_COLUMN + 2 * j);
+					}
+
+					BoardRenderer.putCell(this.frame, cell);
+					this.drawn[k] = cell;
+					last = j;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if the score changed since the last frame, and remembers the current one.
+	 *
+	 * @return <code>true</code> if any counter of the score changed, <code>false</code> otherwise.
+	 */
+	private boolean scoreChanged() {
+		boolean changed = this.remember(0, this.score.getPunctuation());
+		changed |= this.remember(1, this.score.getObjective());
+		changed |= this.remember(2, this.score.getMultiplier());
+		changed |= this.remember(3, this.score.getStreak());
+
+		return changed;
+	}
+
+	/**
+	 * Remembers a counter of the drawn score.
+	 *
+	 * @param i     Position of the counter.
+	 * @param value Current value of the counter.
+	 *
+	 * @return <code>true</code> if the value is different from the drawn one, <code>false</code> otherwise.
+	 */
+	private boolean remember(int i, long value) {
+		boolean changed = this.drawnScore[i] != value;
+		this.drawnScore[i] = value;
+
+		return changed;
+	}
+
+	/**
+	 * Moves the cursor of the terminal.
+	 *
+	 * @param line   Line of the screen, starting at 1.
+	 * @param column Column of the screen, starting at 1.
+	 */
+	private void moveTo(int line, int column) {
+		this.frame.put((byte) 0x1B).put((byte) '[');
+		BoardRenderer.putNumber(this.frame, line);
+		this.frame.put((byte) ';');
+		BoardRenderer.putNumber(this.frame, column);
+		this.frame.put((byte) 'H');
+	}
+}
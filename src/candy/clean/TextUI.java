@@ -2,7 +2,12 @@ package candy.clean;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.jetbrains.annotations.Contract;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * User Interface of the game.
@@ -22,19 +27,104 @@ public class TextUI {
 	 */
 	private static final String NAN = " is not a number.";
 
+	/**
+	 * Input that forces the board to be drawn again in incremental mode.
+	 */
+	private static final String REDRAW = "r";
+
+	/**
+	 * Input that undoes the last shot.
+	 */
+	private static final String UNDO = "u";
+
+	/**
+	 * Input that redoes the last undone shot.
+	 */
+	private static final String REDO = "y";
+
+	/**
+	 * Input that searches a hint.
+	 */
+	private static final String HINT = "h";
+
+	/**
+	 * Time to search a hint, in milliseconds.
+	 */
+	private static final long HINT_MILLIS = 1000;
+
 	/**
 	 * The game is going to be played.
 	 */
 	private final CandyClean game;
 
+	/**
+	 * Channel of the standard output where the board is written.
+	 */
+	private final WritableByteChannel console;
+
+	/**
+	 * Frame of the terminal in incremental mode, <code>null</code> if the whole board is printed every turn.
+	 */
+	private final TerminalFrame frame;
+
+	/**
+	 * Player that makes the shots in auto mode, <code>null</code> if the shots are introduced by the user.
+	 */
+	private final MctsPlayer auto;
+
+	/**
+	 * Writer of the checkpoints of the game, <code>null</code> if the game isn't saved.
+	 */
+	private Checkpointer checkpointer;
+
+	/**
+	 * Hint being searched, <code>null</code> if no hint is being searched.
+	 */
+	private CompletableFuture<Hint> pendingHint;
+
 	/**
 	 * Constructor of the class.
 	 *
 	 * @param game The game is going to be played.
 	 */
-	@Contract(pure = true)
 	public TextUI(CandyClean game) {
+		this(game, false);
+	}
+
+	/**
+	 * Constructor of the class with the selected way of printing the board.
+	 *
+	 * @param game        The game is going to be played.
+	 * @param incremental If <code>true</code>, the board is drawn once at the top of the screen and then only the changed
+	 *                    cells are drawn again (introducing {@value #REDRAW} as row draws the whole board). Otherwise the
+	 *                    whole board is printed every turn.
+	 */
+	public TextUI(CandyClean game, boolean incremental) {
+		this(game, incremental, null);
+	}
+
+	/**
+	 * Constructor of the class with the selected way of printing the board and of choosing the shots.
+	 *
+	 * @param game        The game is going to be played.
+	 * @param incremental If <code>true</code>, only the changed cells are drawn every turn (see
+	 *                    {@link #TextUI(CandyClean, boolean)}).
+	 * @param auto        Player that makes all the shots (auto mode), <code>null</code> to ask the shots to the user.
+	 */
+	public TextUI(CandyClean game, boolean incremental, MctsPlayer auto) {
 		this.game = game;
+		this.console = Channels.newChannel(System.out);
+		this.frame = incremental ? game.newTerminalFrame() : null;
+		this.auto = auto;
+	}
+
+	/**
+	 * Saves the game in the background after every turn.
+	 *
+	 * @param checkpointer Writer of the checkpoints, <code>null</code> to stop saving the game.
+	 */
+	public void setCheckpointer(Checkpointer checkpointer) {
+		this.checkpointer = checkpointer;
 	}
 
 	/**
@@ -63,16 +153,37 @@ public class TextUI {
 		logger.info("Welcome to the Candy Clean Game!");
 		this.game.debugBoard();
 
+		String warning = null;
+
 		while (true) {
 			this.printBoard();
 
+			if (this.checkpointer != null) {
+				this.checkpointer.offer(this.game);
+			}
+
+			// Shown after the board, so the incremental mode doesn't clear it.
+			if (warning != null) {
+				logger.warn(warning);
+				warning = null;
+			}
+
 			try {
-				int inputRow = inputRow();
-				int inputCol = inputColumn();
-				game.shoot(inputRow, inputCol);
+				if (this.auto != null) {
+					if (!this.autoShoot()) {
+						logger.info("There are no legal shots.");
+						break;
+					}
+				} else {
+					int inputRow = inputRow();
+					int inputCol = inputColumn();
+					this.cancelHint();
+					game.shoot(inputRow, inputCol);
+				}
+
 				logger.debug("Valid shoot");
 			} catch (CandyCleanException e) {
-				logger.warn(e.getMessage());
+				warning = e.getMessage();
 			}
 
 			if (this.game.haveWon()) {
@@ -88,13 +199,34 @@ public class TextUI {
 	 *
 	 * @return Number of the row introduced by the player.
 	 *
-	 * @throws CandyCleanException If the row introduced is not an integer value.
+	 * @throws CandyCleanException If the row introduced is not an integer value, or if the player asked to draw the whole
+	 *                             board again or to undo or redo a shot.
 	 */
 	private int inputRow() throws CandyCleanException {
 		logger.trace("Introduce a row to shoot: ");
 		String input = Keyboard.readLine().trim();
 		logger.debug("Row: {}", input);
 
+		if (this.frame != null && REDRAW.equalsIgnoreCase(input)) {
+			this.frame.invalidate();
+			throw new CandyCleanException("Drawing the whole board again.");
+		}
+
+		if (HINT.equalsIgnoreCase(input)) {
+			this.searchHint();
+			throw new CandyCleanException("Searching a hint, it will be shown when it is found.");
+		}
+
+		if (UNDO.equalsIgnoreCase(input)) {
+			this.cancelHint();
+			throw new CandyCleanException(this.game.undo() ? "Last shot undone." : "There is no shot to undo.");
+		}
+
+		if (REDO.equalsIgnoreCase(input)) {
+			this.cancelHint();
+			throw new CandyCleanException(this.game.redo() ? "Last undone shot redone." : "There is no shot to redo.");
+		}
+
 		try {
 			return Integer.parseInt(input);
 		} catch (NumberFormatException e) {
@@ -102,6 +234,46 @@ public class TextUI {
 		}
 	}
 
+	/**
+	 * Makes the shot chosen by the player of the auto mode.
+	 *
+	 * @return <code>true</code> if a shot was made, <code>false</code> if there are no legal shots.
+	 *
+	 * @throws CandyCleanException If the chosen shot can't be made.
+	 */
+	private boolean autoShoot() throws CandyCleanException {
+		Hint shot = this.auto.chooseShot(this.game);
+
+		if (shot == null) {
+			return false;
+		}
+
+		logger.info("{} ({} rollouts/s)", shot, (long) this.auto.getRolloutsPerSecond());
+		this.game.shoot(shot.getRow(), shot.getColumn());
+
+		return true;
+	}
+
+	/**
+	 * Starts searching a hint in other threads, so the player can continue playing. The hint is shown when it is found,
+	 * unless the board changes before.
+	 */
+	private void searchHint() {
+		this.cancelHint();
+		this.pendingHint = this.game.hintAsync(HINT_MILLIS);
+		this.pendingHint.thenAccept(hint -> logger.info(hint == null ? "There are no legal shots." : hint));
+	}
+
+	/**
+	 * Forgets the hint being searched, because the board is going to change.
+	 */
+	private void cancelHint() {
+		if (this.pendingHint != null) {
+			this.pendingHint.cancel(false);
+			this.pendingHint = null;
+		}
+	}
+
 	/**
 	 * Asks the number of the column of the board where the player wants to shoot.
 	 *
@@ -122,10 +294,21 @@ public class TextUI {
 	}
 
 	/**
-	 * Shows the board with colors and numbers.
+	 * Shows the board with colors and numbers. The rendered board (or only its changes in incremental mode) is written
+	 * directly to the console in a single buffer.
 	 */
 	public void printBoard() {
-		logger.trace(this.game);
+		ByteBuffer rendered = this.frame != null ? this.frame.render() : this.game.render();
+
+		try {
+			while (rendered.hasRemaining()) {
+				this.console.write(rendered);
+			}
+
+			System.out.flush();
+		} catch (IOException e) {
+			logger.error(e.getMessage());
+		}
 	}
 
 	/**
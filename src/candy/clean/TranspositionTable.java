@@ -0,0 +1,185 @@
+package candy.clean;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size table of the positions already evaluated by a search, indexed by their {@link ZobristHash}. Every entry
+ * keeps the best known value of a position, the depth of the search that found it and the best shot.
+ *
+ * <p>The table can be used by several threads without locks: every entry is stored in two words, the packed data and
+ * the data XOR the hash, so an entry half written by another thread doesn't match its hash and is ignored. A new entry
+ * replaces the old one in its slot unless the old one is another position searched deeper.</p>
+ *
+ * <p>Bits of the packed data:</p>
+ * <p>0 - Always set, so an empty slot is never a valid entry.</p>
+ * <p>1-16 - Best shot, its row multiplied by the maximum dimensions plus its column ({@link #NO_MOVE} if unknown).</p>
+ * <p>17-24 - Depth of the search (0-255).</p>
+ * <p>25-63 - Value, a signed number of 39 bits.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class TranspositionTable {
+
+	/**
+	 * Result of a probe of a position that isn't in the table.
+	 */
+	public static final long MISS = 0;
+
+	/**
+	 * Best shot of an entry without a known shot.
+	 */
+	public static final int NO_MOVE = 0xFFFF;
+
+	/**
+	 * Maximum depth of an entry.
+	 */
+	public static final int MAX_DEPTH = 0xFF;
+
+	/**
+	 * Highest value of an entry. Higher values are stored as this one.
+	 */
+	public static final long MAX_VALUE = (1L << 38) - 1;
+
+	/**
+	 * Position of the move bits.
+	 */
+	private static final int MOVE_SHIFT = 1;
+
+	/**
+	 * Position of the depth bits.
+	 */
+	private static final int DEPTH_SHIFT = 17;
+
+	/**
+	 * Position of the value bits.
+	 */
+	private static final int VALUE_SHIFT = 25;
+
+	/**
+	 * Two words per slot: the packed data XOR the hash, and the packed data.
+	 */
+	private final AtomicLongArray slots;
+
+	/**
+	 * Mask of the bits of the hash used to choose the slot.
+	 */
+	private final int mask;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param capacity Number of entries of the table, rounded up to a power of 2.
+	 */
+	public TranspositionTable(int capacity) {
+		int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+
+		this.slots = new AtomicLongArray(2 * size);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Returns the number of entries of the table.
+	 *
+	 * @return The capacity of the table.
+	 */
+	public int capacity() {
+		return this.mask + 1;
+	}
+
+	/**
+	 * Looks for a position.
+	 *
+	 * @param hash Hash of the position.
+	 *
+	 * @return The packed data of the position, read with {@link #valueOf(long)}, {@link #depthOf(long)} and
+	 * {@link #moveOf(long)}, or {@link #MISS} if the position isn't in the table.
+	 */
+	public long probe(long hash) {
+		int slot = 2 * ((int) hash & this.mask);
+		long check = this.slots.get(slot);
+		long data = this.slots.get(slot + 1);
+
+		return data != MISS && (check ^ data) == hash ? data : MISS;
+	}
+
+	/**
+	 * Stores the evaluation of a position.
+	 *
+	 * @param hash  Hash of the position.
+	 * @param value Best known value of the position (limited to {@link #MAX_VALUE}).
+	 * @param depth Depth of the search that found the value (limited to {@link #MAX_DEPTH}).
+	 * @param move  Best shot, its row multiplied by the maximum dimensions plus its column, or {@link #NO_MOVE}.
+	 */
+	public void store(long hash, long value, int depth, int move) {
+		int slot = 2 * ((int) hash & this.mask);
+		long old = this.slots.get(slot + 1);
+
+		if (old != MISS && (this.slots.get(slot) ^ old) != hash && depthOf(old) > depth) {
+			return;
+		}
+
+		long data = pack(value, depth, move);
+		this.slots.set(slot + 1, MISS);
+		this.slots.set(slot, data ^ hash);
+		this.slots.set(slot + 1, data);
+	}
+
+	/**
+	 * Removes all the entries.
+	 */
+	public void clear() {
+		for (int i = 0; i < this.slots.length(); i++) {
+			this.slots.set(i, MISS);
+		}
+	}
+
+	/**
+	 * Returns the value of an entry.
+	 *
+	 * @param data The packed data returned by {@link #probe(long)}.
+	 *
+	 * @return The best known value of the position.
+	 */
+	public static long valueOf(long data) {
+		return data >> VALUE_SHIFT;
+	}
+
+	/**
+	 * Returns the depth of an entry.
+	 *
+	 * @param data The packed data returned by {@link #probe(long)}.
+	 *
+	 * @return The depth of the search that found the value.
+	 */
+	public static int depthOf(long data) {
+		return (int) (data >>> DEPTH_SHIFT) & MAX_DEPTH;
+	}
+
+	/**
+	 * Returns the best shot of an entry.
+	 *
+	 * @param data The packed data returned by {@link #probe(long)}.
+	 *
+	 * @return The best shot, its row multiplied by the maximum dimensions plus its column, or {@link #NO_MOVE}.
+	 */
+	public static int moveOf(long data) {
+		return (int) (data >>> MOVE_SHIFT) & NO_MOVE;
+	}
+
+	/**
+	 * Packs the data of an entry.
+	 *
+	 * @param value Value of the position.
+	 * @param depth Depth of the search.
+	 * @param move  Best shot.
+	 *
+	 * @return The packed data, never {@link #MISS}.
+	 */
+	private static long pack(long value, int depth, int move) {
+		long limited = Math.max(-MAX_VALUE, Math.min(MAX_VALUE, value));
+
+		return limited << VALUE_SHIFT | (long) Math.min(Math.max(depth, 0), MAX_DEPTH) << DEPTH_SHIFT |
+				(long) (move & NO_MOVE) << MOVE_SHIFT | 1;
+	}
+}
@@ -0,0 +1,167 @@
+package candy.clean;
+
+/**
+ * Zobrist hash of the cells of a grid. Every position has a random key per color and another per type of special
+ * block, and the hash is the XOR of the keys of all the cells, so it is updated with two XOR operations when a cell
+ * changes instead of reading the whole grid. Empty cells don't change the hash.
+ *
+ * <p>The keys only depend on the position of the cells, so equal boards of the same size always have the same hash.
+ * The score and the generator of the candies aren't part of the hash. The table of the keys has the positions of the
+ * largest level, and it is extended with the same random sequence when a larger pre-designed board is hashed.</p>
+ *
+ * @author Samuel Castrillo Dominguez
+ * @version 1.2.0
+ */
+public final class ZobristHash implements CellListener {
+
+	/**
+	 * Number of keys of every position: one per color and one per type of special block.
+	 */
+	private static final int KEYS_PER_CELL = 2 * (PackedGrid.COLOR_MASK + 1);
+
+	/**
+	 * Seed of the random keys.
+	 */
+	private static final long SEED = 0x5A0B1257L;
+
+	/**
+	 * Random keys, indexed by the position and then by the color or the type of special block. The array is replaced by
+	 * a larger one when a grid has more positions.
+	 */
+	private static volatile long[] keys = newKeys(Constants.MAX_DIMENSIONS * Constants.MAX_DIMENSIONS);
+
+	/**
+	 * Grid whose cells are hashed.
+	 */
+	private final PackedGrid grid;
+
+	/**
+	 * Keys of the positions of the grid.
+	 */
+	private final long[] gridKeys;
+
+	/**
+	 * Current hash of the cells.
+	 */
+	private long hash;
+
+	/**
+	 * Class constructor. The hash of the current cells is computed once, and then it is updated with every change.
+	 *
+	 * @param grid Grid whose cells are hashed. The hash listens to its changes.
+	 */
+	public ZobristHash(PackedGrid grid) {
+		this(grid, computeHash(grid));
+	}
+
+	/**
+	 * Class constructor with a known hash, for a fork of a hashed grid.
+	 *
+	 * @param grid Grid whose cells are hashed.
+	 * @param hash Hash of the current cells of the grid.
+	 */
+	ZobristHash(PackedGrid grid, long hash) {
+		this.grid = grid;
+		this.gridKeys = keysFor(grid);
+		this.hash = hash;
+		grid.addListener(this);
+	}
+
+	/**
+	 * Returns the hash of the current cells.
+	 *
+	 * @return The hash of the grid.
+	 */
+	public long getHash() {
+		return this.hash;
+	}
+
+	@Override
+	public void cellChanged(int index, byte before, byte after) {
+		int position = this.grid.rowOf(index) * this.grid.getColumns() + this.grid.columnOf(index);
+		this.hash ^= key(this.gridKeys, position, before) ^ key(this.gridKeys, position, after);
+	}
+
+	/**
+	 * Computes the hash of all the cells of a grid.
+	 *
+	 * @param grid The grid.
+	 *
+	 * @return The hash of the grid.
+	 */
+	public static long computeHash(PackedGrid grid) {
+		long[] gridKeys = keysFor(grid);
+		long hash = 0;
+
+		for (int i = 0; i < grid.getRows(); i++) {
+			for (int j = 0; j < grid.getColumns(); j++) {
+				hash ^= key(gridKeys, i * grid.getColumns() + j, grid.get(grid.index(i, j)));
+			}
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Returns the key of a cell in a position.
+	 *
+	 * @param gridKeys Keys of the positions of the grid.
+	 * @param position Position of the cell (its row multiplied by the columns of the grid plus its column).
+	 * @param cell     The packed cell.
+	 *
+	 * @return The key of the cell, 0 if it is empty.
+	 */
+	private static long key(long[] gridKeys, int position, byte cell) {
+		int base = position * KEYS_PER_CELL;
+		int color = PackedGrid.colorOf(cell);
+		long key = color == 0 ? 0 : gridKeys[base + color];
+
+		if (PackedGrid.isSpecial(cell)) {
+			key ^= gridKeys[base + PackedGrid.COLOR_MASK + 1 + PackedGrid.typeOf(cell)];
+		}
+
+		return key;
+	}
+
+	/**
+	 * Returns the keys with all the positions of a grid, extending the table if the grid is larger than the largest
+	 * hashed grid.
+	 *
+	 * @param grid The grid.
+	 *
+	 * @return The keys.
+	 */
+	private static long[] keysFor(PackedGrid grid) {
+		long[] current = keys;
+
+		if (current.length >= grid.size() * KEYS_PER_CELL) {
+			return current;
+		}
+
+		synchronized (ZobristHash.class) {
+			if (keys.length < grid.size() * KEYS_PER_CELL) {
+				keys = newKeys(grid.size());
+			}
+
+			return keys;
+		}
+	}
+
+	/**
+	 * Creates the random keys of a number of positions. The keys of the first positions are always the same.
+	 *
+	 * @param positions Number of positions.
+	 *
+	 * @return The keys.
+	 */
+	private static long[] newKeys(int positions) {
+		CandySource random = new CandySource(SEED, Constants.MAX_COLORS, 1);
+		long[] created = new long[positions * KEYS_PER_CELL];
+
+		for (int i = 0; i < created.length; i++) {
+			created[i] = random.nextLong(0);
+		}
+
+		return created;
+	}
+}
@@ -5,7 +5,18 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({BlockTest.class, BoardTest.class, CandyCleanTest.class, ColorTest.class})
+@SuiteClasses({BlockTest.class, BoardTest.class, CandyCleanTest.class, ColorTest.class, PackedGridTest.class, FloodFillTest.class, BitBoardTest.class,
+		GravityTest.class, CandySourceTest.class, BoardRendererTest.class,
+		TerminalFrameTest.class, ComponentIndexTest.class, MoveListTest.class,
+		BoardSnapshotTest.class, ShotJournalTest.class,
+		ZobristHashTest.class, TranspositionTableTest.class, SimulatorTest.class,
+		LatencyHistogramTest.class, HintEngineTest.class,
+		MctsPlayerTest.class, PuzzleSolverTest.class,
+		CorpusReaderTest.class, CorpusProcessorTest.class,
+		GameServerTest.class,
+		BoardCodecTest.class, SessionStoreTest.class,
+		GameFileTest.class, CheckpointerTest.class,
+		ReplayerTest.class, BoardDeltaTest.class})
 
 public class AllTests {
 
@@ -0,0 +1,140 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BitBoardTest {
+
+	private static String[] randomBoard(Random random, int rows, int columns, int numColors) {
+		String[] board = new String[rows];
+
+		for (int i = 0; i < rows; i++) {
+			StringBuilder row = new StringBuilder();
+			for (int j = 0; j < columns; j++) {
+				row.append(PackedGrid.LETTERS.charAt(random.nextInt(numColors) + 1));
+			}
+			board[i] = row.toString();
+		}
+
+		return board;
+	}
+
+	private static PackedGrid gridOf(String... rows) {
+		PackedGrid grid = new PackedGrid(rows.length, rows[0].length());
+
+		for (int i = 0; i < rows.length; i++) {
+			for (int j = 0; j < rows[i].length(); j++) {
+				grid.set(grid.index(i, j), PackedGrid.pack(rows[i].charAt(j)));
+			}
+		}
+
+		return grid;
+	}
+
+	@Test
+	public void testRegionLikeFloodFill() {
+		Random random = new Random(7);
+
+		for (int size = Constants.MIN_DIMENSIONS; size <= Constants.MAX_DIMENSIONS; size += 4) {
+			PackedGrid grid = gridOf(randomBoard(random, size, size, 3));
+			BitBoard bits = new BitBoard(size, size);
+			FloodFill fill = new FloodFill(grid);
+			long[] region = bits.newSet();
+			bits.load(grid);
+
+			for (int i = 0; i < size; i++) {
+				for (int j = 0; j < size; j++) {
+					assertEquals(fill.fill(i, j), bits.region(i, j, region));
+
+					for (int k = 0; k < fill.getCount(); k++) {
+						int cell = fill.getCell(k);
+						assertTrue(BitBoard.testBit(region, bits.bit(grid.rowOf(cell), grid.columnOf(cell))));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRegionDoesNotWrapRows() {
+		PackedGrid grid = gridOf("GGR", "RGG", "GRR");
+		BitBoard bits = new BitBoard(3, 3);
+		bits.load(grid);
+
+		assertEquals(4, bits.region(0, 0, bits.newSet()));
+		assertEquals(1, bits.region(0, 2, bits.newSet()));
+		assertEquals(1, bits.region(1, 0, bits.newSet()));
+		assertEquals(1, bits.region(2, 0, bits.newSet()));
+	}
+
+	@Test
+	public void testHasSurroundingBlocks() {
+		PackedGrid grid = gridOf("RGB", "RBY");
+		BitBoard bits = new BitBoard(2, 3);
+		bits.load(grid);
+
+		assertTrue(bits.hasSurroundingBlocks(0, 0));
+		assertTrue(bits.hasSurroundingBlocks(1, 0));
+		assertFalse(bits.hasSurroundingBlocks(0, 1));
+		assertFalse(bits.hasSurroundingBlocks(0, 2));
+
+		grid.set(grid.index(0, 2), PackedGrid.pack(BackgroundColor.BLUE.ordinal(), Constants.ROW_TYPE, true));
+		bits.load(grid);
+		assertTrue(bits.hasSurroundingBlocks(0, 2));
+	}
+
+	@Test
+	public void testExplosionChain() {
+		PackedGrid grid = gridOf("RRRRR", "GGGGG", "BBBBB", "YYYYY", "RRRRR");
+		grid.set(grid.index(0, 0), PackedGrid.pack(1, Constants.ROW_TYPE, true));
+		grid.set(grid.index(0, 3), PackedGrid.pack(1, Constants.COLUMN_TYPE, true));
+		grid.set(grid.index(4, 3), PackedGrid.pack(1, Constants.ROW_TYPE, true));
+		BitBoard bits = new BitBoard(5, 5);
+		long[] explosion = bits.newSet();
+		bits.load(grid);
+
+		// Row 0, column 3 and row 4.
+		assertEquals(13, bits.explosion(0, 0, explosion));
+		assertTrue(BitBoard.testBit(explosion, bits.bit(2, 3)));
+		assertFalse(BitBoard.testBit(explosion, bits.bit(2, 2)));
+	}
+
+	@Test
+	public void testAllBoardExplosion() {
+		PackedGrid grid = gridOf("RGB", "RBY", "GGG");
+		grid.set(grid.index(1, 1), PackedGrid.pack(4, Constants.ALL_BOARD_TYPE, true));
+		BitBoard bits = new BitBoard(3, 3);
+		bits.load(grid);
+
+		assertEquals(9, bits.explosion(1, 1, bits.newSet()));
+	}
+
+	@Test
+	public void testBoardModesGiveTheSameResult() throws CandyCleanException {
+		Random random = new Random(11);
+		String[] stringBoard = randomBoard(random, 12, 12, 3);
+		Board classic = new Board(stringBoard, 3, new Score(100000));
+		Board bits = new Board(stringBoard, 3, new Score(100000));
+		bits.setBitBoardMode(true);
+		assertTrue(bits.isBitBoardMode());
+
+		classic.getTable()[5][5].setSpecialBlock(Constants.ROW_COLUMN_TYPE);
+		bits.getTable()[5][5].setSpecialBlock(Constants.ROW_COLUMN_TYPE);
+
+		for (int shot = 0; shot < 40; shot++) {
+			int row = random.nextInt(12);
+			int column = random.nextInt(12);
+			assertEquals(classic.hasSurroundingBlocks(row, column), bits.hasSurroundingBlocks(row, column));
+
+			if (classic.hasSurroundingBlocks(row, column)) {
+				classic.shoot(row, column);
+				bits.shoot(row, column);
+				assertEquals(classic.debugBoard(), bits.debugBoard());
+				assertEquals(classic.toString(), bits.toString());
+			}
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class BoardCodecTest {
+
+	private static Board roundTrip(Board board) throws CandyCleanException {
+		ByteBuffer buffer = ByteBuffer.allocate(BoardCodec.maxEncodedLength(board));
+		BoardCodec.encode(board, buffer);
+		buffer.flip();
+
+		Board decoded = BoardCodec.decode(buffer);
+		assertFalse(buffer.hasRemaining());
+
+		return decoded;
+	}
+
+	private static void play(Board board, int shots) {
+		MoveList moves = new MoveList(16);
+
+		for (int i = 0; i < shots && board.generateMoves(moves) > 0; i++) {
+			board.tryShoot(moves.getRow(i % moves.size()), moves.getColumn(i % moves.size()));
+		}
+	}
+
+	@Test
+	public void testContinuesTheSameGame() throws CandyCleanException {
+		Board board = new CandyClean(Level.EXTREME, ScoringRules.EXPERT, 77).getBoard();
+		play(board, 10);
+		board.tryShoot(100, 100);
+
+		Board decoded = roundTrip(board);
+
+		assertEquals(board.debugBoard(), decoded.debugBoard());
+		assertEquals(board.getHash(), decoded.getHash());
+		assertEquals(board.getSeed(), decoded.getSeed());
+		assertSame(ScoringRules.EXPERT, decoded.getScore().getRules());
+		assertEquals(board.getScore().getPunctuation(), decoded.getScore().getPunctuation());
+		assertEquals(board.getScore().getMultiplier(), decoded.getScore().getMultiplier());
+		assertEquals(board.getScore().getStreak(), decoded.getScore().getStreak());
+
+		play(board, 20);
+		play(decoded, 20);
+		assertEquals(board.debugBoard(), decoded.debugBoard());
+		assertEquals(board.getScore().getPunctuation(), decoded.getScore().getPunctuation());
+	}
+
+	@Test
+	public void testPredefinedBoardWithCustomRules() throws CandyCleanException {
+		ScoringRules rules = new ScoringRules(7, new int[] {1, 3}, 2, 2, 3, 5, 4);
+		Board board = new Board(new String[] {"RRG", "GBB", "RRE"}, 4, new Score(300, rules));
+		board.tryShoot(0, 0);
+
+		Board decoded = roundTrip(board);
+
+		assertFalse(decoded.isRefilled());
+		assertEquals(board.debugBoard(), decoded.debugBoard());
+
+		board.tryShoot(1, 1);
+		decoded.tryShoot(1, 1);
+		board.tryShoot(2, 2);
+		decoded.tryShoot(2, 2);
+		assertEquals(board.getScore().getPunctuation(), decoded.getScore().getPunctuation());
+		assertEquals(board.getScore().getMultiplier(), decoded.getScore().getMultiplier());
+	}
+
+	@Test
+	public void testSpecialBlocks() throws CandyCleanException {
+		Board board = new CandyClean().getBoard();
+		board.tryShoot(14, 14);
+		board.tryShoot(0, 1);
+
+		Board decoded = roundTrip(board);
+		BoardSnapshot expected = board.snapshot();
+		BoardSnapshot actual = decoded.snapshot();
+
+		for (int i = 0; i < expected.getRows(); i++) {
+			for (int j = 0; j < expected.getColumns(); j++) {
+				assertEquals(expected.getLetter(i, j), actual.getLetter(i, j));
+				assertEquals(expected.isSpecial(i, j), actual.isSpecial(i, j));
+				assertEquals(expected.getType(i, j), actual.getType(i, j));
+			}
+		}
+
+		assertEquals(board.getHash(), decoded.getHash());
+	}
+
+	@Test(expected = CandyCleanException.class)
+	public void testIncompleteBoard() throws CandyCleanException {
+		Board board = new CandyClean(Level.EASY, 1).getBoard();
+		ByteBuffer buffer = ByteBuffer.allocate(BoardCodec.maxEncodedLength(board));
+		BoardCodec.encode(board, buffer);
+		buffer.flip();
+		buffer.limit(buffer.limit() - 1);
+
+		BoardCodec.decode(buffer);
+	}
+}
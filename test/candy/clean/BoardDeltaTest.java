@@ -0,0 +1,102 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class BoardDeltaTest {
+
+	private static void assertMirrored(Board board, Board mirror) {
+		assertEquals(board.debugBoard(), mirror.debugBoard());
+		assertEquals(board.getHash(), mirror.getHash());
+		assertEquals(board.getScore().getPunctuation(), mirror.getScore().getPunctuation());
+		assertEquals(board.getScore().getMultiplier(), mirror.getScore().getMultiplier());
+		assertEquals(board.getScore().getStreak(), mirror.getScore().getStreak());
+	}
+
+	@Test
+	public void testMirrorOfLargeBoard() throws CandyCleanException {
+		Board board = new Board(35, 7, new Score(1000000, ScoringRules.EXPERT), 42);
+		Board mirror = board.fork();
+		BoardDelta delta = new BoardDelta();
+		MoveList moves = new MoveList(64);
+		long bytes = 0;
+		int shots = 0;
+
+		board.setDelta(delta);
+
+		for (int i = 0; i < 300 && board.generateMoves(moves) > 0; i++) {
+			board.tryShoot(moves.getRow(i % moves.size()), moves.getColumn(i % moves.size()));
+			ByteBuffer encoded = delta.getBuffer();
+
+			bytes += encoded.remaining();
+			shots++;
+			BoardDelta.apply(encoded, mirror);
+			assertFalse(encoded.hasRemaining());
+			assertMirrored(board, mirror);
+		}
+
+		assertEquals(300, shots);
+		// A few dozen bytes per shot, far less than the 35x35 board.
+		assertTrue(bytes / shots < 64);
+	}
+
+	@Test
+	public void testSpecialBlocksAndInvalidShots() throws CandyCleanException {
+		Board board = new Board(new String[] {"RRRRR", "GGBGG", "BBRBB", "GGRGG"}, 3, new Score());
+		Board mirror = board.fork();
+		BoardDelta delta = new BoardDelta();
+
+		board.setDelta(delta);
+		board.tryShoot(0, 0);
+		BoardDelta.apply(delta.getBuffer(), mirror);
+		assertMirrored(board, mirror);
+		assertTrue(delta.getChangedCount() > 0);
+
+		board.tryShoot(-1, 3);
+		assertEquals(0, delta.getChangedCount());
+		BoardDelta.apply(delta.getBuffer(), mirror);
+		assertMirrored(board, mirror);
+
+		board.tryShoot(0, 0);
+		BoardDelta.apply(delta.getBuffer(), mirror);
+		assertMirrored(board, mirror);
+	}
+
+	@Test
+	public void testUndoIsNotEncoded() throws CandyCleanException {
+		Board board = new Board(9, 3, new Score(), 7);
+		BoardDelta delta = new BoardDelta();
+		MoveList moves = new MoveList(16);
+
+		board.setJournal(new ShotJournal(Constants.UNDO_MAX_BYTES));
+		board.setDelta(delta);
+		board.generateMoves(moves);
+		board.tryShoot(moves.getRow(0), moves.getColumn(0));
+		int changed = delta.getChangedCount();
+
+		assertTrue(board.undo());
+		assertEquals(changed, delta.getChangedCount());
+	}
+
+	@Test
+	public void testInvalidDelta() {
+		Board mirror = new Board(new String[] {"RG", "GR"}, 2, new Score());
+
+		try {
+			BoardDelta.apply(ByteBuffer.wrap(new byte[] {0, 1, 0, 1, 5, 0, 1, 0}), mirror);
+			fail();
+		} catch (CandyCleanException e) {
+			assertEquals("The delta of the board isn't valid.", e.getMessage());
+		}
+
+		try {
+			BoardDelta.apply(ByteBuffer.wrap(new byte[] {0, 1, 0, 1, 0, 0, 2}), mirror);
+			fail();
+		} catch (CandyCleanException e) {
+			assertEquals("The delta of the board is incomplete.", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class BoardRendererTest {
+
+	private static String cell(char letter) {
+		return new Block(letter).toString();
+	}
+
+	@Test
+	public void testRender() {
+		Score score = new Score(100);
+		Board board = new Board(new String[] {"RGB", "RBY"}, 4, score);
+		String expected = score + "\n        \n  |0|1|2|\n" +
+				" 0|" + cell('R') + cell('G') + cell('B') + "\n" +
+				" 1|" + cell('R') + cell('B') + cell('Y') + "\n";
+
+		assertEquals(expected, StandardCharsets.US_ASCII.decode(board.render()).toString());
+		assertEquals(expected, board.toString());
+	}
+
+	@Test
+	public void testRenderToAppendable() throws IOException {
+		Board board = new Board(new String[] {"RRG", "GBB"}, 4, new Score(100));
+		StringBuilder out = new StringBuilder();
+
+		board.renderTo(out);
+		assertEquals(board.toString(), out.toString());
+	}
+
+	@Test
+	public void testSpecialCellsAndScore() throws CandyCleanException {
+		Score score = new Score(1234);
+		Board board = new Board(new String[] {"RRRRR", "GGBGG"}, 4, score);
+		board.getTable()[1][2].setType(Constants.ROW_COLUMN_TYPE);
+		board.shoot(0, 0);
+
+		String rendered = StandardCharsets.US_ASCII.decode(board.render()).toString();
+		assertTrue(rendered.startsWith(score.toString()));
+		assertTrue(rendered.contains(Color.BLACK_BLINK + "RC"));
+	}
+
+	@Test
+	public void testReusedBuffer() {
+		Board board = new Board(new String[] {"RGB"}, 4, new Score(100));
+		ByteBuffer first = board.render();
+		int length = first.remaining();
+
+		assertSame(first, board.render());
+		assertEquals(length, board.render().remaining());
+	}
+
+	@Test
+	public void testLargestBoardFits() throws CandyCleanException {
+		Score score = new Score(Integer.MAX_VALUE);
+		Board board = new Board(Constants.MAX_DIMENSIONS, Constants.MAX_COLORS, score);
+
+		assertEquals(board.toString().length(), board.render().remaining());
+		assertTrue(board.render().remaining() <=
+				BoardRenderer.maxFrameLength(Constants.MAX_DIMENSIONS, Constants.MAX_DIMENSIONS));
+	}
+}
@@ -0,0 +1,104 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BoardSnapshotTest {
+
+	@Test
+	public void testForkIsIndependent() throws CandyCleanException {
+		Board board = new Board(new String[] {"RRG", "GRG", "GBB"}, 4, new Score(100));
+		Board fork = board.fork();
+		String before = board.debugBoard();
+
+		fork.shoot(0, 0);
+		assertEquals(before, board.debugBoard());
+		assertNotEquals(before, fork.debugBoard());
+		assertEquals(0, board.getScore().getPunctuation());
+		assertEquals(30, fork.getScore().getPunctuation());
+		assertEquals(1, fork.getScore().getStreak());
+		assertEquals(0, board.getScore().getStreak());
+	}
+
+	@Test
+	public void testForkContinuesTheSameGame() throws CandyCleanException {
+		Board board = new Board(9, 3, new Score(1000), 5);
+		MoveList moves = new MoveList(81);
+
+		board.generateMoves(moves);
+		board.tryShoot(moves.getRow(0), moves.getColumn(0));
+
+		Board fork = board.fork();
+
+		for (int turn = 0; turn < 10 && board.generateMoves(moves) > 0; turn++) {
+			board.tryShoot(moves.getRow(0), moves.getColumn(0));
+			fork.tryShoot(moves.getRow(0), moves.getColumn(0));
+			assertEquals(board.debugBoard(), fork.debugBoard());
+			assertEquals(board.getScore().getPunctuation(), fork.getScore().getPunctuation());
+			assertEquals(board.getScore().getMultiplier(), fork.getScore().getMultiplier());
+		}
+	}
+
+	@Test
+	public void testSnapshotDoesNotChange() throws CandyCleanException {
+		Board board = new Board(new String[] {"RRG", "GRG", "GBB"}, 4, new Score(100));
+		BoardSnapshot snapshot = board.snapshot();
+
+		board.shoot(0, 0);
+		assertEquals('R', snapshot.getLetter(0, 0));
+		assertEquals('R', snapshot.getLetter(1, 1));
+		assertEquals(0, snapshot.getPunctuation());
+		assertEquals(100, snapshot.getObjective());
+		assertEquals(1, snapshot.getMultiplier());
+		assertEquals(3, snapshot.getRows());
+		assertEquals(3, snapshot.getColumns());
+		assertFalse(snapshot.isSpecial(0, 0));
+
+		Board fork = snapshot.fork();
+		fork.shoot(0, 0);
+		assertEquals(board.debugBoard(), fork.debugBoard());
+		assertEquals('R', snapshot.getLetter(0, 0));
+	}
+
+	@Test
+	public void testGameFork() throws CandyCleanException {
+		CandyClean game = new CandyClean(7, 3, 1000, 11);
+		CandyClean fork = game.fork();
+
+		assertEquals(game.getSeed(), fork.getSeed());
+		assertEquals(game.debugBoard(), fork.debugBoard());
+		assertEquals(game.debugBoard(), new CandyClean(game.snapshot().fork()).debugBoard());
+	}
+
+	@Test
+	public void testSnapshotReadByManyThreads() throws CandyCleanException, InterruptedException {
+		Board board = new Board(12, 4, new Score(1000), 9);
+		BoardSnapshot snapshot = board.snapshot();
+		long hash = board.getHash();
+		String text = board.toString();
+		Thread[] threads = new Thread[4];
+		AtomicInteger mismatches = new AtomicInteger();
+
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 200; i++) {
+					Board fork = snapshot.fork();
+
+					if (snapshot.getHash() != hash || fork.getHash() != hash || !text.equals(snapshot.toString())) {
+						mismatches.incrementAndGet();
+					}
+				}
+			});
+			threads[t].start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(0, mismatches.get());
+	}
+}
@@ -104,11 +104,11 @@ public class BoardTest {
 		specialTable.shoot(1, 1); // Default block in removeBlocks
 		specialTable.shoot(14, 14); // All Board Candy
 		specialTable.shoot(1, 0); // Column Candy
-		specialTable.shoot(1, 2); // Row Candy
-		specialTable.shoot(3, 4); // Row/Column Candy
+		assertEquals(ShotResult.Status.NO_SURROUNDING_BLOCKS, specialTable.tryShoot(1, 2).getStatus()); // Empty spot
+		assertEquals(ShotResult.Status.NO_SURROUNDING_BLOCKS, specialTable.tryShoot(3, 4).getStatus()); // Empty spot
 
 		specialTable.shoot(14, 0); // Column Candy
-		specialTable.shoot(1, 2); // Row Candy
+		assertEquals(ShotResult.Status.NO_SURROUNDING_BLOCKS, specialTable.tryShoot(1, 2).getStatus()); // Empty spot
 		specialTable.shoot(9, 4); // Row/Column Candy
 		specialTable.shoot(14, 14); // All Board Candy
 	}
@@ -134,6 +134,19 @@ public class BoardTest {
 		assertEquals(Constants.NORMAL_TYPE, aux[14][12].getType());
 	}
 
+	@Test
+	public void testSpecialBlocksReachingEachOther() throws CandyCleanException {
+		Block[][] aux = predefinedBoard.getTable();
+
+		aux[0][1].setSpecialBlock(Constants.ROW_TYPE);
+		aux[0][3].setSpecialBlock(Constants.ROW_TYPE);
+		aux[0][2].setSpecialBlock(Constants.COLUMN_TYPE);
+
+		predefinedBoard.shoot(0, 3);
+
+		assertEquals("EEEEE BBERR BBEBB GGEBB BBEGG ", predefinedBoard.debugBoard());
+	}
+
 	@Test
 	public void testHasSurroundingBlocks() {
 		assertTrue(predefinedBoard.hasSurroundingBlocks(0, 0));
@@ -158,4 +171,53 @@ public class BoardTest {
 						"  |1|1|1|1|1|\n  |0|1|2|3|4|5|6|7|8|9|0|1|2|3|4|",
 				board15.toString().substring(0, 133));
 	}
+
+	@Test
+	public void testTryShoot() {
+		ShotResult result = smallBoard.tryShoot(0, 0);
+		assertTrue(result.isValid());
+		assertEquals(2, result.getCleared());
+		assertEquals(20, result.getScoreDelta());
+		assertEquals("EGB EBY ", smallBoard.debugBoard());
+
+		assertSame(result, smallBoard.tryShoot(0, 1));
+		assertEquals(ShotResult.Status.NO_SURROUNDING_BLOCKS, result.getStatus());
+		assertEquals(0, result.getCleared());
+		assertEquals(-10, result.getScoreDelta());
+
+		assertEquals(ShotResult.Status.OUT_OF_BOUNDS, smallBoard.tryShoot(5, 0).getStatus());
+		assertEquals(-10, result.getScoreDelta());
+		assertEquals("EGB EBY ", smallBoard.debugBoard());
+	}
+
+	@Test
+	public void testShootWithoutStackTrace() {
+		try {
+			smallBoard.shoot(0, 1);
+			fail();
+		} catch (CandyCleanException e) {
+			assertEquals(0, e.getStackTrace().length);
+			assertEquals("The selected block doesn't have any surrounding blocks with the same color", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testShootBlankSpot() {
+		smallBoard.tryShoot(0, 0);
+		assertEquals("EGB EBY ", smallBoard.debugBoard());
+		assertFalse(smallBoard.isValidShot(0, 0));
+		assertFalse(smallBoard.hasSurroundingBlocks(1, 0));
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals(ShotResult.Status.NO_SURROUNDING_BLOCKS, smallBoard.tryShoot(i % 2, 0).getStatus());
+		}
+
+		assertEquals(1, smallBoard.getScore().getMultiplier());
+		assertEquals(0, smallBoard.getScore().getStreak());
+		assertEquals("EGB EBY ", smallBoard.debugBoard());
+
+		smallBoard.setBitBoardMode(true);
+		assertFalse(smallBoard.hasSurroundingBlocks(0, 0));
+		assertEquals(ShotResult.Status.NO_SURROUNDING_BLOCKS, smallBoard.tryShoot(1, 0).getStatus());
+	}
 }
@@ -22,6 +22,28 @@ public class CandyCleanTest {
 		assertNotEquals(otherBoard.toString(), candy1.toString());
 	}
 
+	@Test
+	public void testSameSeed() throws CandyCleanException {
+		CandyClean game = new CandyClean(16, 5, 1, 42);
+		CandyClean replay = new CandyClean(16, 5, 1, game.getSeed());
+		assertEquals(42, replay.getSeed());
+		assertEquals(game.debugBoard(), replay.debugBoard());
+
+		for (int i = 0; i < 16; i++) {
+			assertEquals(shot(game, i, i), shot(replay, i, i));
+			assertEquals(game.debugBoard(), replay.debugBoard());
+		}
+	}
+
+	private static boolean shot(CandyClean game, int row, int column) {
+		try {
+			game.shoot(row, column);
+			return true;
+		} catch (CandyCleanException e) {
+			return false;
+		}
+	}
+
 	@Test(expected = CandyCleanException.class)
 	public void testNegativeDimensions() throws CandyCleanException {
 		new CandyClean(-2, 5, 1);
@@ -51,12 +73,12 @@ public class CandyCleanTest {
 	public void testHaveWon() throws CandyCleanException {
 		predefinedBoard.shoot(0, 0);
 		predefinedBoard.shoot(1, 1);
-		predefinedBoard.shoot(2, 2);
-		predefinedBoard.shoot(3, 3);
+		assertEquals(ShotResult.Status.NO_SURROUNDING_BLOCKS, predefinedBoard.tryShoot(2, 2).getStatus()); // Empty spot
+		assertEquals(ShotResult.Status.NO_SURROUNDING_BLOCKS, predefinedBoard.tryShoot(3, 3).getStatus()); // Empty spot
 		predefinedBoard.shoot(4, 4);
 		predefinedBoard.shoot(5, 5);
-		predefinedBoard.shoot(6, 6);
-		predefinedBoard.shoot(8, 8);
+		assertEquals(ShotResult.Status.NO_SURROUNDING_BLOCKS, predefinedBoard.tryShoot(6, 6).getStatus()); // Empty spot
+		assertEquals(ShotResult.Status.NO_SURROUNDING_BLOCKS, predefinedBoard.tryShoot(8, 8).getStatus()); // Empty spot
 
 		assertTrue(predefinedBoard.haveWon());
 	}
@@ -89,4 +111,26 @@ public class CandyCleanTest {
 	public void testShootReset() throws CandyCleanException {
 		predefinedBoard.shoot(-1, 4);
 	}
+
+	@Test
+	public void testLevels() throws CandyCleanException {
+		for (Level level : Level.values()) {
+			CandyClean game = new CandyClean(level, 1);
+			assertTrue(game.toString().contains("Objective = " + level.getObjective()));
+		}
+
+		assertEquals(Level.EASY, Level.of(1));
+	}
+
+	@Test
+	public void testLevelsUseClassicRules() throws CandyCleanException {
+		for (Level level : Level.values()) {
+			assertSame(ScoringRules.CLASSIC, level.getRules());
+		}
+
+		CandyClean expert = new CandyClean(Level.MASTER, ScoringRules.EXPERT, 3);
+
+		assertSame(ScoringRules.EXPERT, expert.getBoard().getScore().getRules());
+		assertSame(ScoringRules.CLASSIC, new CandyClean(Level.MASTER, 3).getBoard().getScore().getRules());
+	}
 }
@@ -0,0 +1,67 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CandySourceTest {
+
+	@Test
+	public void testSameSeed() {
+		CandySource source = new CandySource(7, 5, 4);
+		CandySource other = new CandySource(7, 5, 4);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(source.nextCandy(i % 4), other.nextCandy(i % 4));
+		}
+	}
+
+	@Test
+	public void testIndependentColumns() {
+		CandySource source = new CandySource(7, 5, 3);
+		CandySource other = new CandySource(7, 5, 3);
+		long[] expected = new long[10];
+
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = source.nextLong(2);
+		}
+
+		for (int i = 0; i < 50; i++) {
+			other.nextLong(0);
+			other.nextLong(1);
+		}
+
+		for (long number : expected) {
+			assertEquals(number, other.nextLong(2));
+		}
+	}
+
+	@Test
+	public void testColors() {
+		CandySource source = new CandySource(123, 3, 1);
+		boolean[] seen = new boolean[PackedGrid.LETTERS.length()];
+
+		for (int i = 0; i < 1000; i++) {
+			byte candy = source.nextCandy(0);
+			assertFalse(PackedGrid.isSpecial(candy));
+			seen[PackedGrid.colorOf(candy)] = true;
+		}
+
+		assertFalse(seen[0]);
+		assertTrue(seen[1] && seen[2] && seen[3]);
+		assertFalse(seen[4]);
+	}
+
+	@Test
+	public void testCopyAndSplit() {
+		CandySource source = new CandySource(99, 6, 2);
+		source.nextLong(0);
+
+		CandySource copy = new CandySource(source);
+		assertEquals(source.getSeed(), copy.getSeed());
+		assertEquals(source.nextLong(0), copy.nextLong(0));
+
+		CandySource split = source.split();
+		assertNotEquals(source.nextLong(1), split.nextLong(1));
+	}
+}
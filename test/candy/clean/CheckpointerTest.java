@@ -0,0 +1,46 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class CheckpointerTest {
+
+	@Test
+	public void testWritesTheLastState() throws IOException, CandyCleanException, InterruptedException {
+		Path directory = Files.createTempDirectory("checkpoints");
+		Path file = directory.resolve("game.sav");
+		CandyClean game = new CandyClean(Level.MEDIUM, 3);
+		MoveList moves = new MoveList(16);
+
+		try {
+			try (Checkpointer checkpointer = new Checkpointer(file, 20)) {
+				checkpointer.offer(game);
+
+				for (int i = 0; i < 200 && checkpointer.getWritten() == 0; i++) {
+					Thread.sleep(10);
+				}
+
+				assertEquals(1, checkpointer.getWritten());
+				assertEquals(game.debugBoard(), CandyClean.load(file).debugBoard());
+
+				for (int i = 0; i < 3; i++) {
+					game.generateMoves(moves);
+					game.tryShoot(moves.getRow(0), moves.getColumn(0));
+					checkpointer.offer(game);
+				}
+			}
+
+			CandyClean loaded = CandyClean.load(file);
+			assertEquals(game.debugBoard(), loaded.debugBoard());
+			assertEquals(game.getPunctuation(), loaded.getPunctuation());
+		} finally {
+			Files.deleteIfExists(file);
+			Files.delete(directory);
+		}
+	}
+}
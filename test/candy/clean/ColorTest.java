@@ -91,4 +91,25 @@ public class ColorTest {
 		assertEquals("\u001B[45mPP\u001B[0m", purple.toString("PP"));
 	}
 
+	@Test
+	public void testPalette() {
+		assertSame(Color.of(BackgroundColor.PURPLE), Color.of(5));
+		assertEquals(purple, Color.of(BackgroundColor.PURPLE));
+		assertEquals(purple.hashCode(), Color.of(5).hashCode());
+		assertEquals(BackgroundColor.CYAN.ordinal(), Color.of(BackgroundColor.CYAN).getOrdinal());
+	}
+
+	@Test
+	public void testCompareTo() {
+		assertEquals(0, black.compareTo(otherBlack));
+		assertTrue(red.compareTo(white) < 0);
+		assertTrue(white.compareTo(green) > 0);
+	}
+
+	@Test
+	public void testGetCell() {
+		assertEquals("\u001B[45m  \u001B[0m", purple.getCell(Constants.NORMAL_TYPE));
+		assertEquals("\u001B[45m" + Color.BLACK_BLINK + "RC\u001B[0m", purple.getCell(Constants.ROW_COLUMN_TYPE));
+		assertEquals("\u001B[45m  \u001B[0m", purple.getCell(7));
+	}
 }
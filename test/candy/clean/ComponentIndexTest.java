@@ -0,0 +1,95 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ComponentIndexTest {
+
+	private static void assertSameAsSearch(Board board) {
+		Block[][] table = board.getTable();
+		PackedGrid grid = new PackedGrid(table.length, table[0].length);
+
+		for (int i = 0; i < table.length; i++) {
+			for (int j = 0; j < table[i].length; j++) {
+				grid.set(grid.index(i, j), PackedGrid.pack(table[i][j].getLetter()));
+			}
+		}
+
+		FloodFill fill = new FloodFill(grid);
+		int legal = 0;
+
+		for (int i = 0; i < table.length; i++) {
+			for (int j = 0; j < table[i].length; j++) {
+				assertEquals(fill.fill(i, j), board.groupSize(i, j));
+				assertEquals(board.hasSurroundingBlocks(i, j), board.isValidShot(i, j));
+
+				if (!table[i][j].isBlank() && board.hasSurroundingBlocks(i, j)) {
+					legal++;
+				}
+			}
+		}
+
+		assertEquals(legal, board.getLegalMoveCount());
+	}
+
+	@Test
+	public void testGroups() {
+		Board board = new Board(new String[] {"RRG", "GRG", "GBB"}, 4, new Score(100));
+
+		assertEquals(3, board.groupSize(0, 0));
+		assertEquals(2, board.groupSize(1, 0));
+		assertEquals(2, board.groupSize(2, 2));
+		assertTrue(board.isValidShot(0, 1));
+		assertFalse(board.isValidShot(-1, 0));
+		assertEquals(9, board.getLegalMoveCount());
+	}
+
+	@Test
+	public void testSingleBlocks() {
+		Board board = new Board(new String[] {"RGB", "GBR"}, 4, new Score(100));
+
+		assertEquals(1, board.groupSize(0, 0));
+		assertFalse(board.isValidShot(0, 0));
+		assertEquals(0, board.getLegalMoveCount());
+	}
+
+	@Test
+	public void testIncrementalUpdates() throws CandyCleanException {
+		Random random = new Random(5);
+
+		for (long seed = 0; seed < 20; seed++) {
+			Board board = new Board(12, 4, new Score(100), seed);
+			assertSameAsSearch(board);
+
+			for (int shot = 0; shot < 30; shot++) {
+				board.tryShoot(random.nextInt(12), random.nextInt(12));
+				assertSameAsSearch(board);
+			}
+		}
+	}
+
+	@Test
+	public void testChangesOutsideOfShots() {
+		Board board = new Board(new String[] {"RRG", "GRG", "GBB"}, 4, new Score(100));
+		assertEquals(3, board.groupSize(0, 0));
+
+		board.getTable()[1][0].setColor('R');
+		assertEquals(4, board.groupSize(0, 0));
+		assertSameAsSearch(board);
+	}
+
+	@Test
+	public void testSpecialBlocks() {
+		Board board = new Board(new String[] {"RGB", "GBR", "RRR"}, 4, new Score(100));
+		board.getTable()[0][0].setType(Constants.ROW_TYPE);
+
+		assertTrue(board.isValidShot(0, 0));
+		assertSameAsSearch(board);
+
+		board.tryShoot(0, 0);
+		assertSameAsSearch(board);
+	}
+}
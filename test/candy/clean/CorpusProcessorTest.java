@@ -0,0 +1,80 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CorpusProcessorTest {
+
+	private static String corpus(int boards, long seed) {
+		Random random = new Random(seed);
+		StringBuilder corpus = new StringBuilder();
+
+		for (int n = 0; n < boards; n++) {
+			int rows = 2 + random.nextInt(3);
+			int columns = 2 + random.nextInt(3);
+
+			for (int i = 0; i < rows; i++) {
+				for (int j = 0; j < columns; j++) {
+					corpus.append("RGB".charAt(random.nextInt(3)));
+				}
+
+				corpus.append('\n');
+			}
+
+			corpus.append('\n');
+		}
+
+		return corpus.append("RRZ\n").toString();
+	}
+
+	private static String process(CorpusProcessor processor, String corpus) throws IOException {
+		StringWriter out = new StringWriter();
+		byte[] bytes = corpus.getBytes(StandardCharsets.US_ASCII);
+
+		try (CorpusReader reader = new CorpusReader(Channels.newChannel(new ByteArrayInputStream(bytes)))) {
+			assertEquals(201, processor.process(reader, out));
+		}
+
+		return out.toString();
+	}
+
+	@Test
+	public void testOrderedOutput() throws IOException {
+		String corpus = corpus(200, 3);
+		CorpusProcessor parallel = new CorpusProcessor(4, 100000);
+		String[] lines = process(parallel, corpus).split(System.lineSeparator());
+
+		assertEquals(201, lines.length);
+
+		for (int i = 0; i < lines.length; i++) {
+			assertTrue(lines[i], lines[i].startsWith("Board " + (i + 1) + " "));
+		}
+
+		assertTrue(lines[200].contains("invalid, unknown color 'Z'"));
+		assertEquals(process(new CorpusProcessor(1, 100000), corpus), String.join(System.lineSeparator(), lines) +
+				System.lineSeparator());
+
+		assertEquals(1, parallel.getInvalid());
+		assertEquals(200, parallel.getCount(Solution.Status.SOLVED) + parallel.getCount(Solution.Status.IMPOSSIBLE));
+		assertEquals(0, parallel.getCount(Solution.Status.UNKNOWN));
+	}
+
+	@Test
+	public void testWithoutSolving() throws IOException {
+		CorpusProcessor processor = new CorpusProcessor(2, 0);
+		String output = process(processor, corpus(200, 4));
+
+		assertFalse(output.contains("boards searched"));
+		assertTrue(output.contains("legal shots"));
+		assertEquals(0, processor.getCount(Solution.Status.SOLVED));
+		assertEquals(1, processor.getInvalid());
+	}
+}
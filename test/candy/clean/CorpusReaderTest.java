@@ -0,0 +1,91 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class CorpusReaderTest {
+
+	private static CorpusReader reader(String corpus) {
+		return new CorpusReader(Channels.newChannel(new ByteArrayInputStream(corpus.getBytes(StandardCharsets.US_ASCII))));
+	}
+
+	private static String letters(CorpusBoard read) {
+		return read.toBoard(new Score()).debugBoard();
+	}
+
+	@Test
+	public void testReadsBoards() throws IOException {
+		try (CorpusReader reader = reader("# first\r\nRRG\r\ngbe\r\n\r\n\n\n  ybpc \nW W W W\n")) {
+			CorpusBoard first = reader.next();
+			CorpusBoard second = reader.next();
+
+			assertTrue(first.isValid());
+			assertEquals(1, first.getIndex());
+			assertEquals(2, first.getLine());
+			assertEquals("RRG GBE ", letters(first));
+			assertEquals(new Board(new String[] {"RRG", "GBE"}, 3, new Score()).getHash(),
+					first.toBoard(new Score()).getHash());
+
+			assertEquals(2, second.getIndex());
+			assertEquals(7, second.getLine());
+			assertEquals("YBPC WWWW ", letters(second));
+
+			assertNull(reader.next());
+			assertNull(reader.next());
+			assertEquals(2, reader.getBoards());
+		}
+	}
+
+	@Test
+	public void testInvalidBoards() throws IOException {
+		try (CorpusReader reader = reader("RRG\nGB\n\nRXG\n\nRR\n# comment\nGG\n")) {
+			CorpusBoard shape = reader.next();
+			CorpusBoard color = reader.next();
+			CorpusBoard valid = reader.next();
+
+			assertFalse(shape.isValid());
+			assertNull(shape.toBoard(new Score()));
+			assertEquals("line 2 has 2 cells instead of 3", shape.getError());
+			assertEquals("unknown color 'X' at line 4", color.getError());
+			assertTrue(valid.isValid());
+			assertEquals("RR GG ", letters(valid));
+			assertNull(reader.next());
+		}
+	}
+
+	@Test
+	public void testLargeBoards() throws IOException {
+		StringBuilder corpus = new StringBuilder();
+
+		for (int i = 0; i <= Constants.MAX_DIMENSIONS; i++) {
+			for (int j = 0; j < 3; j++) {
+				corpus.append('R');
+			}
+
+			corpus.append('\n');
+		}
+
+		corpus.append('\n');
+
+		// Larger than the buffer of the reader.
+		for (int i = 0; i < 5000; i++) {
+			corpus.append("RG\nGR\n\n");
+		}
+
+		try (CorpusReader reader = reader(corpus.toString())) {
+			assertFalse(reader.next().isValid());
+
+			for (int i = 0; i < 5000; i++) {
+				assertEquals("RG GR ", letters(reader.next()));
+			}
+
+			assertNull(reader.next());
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FloodFillTest {
+
+	private static PackedGrid gridOf(String... rows) {
+		PackedGrid grid = new PackedGrid(rows.length, rows[0].length());
+
+		for (int i = 0; i < rows.length; i++) {
+			for (int j = 0; j < rows[i].length(); j++) {
+				grid.set(grid.index(i, j), PackedGrid.pack(rows[i].charAt(j)));
+			}
+		}
+
+		return grid;
+	}
+
+	@Test
+	public void testRegion() {
+		PackedGrid grid = gridOf("RRG", "GRG", "GRR");
+		FloodFill fill = new FloodFill(grid);
+
+		assertEquals(5, fill.fill(0, 0));
+		assertEquals(0, fill.getMinRow());
+		assertEquals(2, fill.getMaxRow());
+		assertEquals(0, fill.getMinColumn());
+		assertEquals(2, fill.getMaxColumn());
+
+		for (int i = 0; i < fill.getCount(); i++) {
+			assertEquals('R', PackedGrid.letterOf(grid.get(fill.getCell(i))));
+		}
+	}
+
+	@Test
+	public void testSingleBlock() {
+		FloodFill fill = new FloodFill(gridOf("RGB", "RBY"));
+
+		assertEquals(1, fill.fill(0, 1));
+		assertEquals(0, fill.getMinRow());
+		assertEquals(0, fill.getMaxRow());
+		assertEquals(1, fill.getMinColumn());
+		assertEquals(1, fill.getMaxColumn());
+	}
+
+	@Test
+	public void testRepeatedSearches() {
+		FloodFill fill = new FloodFill(gridOf("GGBB", "GGBB"));
+
+		for (int i = 0; i < 10; i++) {
+			assertEquals(4, fill.fill(0, 0));
+			assertEquals(4, fill.fill(1, 3));
+			assertEquals(2, fill.getMinColumn());
+		}
+	}
+
+	@Test
+	public void testFullBoard() {
+		PackedGrid grid = new PackedGrid(Constants.MAX_DIMENSIONS, Constants.MAX_DIMENSIONS);
+		FloodFill fill = new FloodFill(grid);
+
+		for (int i = 0; i < grid.getRows(); i++) {
+			for (int j = 0; j < grid.getColumns(); j++) {
+				grid.set(grid.index(i, j), PackedGrid.pack('C'));
+			}
+		}
+
+		assertEquals(grid.size(), fill.fill(17, 17));
+		assertEquals(0, fill.getMinRow());
+		assertEquals(Constants.MAX_DIMENSIONS - 1, fill.getMaxColumn());
+	}
+}
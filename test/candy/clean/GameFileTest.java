@@ -0,0 +1,100 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class GameFileTest {
+
+	private static byte[] save(CandyClean game) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		game.save(Channels.newChannel(out));
+
+		return out.toByteArray();
+	}
+
+	private static CandyClean load(byte[] bytes) throws IOException, CandyCleanException {
+		return CandyClean.load(Channels.newChannel(new ByteArrayInputStream(bytes)));
+	}
+
+	private static String failure(byte[] bytes) throws IOException {
+		try {
+			load(bytes);
+			return null;
+		} catch (CandyCleanException e) {
+			return e.getMessage();
+		}
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException, CandyCleanException {
+		CandyClean game = new CandyClean(Level.MASTER, 99);
+		MoveList moves = new MoveList(16);
+
+		for (int i = 0; i < 5 && game.generateMoves(moves) > 0; i++) {
+			game.tryShoot(moves.getRow(0), moves.getColumn(0));
+		}
+
+		byte[] first = save(game);
+		byte[] second = save(game);
+		CandyClean loaded = load(first);
+
+		assertArrayEquals(first, second);
+		// 30x30 cells in 4 bits each, plus the score and the generator.
+		assertTrue(first.length < 30 * 30 / 2 + 400);
+		assertEquals(game.debugBoard(), loaded.debugBoard());
+		assertEquals(game.getPunctuation(), loaded.getPunctuation());
+		assertEquals(game.getHash(), loaded.getHash());
+
+		game.generateMoves(moves);
+		game.tryShoot(moves.getRow(0), moves.getColumn(0));
+		loaded.tryShoot(moves.getRow(0), moves.getColumn(0));
+		assertEquals(game.debugBoard(), loaded.debugBoard());
+	}
+
+	@Test
+	public void testSaveToFile() throws IOException, CandyCleanException {
+		Path file = Files.createTempFile("game", ".sav");
+		CandyClean game = new CandyClean();
+		game.tryShoot(14, 14);
+
+		try {
+			game.save(file);
+			CandyClean loaded = CandyClean.load(file);
+
+			assertEquals(game.debugBoard(), loaded.debugBoard());
+			assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testInvalidFiles() throws IOException, CandyCleanException {
+		byte[] saved = save(new CandyClean(Level.EASY, 5));
+
+		byte[] magic = saved.clone();
+		magic[0] = 'X';
+		assertEquals("It isn't a saved game.", failure(magic));
+
+		byte[] version = saved.clone();
+		version[4] = 9;
+		assertEquals("The version 9 of the saved game isn't supported.", failure(version));
+
+		byte[] corrupted = saved.clone();
+		corrupted[10] ^= 1;
+		assertEquals("The saved game is corrupted.", failure(corrupted));
+
+		byte[] truncated = new byte[saved.length - 20];
+		System.arraycopy(saved, 0, truncated, 0, truncated.length);
+		assertNotNull(failure(truncated));
+		assertNotNull(failure(new byte[2]));
+	}
+}
@@ -0,0 +1,158 @@
+package candy.clean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class GameServerTest {
+
+	private GameServer server;
+
+	private static final class Client implements AutoCloseable {
+
+		private final Socket socket;
+
+		private final BufferedReader in;
+
+		private final PrintWriter out;
+
+		private Client(int port) throws IOException {
+			this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+			this.socket.setSoTimeout(10000);
+			this.in = new BufferedReader(new InputStreamReader(this.socket.getInputStream(), StandardCharsets.US_ASCII));
+			this.out = new PrintWriter(this.socket.getOutputStream(), true);
+		}
+
+		private String send(String command) throws IOException {
+			this.out.print(command + "\r\n");
+			this.out.flush();
+			return this.in.readLine();
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.socket.close();
+		}
+	}
+
+	private static String play(int port, long seed) throws Exception {
+		CandyClean local = new CandyClean(Level.of(1), seed);
+
+		try (Client client = new Client(port)) {
+			assertEquals("OK " + seed, client.send("NEW 1 " + seed));
+			assertEquals("BOARD 7 7 " + local.debugBoard().trim(), client.send("BOARD"));
+
+			MoveList moves = new MoveList(16);
+			local.generateMoves(moves);
+			ShotResult result = local.tryShoot(moves.getRow(0), moves.getColumn(0));
+
+			assertEquals("OK VALID " + result.getCleared() + " " + result.getScoreDelta(),
+					client.send("shoot " + moves.getRow(0) + " " + moves.getColumn(0)));
+			assertEquals("BOARD 7 7 " + local.debugBoard().trim(), client.send("BOARD"));
+			assertTrue(client.send("SCORE").startsWith("SCORE " + local.getPunctuation() + " "));
+			assertEquals("BYE", client.send("QUIT"));
+			assertNull(client.in.readLine());
+		}
+
+		return local.debugBoard();
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		this.server = new GameServer(0, 16, 64, 10000, 10000);
+		this.server.start();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		this.server.close();
+	}
+
+	@Test
+	public void testProtocol() throws Exception {
+		play(this.server.getPort(), 42);
+
+		try (Client client = new Client(this.server.getPort())) {
+			assertEquals("ERR There is no game, send NEW first.", client.send("BOARD"));
+			assertEquals("ERR Unknown command: JUMP", client.send("JUMP 1 2"));
+			assertEquals("ERR Invalid arguments: NEW x", client.send("NEW x"));
+			assertEquals("ERR Invalid arguments: NEW 99", client.send("NEW 99"));
+			assertTrue(client.send("NEW 2").startsWith("OK "));
+			assertEquals("OK OUT_OF_BOUNDS 0 0", client.send("SHOOT 100 0"));
+			assertEquals("SCORE 0 " + Level.of(2).getObjective() + " 1 0", client.send("SCORE"));
+		}
+	}
+
+	@Test
+	public void testConcurrentSessions() throws Exception {
+		ExecutorService clients = Executors.newFixedThreadPool(32);
+		List<Future<String>> games = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < 64; i++) {
+				long seed = i;
+				games.add(clients.submit(() -> play(this.server.getPort(), seed)));
+			}
+
+			for (Future<String> game : games) {
+				assertNotNull(game.get());
+			}
+		} finally {
+			clients.shutdown();
+		}
+
+		assertEquals(64, this.server.getAcceptedSessions());
+	}
+
+	@Test
+	public void testSpilledSessions() throws Exception {
+		Path directory = Files.createTempDirectory("sessions");
+		SessionStore store = new SessionStore(directory, 1);
+
+		try (GameServer spilling = new GameServer(0, 16, 8, 10000, 10000, store)) {
+			spilling.start();
+
+			for (int i = 0; i < 4; i++) {
+				play(spilling.getPort(), i);
+			}
+
+			assertTrue(store.getEvictions() >= 8);
+			assertTrue(store.getMisses() >= 8);
+		}
+
+		assertEquals(0, store.size());
+		Files.delete(directory);
+	}
+
+	@Test
+	public void testIdleTimeout() throws Exception {
+		try (GameServer idle = new GameServer(0, 16, 1, 100, 1000)) {
+			idle.start();
+
+			try (Client first = new Client(idle.getPort()); Client second = new Client(idle.getPort())) {
+				assertTrue(first.send("NEW 1").startsWith("OK "));
+				// The second client waits in the accept queue until the first session is closed for being idle.
+				assertTrue(second.send("NEW 1").startsWith("OK "));
+				assertNull(first.in.readLine());
+				assertEquals(2, idle.getAcceptedSessions());
+			}
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GravityTest {
+
+	private static PackedGrid gridOf(String... rows) {
+		PackedGrid grid = new PackedGrid(rows.length, rows[0].length());
+
+		for (int i = 0; i < rows.length; i++) {
+			for (int j = 0; j < rows[i].length(); j++) {
+				grid.set(grid.index(i, j), PackedGrid.pack(rows[i].charAt(j)));
+			}
+		}
+
+		return grid;
+	}
+
+	private static String rowsOf(PackedGrid grid) {
+		StringBuilder rows = new StringBuilder();
+
+		for (int i = 0; i < grid.getRows(); i++) {
+			for (int j = 0; j < grid.getColumns(); j++) {
+				rows.append(PackedGrid.letterOf(grid.get(grid.index(i, j))));
+			}
+
+			rows.append(' ');
+		}
+
+		return rows.toString();
+	}
+
+	private static void remove(PackedGrid grid, Gravity gravity, int row, int column) {
+		grid.set(grid.index(row, column), PackedGrid.pack('E'));
+		gravity.removed(row, column);
+	}
+
+	@Test
+	public void testCompactWithoutRefill() {
+		PackedGrid grid = gridOf("RGB", "YGB", "RRB");
+		Gravity gravity = new Gravity(grid, null);
+
+		remove(grid, gravity, 1, 0);
+		remove(grid, gravity, 2, 0);
+		remove(grid, gravity, 2, 1);
+		assertEquals(2, gravity.getDirtyCount());
+
+		assertEquals(3, gravity.apply());
+		assertEquals("EEB EGB RGB ", rowsOf(grid));
+		assertEquals(0, gravity.getDirtyCount());
+	}
+
+	@Test
+	public void testGapInTheMiddle() {
+		PackedGrid grid = gridOf("R", "G", "B", "Y");
+		Gravity gravity = new Gravity(grid, null);
+
+		remove(grid, gravity, 1, 0);
+		assertEquals(1, gravity.apply());
+		assertEquals("E R B Y ", rowsOf(grid));
+	}
+
+	@Test
+	public void testRefill() {
+		PackedGrid grid = gridOf("RGB", "YGB", "RRB");
+		Gravity gravity = new Gravity(grid, new CandySource(7, 4, 3));
+
+		for (int j = 0; j < 3; j++) {
+			remove(grid, gravity, 0, j);
+			remove(grid, gravity, 2, j);
+		}
+
+		assertEquals(6, gravity.apply());
+
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				assertFalse(PackedGrid.isBlank(grid.get(grid.index(i, j))));
+			}
+		}
+
+		assertEquals('Y', PackedGrid.letterOf(grid.get(grid.index(2, 0))));
+		assertEquals('G', PackedGrid.letterOf(grid.get(grid.index(2, 1))));
+		assertEquals('B', PackedGrid.letterOf(grid.get(grid.index(2, 2))));
+	}
+
+	@Test
+	public void testUntouchedColumns() {
+		PackedGrid grid = gridOf("RG", "RG");
+		Gravity gravity = new Gravity(grid, null);
+		long version = grid.getVersion();
+
+		assertEquals(0, gravity.apply());
+		assertEquals(version, grid.getVersion());
+	}
+}
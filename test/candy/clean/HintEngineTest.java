@@ -0,0 +1,71 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class HintEngineTest {
+
+	private static long bestPoints(Board board) {
+		MoveList moves = new MoveList(16);
+		int count = board.generateMoves(moves);
+		long best = 0;
+		long base = board.getScore().getPunctuation();
+
+		for (int i = 0; i < count; i++) {
+			Board child = board.fork();
+			child.tryShoot(moves.getRow(i), moves.getColumn(i));
+			best = Math.max(best, child.getScore().getPunctuation() - base + bestPoints(child));
+		}
+
+		return best;
+	}
+
+	@Test
+	public void testNoMoves() {
+		Board board = new Board(new String[] {"RGB", "GBR"}, 4, new Score(100));
+
+		assertNull(new HintEngine().search(board, TimeUnit.SECONDS.toNanos(1)));
+	}
+
+	@Test
+	public void testFindsTheBestSequence() {
+		String[] layout = {"RBRG", "BRBG", "RBRR", "GGBB"};
+		Board board = new Board(layout, 4, new Score(10000));
+		HintEngine engine = new HintEngine(100000, ForkJoinPool.commonPool());
+		Hint hint = engine.search(board, TimeUnit.SECONDS.toNanos(30));
+
+		assertEquals(bestPoints(new Board(layout, 4, new Score(10000))), hint.getExpectedPoints());
+		assertTrue(board.isValidShot(hint.getRow(), hint.getColumn()));
+		assertTrue(hint.getDepth() > 1);
+		assertEquals(0, board.getScore().getPunctuation());
+	}
+
+	@Test
+	public void testWithoutTime() throws CandyCleanException {
+		Board board = new CandyClean(12, 3, 2000, 8).snapshot().fork();
+		Hint hint = new HintEngine().search(board, 0);
+
+		assertNotNull(hint);
+		assertEquals(0, hint.getDepth());
+		assertTrue(board.isValidShot(hint.getRow(), hint.getColumn()));
+	}
+
+	@Test
+	public void testGameHint() throws Exception {
+		CandyClean game = new CandyClean(10, 3, 2000, 13);
+		String before = game.debugBoard();
+		Hint hint = game.hintAsync(200).get(10, TimeUnit.SECONDS);
+
+		assertEquals(before, game.debugBoard());
+		assertTrue(hint.getExpectedPoints() > 0);
+		assertTrue(hint.getEvaluated() > 0);
+
+		ShotResult result = game.tryShoot(hint.getRow(), hint.getColumn());
+		assertEquals(ShotResult.Status.VALID, result.getStatus());
+		assertNotNull(game.hint(50));
+	}
+}
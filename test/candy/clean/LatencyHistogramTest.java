@@ -0,0 +1,47 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1000000, histogram.getMax());
+		assertEquals(500000, histogram.getPercentile(50), 500000 / 8.0);
+		assertEquals(990000, histogram.getPercentile(99), 990000 / 8.0);
+		assertEquals(1000000, histogram.getPercentile(100));
+	}
+
+	@Test
+	public void testSmallValues() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+		histogram.record(3);
+
+		assertEquals(0, histogram.getPercentile(50));
+		assertEquals(3, histogram.getPercentile(100));
+		assertEquals(0, new LatencyHistogram().getPercentile(50));
+	}
+
+	@Test
+	public void testAdd() {
+		LatencyHistogram first = new LatencyHistogram();
+		LatencyHistogram second = new LatencyHistogram();
+		first.record(100);
+		second.record(Long.MAX_VALUE);
+
+		first.add(second);
+		assertEquals(2, first.getCount());
+		assertEquals(Long.MAX_VALUE, first.getMax());
+		assertEquals(Long.MAX_VALUE, first.getPercentile(100));
+	}
+}
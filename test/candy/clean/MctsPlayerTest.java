@@ -0,0 +1,71 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class MctsPlayerTest {
+
+	private static long bestPoints(Board board) {
+		MoveList moves = new MoveList(16);
+		int count = board.generateMoves(moves);
+		long best = 0;
+		long base = board.getScore().getPunctuation();
+
+		for (int i = 0; i < count; i++) {
+			Board child = board.fork();
+			child.tryShoot(moves.getRow(i), moves.getColumn(i));
+			best = Math.max(best, child.getScore().getPunctuation() - base + bestPoints(child));
+		}
+
+		return best;
+	}
+
+	@Test
+	public void testNoMoves() {
+		Board board = new Board(new String[] {"RGB", "GBR"}, 4, new Score(100));
+
+		assertNull(new MctsPlayer().chooseShot(board));
+	}
+
+	@Test
+	public void testChoosesTheBestShot() {
+		String[] layout = {"RBRG", "BRBG", "RBRR", "GGBB"};
+		Board board = new Board(layout, 4, new Score(10000));
+		MctsPlayer player = new MctsPlayer(20000, 16, ForkJoinPool.commonPool(), 7);
+		Hint shot = player.chooseShot(board);
+
+		assertEquals(0, board.getScore().getPunctuation());
+		assertTrue(board.isValidShot(shot.getRow(), shot.getColumn()));
+
+		Board after = board.fork();
+		after.tryShoot(shot.getRow(), shot.getColumn());
+		long points = after.getScore().getPunctuation() + bestPoints(after);
+
+		assertEquals(bestPoints(board), points);
+		assertEquals(20000, player.getTotalRollouts());
+		assertTrue(player.getRolloutsPerSecond() > 0);
+	}
+
+	@Test
+	public void testPlaysAGame() throws CandyCleanException {
+		CandyClean game = new CandyClean(8, 3, 2000, 21);
+		MctsPlayer player = new MctsPlayer(200, 4, new ForkJoinPool(2), 3);
+		String before = game.debugBoard();
+
+		for (int i = 0; i < 5; i++) {
+			Hint shot = player.chooseShot(game);
+
+			if (i == 0) {
+				assertEquals(before, game.debugBoard());
+			}
+
+			assertEquals(ShotResult.Status.VALID, game.tryShoot(shot.getRow(), shot.getColumn()).getStatus());
+		}
+
+		assertEquals(1000, player.getTotalRollouts());
+		assertTrue(game.getPunctuation() > 0);
+	}
+}
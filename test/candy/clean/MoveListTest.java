@@ -0,0 +1,113 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MoveListTest {
+
+	private static Board replay(long seed, List<int[]> shots) throws CandyCleanException {
+		Board board = new Board(8, 3, new Score(100000), seed);
+
+		for (int[] shot : shots) {
+			board.tryShoot(shot[0], shot[1]);
+		}
+
+		return board;
+	}
+
+	@Test
+	public void testOneMovePerGroup() {
+		Board board = new Board(new String[] {"RRG", "GRG", "GBB"}, 4, new Score(100));
+		MoveList moves = new MoveList(1);
+
+		assertEquals(4, board.generateMoves(moves));
+		assertEquals(4, moves.size());
+
+		assertEquals(0, moves.getRow(0));
+		assertEquals(0, moves.getColumn(0));
+		assertEquals(3, moves.getGroupSize(0));
+		assertEquals(3, moves.getCleared(0));
+		assertEquals(PackedGrid.colorOf('R'), moves.getColor(0));
+		assertFalse(moves.isSpecialShot(0));
+		assertEquals(30, moves.getScoreDelta(0));
+
+		assertEquals(0, moves.getRow(1));
+		assertEquals(2, moves.getColumn(1));
+		assertEquals(1, moves.getRow(2));
+		assertEquals(0, moves.getColumn(2));
+		assertEquals(2, moves.getRow(3));
+		assertEquals(1, moves.getColumn(3));
+	}
+
+	@Test
+	public void testNoMoves() {
+		Board board = new Board(new String[] {"RGB", "GBR"}, 4, new Score(100));
+		MoveList moves = new MoveList(6);
+
+		assertEquals(0, board.generateMoves(moves));
+	}
+
+	@Test
+	public void testSpecialBlocks() throws CandyCleanException {
+		Board board = new Board(new String[] {"RRRRG", "GBGBG"}, 4, new Score(100));
+		MoveList moves = new MoveList(10);
+
+		board.generateMoves(moves);
+		assertEquals(0, moves.getRow(0));
+		assertEquals(0, moves.getColumn(0));
+		assertEquals(Constants.ROW_TYPE, moves.getNewSpecial(0));
+
+		board.shoot(0, 0);
+		board.generateMoves(moves);
+
+		assertEquals(2, moves.size());
+		assertTrue(moves.isSpecialShot(0));
+		assertEquals(2, moves.getCleared(0));
+		assertEquals(1, moves.getGroupSize(0));
+		assertFalse(moves.isSpecialShot(1));
+		assertEquals(0, moves.getRow(1));
+		assertEquals(4, moves.getColumn(1));
+	}
+
+	@Test
+	public void testProjectionMatchesShots() throws CandyCleanException {
+		long seed = 42;
+		List<int[]> shots = new ArrayList<>();
+		Board board = replay(seed, shots);
+		MoveList moves = new MoveList(64);
+
+		for (int turn = 0; turn < 12; turn++) {
+			String before = board.debugBoard();
+			int count = board.generateMoves(moves);
+
+			assertEquals(before, board.debugBoard());
+			assertTrue(count > 0);
+
+			for (int i = 0; i < count; i++) {
+				Board copy = replay(seed, shots);
+				ShotResult result = copy.tryShoot(moves.getRow(i), moves.getColumn(i));
+
+				assertEquals(ShotResult.Status.VALID, result.getStatus());
+				assertEquals(moves.getCleared(i), result.getCleared());
+				assertEquals(moves.getScoreDelta(i), result.getScoreDelta());
+			}
+
+			// Shooting the special blocks first makes the chains of explosions appear in the projections.
+			int chosen = count - 1;
+
+			for (int i = 0; i < count; i++) {
+				if (moves.isSpecialShot(i) || moves.getNewSpecial(i) != Constants.NORMAL_TYPE) {
+					chosen = i;
+					break;
+				}
+			}
+
+			shots.add(new int[] {moves.getRow(chosen), moves.getColumn(chosen)});
+			board.tryShoot(moves.getRow(chosen), moves.getColumn(chosen));
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package candy.clean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PackedGridTest {
+
+	private PackedGrid grid;
+
+	@Before
+	public void setUp() {
+		grid = new PackedGrid(2, 3);
+	}
+
+	@Test
+	public void testDimensions() {
+		assertEquals(2, grid.getRows());
+		assertEquals(3, grid.getColumns());
+		assertEquals(6, grid.size());
+		assertTrue(grid.contains(1, 2));
+		assertFalse(grid.contains(2, 0));
+		assertFalse(grid.contains(0, -1));
+	}
+
+	@Test
+	public void testIndex() {
+		int index = grid.index(1, 2);
+		assertEquals(1, grid.rowOf(index));
+		assertEquals(2, grid.columnOf(index));
+		assertEquals(index + grid.getStride(), grid.index(2, 2));
+		assertTrue(grid.capacity() > grid.size());
+	}
+
+	@Test
+	public void testNeighbours() {
+		int index = grid.index(1, 1);
+		int[] offsets = grid.neighbours();
+		assertEquals(grid.index(1, 2), index + offsets[0]);
+		assertEquals(grid.index(0, 1), index + offsets[1]);
+		assertEquals(grid.index(1, 0), index + offsets[2]);
+		assertEquals(grid.index(2, 1), index + offsets[3]);
+		assertEquals(index + grid.getColumnStride(), grid.index(1, 2));
+	}
+
+	@Test
+	public void testForkCopyOnWrite() {
+		byte red = PackedGrid.pack('R');
+		byte blue = PackedGrid.pack('B');
+		grid.set(grid.index(0, 0), red);
+
+		PackedGrid fork = grid.fork();
+		assertEquals(grid.getVersion(), fork.getVersion());
+		assertEquals(red, fork.get(fork.index(0, 0)));
+		assertTrue(fork.isShared(0));
+		assertTrue(grid.isShared(0));
+
+		fork.set(fork.index(1, 0), blue);
+		assertFalse(fork.isShared(0));
+		assertTrue(fork.isShared(1));
+		assertEquals(blue, fork.get(fork.index(1, 0)));
+		assertTrue(PackedGrid.isBlank(grid.get(grid.index(1, 0))));
+
+		grid.set(grid.index(0, 0), blue);
+		assertFalse(grid.isShared(0));
+		assertEquals(red, fork.get(fork.index(0, 0)));
+		assertTrue(PackedGrid.isBorder(fork.get(fork.index(0, 3))));
+	}
+
+	@Test
+	public void testEmptyGrid() {
+		for (int i = 0; i < grid.getRows(); i++) {
+			for (int j = 0; j < grid.getColumns(); j++) {
+				assertTrue(PackedGrid.isBlank(grid.get(grid.index(i, j))));
+			}
+		}
+	}
+
+	@Test
+	public void testBorder() {
+		byte blank = grid.get(grid.index(0, 0));
+		assertTrue(PackedGrid.isBorder(grid.get(grid.index(-1, 0))));
+		assertTrue(PackedGrid.isBorder(grid.get(grid.index(0, -1))));
+		assertTrue(PackedGrid.isBorder(grid.get(grid.index(2, 2))));
+		assertTrue(PackedGrid.isBorder(grid.get(grid.index(1, 3))));
+		assertFalse(PackedGrid.sameColor(blank, grid.get(grid.index(-1, 0))));
+		assertTrue(PackedGrid.sameColor(blank, grid.get(grid.index(0, 1))));
+	}
+
+	@Test
+	public void testPackLetters() {
+		for (int i = 0; i < PackedGrid.LETTERS.length(); i++) {
+			byte cell = PackedGrid.pack(PackedGrid.LETTERS.charAt(i));
+			assertEquals(i, PackedGrid.colorOf(cell));
+			assertEquals(PackedGrid.LETTERS.charAt(i), PackedGrid.letterOf(cell));
+			assertFalse(PackedGrid.isSpecial(cell));
+		}
+
+		assertTrue(PackedGrid.isBlank(PackedGrid.pack('X')));
+	}
+
+	@Test
+	public void testPackSpecial() {
+		byte cell = PackedGrid.pack(BackgroundColor.CYAN.ordinal(), Constants.ALL_BOARD_TYPE, true);
+		assertEquals(BackgroundColor.CYAN.ordinal(), PackedGrid.colorOf(cell));
+		assertEquals(Constants.ALL_BOARD_TYPE, PackedGrid.typeOf(cell));
+		assertTrue(PackedGrid.isSpecial(cell));
+		assertFalse(PackedGrid.isBorder(cell));
+	}
+
+	@Test
+	public void testSameBlock() {
+		byte red = PackedGrid.pack('R');
+		assertTrue(PackedGrid.sameBlock(red, PackedGrid.pack('R')));
+		assertFalse(PackedGrid.sameBlock(red, PackedGrid.pack('G')));
+		assertFalse(PackedGrid.sameBlock(red, PackedGrid.pack(1, Constants.ROW_TYPE, true)));
+	}
+
+	@Test
+	public void testBlockViews() {
+		String[] stringBoard = {"RG", "BY"};
+		Board board = new Board(stringBoard, 4, new Score(100));
+		Block[][] table = board.getTable();
+
+		table[0][1].setColor('R');
+		table[1][0].setSpecialBlock(Constants.COLUMN_TYPE);
+
+		assertEquals("RR BY ", board.debugBoard());
+		assertEquals(Constants.COLUMN_TYPE, board.getTable()[1][0].getType());
+		assertTrue(board.getTable()[1][0].isSpecialBlock());
+		assertEquals(new Block('R'), board.getTable()[0][0]);
+	}
+}
@@ -0,0 +1,116 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PuzzleSolverTest {
+
+	private static boolean isClear(Board board) {
+		PackedGrid grid = board.getGrid();
+
+		for (int i = 0; i < grid.getRows(); i++) {
+			for (int j = 0; j < grid.getColumns(); j++) {
+				if (!PackedGrid.isBlank(grid.get(grid.index(i, j)))) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private static int fewestShots(Board board, int limit) {
+		if (isClear(board)) {
+			return 0;
+		}
+
+		MoveList moves = new MoveList(16);
+		int count = board.generateAllMoves(moves);
+		int best = Integer.MAX_VALUE;
+
+		for (int i = 0; i < count && limit > 0; i++) {
+			Board child = board.fork();
+			child.tryShoot(moves.getRow(i), moves.getColumn(i));
+			int shots = fewestShots(child, Math.min(limit, best) - 1);
+
+			if (shots != Integer.MAX_VALUE) {
+				best = Math.min(best, shots + 1);
+			}
+		}
+
+		return best;
+	}
+
+	private static void assertSolution(Board board, Solution solution) {
+		Board played = board.fork();
+
+		for (int i = 0; i < solution.getShotCount(); i++) {
+			ShotResult result = played.tryShoot(solution.getRow(i), solution.getColumn(i));
+			assertEquals(ShotResult.Status.VALID, result.getStatus());
+		}
+
+		assertTrue(isClear(played));
+	}
+
+	@Test
+	public void testShortestSolution() throws CandyCleanException {
+		String[][] layouts = {
+				{"RBRG", "BRBG", "RBRR", "GGBB"},
+				{"RRGB", "GGBB", "RRGB"},
+				{"RGR", "GRG", "GRG"}
+		};
+
+		for (String[] layout : layouts) {
+			Board board = new Board(layout, 4, new Score(100));
+			Solution solution = new PuzzleSolver().solve(board);
+			int expected = fewestShots(board, 12);
+
+			assertEquals(Arrays.toString(layout), expected == Integer.MAX_VALUE ? Solution.Status.IMPOSSIBLE :
+					Solution.Status.SOLVED, solution.getStatus());
+
+			if (expected != Integer.MAX_VALUE) {
+				assertEquals(expected, solution.getShotCount());
+				assertSolution(board, solution);
+			}
+
+			assertEquals(0, board.getScore().getPunctuation());
+		}
+	}
+
+	@Test
+	public void testImpossible() throws CandyCleanException {
+		Solution solution = new PuzzleSolver().solve(new Board(new String[] {"RRG"}, 2, new Score(100)));
+
+		assertEquals(Solution.Status.IMPOSSIBLE, solution.getStatus());
+		assertEquals(0, solution.getShotCount());
+
+		solution = new PuzzleSolver().solve(new Board(new String[] {"RGB", "GBR"}, 3, new Score(100)));
+		assertEquals(Solution.Status.IMPOSSIBLE, solution.getStatus());
+	}
+
+	@Test
+	public void testPredefinedBoard() throws CandyCleanException {
+		CandyClean game = new CandyClean();
+		Solution solution = new PuzzleSolver().solve(game);
+
+		assertEquals(Solution.Status.SOLVED, solution.getStatus());
+		assertEquals(2, solution.getShotCount());
+		assertSolution(game.getBoard(), solution);
+	}
+
+	@Test
+	public void testNodeLimit() throws CandyCleanException {
+		Board board = new Board(new String[] {"RBRG", "BRBG", "RBRR", "GGBB"}, 4, new Score(100));
+		Solution solution = new PuzzleSolver(16, 3).solve(board);
+
+		assertEquals(Solution.Status.UNKNOWN, solution.getStatus());
+	}
+
+	@Test(expected = CandyCleanException.class)
+	public void testRefilledBoard() throws CandyCleanException {
+		new PuzzleSolver().solve(new CandyClean(8, 3, 100, 1));
+	}
+}
@@ -0,0 +1,210 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ReplayerTest {
+
+	private static CandyClean record(Path file, int shots) throws IOException, CandyCleanException {
+		CandyClean game = new CandyClean(Level.MEDIUM, 2024);
+		Random random = new Random(7);
+		game.enableUndo(Constants.UNDO_MAX_BYTES);
+
+		try (ShotLog log = new ShotLog(file, game)) {
+			game.setShotLog(log);
+
+			for (int i = 0; i < shots; i++) {
+				int action = random.nextInt(50);
+
+				if (action == 0) {
+					game.undo();
+				} else if (action == 1) {
+					game.redo();
+				} else {
+					game.tryShoot(random.nextInt(14) - 1, random.nextInt(14) - 1);
+				}
+			}
+
+			assertEquals(shots, log.getRecords());
+		}
+
+		return game;
+	}
+
+	@Test
+	public void testReplayLongGame() throws IOException, CandyCleanException {
+		Path file = Files.createTempFile("candy", ".log");
+
+		try {
+			CandyClean game = record(file, 10000);
+			Replayer replayer = new Replayer(file);
+
+			assertEquals(10000, replayer.getRecordCount());
+			assertTrue(replayer.replay(true));
+			assertEquals(10000, replayer.getReplayed());
+			assertEquals(-1, replayer.getDivergence());
+			assertEquals(game.getPunctuation(), replayer.getGame().getPunctuation());
+			assertEquals(game.getHash(), replayer.getGame().getHash());
+			assertEquals(game.debugBoard(), replayer.getGame().debugBoard());
+			assertTrue(replayer.getElapsedNanos() < 5_000_000_000L);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testShootWithExceptionsIsRecorded() throws IOException, CandyCleanException {
+		Path file = Files.createTempFile("candy", ".log");
+
+		try {
+			CandyClean game = new CandyClean(Level.EASY, 5);
+			MoveList moves = new MoveList(16);
+
+			try (ShotLog log = new ShotLog(file, game)) {
+				game.setShotLog(log);
+				game.generateMoves(moves);
+				game.shoot(moves.getRow(0), moves.getColumn(0));
+
+				try {
+					game.shoot(-1, 0);
+					fail();
+				} catch (CandyCleanException e) {
+					assertEquals(2, log.getRecords());
+				}
+			}
+
+			Replayer replayer = new Replayer(file);
+
+			assertTrue(replayer.replay(true));
+			assertEquals(2, replayer.getReplayed());
+			assertEquals(game.debugBoard(), replayer.getGame().debugBoard());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testDivergenceAtFirstMismatch() throws IOException, CandyCleanException {
+		Path file = Files.createTempFile("candy", ".log");
+
+		try {
+			record(file, 1000);
+
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				long position = channel.size() - (1000 - 600) * ShotLog.RECORD_LENGTH + 14;
+				ByteBuffer score = ByteBuffer.allocate(8).putLong(-12345);
+				score.flip();
+				channel.write(score, position);
+			}
+
+			Replayer replayer = new Replayer(file);
+
+			assertFalse(replayer.replay(true));
+			assertEquals(600, replayer.getDivergence());
+			assertEquals(601, replayer.getReplayed());
+
+			Replayer unverified = new Replayer(file);
+
+			assertTrue(unverified.replay(false));
+			assertEquals(1000, unverified.getReplayed());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testIncompleteLastRecordIsIgnored() throws IOException, CandyCleanException {
+		Path file = Files.createTempFile("candy", ".log");
+
+		try {
+			record(file, 10);
+
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				channel.truncate(channel.size() - 3);
+			}
+
+			Replayer replayer = new Replayer(file);
+
+			assertEquals(9, replayer.getRecordCount());
+			assertTrue(replayer.replay(true));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testInvalidLog() throws IOException {
+		Path file = Files.createTempFile("candy", ".log");
+
+		try {
+			Files.write(file, new byte[] {1, 2, 3, 4, 5, 6});
+
+			try {
+				new Replayer(file);
+				fail();
+			} catch (CandyCleanException e) {
+				assertEquals("It isn't a shot log.", e.getMessage());
+			}
+
+			Files.write(file, new byte[] {0x43, 0x43, 0x52, 0x50, 1, 0});
+
+			try {
+				new Replayer(file);
+				fail();
+			} catch (CandyCleanException e) {
+				assertEquals("The saved board is incomplete.", e.getMessage());
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testAutoFlushKeepsShotsOfOpenLog() throws IOException, CandyCleanException {
+		Path file = Files.createTempFile("candy", ".log");
+		CandyClean game = new CandyClean(Level.EASY, 11);
+		ShotLog log = new ShotLog(file, game);
+
+		try {
+			long header = Files.size(file);
+			log.setAutoFlush(true);
+			game.setShotLog(log);
+			game.tryShoot(0, 0);
+			game.tryShoot(1, 1);
+
+			assertEquals(header + 2 * ShotLog.RECORD_LENGTH, Files.size(file));
+			assertEquals(2, new Replayer(file).getRecordCount());
+		} finally {
+			log.close();
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testFileForEveryGame() throws IOException {
+		Path directory = Files.createTempDirectory("candy");
+		Path base = directory.resolve("shots.log");
+
+		try {
+			Path first = ShotLog.fileFor(base, 42);
+			assertEquals(directory.resolve("shots-42.log"), first);
+
+			Files.createFile(first);
+			assertEquals(directory.resolve("shots-42-2.log"), ShotLog.fileFor(base, 42));
+			assertEquals(directory.resolve("shots-7.log"), ShotLog.fileFor(base, 7));
+			assertEquals(directory.resolve("shots-7"), ShotLog.fileFor(directory.resolve("shots"), 7));
+			Files.delete(first);
+		} finally {
+			Files.delete(directory);
+		}
+	}
+}
@@ -74,4 +74,54 @@ public class ScoreTest {
 	public void testToString() {
 		assertEquals("\nScore = 0  Objective = 100  Multiplier = x1  Current streak = 0\n", scoreObj.toString());
 	}
+
+	@Test
+	public void testApplyClear() {
+		assertEquals(50, score.applyClear(5, Constants.NORMAL_TYPE));
+		score.setMultiplier(3);
+		assertEquals(90, score.applyClear(3, Constants.ROW_TYPE));
+		assertEquals(140, score.getPunctuation());
+	}
+
+	@Test
+	public void testSameAsIncreaseScore() {
+		Score batch = new Score();
+
+		for (int shot = 0; shot < 40; shot++) {
+			for (int i = 0; i < shot % 7; i++) {
+				score.increaseScore();
+			}
+
+			batch.applyClear(shot % 7, Constants.NORMAL_TYPE);
+			score.increaseStreakUpdateMultiplier();
+			batch.increaseStreakUpdateMultiplier();
+		}
+
+		assertEquals(score.getPunctuation(), batch.getPunctuation());
+		assertEquals(score.getMultiplier(), batch.getMultiplier());
+	}
+
+	@Test
+	public void testLongScore() {
+		score.setMultiplier(Integer.MAX_VALUE);
+		score.applyClear(1000, Constants.NORMAL_TYPE);
+		assertEquals(10L * 1000 * Integer.MAX_VALUE, score.getPunctuation());
+		assertFalse(score.getPunctuation() < 0);
+	}
+
+	@Test
+	public void testExpertRules() {
+		Score expert = new Score(100, ScoringRules.EXPERT);
+		assertEquals(80, expert.applyClear(2, Constants.ALL_BOARD_TYPE));
+		assertEquals(10, expert.applyClear(1, 7));
+
+		expert.decreaseScore();
+		assertEquals(70, expert.getPunctuation());
+
+		for (int i = 0; i < 15; i++) {
+			expert.increaseStreakUpdateMultiplier();
+		}
+
+		assertEquals(1 + 3 + 3, expert.getMultiplier());
+	}
 }
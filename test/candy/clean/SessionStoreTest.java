@@ -0,0 +1,126 @@
+package candy.clean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class SessionStoreTest {
+
+	private Path directory;
+
+	private static long files(Path directory) throws IOException {
+		try (Stream<Path> list = Files.list(directory)) {
+			return list.count();
+		}
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("sessions");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		try (Stream<Path> list = Files.list(this.directory)) {
+			list.forEach(file -> file.toFile().delete());
+		}
+
+		Files.delete(this.directory);
+	}
+
+	@Test
+	public void testEvictsAndReloads() throws CandyCleanException, IOException {
+		// Room for two games of the easy level.
+		SessionStore store = new SessionStore(this.directory, 3 * 4096);
+		List<Long> ids = new ArrayList<>();
+		List<String> boards = new ArrayList<>();
+
+		for (int i = 0; i < 10; i++) {
+			CandyClean game = new CandyClean(Level.EASY, i);
+			boards.add(game.debugBoard());
+			ids.add(store.add(game));
+		}
+
+		assertEquals(10, store.size());
+		assertTrue(store.getResidentBytes() <= 3 * 4096);
+		assertTrue(store.getEvictions() >= 7);
+		assertEquals(store.getEvictions(), files(this.directory));
+
+		CandyClean first = store.acquire(ids.get(0));
+		assertEquals(boards.get(0), first.debugBoard());
+		assertEquals(1, store.getMisses());
+
+		MoveList moves = new MoveList(16);
+		first.generateMoves(moves);
+		first.tryShoot(moves.getRow(0), moves.getColumn(0));
+		String played = first.debugBoard();
+		long points = first.getPunctuation();
+		store.release(ids.get(0));
+
+		for (int i = 1; i < 10; i++) {
+			assertEquals(boards.get(i), store.acquire(ids.get(i)).debugBoard());
+			store.release(ids.get(i));
+		}
+
+		CandyClean reloaded = store.acquire(ids.get(0));
+		assertEquals(played, reloaded.debugBoard());
+		assertEquals(points, reloaded.getPunctuation());
+		store.release(ids.get(0));
+
+		assertEquals(11, store.getHits() + store.getMisses());
+		assertTrue(store.getMisses() >= 8);
+		assertTrue(store.getReloadLatency(99) > 0);
+
+		store.close();
+		assertEquals(0, store.size());
+		assertEquals(0, store.getResidentBytes());
+		assertEquals(0, files(this.directory));
+	}
+
+	@Test
+	public void testPlayedGamesStayInMemory() throws CandyCleanException {
+		SessionStore store = new SessionStore(this.directory, 1);
+		long first = store.add(new CandyClean(Level.EASY, 1));
+		assertEquals(1, store.getEvictions());
+
+		CandyClean game = store.acquire(first);
+		long second = store.add(new CandyClean(Level.EASY, 2));
+
+		assertSame(game, store.acquire(first));
+		assertEquals(2, store.getEvictions());
+		assertTrue(store.getResidentBytes() > 0);
+
+		store.release(first);
+		assertEquals(3, store.getEvictions());
+		assertEquals(0, store.getResidentBytes());
+
+		store.remove(second);
+		assertEquals(1, store.size());
+	}
+
+	@Test
+	public void testWithoutDirectory() throws CandyCleanException {
+		SessionStore store = new SessionStore(null, 1);
+
+		for (int i = 0; i < 5; i++) {
+			store.add(new CandyClean(Level.EASY, i));
+		}
+
+		assertEquals(0, store.getEvictions());
+		assertEquals(5, store.size());
+	}
+
+	@Test(expected = CandyCleanException.class)
+	public void testUnknownGame() throws CandyCleanException {
+		new SessionStore(this.directory, 1).acquire(3);
+	}
+}
@@ -0,0 +1,117 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ShotJournalTest {
+
+	@Test
+	public void testUndoRedo() throws CandyCleanException {
+		Board board = new Board(new String[] {"RRG", "GRG", "GBB"}, 4, new Score(100));
+		board.setJournal(new ShotJournal(1 << 16));
+		String before = board.debugBoard();
+
+		board.shoot(0, 0);
+		String after = board.debugBoard();
+		long points = board.getScore().getPunctuation();
+
+		assertTrue(board.undo());
+		assertEquals(before, board.debugBoard());
+		assertEquals(0, board.getScore().getPunctuation());
+		assertEquals(0, board.getScore().getStreak());
+		assertFalse(board.undo());
+
+		assertTrue(board.redo());
+		assertEquals(after, board.debugBoard());
+		assertEquals(points, board.getScore().getPunctuation());
+		assertEquals(1, board.getScore().getStreak());
+		assertFalse(board.redo());
+	}
+
+	@Test
+	public void testUndoInvalidShot() {
+		Board board = new Board(new String[] {"RGB", "GBR"}, 4, new Score(100));
+		board.setJournal(new ShotJournal(1 << 16));
+		board.getScore().restore(50, 3, 7);
+
+		board.tryShoot(0, 0);
+		assertEquals(40, board.getScore().getPunctuation());
+		assertTrue(board.undo());
+		assertEquals(50, board.getScore().getPunctuation());
+		assertEquals(3, board.getScore().getMultiplier());
+		assertEquals(7, board.getScore().getStreak());
+	}
+
+	@Test
+	public void testNewShotForgetsRedo() throws CandyCleanException {
+		Board board = new Board(new String[] {"RRG", "GRG", "GBB"}, 4, new Score(100));
+		ShotJournal journal = new ShotJournal(1 << 16);
+		board.setJournal(journal);
+
+		board.shoot(0, 0);
+		board.undo();
+		assertEquals(1, journal.getRedoCount());
+
+		board.shoot(2, 1);
+		assertEquals(0, journal.getRedoCount());
+		assertFalse(board.redo());
+		assertEquals(1, journal.getUndoCount());
+	}
+
+	@Test
+	public void testUndoRestoresNewCandies() throws CandyCleanException {
+		Board board = new Board(10, 3, new Score(100000), 17);
+		Board other = board.fork();
+		MoveList moves = new MoveList(100);
+		board.setJournal(new ShotJournal(1 << 20));
+
+		for (int turn = 0; turn < 8 && board.generateMoves(moves) > 0; turn++) {
+			board.tryShoot(moves.getRow(0), moves.getColumn(0));
+		}
+
+		while (board.undo()) {
+			// Going back to the start of the game.
+		}
+
+		assertEquals(other.debugBoard(), board.debugBoard());
+
+		// The same shots give the same candies again.
+		for (int turn = 0; turn < 4 && board.generateMoves(moves) > 0; turn++) {
+			board.tryShoot(moves.getRow(0), moves.getColumn(0));
+			other.tryShoot(moves.getRow(0), moves.getColumn(0));
+			assertEquals(other.debugBoard(), board.debugBoard());
+			assertEquals(other.getScore().getPunctuation(), board.getScore().getPunctuation());
+		}
+	}
+
+	@Test
+	public void testMemoryLimit() throws CandyCleanException {
+		Board board = new Board(10, 3, new Score(100000), 3);
+		ShotJournal journal = new ShotJournal(1024);
+		MoveList moves = new MoveList(100);
+		board.setJournal(journal);
+
+		for (int turn = 0; turn < 30 && board.generateMoves(moves) > 0; turn++) {
+			board.tryShoot(moves.getRow(0), moves.getColumn(0));
+			assertTrue(journal.getBytes() <= journal.getMaxBytes());
+		}
+
+		assertTrue(journal.getUndoCount() < 30);
+		assertTrue(journal.getUndoCount() > 0);
+	}
+
+	@Test
+	public void testGameUndo() throws CandyCleanException {
+		CandyClean game = new CandyClean(7, 3, 1000, 9);
+		MoveList moves = new MoveList(49);
+		String before = game.debugBoard();
+
+		assertFalse(game.undo());
+		game.enableUndo(Constants.UNDO_MAX_BYTES);
+		game.generateMoves(moves);
+		game.shoot(moves.getRow(0), moves.getColumn(0));
+		assertTrue(game.undo());
+		assertEquals(before, game.debugBoard());
+	}
+}
@@ -0,0 +1,53 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SimulatorTest {
+
+	@Test
+	public void testDeterministicWithAnyThreads() throws CandyCleanException {
+		SimulationReport single = new Simulator(12, 60, ShotPolicy.RANDOM, 99, 1).run(Level.EASY);
+		SimulationReport parallel = new Simulator(12, 60, ShotPolicy.RANDOM, 99, 4).run(Level.EASY);
+
+		assertEquals(12, single.getGames());
+		assertEquals(single.getTotalShots(), parallel.getTotalShots());
+		assertEquals(single.getWon(), parallel.getWon());
+
+		for (int i = 0; i < single.getGames(); i++) {
+			assertEquals(single.getScore(i), parallel.getScore(i));
+			assertEquals(single.getShots(i), parallel.getShots(i));
+		}
+	}
+
+	@Test
+	public void testShotLimit() throws CandyCleanException {
+		SimulationReport report = new Simulator(5, 3, ShotPolicy.GREEDY, 7, 2).run(Level.MEDIUM);
+		long total = 0;
+
+		for (int i = 0; i < report.getGames(); i++) {
+			assertTrue(report.getShots(i) <= 3);
+			total += report.getShots(i);
+		}
+
+		assertEquals(total, report.getTotalShots());
+		assertEquals(total, report.getLatencies().getCount());
+		assertTrue(report.getScorePercentile(0) <= report.getScorePercentile(100));
+		assertTrue(report.toString().startsWith("MEDIUM (GREEDY): 5 games"));
+	}
+
+	@Test
+	public void testGreedyPolicy() {
+		Board board = new Board(new String[] {"RRG", "GRG", "GBB"}, 4, new Score(100));
+		MoveList moves = new MoveList(9);
+		board.generateMoves(moves);
+
+		assertEquals(0, ShotPolicy.GREEDY.choose(moves, null));
+	}
+
+	@Test(expected = CandyCleanException.class)
+	public void testUnknownPolicy() throws CandyCleanException {
+		ShotPolicy.of("best");
+	}
+}
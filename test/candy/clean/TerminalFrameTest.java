@@ -0,0 +1,159 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TerminalFrameTest {
+
+	private static String text(TerminalFrame frame) {
+		return StandardCharsets.US_ASCII.decode(frame.render()).toString();
+	}
+
+	/**
+	 * Writes a frame to a screen, keeping the color of every character. Only the sequences written by the frame are
+	 * understood.
+	 */
+	private static void draw(List<List<String>> screen, String frame) {
+		int line = 0;
+		int column = 0;
+		String color = "";
+
+		for (int i = 0; i < frame.length(); i++) {
+			char c = frame.charAt(i);
+
+			if (c == '\u001B') {
+				int end = i + 2;
+
+				while (!Character.isLetter(frame.charAt(end))) {
+					end++;
+				}
+
+				String parameters = frame.substring(i + 2, end);
+
+				switch (frame.charAt(end)) {
+					case 'm':
+						color = "0".equals(parameters) ? "" : frame.substring(i, end + 1);
+						break;
+					case 'H':
+						String[] position = parameters.isEmpty() ? new String[] {"1", "1"} : parameters.split(";");
+						line = Integer.parseInt(position[0]) - 1;
+						column = Integer.parseInt(position[1]) - 1;
+						break;
+					case 'J':
+						while (screen.size() > line + 1) {
+							screen.remove(screen.size() - 1);
+						}
+					case 'K':
+						if (screen.size() > line) {
+							List<String> current = screen.get(line);
+							current.subList(Math.min(column, current.size()), current.size()).clear();
+						}
+						break;
+					default:
+						fail();
+				}
+
+				i = end;
+			} else if (c == '\n') {
+				line++;
+				column = 0;
+			} else {
+				while (screen.size() <= line) {
+					screen.add(new ArrayList<>());
+				}
+
+				List<String> current = screen.get(line);
+
+				while (current.size() <= column) {
+					current.add(" ");
+				}
+
+				current.set(column++, color + c);
+			}
+		}
+	}
+
+	@Test
+	public void testFirstFrameDrawsEverything() {
+		Board board = new Board(new String[] {"RGB", "RBY"}, 4, new Score(100));
+		TerminalFrame frame = board.newTerminalFrame();
+
+		assertFalse(frame.isValid());
+		assertEquals("\u001B[H\u001B[2J" + board + "\u001B[8;1H\u001B[J", text(frame));
+		assertTrue(frame.isValid());
+	}
+
+	@Test
+	public void testNoChanges() {
+		Board board = new Board(new String[] {"RGB", "RBY"}, 4, new Score(100));
+		TerminalFrame frame = board.newTerminalFrame();
+		text(frame);
+
+		assertEquals("\u001B[8;1H\u001B[J", text(frame));
+	}
+
+	@Test
+	public void testOnlyChangedCells() throws CandyCleanException {
+		Score score = new Score(100);
+		Board board = new Board(new String[] {"GGB", "RRY"}, 4, score);
+		TerminalFrame frame = board.newTerminalFrame();
+		text(frame);
+
+		board.shoot(1, 0);
+
+		String blank = new Block('E').toString();
+		String green = new Block('G').toString();
+		String expected = "\u001B[6;4H" + blank + blank + "\u001B[7;4H" + green + green + "\u001B[2;1H" +
+				score.toString().trim() + "\u001B[K\u001B[8;1H\u001B[J";
+		assertEquals(expected, text(frame));
+	}
+
+	@Test
+	public void testInvalidate() {
+		Board board = new Board(new String[] {"RGB", "RBY"}, 4, new Score(100));
+		TerminalFrame frame = board.newTerminalFrame();
+		String first = text(frame);
+
+		frame.invalidate();
+		assertEquals(first, text(frame));
+	}
+
+	@Test
+	public void testLargeBoardShot() throws CandyCleanException {
+		Board board = new Board(Constants.MAX_DIMENSIONS, Constants.MAX_COLORS, new Score(100), 3);
+		TerminalFrame frame = board.newTerminalFrame();
+		int full = frame.render().remaining();
+
+		board.getTable()[Constants.MAX_DIMENSIONS - 1][0].setColor('R');
+		board.getTable()[Constants.MAX_DIMENSIONS - 1][1].setColor('R');
+		text(frame);
+		board.shoot(Constants.MAX_DIMENSIONS - 1, 0);
+
+		assertTrue(frame.render().remaining() < full / 10);
+	}
+
+	@Test
+	public void testFramesKeepEveryRow() throws CandyCleanException {
+		Board board = new Board(new String[] {"GGB", "RRY"}, 4, new Score(100));
+		TerminalFrame frame = board.newTerminalFrame();
+		List<List<String>> screen = new ArrayList<>();
+
+		draw(screen, text(frame));
+		assertEquals(BoardRenderer.HEADER_LINES + 2, screen.size());
+
+		List<List<String>> expected = new ArrayList<>();
+		draw(expected, board.toString());
+		assertEquals(expected, screen);
+
+		board.shoot(1, 0);
+		draw(screen, text(frame));
+		expected.clear();
+		draw(expected, board.toString());
+		assertEquals(expected, screen);
+	}
+}
@@ -0,0 +1,91 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TranspositionTableTest {
+
+	@Test
+	public void testStoreAndProbe() {
+		TranspositionTable table = new TranspositionTable(1000);
+		assertEquals(1024, table.capacity());
+		assertEquals(TranspositionTable.MISS, table.probe(12345));
+
+		table.store(12345, -250, 7, 3 * Constants.MAX_DIMENSIONS + 4);
+		long data = table.probe(12345);
+
+		assertNotEquals(TranspositionTable.MISS, data);
+		assertEquals(-250, TranspositionTable.valueOf(data));
+		assertEquals(7, TranspositionTable.depthOf(data));
+		assertEquals(3 * Constants.MAX_DIMENSIONS + 4, TranspositionTable.moveOf(data));
+		assertEquals(TranspositionTable.MISS, table.probe(12345 + 1024));
+
+		table.clear();
+		assertEquals(TranspositionTable.MISS, table.probe(12345));
+	}
+
+	@Test
+	public void testLimits() {
+		TranspositionTable table = new TranspositionTable(16);
+		table.store(1, Long.MAX_VALUE, 1000, TranspositionTable.NO_MOVE);
+		long data = table.probe(1);
+
+		assertEquals(TranspositionTable.MAX_VALUE, TranspositionTable.valueOf(data));
+		assertEquals(TranspositionTable.MAX_DEPTH, TranspositionTable.depthOf(data));
+		assertEquals(TranspositionTable.NO_MOVE, TranspositionTable.moveOf(data));
+	}
+
+	@Test
+	public void testReplacement() {
+		TranspositionTable table = new TranspositionTable(16);
+
+		table.store(3, 10, 5, 0);
+		table.store(3 + 16, 20, 2, 0);
+		assertEquals(10, TranspositionTable.valueOf(table.probe(3)));
+		assertEquals(TranspositionTable.MISS, table.probe(3 + 16));
+
+		table.store(3, 30, 1, 0);
+		assertEquals(30, TranspositionTable.valueOf(table.probe(3)));
+
+		table.store(3 + 16, 40, 1, 0);
+		assertEquals(40, TranspositionTable.valueOf(table.probe(3 + 16)));
+		assertEquals(TranspositionTable.MISS, table.probe(3));
+	}
+
+	@Test
+	public void testConcurrentStores() throws InterruptedException {
+		TranspositionTable table = new TranspositionTable(64);
+		AtomicInteger mismatches = new AtomicInteger();
+		Thread[] threads = new Thread[4];
+
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 100000; i++) {
+					long hash = ThreadLocalRandom.current().nextLong();
+					table.store(hash, hash & 0xFFFF, 0, 0);
+					long data = table.probe(hash);
+
+					if (data != TranspositionTable.MISS && TranspositionTable.valueOf(data) != (hash & 0xFFFF)) {
+						mismatches.incrementAndGet();
+					}
+				}
+			});
+			threads[t].start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(0, mismatches.get());
+
+		for (int i = 0; i < 64; i++) {
+			long data = table.probe(i);
+			assertTrue(data == TranspositionTable.MISS || TranspositionTable.valueOf(data) == i);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package candy.clean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ZobristHashTest {
+
+	@Test
+	public void testEqualBoards() {
+		Board board = new Board(new String[] {"RRG", "GRG", "GBB"}, 4, new Score(100));
+		Board other = new Board(new String[] {"RRG", "GRG", "GBB"}, 4, new Score(500));
+		Board different = new Board(new String[] {"RRG", "GRG", "GBR"}, 4, new Score(100));
+
+		assertEquals(board.getHash(), other.getHash());
+		assertNotEquals(board.getHash(), different.getHash());
+		assertEquals(0, new Board(new String[] {"EE", "EE"}, 4, new Score(100)).getHash());
+	}
+
+	@Test
+	public void testIncrementalUpdates() throws CandyCleanException {
+		Board board = new Board(9, 3, new Score(100000), 21);
+		MoveList moves = new MoveList(81);
+		board.getHash();
+
+		for (int turn = 0; turn < 20 && board.generateMoves(moves) > 0; turn++) {
+			board.tryShoot(moves.getRow(turn % moves.size()), moves.getColumn(turn % moves.size()));
+			assertEquals(ZobristHash.computeHash(board.getGrid()), board.getHash());
+		}
+	}
+
+	@Test
+	public void testSpecialBlocks() throws CandyCleanException {
+		Board board = new Board(new String[] {"RRRRG", "GBGBG"}, 4, new Score(100));
+		Board normal = new Board(new String[] {"REEEG", "GBGBG"}, 4, new Score(100));
+
+		board.shoot(0, 0);
+		assertNotEquals(normal.getHash(), board.getHash());
+		assertEquals(ZobristHash.computeHash(board.getGrid()), board.getHash());
+	}
+
+	@Test
+	public void testSamePositionByDifferentShots() throws CandyCleanException {
+		Board first = new Board(new String[] {"RGB", "RGB"}, 4, new Score(100));
+		Board second = new Board(new String[] {"RGB", "RGB"}, 4, new Score(100));
+
+		first.shoot(0, 0);
+		first.shoot(0, 1);
+		second.shoot(0, 1);
+		second.shoot(0, 0);
+		assertEquals(first.getHash(), second.getHash());
+	}
+
+	@Test
+	public void testForkAndUndo() throws CandyCleanException {
+		Board board = new Board(8, 3, new Score(100000), 4);
+		MoveList moves = new MoveList(64);
+		long start = board.getHash();
+		board.setJournal(new ShotJournal(1 << 16));
+
+		board.generateMoves(moves);
+		board.shoot(moves.getRow(0), moves.getColumn(0));
+
+		Board fork = board.fork();
+		assertEquals(board.getHash(), fork.getHash());
+		assertNotEquals(start, board.getHash());
+
+		fork.generateMoves(moves);
+		fork.shoot(moves.getRow(0), moves.getColumn(0));
+		assertEquals(ZobristHash.computeHash(fork.getGrid()), fork.getHash());
+
+		board.undo();
+		assertEquals(start, board.getHash());
+	}
+
+	@Test
+	public void testBoardsLargerThanTheLevels() throws CandyCleanException {
+		String empty = new String(new char[36]).replace('\0', 'E');
+		Board right = new Board(new String[] {empty.substring(1) + "R", empty}, 4, new Score(100));
+		Board below = new Board(new String[] {empty, "R" + empty.substring(1)}, 4, new Score(100));
+
+		assertNotEquals(right.getHash(), below.getHash());
+
+		String[] layout = new String[40];
+
+		for (int i = 0; i < layout.length; i++) {
+			layout[i] = new String(new char[40]).replace('\0', i % 2 == 0 ? 'R' : 'G');
+		}
+
+		Board large = new Board(layout, 4, new Score(100));
+
+		assertEquals(ZobristHash.computeHash(large.getGrid()), large.getHash());
+		large.shoot(39, 39);
+		assertEquals(ZobristHash.computeHash(large.getGrid()), large.getHash());
+	}
+}